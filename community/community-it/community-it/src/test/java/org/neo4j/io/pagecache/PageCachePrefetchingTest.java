@@ -25,6 +25,7 @@ import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAM
 import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_CONTEXT_SUPPLIER;
 import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.defaultFormat;
+import static org.neo4j.test.utils.PageCacheConfig.config;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -43,10 +44,13 @@ import org.neo4j.kernel.impl.store.format.RecordFormat;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.pagecache.PageCacheExtension;
+import org.neo4j.test.extension.pagecache.PageCacheSupportExtension;
 import org.neo4j.test.utils.TestDirectory;
 
 @PageCacheExtension
 class PageCachePrefetchingTest {
+    private static final int PAGES = 6_000;
+
     @Inject
     TestDirectory dir;
 
@@ -59,6 +63,7 @@ class PageCachePrefetchingTest {
     private Path file;
     private CursorContext cursorContext;
     private Consumer<PageCursor> scanner;
+    private long step = 1;
 
     @BeforeEach
     void setUp() {
@@ -81,6 +86,54 @@ class PageCachePrefetchingTest {
 
     @Test
     void scanningWithPreFetchMustGiveScannerFewerPageFaultsWhenScannerIsSlow() throws Exception {
+        scanner = slowScanner();
+
+        runScan(file, cursorContext, "Warmup", PF_READ_AHEAD);
+        long faultsWithPreFetch = runScan(file, cursorContext, "Scanner With Prefetch", PF_READ_AHEAD);
+        long faultsWithoutPreFetch = runScan(file, cursorContext, "Scanner Without Prefetch", 0);
+
+        assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
+    }
+
+    @Test
+    void backwardsScanWithPreFetchMustGiveScannerFewerPageFaults() throws Exception {
+        scanner = slowScanner();
+        step = -1;
+
+        runScan(file, cursorContext, "Warmup", PF_READ_AHEAD);
+        long faultsWithPreFetch = runScan(file, cursorContext, "Scanner With Prefetch", PF_READ_AHEAD);
+        long faultsWithoutPreFetch = runScan(file, cursorContext, "Scanner Without Prefetch", 0);
+
+        assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
+    }
+
+    @Test
+    void stridedScanWithPreFetchMustGiveScannerFewerPageFaults() throws Exception {
+        scanner = slowScanner();
+        step = 3;
+
+        runScan(file, cursorContext, "Warmup", PF_READ_AHEAD);
+        long faultsWithPreFetch = runScan(file, cursorContext, "Scanner With Prefetch", PF_READ_AHEAD);
+        long faultsWithoutPreFetch = runScan(file, cursorContext, "Scanner Without Prefetch", 0);
+
+        assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
+    }
+
+    @Test
+    void preFetcherMustReportPreFetchedPagesReachedByScannerAsHits() throws Exception {
+        scanner = slowScanner();
+        var tracer = new DefaultPageCacheTracer();
+        try (PageCache tracedPageCache = PageCacheSupportExtension.getPageCache(fs, config().withTracer(tracer));
+                PagedFile pagedFile = map(tracedPageCache, file)) {
+            for (int i = 0; i < 5; i++) {
+                writeToFile(pagedFile, cursorContext, PF_READ_AHEAD);
+            }
+        }
+
+        assertThat(tracer.preFetchHits()).as("pre-fetch hits").isGreaterThan(0);
+    }
+
+    private Consumer<PageCursor> slowScanner() {
         RecordFormat<RelationshipRecord> format = defaultFormat().relationship();
         RelationshipRecord record = format.newRecord();
         int recordSize = format.getRecordSize(NoStoreHeader.NO_STORE_HEADER);
@@ -88,7 +141,7 @@ class PageCachePrefetchingTest {
         SplittableRandom rng = new SplittableRandom(13);
 
         // This scanner is a bit on the slow side:
-        scanner = cursor -> {
+        return cursor -> {
             for (int j = 0; j < recordsPerPage; j++) {
                 try {
                     record.initialize(
@@ -109,12 +162,6 @@ class PageCachePrefetchingTest {
                 }
             }
         };
-
-        runScan(file, cursorContext, "Warmup", PF_READ_AHEAD);
-        long faultsWithPreFetch = runScan(file, cursorContext, "Scanner With Prefetch", PF_READ_AHEAD);
-        long faultsWithoutPreFetch = runScan(file, cursorContext, "Scanner Without Prefetch", 0);
-
-        assertThat(faultsWithPreFetch).as("faults").isLessThan(faultsWithoutPreFetch);
     }
 
     private long runScan(Path file, CursorContext cursorContext, String threadName, int additionalPfFlags)
@@ -153,11 +200,7 @@ class PageCachePrefetchingTest {
     }
 
     private void writeToFile(Path file, CursorContext cursorContext, int additionalPfFlags) throws IOException {
-        try (PagedFile pagedFile = pageCache.map(
-                file,
-                PageCache.PAGE_SIZE,
-                DEFAULT_DATABASE_NAME,
-                immutable.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE))) {
+        try (PagedFile pagedFile = map(pageCache, file)) {
             for (int i = 0; i < 5; i++) {
                 writeToFile(pagedFile, cursorContext, additionalPfFlags);
             }
@@ -167,10 +210,20 @@ class PageCachePrefetchingTest {
     private void writeToFile(PagedFile pagedFile, CursorContext cursorContext, int additionalPfFlags)
             throws IOException {
         try (PageCursor cursor = pagedFile.io(0, PagedFile.PF_SHARED_WRITE_LOCK | additionalPfFlags, cursorContext)) {
-            for (int i = 0; i < 6_000; i++) {
-                cursor.next();
+            long pageId = step > 0 ? 0 : PAGES - 1;
+            for (long i = 0; i < PAGES / Math.abs(step); i++) {
+                cursor.next(pageId);
                 scanner.accept(cursor);
+                pageId += step;
             }
         }
     }
+
+    private static PagedFile map(PageCache pageCache, Path file) throws IOException {
+        return pageCache.map(
+                file,
+                PageCache.PAGE_SIZE,
+                DEFAULT_DATABASE_NAME,
+                immutable.of(StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
 }
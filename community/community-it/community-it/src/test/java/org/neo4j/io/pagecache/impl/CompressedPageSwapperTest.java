@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.io.pagecache.IOController.DISABLED;
+import static org.neo4j.io.pagecache.impl.muninn.EvictionBouncer.ALWAYS_ALLOW;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@TestDirectoryExtension
+class CompressedPageSwapperTest {
+    private static final int PAGE_SIZE = 4096;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private final SwapperSet swappers = new SwapperSet();
+    private final List<PageSwapper> openSwappers = new ArrayList<>();
+    private PageSwapperFactory factory;
+    private Path file;
+    private long buffer;
+
+    @BeforeEach
+    void setUp() {
+        factory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, INSTANCE);
+        file = testDirectory.file("compressed");
+        buffer = UnsafeUtil.allocateMemory(PAGE_SIZE, INSTANCE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (PageSwapper swapper : openSwappers) {
+            swapper.close();
+        }
+        UnsafeUtil.free(buffer, PAGE_SIZE, INSTANCE);
+    }
+
+    @Test
+    void mustReadBackWrittenPages() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        byte[] random = randomBytes();
+        writePage(swapper, 0, filled(1));
+        writePage(swapper, 1, random);
+        writePage(swapper, 5, filled(5));
+
+        assertThat(swapper.getLastPageId()).isEqualTo(5);
+        assertThat(readPage(swapper, 0)).isEqualTo(filled(1));
+        assertThat(readPage(swapper, 1)).isEqualTo(random);
+        assertThat(readPage(swapper, 5)).isEqualTo(filled(5));
+    }
+
+    @Test
+    void pagesInsideFileThatWereNeverWrittenMustReadAsZeros() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        writePage(swapper, 3, filled(3));
+
+        fill(buffer, (byte) 7);
+        assertThat(swapper.read(1, buffer)).isEqualTo(PAGE_SIZE);
+        assertThat(copy(buffer)).isEqualTo(new byte[PAGE_SIZE]);
+
+        fill(buffer, (byte) 7);
+        assertThat(swapper.read(4, buffer)).isZero();
+        assertThat(copy(buffer)).isEqualTo(new byte[PAGE_SIZE]);
+    }
+
+    @Test
+    void compressiblePagesMustTakeLessSpaceOnDisk() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        int pages = 32;
+        for (int pageId = 0; pageId < pages; pageId++) {
+            writePage(swapper, pageId, filled(pageId));
+        }
+        swapper.force();
+
+        assertThat(fs.getFileSize(file)).isLessThan((long) pages * PAGE_SIZE / 4);
+    }
+
+    @Test
+    void latestVersionOfEveryPageMustSurviveReopen() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        byte[] random = randomBytes();
+        writePage(swapper, 0, filled(1));
+        writePage(swapper, 1, filled(2));
+        swapper.force();
+        writePage(swapper, 0, random);
+        writePage(swapper, 1, filled(3));
+        swapper.force();
+        // Reuses the records freed by the force above
+        writePage(swapper, 2, filled(4));
+        swapper.force();
+        swapper.close();
+
+        PageSwapper reopened = createSwapper(false);
+        assertThat(reopened.getLastPageId()).isEqualTo(2);
+        assertThat(readPage(reopened, 0)).isEqualTo(random);
+        assertThat(readPage(reopened, 1)).isEqualTo(filled(3));
+        assertThat(readPage(reopened, 2)).isEqualTo(filled(4));
+    }
+
+    @Test
+    void tornWriteMustFallBackToLastDurableVersionOnReopen() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        writePage(swapper, 0, filled(1));
+        swapper.force();
+        long endOfDurableRecords = fs.getFileSize(file);
+        writePage(swapper, 0, randomBytes());
+        swapper.close();
+
+        // Corrupt the page data of the new version, as if the write never completed, and drop the index written on
+        // close, as if the file was never closed
+        try (StoreChannel channel = fs.write(file)) {
+            channel.writeAll(ByteBuffer.wrap(new byte[] {1, 2, 3}), endOfDurableRecords + 64);
+            channel.writeAll(ByteBuffer.allocate(Long.BYTES), CompressedPageSwapper.HEADER_INDEX_OFFSET_OFFSET);
+        }
+
+        PageSwapper reopened = createSwapper(false);
+        assertThat(readPage(reopened, 0)).isEqualTo(filled(1));
+    }
+
+    @Test
+    void truncatedPagesMustNotComeBackOnReopen() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        for (int pageId = 0; pageId < 4; pageId++) {
+            writePage(swapper, pageId, filled(pageId + 1));
+        }
+        swapper.force();
+        writePage(swapper, 3, filled(9));
+        swapper.force();
+
+        swapper.truncate(2L * PAGE_SIZE);
+        assertThat(swapper.getLastPageId()).isEqualTo(1);
+        swapper.close();
+
+        PageSwapper reopened = createSwapper(false);
+        assertThat(reopened.getLastPageId()).isEqualTo(1);
+        assertThat(readPage(reopened, 1)).isEqualTo(filled(2));
+        assertThat(reopened.read(3, buffer)).isZero();
+
+        reopened.truncate();
+        assertThat(reopened.getLastPageId()).isEqualTo(-1);
+        reopened.close();
+        assertThat(createSwapper(false).getLastPageId()).isEqualTo(-1);
+    }
+
+    @Test
+    void cleanlyClosedFileMustReopenWithItsFreeRecords() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        for (int pageId = 0; pageId < 4; pageId++) {
+            writePage(swapper, pageId, filled(pageId + 1));
+        }
+        swapper.force();
+        writePage(swapper, 1, filled(7));
+        writePage(swapper, 2, filled(8));
+        swapper.close();
+
+        PageSwapper reopened = createSwapper(false);
+        long sizeAfterReopen = fs.getFileSize(file);
+        assertThat(reopened.getLastPageId()).isEqualTo(3);
+        assertThat(readPage(reopened, 0)).isEqualTo(filled(1));
+        assertThat(readPage(reopened, 1)).isEqualTo(filled(7));
+        assertThat(readPage(reopened, 2)).isEqualTo(filled(8));
+        assertThat(readPage(reopened, 3)).isEqualTo(filled(4));
+        // The records of the superseded versions are free, so rewriting these pages must not grow the file
+        writePage(reopened, 1, filled(9));
+        writePage(reopened, 2, filled(10));
+        reopened.force();
+        assertThat(fs.getFileSize(file)).isEqualTo(sizeAfterReopen);
+    }
+
+    @Test
+    void compressedFileMustBeRecognisedByItsHeader() throws IOException {
+        PageSwapper swapper = createSwapper(true);
+        writePage(swapper, 0, filled(1));
+        swapper.close();
+
+        assertThat(CompressedPageSwapper.isCompressedFile(fs, file)).isTrue();
+    }
+
+    @Test
+    void factoriesWithoutCompressionMustRefuseToMapCompressed() {
+        PageSwapperFactory plainFactory =
+                (path,
+                        filePageSize,
+                        onEviction,
+                        createIfNotExist,
+                        useDirectIO,
+                        ioController,
+                        evictionBouncer,
+                        swapperSet) -> factory.createPageSwapper(
+                        path,
+                        filePageSize,
+                        onEviction,
+                        createIfNotExist,
+                        useDirectIO,
+                        ioController,
+                        evictionBouncer,
+                        swapperSet);
+
+        IOException e = assertThrows(
+                IOException.class,
+                () -> plainFactory.createCompressedPageSwapper(
+                        file, PAGE_SIZE, filePageId -> {}, true, DISABLED, ALWAYS_ALLOW, swappers));
+        assertThat(e).hasMessageContaining("compression is not supported");
+    }
+
+    @Test
+    void existingFilesThatAreNotCompressedMustStayUncompressed() throws IOException {
+        try (StoreChannel channel = fs.write(file)) {
+            channel.writeAll(ByteBuffer.wrap(filled(1)));
+        }
+
+        PageSwapper swapper = createSwapper(false);
+        assertThat(swapper).isInstanceOf(SingleFilePageSwapper.class);
+        assertThat(readPage(swapper, 0)).isEqualTo(filled(1));
+    }
+
+    @Test
+    void mustThrowIfFileDoesNotExist() {
+        assertThrows(NoSuchFileException.class, () -> createSwapper(false));
+    }
+
+    private PageSwapper createSwapper(boolean createIfNotExist) throws IOException {
+        PageSwapper swapper = factory.createCompressedPageSwapper(
+                file, PAGE_SIZE, filePageId -> {}, createIfNotExist, DISABLED, ALWAYS_ALLOW, swappers);
+        openSwappers.add(swapper);
+        return swapper;
+    }
+
+    private void writePage(PageSwapper swapper, long filePageId, byte[] data) throws IOException {
+        UnsafeUtil.copyMemory(data, UnsafeUtil.arrayBaseOffset(byte[].class), null, buffer, PAGE_SIZE);
+        assertThat(swapper.write(filePageId, buffer)).isEqualTo(PAGE_SIZE);
+    }
+
+    private byte[] readPage(PageSwapper swapper, long filePageId) throws IOException {
+        fill(buffer, (byte) 0);
+        assertThat(swapper.read(filePageId, buffer)).isEqualTo(PAGE_SIZE);
+        return copy(buffer);
+    }
+
+    private static byte[] copy(long address) {
+        byte[] data = new byte[PAGE_SIZE];
+        UnsafeUtil.copyMemory(null, address, data, UnsafeUtil.arrayBaseOffset(byte[].class), PAGE_SIZE);
+        return data;
+    }
+
+    private static void fill(long address, byte value) {
+        UnsafeUtil.setMemory(address, PAGE_SIZE, value);
+    }
+
+    private static byte[] filled(int value) {
+        byte[] data = new byte[PAGE_SIZE];
+        for (int i = 0; i < PAGE_SIZE; i += Integer.BYTES) {
+            ByteBuffer.wrap(data).putInt(i, value * 31 + i / 256);
+        }
+        return data;
+    }
+
+    private static byte[] randomBytes() {
+        byte[] data = new byte[PAGE_SIZE];
+        ThreadLocalRandom.current().nextBytes(data);
+        return data;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+
+/**
+ * Runs the single file swapper tests against real files, so that vectored reads and writes go through io_uring.
+ */
+@EnabledOnOs(OS.LINUX)
+class IoUringPageSwapperTest extends SingleFilePageSwapperTest {
+    @BeforeAll
+    static void assumeIoUringAvailable() {
+        assumeTrue(IoUringPageSwapperFactory.isAvailable(), IoUringPageSwapperFactory::describeAvailability);
+    }
+
+    @Override
+    protected PageSwapperFactory swapperFactory(FileSystemAbstraction fileSystem) {
+        return new IoUringPageSwapperFactory(fileSystem, new DefaultPageCacheTracer(), EmptyMemoryTracker.INSTANCE);
+    }
+
+    @Override
+    protected Path getPath() {
+        return testDir.file("file");
+    }
+
+    @Override
+    protected FileSystemAbstraction getFs() {
+        return getRealFileSystem();
+    }
+
+    @Test
+    void vectoredReadsAndWritesMustUsePooledRingsThatAreReleasedWhenFactoryIsClosed() throws IOException {
+        long ringsBefore = openRings();
+        PageSwapperFactory factory = createSwapperFactory(getFs());
+        PageSwapper swapper = createSwapper(factory, getPath(), PAYLOAD_SIZE, NO_CALLBACK, true);
+        long[] pages = {createPage(cachePageSize), createPage(cachePageSize)};
+        int[] pageSizes = {cachePageSize, cachePageSize};
+        putLong(pages[0], 0, X);
+        putLong(pages[1], 0, Y);
+
+        assertThat(swapper.write(0, pages, pageSizes, 2, 2)).isEqualTo(2L * cachePageSize);
+        clear(pages[0]);
+        clear(pages[1]);
+        assertThat(swapper.read(0, pages, pageSizes, 2)).isEqualTo(2L * cachePageSize);
+        assertThat(getLong(pages[0], 0)).isEqualTo(X);
+        assertThat(getLong(pages[1], 0)).isEqualTo(Y);
+        assertThat(openRings()).isGreaterThan(ringsBefore);
+
+        swapper.close();
+        factory.close();
+        assertThat(openRings()).isEqualTo(ringsBefore);
+    }
+
+    private static long openRings() throws IOException {
+        try (Stream<Path> descriptors = Files.list(Path.of("/proc/self/fd"))) {
+            return descriptors.filter(IoUringPageSwapperTest::isRing).count();
+        }
+    }
+
+    private static boolean isRing(Path descriptor) {
+        try {
+            return Files.readSymbolicLink(descriptor).toString().contains("io_uring");
+        } catch (IOException e) {
+            return false; // closed while listing
+        }
+    }
+}
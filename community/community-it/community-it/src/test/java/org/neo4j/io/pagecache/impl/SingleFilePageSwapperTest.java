@@ -33,6 +33,7 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.internal.helpers.ProcessUtils.start;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
 
+import com.sun.nio.file.ExtendedOpenOption;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,8 +42,12 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.FileSystemException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -55,11 +60,16 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledOnOs;
 import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.function.ThrowingSupplier;
 import org.neo4j.adversaries.RandomAdversary;
 import org.neo4j.adversaries.fs.AdversarialFileSystemAbstraction;
 import org.neo4j.internal.helpers.NamedThreadFactory;
+import org.neo4j.internal.nativeimpl.AbsentNativeAccess;
+import org.neo4j.internal.nativeimpl.LinuxNativeAccess;
+import org.neo4j.internal.nativeimpl.NativeAccessFactory;
+import org.neo4j.internal.nativeimpl.NativeCallResult;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
@@ -572,6 +582,146 @@ public class SingleFilePageSwapperTest extends PageSwapperTest {
         assertThat(openFilesCounter.get()).isEqualTo(0);
     }
 
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void directIOMustFallBackToEvictingFromOsCacheWhenFileSystemRejectsDirectIO() throws Exception {
+        AtomicInteger evictedRegions = new AtomicInteger();
+        AtomicInteger evictedFiles = new AtomicInteger();
+        var nativeAccess = new LinuxNativeAccess() {
+            @Override
+            public NativeCallResult tryEvictFromCache(int fd) {
+                evictedFiles.getAndIncrement();
+                return super.tryEvictFromCache(fd);
+            }
+
+            @Override
+            public NativeCallResult tryEvictFromCache(int fd, long offset, long length) {
+                evictedRegions.getAndIncrement();
+                return super.tryEvictFromCache(fd, offset, length);
+            }
+        };
+        var noDirectIOFileSystem = rejectingDirectIO(new FileSystemException(null, null, "Invalid argument"));
+        List<Path> unsupportedFiles = new ArrayList<>();
+        var factory =
+                new SingleFilePageSwapperFactory(
+                        noDirectIOFileSystem,
+                        new DefaultPageCacheTracer(),
+                        INSTANCE,
+                        (file, cause) -> unsupportedFiles.add(file)) {
+                    @Override
+                    protected NativeAccessFactory nativeAccessFactory() {
+                        return file -> nativeAccess;
+                    }
+                };
+        Path file = testDir.file("file");
+        fileSystem.write(file).close();
+        int pageSize = (int) fileSystem.getBlockSize(file);
+
+        PageSwapper swapper = createSwapper(factory, file, pageSize, NO_CALLBACK, false, true);
+        assertThat(swapper.toString()).contains("directIO=evict from OS cache");
+        assertThat(unsupportedFiles).containsExactly(file);
+
+        long page = createPage(pageSize);
+        putLong(page, 0, X);
+        swapper.write(0, page);
+        swapper.force();
+        assertThat(evictedFiles.get()).isEqualTo(1);
+
+        clear(page);
+        assertThat(swapper.read(0, page)).isEqualTo(pageSize);
+        assertThat(getLong(page, 0)).isEqualTo(X);
+        assertThat(evictedRegions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void directIOMustNotFallBackWithoutNativeAccess() throws Exception {
+        var noDirectIOFileSystem = rejectingDirectIO(new FileSystemException(null, null, "Invalid argument"));
+        var factory = new SingleFilePageSwapperFactory(noDirectIOFileSystem, new DefaultPageCacheTracer(), INSTANCE) {
+            @Override
+            protected NativeAccessFactory nativeAccessFactory() {
+                return file -> new AbsentNativeAccess();
+            }
+        };
+        Path file = testDir.file("file");
+        fileSystem.write(file).close();
+        int pageSize = (int) fileSystem.getBlockSize(file);
+
+        var e = assertThrows(IOException.class, () -> createSwapper(factory, file, pageSize, NO_CALLBACK, false, true));
+        assertThat(e.getMessage()).contains("Invalid argument");
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void directIOMustNotFallBackOnFailuresUnrelatedToDirectIO() throws Exception {
+        List<Path> unsupportedFiles = new ArrayList<>();
+        Path file = testDir.file("file");
+        fileSystem.write(file).close();
+        int pageSize = (int) fileSystem.getBlockSize(file);
+
+        for (IOException failure : List.of(
+                new AccessDeniedException(file.toString()),
+                new FileSystemException(file.toString(), null, "Too many open files"),
+                new IOException("Input/output error"))) {
+            var factory =
+                    new SingleFilePageSwapperFactory(
+                            rejectingDirectIO(failure),
+                            new DefaultPageCacheTracer(),
+                            INSTANCE,
+                            (f, cause) -> unsupportedFiles.add(f)) {
+                        @Override
+                        protected NativeAccessFactory nativeAccessFactory() {
+                            return f -> new LinuxNativeAccess();
+                        }
+                    };
+
+            var e = assertThrows(
+                    IOException.class, () -> createSwapper(factory, file, pageSize, NO_CALLBACK, false, true));
+            assertThat(e).isSameAs(failure);
+        }
+        assertThat(unsupportedFiles).isEmpty();
+    }
+
+    private DelegatingFileSystemAbstraction rejectingDirectIO(IOException failure) {
+        return new DelegatingFileSystemAbstraction(fileSystem) {
+            @Override
+            public StoreChannel open(Path fileName, Set<OpenOption> options) throws IOException {
+                if (options.contains(ExtendedOpenOption.DIRECT)) {
+                    throw failure;
+                }
+                return super.open(fileName, options);
+            }
+        };
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void directIOMustTransferUnalignedBuffersThroughAlignedCopies() throws Exception {
+        PageSwapperFactory factory = createSwapperFactory(fileSystem);
+        Path file = testDir.file("file");
+        fileSystem.write(file).close();
+        int pageSize = (int) fileSystem.getBlockSize(file);
+        PageSwapper swapper = createSwapper(factory, file, pageSize, NO_CALLBACK, false, true);
+        assumeThat(swapper.toString()).contains("directIO=true");
+
+        long[] pages = {unalignedPage(pageSize), unalignedPage(pageSize)};
+        int[] pageSizes = {pageSize, pageSize};
+        putLong(pages[0], 0, X);
+        putLong(pages[1], pageSize - Long.BYTES, Y);
+        assertThat(swapper.write(0, pages, pageSizes, 2, 2)).isEqualTo(2L * pageSize);
+
+        UnsafeUtil.setMemory(pages[0], pageSize, (byte) 0);
+        UnsafeUtil.setMemory(pages[1], pageSize, (byte) 0);
+        assertThat(swapper.read(0, pages, pageSizes, 2)).isEqualTo(2L * pageSize);
+        assertThat(getLong(pages[0], 0)).isEqualTo(X);
+        assertThat(getLong(pages[1], pageSize - Long.BYTES)).isEqualTo(Y);
+    }
+
+    private long unalignedPage(int pageSize) {
+        long page = createPage(pageSize + 1);
+        return page % 2 == 0 ? page + 1 : page;
+    }
+
     private static byte[] array(long address) {
         int size = sizeOfAsInt(address);
         byte[] array = new byte[size];
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.test.Race;
+
+class FrequencySketchTest {
+    @Test
+    void unseenKeyHasNoFrequency() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        assertThat(sketch.frequency(42)).isZero();
+    }
+
+    @Test
+    void incrementMustIncreaseFrequency() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        assertThat(sketch.increment(42)).isEqualTo(1);
+        assertThat(sketch.increment(42)).isEqualTo(2);
+        assertThat(sketch.frequency(42)).isEqualTo(2);
+    }
+
+    @Test
+    void frequencyMustSaturate() {
+        FrequencySketch sketch = new FrequencySketch(100);
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42)).isEqualTo(FrequencySketch.MAX_FREQUENCY);
+    }
+
+    @Test
+    void mustAgeFrequenciesOnceSampleIsFull() {
+        int expectedKeys = 100;
+        FrequencySketch sketch = new FrequencySketch(expectedKeys);
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(42);
+        }
+        assertThat(sketch.frequency(42)).isEqualTo(8);
+
+        sketch.ageIfDue();
+        assertThat(sketch.frequency(42)).isEqualTo(8);
+
+        // Ten increments per expected key fill up the sample, after which ageing halves all frequencies.
+        for (int key = 1_000; key < 1_000 + 10 * expectedKeys; key++) {
+            sketch.increment(key);
+        }
+        assertThat(sketch.frequency(42)).isGreaterThanOrEqualTo(8);
+        sketch.ageIfDue();
+        assertThat(sketch.frequency(42)).isLessThan(8);
+    }
+
+    @Test
+    void mustNotLoseConcurrentIncrements() throws Throwable {
+        FrequencySketch sketch = new FrequencySketch(100);
+        Race race = new Race();
+        race.addContestants(4, () -> {
+            for (int i = 0; i < 3; i++) {
+                sketch.increment(42);
+            }
+        });
+        race.go();
+        assertThat(sketch.frequency(42)).isEqualTo(12);
+    }
+
+    @Test
+    void frequentKeysMustStandOutFromScannedKeys() {
+        FrequencySketch sketch = new FrequencySketch(1_000);
+        for (int i = 0; i < 10; i++) {
+            sketch.increment(7);
+        }
+        for (int key = 100; key < 1_100; key++) {
+            sketch.increment(key);
+        }
+        assertThat(sketch.frequency(7)).isGreaterThanOrEqualTo(10);
+        int scannedAboveTwo = 0;
+        for (int key = 100; key < 1_100; key++) {
+            if (sketch.frequency(key) > 2) {
+                scannedAboveTwo++;
+            }
+        }
+        assertThat(scannedAboveTwo).isLessThan(10);
+    }
+}
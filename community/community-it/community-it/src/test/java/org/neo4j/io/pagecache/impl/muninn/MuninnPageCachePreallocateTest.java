@@ -27,6 +27,7 @@ import static org.mockito.Mockito.when;
 import static org.neo4j.configuration.GraphDatabaseSettings.DEFAULT_DATABASE_NAME;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,7 +36,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.Neo4jLayout;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageEvictionCallback;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
@@ -144,19 +147,42 @@ class MuninnPageCacheExplicitPreallocateTest {
         var allocator = MemoryAllocator.createAllocator(memory, memoryTracker);
         MuninnPageCache.Configuration configuration =
                 MuninnPageCache.config(allocator).preallocateStoreFiles(automaticPreAllocation);
-        PageSwapperFactory pageSwapperFactory =
-                (path,
+        PageSwapperFactory pageSwapperFactory = new PageSwapperFactory() {
+            @Override
+            public PageSwapper createPageSwapper(
+                    Path path,
+                    int filePageSize,
+                    PageEvictionCallback onEviction,
+                    boolean createIfNotExist,
+                    boolean useDirectIO,
+                    IOController ioController,
+                    EvictionBouncer evictionBouncer,
+                    SwapperSet swappers) {
+                when(swapper.swapperId()).thenReturn(swappers.allocate(swapper));
+                when(swapper.path()).thenReturn(path);
+                return swapper;
+            }
+
+            @Override
+            public PageSwapper createCompressedPageSwapper(
+                    Path path,
+                    int filePageSize,
+                    PageEvictionCallback onEviction,
+                    boolean createIfNotExist,
+                    IOController ioController,
+                    EvictionBouncer evictionBouncer,
+                    SwapperSet swappers) {
+                return createPageSwapper(
+                        path,
                         filePageSize,
                         onEviction,
                         createIfNotExist,
-                        useDirectIO,
+                        false,
                         ioController,
-                        evictionGuard,
-                        swappers) -> {
-                    when(swapper.swapperId()).thenReturn(swappers.allocate(swapper));
-                    when(swapper.path()).thenReturn(path);
-                    return swapper;
-                };
+                        evictionBouncer,
+                        swappers);
+            }
+        };
         return new MuninnPageCache(pageSwapperFactory, jobScheduler, configuration);
     }
 }
@@ -37,6 +37,7 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_buffered_flush_enabled;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_flush_buffer_size_in_pages;
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
+import static org.neo4j.io.pagecache.PageCacheOpenOptions.COMPRESSED;
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.CONTEXT_VERSION_UPDATES;
 import static org.neo4j.io.pagecache.PageCacheOpenOptions.MULTI_VERSIONED;
 import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
@@ -65,6 +66,7 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
@@ -77,6 +79,7 @@ import org.eclipse.collections.api.list.primitive.MutableLongList;
 import org.eclipse.collections.api.set.primitive.MutableIntSet;
 import org.eclipse.collections.impl.factory.primitive.IntSets;
 import org.eclipse.collections.impl.factory.primitive.LongLists;
+import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.neo4j.configuration.Config;
@@ -89,6 +92,8 @@ import org.neo4j.io.fs.DelegatingStoreChannel;
 import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.memory.ByteBuffers;
 import org.neo4j.io.pagecache.DelegatingPageSwapper;
 import org.neo4j.io.pagecache.IOController;
@@ -107,6 +112,7 @@ import org.neo4j.io.pagecache.context.VersionContext;
 import org.neo4j.io.pagecache.context.VersionContextSupplier;
 import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.monitoring.ResidentPageCounters.ResidentPages;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
 import org.neo4j.io.pagecache.tracing.DelegatingPageCacheTracer;
@@ -126,6 +132,7 @@ import org.neo4j.io.pagecache.tracing.recording.RecordingPageCursorTracer.Fault;
 import org.neo4j.io.pagecache.tracing.version.FileTruncateEvent;
 import org.neo4j.memory.DefaultScopedMemoryTracker;
 import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.memory.LocalMemoryTracker;
 import org.neo4j.test.Race;
 import org.neo4j.util.concurrent.Runnables;
 
@@ -607,6 +614,388 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void clockEvictionPolicyMustEvictFrequentlyUsedPageDuringScan() throws Exception {
+        var tracer = new DefaultPageCacheTracer();
+        assertFalse(isResidentAfterScan(EvictionPolicyType.CLOCK, tracer));
+        assertThat(tracer.evictionPolicy()).isEqualTo("CLOCK");
+        assertThat(tracer.evictionPolicyProtections()).isZero();
+    }
+
+    @Test
+    void tinyLfuEvictionPolicyMustKeepFrequentlyUsedPageDuringScan() throws Exception {
+        var tracer = new DefaultPageCacheTracer();
+        assertTrue(isResidentAfterScan(EvictionPolicyType.TINY_LFU, tracer));
+        assertThat(tracer.evictionPolicy()).isEqualTo("TINY_LFU");
+        assertThat(tracer.evictionPolicyProtections()).isPositive();
+        assertThat(tracer.evictionPolicyColdAdmissions()).isPositive();
+    }
+
+    @Test
+    void tinyLfuEvictionPolicyMustTrackTheMemoryOfItsSketch() {
+        int maxPages = 100;
+        var memoryTracker = new LocalMemoryTracker();
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .memoryTracker(memoryTracker)
+                .reservedPageBytes(reservedBytes)
+                .disableEvictionThread()
+                .evictionPolicy(EvictionPolicyType.TINY_LFU);
+        try {
+            try (var pageCache = new MuninnPageCache(
+                    createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL), jobScheduler, configuration)) {
+                assertThat(memoryTracker.estimatedHeapMemory()).isPositive();
+            }
+            assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+        } finally {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void stripedFreelistMustHandOutEveryPageExactlyOnce() throws IOException {
+        int maxPages = 4 * PagePartitions.MIN_PAGES_PER_STRIPE;
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .reservedPageBytes(reservedBytes)
+                .disableEvictionThread()
+                .freelistStripes(4);
+        try (var pageCache = new MuninnPageCache(
+                createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL), jobScheduler, configuration)) {
+            var pages = LongSets.mutable.empty();
+            for (int i = 0; i < maxPages; i++) {
+                pages.add(pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+            }
+            assertThat(pages.size()).isEqualTo(maxPages);
+            assertThat(pageCache.freePages()).isZero();
+            assertEquals(12, pageCache.tryGetNumberOfPagesToEvict(12));
+
+            pages.forEach(page -> pageCache.addFreePageToFreelist(page, EvictionRunEvent.NULL));
+            assertThat(pageCache.freePages()).isEqualTo(maxPages);
+            assertEquals(-1, pageCache.tryGetNumberOfPagesToEvict(maxPages));
+
+            var regrabbed = LongSets.mutable.empty();
+            for (int i = 0; i < maxPages; i++) {
+                regrabbed.add(pageCache.grabFreeAndExclusivelyLockedPage(PinPageFaultEvent.NULL));
+            }
+            assertThat(regrabbed).isEqualTo(pages);
+        } finally {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void compressedFileMustKeepItsPagesAcrossMappings() throws IOException {
+        Path file = file("a");
+        int pages = 16;
+        try (var pageCache = createPageCache(fs, 64, PageCacheTracer.NULL);
+                var pagedFile = map(pageCache, file, pageCache.pageSize(), immutable.of(COMPRESSED));
+                var cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (int pageId = 0; pageId < pages; pageId++) {
+                assertTrue(cursor.next(pageId));
+                for (int offset = 0; offset + Long.BYTES <= pagedFile.payloadSize(); offset += Long.BYTES) {
+                    cursor.putLong(offset, pageId);
+                }
+            }
+        }
+        // Pages of repeated longs compress well
+        assertThat(fs.getFileSize(file)).isLessThan((long) pages * PAGE_SIZE / 2);
+
+        // Mapped again with a different page cache, the pages are read back from the compressed file
+        try (var pageCache = createPageCache(fs, 8, PageCacheTracer.NULL);
+                var pagedFile = map(pageCache, file, pageCache.pageSize(), immutable.of(COMPRESSED));
+                var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            assertEquals(pages - 1, pagedFile.getLastPageId());
+            for (int pageId = 0; pageId < pages; pageId++) {
+                assertTrue(cursor.next(pageId));
+                long value;
+                do {
+                    value = cursor.getLong(0);
+                } while (cursor.shouldRetry());
+                assertEquals(pageId, value);
+            }
+        }
+    }
+
+    @Test
+    void hardReservedDatabasePagesMustSurviveScansOfOtherDatabases() throws IOException {
+        int maxPages = 100;
+        int reservedPages = 20;
+        var tracer = new DefaultPageCacheTracer();
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .pageCacheTracer(tracer)
+                .reservedPageBytes(reservedBytes)
+                .disableEvictionThread()
+                .reservations(PageCacheReservations.NONE.database("reserved", reservedPages, reservedPages));
+        try (var pageCache =
+                        new MuninnPageCache(createDefaultPageSwapperFactory(fs, tracer), jobScheduler, configuration);
+                var reservedFile = pageCache.map(file("a"), pageCache.pageSize(), "reserved");
+                var noisyFile = pageCache.map(existingFile("b"), pageCache.pageSize(), "noisy")) {
+            for (long pageId = 0; pageId < reservedPages; pageId++) {
+                touchPage(reservedFile, pageId, NULL_CONTEXT);
+            }
+            int clockArm = 0;
+            for (long pageId = 0; pageId < 10 * maxPages; pageId++) {
+                if (pageId % 50 == 0) {
+                    clockArm = pageCache.evictPages(10, clockArm, tracer.beginPageEvictions(10));
+                }
+                touchPage(noisyFile, pageId, NULL_CONTEXT);
+            }
+
+            try (var cursor = reservedFile.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT, NULL_CONTEXT)) {
+                for (int pageId = 0; pageId < reservedPages; pageId++) {
+                    assertTrue(cursor.next());
+                    assertThat(cursor.getCurrentPageId()).isEqualTo(pageId);
+                }
+            }
+            var residentPages = pageCache.residentPages();
+            assertThat(residentPages).hasSize(2);
+            assertThat(residentPages.get(0).databaseName()).isEqualTo("noisy");
+            var reserved = residentPages.get(1);
+            assertThat(reserved.databaseName()).isEqualTo("reserved");
+            assertThat(reserved.fileName()).isNull();
+            assertThat(reserved.residentPages()).isEqualTo(reservedPages);
+            assertThat(reserved.softReservedPages()).isEqualTo(reservedPages);
+            assertThat(reserved.hardReservedPages()).isEqualTo(reservedPages);
+            assertThat(reserved.protectedPages()).isPositive();
+            assertThat(tracer.protectedPages()).isPositive();
+            assertThat(tracer.softReservationOverrides()).isZero();
+        } finally {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void softReservationMustGiveWayWhenNothingElseCanBeEvicted() throws IOException {
+        int maxPages = 100;
+        var tracer = new DefaultPageCacheTracer();
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .pageCacheTracer(tracer)
+                .reservedPageBytes(reservedBytes)
+                .disableEvictionThread()
+                .reservations(PageCacheReservations.NONE.file("a", maxPages, 0));
+        try (var pageCache =
+                        new MuninnPageCache(createDefaultPageSwapperFactory(fs, tracer), jobScheduler, configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize())) {
+            // Cooperative eviction
+            for (long pageId = 0; pageId < 3 * maxPages; pageId++) {
+                touchPage(pagedFile, pageId, NULL_CONTEXT);
+            }
+            assertThat(pageCache.freePages()).isZero();
+
+            // Background eviction
+            pageCache.evictPages(10, 0, tracer.beginPageEvictions(10));
+            assertThat(pageCache.freePages()).isPositive();
+            assertThat(tracer.softReservationOverrides()).isOne();
+            assertThat(pageCache.residentPages())
+                    .filteredOn(residentPages -> "a".equals(residentPages.fileName()))
+                    .singleElement()
+                    .satisfies(residentPages ->
+                            assertThat(residentPages.residentPages()).isEqualTo(maxPages - pageCache.freePages()));
+        } finally {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void residentPagesMustOnlyBeAccountedForWhenReserved() throws IOException {
+        var configuration = MuninnPageCache.config(100).reservedPageBytes(reservedBytes);
+        try (var pageCache = new MuninnPageCache(
+                        createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL), jobScheduler, configuration);
+                var pagedFile = (MuninnPagedFile) pageCache.map(file("a"), pageCache.pageSize(), "x")) {
+            for (long pageId = 0; pageId < 3; pageId++) {
+                touchPage(pagedFile, pageId, NULL_CONTEXT);
+            }
+
+            assertThat(pagedFile.reserved).isFalse();
+            assertThat(pagedFile.fileResidency().residentPages()).isZero();
+            assertThat(pageCache.residentPages()).containsExactly(new ResidentPages("x", null, 3, 0, 0, 0));
+        }
+    }
+
+    @Test
+    void residentPagesMustBeCountedUntilFilesAreUnmapped() throws IOException {
+        var configuration = MuninnPageCache.config(100)
+                .reservedPageBytes(reservedBytes)
+                .reservations(PageCacheReservations.NONE.file("a", 10, 5));
+        try (var pageCache = new MuninnPageCache(
+                createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL), jobScheduler, configuration)) {
+            try (var a = pageCache.map(file("a"), pageCache.pageSize(), "x");
+                    var b = pageCache.map(existingFile("b"), pageCache.pageSize(), "x");
+                    var c = pageCache.map(existingFile("c"), pageCache.pageSize(), "y")) {
+                for (long pageId = 0; pageId < 3; pageId++) {
+                    touchPage(a, pageId, NULL_CONTEXT);
+                    touchPage(b, pageId, NULL_CONTEXT);
+                }
+                touchPage(c, 0, NULL_CONTEXT);
+
+                assertThat(pageCache.residentPages())
+                        .containsExactly(
+                                new ResidentPages("x", null, 6, 0, 0, 0),
+                                new ResidentPages("x", "a", 3, 10, 5, 0),
+                                new ResidentPages("y", null, 1, 0, 0, 0));
+            }
+            assertThat(pageCache.residentPages()).isEmpty();
+        }
+    }
+
+    @Test
+    void mustNotHardReserveMorePagesThanThePageCacheCanSpare() {
+        var configuration = MuninnPageCache.config(100)
+                .reservations(PageCacheReservations.NONE.database("x", 60, 60).file("a", 60, 40));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new MuninnPageCache(
+                        createDefaultPageSwapperFactory(fs, PageCacheTracer.NULL), jobScheduler, configuration));
+        assertThrows(IllegalArgumentException.class, () -> PageCacheReservations.NONE.database("x", 10, 20));
+    }
+
+    @Test
+    void numaPartitionedPageCacheMustFaultIntoLocalPartitionFirst() throws Exception {
+        var tracer = new DefaultPageCacheTracer();
+        var topology = new FixedNodeNumaTopology(2, 1);
+        int partitionSize = PagePartitions.MIN_PAGES_PER_PARTITION;
+        int maxPages = 2 * partitionSize;
+        var contextFactory = new CursorContextFactory(tracer, EMPTY_CONTEXT_SUPPLIER);
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .pageCacheTracer(tracer)
+                .reservedPageBytes(reservedBytes)
+                .disableEvictionThread()
+                .numaTopology(topology);
+        try (var pageCache =
+                        new MuninnPageCache(createDefaultPageSwapperFactory(fs, tracer), jobScheduler, configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize());
+                var cursorContext = contextFactory.create("numa")) {
+            assertThat(tracer.numaNodes()).isEqualTo(2);
+
+            int localPages = 10;
+            for (int pageId = 0; pageId < localPages; pageId++) {
+                touchPage(pagedFile, pageId, cursorContext);
+            }
+            assertThat(tracer.numaNodeFaults(1)).isEqualTo(localPages);
+            assertThat(tracer.numaNodeFaults(0)).isZero();
+            assertThat(topology.boundNodes).containsOnly(1);
+
+            for (int pageId = 0; pageId < localPages; pageId++) {
+                touchPage(pagedFile, pageId, cursorContext);
+            }
+            assertThat(tracer.numaNodeHits(1)).isEqualTo(localPages);
+            assertThat(tracer.numaNodeHits(0)).isZero();
+
+            // Once the local partition runs out of free pages, the pages of the other partition are used.
+            int remotePages = 5;
+            for (int pageId = localPages; pageId < partitionSize + remotePages; pageId++) {
+                touchPage(pagedFile, pageId, cursorContext);
+            }
+            assertThat(tracer.numaNodeFaults(1)).isEqualTo(partitionSize);
+            assertThat(tracer.numaNodeFaults(0)).isEqualTo(remotePages);
+            assertThat(topology.boundNodes).containsOnly(0, 1);
+            assertThat(pageCache.freePages()).isEqualTo(partitionSize - remotePages);
+        } finally {
+            allocator.close();
+        }
+    }
+
+    @Test
+    void smallPageCacheMustNotBePartitioned() throws Exception {
+        var tracer = new DefaultPageCacheTracer();
+        var topology = new FixedNodeNumaTopology(2, 1);
+        var contextFactory = new CursorContextFactory(tracer, EMPTY_CONTEXT_SUPPLIER);
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(100), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .pageCacheTracer(tracer)
+                .reservedPageBytes(reservedBytes)
+                .numaTopology(topology);
+        try (var pageCache =
+                        new MuninnPageCache(createDefaultPageSwapperFactory(fs, tracer), jobScheduler, configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize());
+                var cursorContext = contextFactory.create("numa")) {
+            touchPage(pagedFile, 0, cursorContext);
+            assertThat(tracer.numaNodes()).isEqualTo(1);
+            assertThat(tracer.numaNodeFaults(0)).isZero();
+            assertThat(topology.boundNodes).isEmpty();
+        } finally {
+            allocator.close();
+        }
+    }
+
+    private static class FixedNodeNumaTopology implements NumaTopology {
+        private final int nodeCount;
+        private final int currentNode;
+        private final Set<Integer> boundNodes = ConcurrentHashMap.newKeySet();
+
+        FixedNodeNumaTopology(int nodeCount, int currentNode) {
+            this.nodeCount = nodeCount;
+            this.currentNode = currentNode;
+        }
+
+        @Override
+        public int nodeCount() {
+            return nodeCount;
+        }
+
+        @Override
+        public int currentNode() {
+            return currentNode;
+        }
+
+        @Override
+        public void bindMemory(long address, long bytes, int node) {
+            boundNodes.add(node);
+        }
+    }
+
+    /**
+     * Use page 0 of a file a lot, then scan through five times as many other pages as fit in the cache, while driving
+     * the eviction by hand.
+     * @return {@code true} if page 0 is still in the cache after the scan.
+     */
+    private boolean isResidentAfterScan(EvictionPolicyType evictionPolicy, PageCacheTracer tracer) throws IOException {
+        int maxPages = 100;
+        int batch = maxPages / 2;
+        var contextFactory = new CursorContextFactory(tracer, EMPTY_CONTEXT_SUPPLIER);
+        var allocator = MemoryAllocator.createAllocator(MuninnPageCache.memoryRequiredForPages(maxPages), INSTANCE);
+        var configuration = MuninnPageCache.config(allocator)
+                .pageCacheTracer(tracer)
+                .reservedPageBytes(reservedBytes)
+                .disableEvictionThread()
+                .evictionPolicy(evictionPolicy);
+        try (var pageCache =
+                        new MuninnPageCache(createDefaultPageSwapperFactory(fs, tracer), jobScheduler, configuration);
+                var pagedFile = map(pageCache, file("a"), pageCache.pageSize());
+                var cursorContext = contextFactory.create("scan")) {
+            for (int i = 0; i < 10; i++) {
+                touchPage(pagedFile, 0, cursorContext);
+            }
+            long pageId = 1;
+            while (pageId < maxPages) {
+                touchPage(pagedFile, pageId++, cursorContext);
+            }
+            int clockArm = 0;
+            for (int round = 0; round < 10; round++) {
+                clockArm = pageCache.evictPages(batch, clockArm, tracer.beginPageEvictions(batch));
+                for (int i = 0; i < batch; i++) {
+                    touchPage(pagedFile, pageId++, cursorContext);
+                }
+            }
+            try (var cursor = pagedFile.io(0, PF_SHARED_READ_LOCK | PF_NO_FAULT, cursorContext)) {
+                assertTrue(cursor.next());
+                return cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID;
+            }
+        } finally {
+            allocator.close();
+        }
+    }
+
+    private static void touchPage(PagedFile pagedFile, long pageId, CursorContext cursorContext) throws IOException {
+        try (var cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, cursorContext)) {
+            assertTrue(cursor.next());
+        }
+    }
+
     @Test
     void mustFlushDirtyPagesOnEvictingFirstPage() throws Exception {
         writeInitialDataTo(file("a"), reservedBytes);
@@ -1501,6 +1890,105 @@ public class MuninnPageCacheTest extends PageCacheTest<MuninnPageCache> {
         }
     }
 
+    @Test
+    void flushDirtyPagesMustWriteBackAtMostMaxPages() throws IOException {
+        var pageCacheTracer = new DefaultPageCacheTracer(true);
+        try (MuninnPageCache pageCache = createPageCache(fs, 6, pageCacheTracer);
+                PagedFile pagedFile = map(pageCache, file("a"), (int) ByteUnit.kibiBytes(8))) {
+            for (int pageId = 0; pageId < 4; pageId++) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(1);
+                }
+            }
+
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(2, pagedFile.flushDirtyPages(2, flushEvent));
+            }
+            assertEquals(2, pagedFile.pageFileCounters().flushes());
+            assertEquals(2, pagedFile.dirtyPages());
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(2, pagedFile.flushDirtyPages(2, flushEvent));
+            }
+            assertEquals(4, pagedFile.pageFileCounters().flushes());
+            assertEquals(0, pagedFile.dirtyPages());
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(0, pagedFile.flushDirtyPages(2, flushEvent));
+            }
+            assertEquals(4, pagedFile.pageFileCounters().flushes());
+        }
+    }
+
+    @Test
+    void flushDirtyPagesMustWriteBackPagesInTheOrderTheyWereDirtied() throws IOException {
+        var pageCacheTracer = new DefaultPageCacheTracer(true);
+        try (MuninnPageCache pageCache = createPageCache(fs, 6, pageCacheTracer);
+                PagedFile pagedFile = map(pageCache, file("a"), (int) ByteUnit.kibiBytes(8))) {
+            for (int pageId = 0; pageId < 4; pageId++) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(1);
+                }
+            }
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(1, pagedFile.flushDirtyPages(1, flushEvent));
+            }
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                cursor.putLong(2);
+            }
+            assertEquals(4, pagedFile.dirtyPages());
+
+            // Page 0 was dirtied again, and is now written back after the pages that were dirtied before it.
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(3, pagedFile.flushDirtyPages(3, flushEvent));
+                assertEquals(0, pagedFile.flushDirtyPages(0, flushEvent));
+            }
+            assertEquals(1, pagedFile.dirtyPages());
+            assertEquals(4, pagedFile.pageFileCounters().flushes());
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(1, pagedFile.flushDirtyPages(3, flushEvent));
+            }
+            assertEquals(0, pagedFile.dirtyPages());
+        }
+    }
+
+    @Test
+    void flushDirtyPagesMustOnlyVisitPagesDirtiedSinceTheLastCall() throws IOException {
+        var pageCacheTracer = new DefaultPageCacheTracer(true);
+        try (MuninnPageCache pageCache = createPageCache(fs, 6, pageCacheTracer);
+                PagedFile pagedFile = map(pageCache, file("a"), (int) ByteUnit.kibiBytes(8))) {
+            for (int pageId = 0; pageId < 4; pageId++) {
+                try (PageCursor cursor = pagedFile.io(pageId, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                    assertTrue(cursor.next());
+                    cursor.putLong(1);
+                }
+            }
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(4, pagedFile.flushDirtyPages(10, flushEvent));
+            }
+            assertEquals(0, pagedFile.dirtyPages());
+
+            try (PageCursor cursor = pagedFile.io(2, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+                cursor.putLong(2);
+            }
+            // Reading pages does not dirty them.
+            try (PageCursor cursor = pagedFile.io(1, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+                assertTrue(cursor.next());
+            }
+            assertEquals(1, pagedFile.dirtyPages());
+            // Pages written back by someone else are visited, but not written back again.
+            pagedFile.flushAndForce(FileFlushEvent.NULL);
+            long flushes = pagedFile.pageFileCounters().flushes();
+            try (var flushEvent = pageCacheTracer.beginFileFlush()) {
+                assertEquals(0, pagedFile.flushDirtyPages(10, flushEvent));
+            }
+            assertEquals(0, pagedFile.dirtyPages());
+            assertEquals(flushes, pagedFile.pageFileCounters().flushes());
+        }
+    }
+
     @Test
     void doNotMergeNonSequentialPageBuffersOnPageFileFlush() throws IOException {
         var pageCacheTracer = new DefaultPageCacheTracer(true);
@@ -30,6 +30,9 @@ import java.nio.ByteOrder;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.collections.api.factory.Sets;
 import org.eclipse.collections.api.set.ImmutableSet;
@@ -48,6 +51,7 @@ import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
 import org.neo4j.io.pagecache.tracing.DefaultPageCacheTracer;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.memory.EmptyMemoryTracker;
@@ -55,6 +59,7 @@ import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
 import org.neo4j.test.utils.TestDirectory;
+import org.neo4j.time.Clocks;
 
 @TestDirectoryExtension
 class MuninnPageCursorTest {
@@ -147,6 +152,48 @@ class MuninnPageCursorTest {
         return Sets.immutable.of(StandardOpenOption.CREATE, PageCacheOpenOptions.BIG_ENDIAN);
     }
 
+    @Test
+    void preFetcherMustKeepFollowingScannerThatVisitsPagesAgain() throws Exception {
+        Path file = directory.file("dude");
+        createSomeData(file);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (PageCache pageCache = startPageCache(defaultPageSwapperFactory());
+                PagedFile pagedFile = pageCache.map(
+                        file,
+                        PageCache.PAGE_SIZE,
+                        DEFAULT_DATABASE_NAME,
+                        Sets.immutable.of(StandardOpenOption.CREATE))) {
+            // The pre-fetcher gives up if it happens to observe the cursor in between pages, so try a few scans.
+            for (int scan = 0; scan < 5; scan++) {
+                try (PageCursor cursor =
+                        pagedFile.io(0, PagedFile.PF_SHARED_READ_LOCK | PagedFile.PF_READ_AHEAD, NULL_CONTEXT)) {
+                    var preFetcher =
+                            new PreFetcher((MuninnPageCursor) cursor, Clocks.nanoClock(), PageCacheTracer.NULL);
+                    Future<?> preFetching = executor.submit(preFetcher);
+                    try {
+                        for (int pageId = 0; pageId < 50; pageId++) {
+                            assertThat(cursor.next(pageId)).isTrue();
+                            Thread.sleep(5);
+                            if (pageId % 2 == 1) {
+                                // Going back to the page we were on, after failing to move past the end of the file,
+                                // makes the cursor re-read that page, and report a stride of zero.
+                                assertThat(cursor.next(100)).isFalse();
+                                assertThat(cursor.next(pageId)).isTrue();
+                                Thread.sleep(5);
+                            }
+                        }
+                    } finally {
+                        preFetcher.cancelled();
+                    }
+                    preFetching.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private PageCache startPageCache(PageSwapperFactory pageSwapperFactory) {
         return new MuninnPageCache(pageSwapperFactory, jobScheduler, MuninnPageCache.config(1_000));
     }
@@ -198,6 +245,20 @@ class MuninnPageCursorTest {
                     }
                 };
             }
+
+            @Override
+            public PageSwapper createCompressedPageSwapper(
+                    Path path,
+                    int filePageSize,
+                    PageEvictionCallback onEviction,
+                    boolean createIfNotExist,
+                    IOController ioController,
+                    EvictionBouncer evictionBouncer,
+                    SwapperSet swappers)
+                    throws IOException {
+                return actual.createCompressedPageSwapper(
+                        path, filePageSize, onEviction, createIfNotExist, ioController, evictionBouncer, swappers);
+            }
         };
     }
 
@@ -169,6 +169,66 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         return delegate.snapshotsLoaded();
     }
 
+    @Override
+    public long warmupPagesPlanned() {
+        return delegate.warmupPagesPlanned();
+    }
+
+    @Override
+    public long warmupPagesLoaded() {
+        return delegate.warmupPagesLoaded();
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return delegate.evictionPolicy();
+    }
+
+    @Override
+    public long evictionPolicyColdAdmissions() {
+        return delegate.evictionPolicyColdAdmissions();
+    }
+
+    @Override
+    public long evictionPolicyProtections() {
+        return delegate.evictionPolicyProtections();
+    }
+
+    @Override
+    public long preFetchHits() {
+        return delegate.preFetchHits();
+    }
+
+    @Override
+    public long preFetchWaste() {
+        return delegate.preFetchWaste();
+    }
+
+    @Override
+    public int numaNodes() {
+        return delegate.numaNodes();
+    }
+
+    @Override
+    public long numaNodeHits(int node) {
+        return delegate.numaNodeHits(node);
+    }
+
+    @Override
+    public long numaNodeFaults(int node) {
+        return delegate.numaNodeFaults(node);
+    }
+
+    @Override
+    public long protectedPages() {
+        return delegate.protectedPages();
+    }
+
+    @Override
+    public long softReservationOverrides() {
+        return delegate.softReservationOverrides();
+    }
+
     @Override
     public long closedCursors() {
         return delegate.closedCursors();
@@ -309,6 +369,66 @@ public class DelegatingPageCacheTracer implements PageCacheTracer {
         delegate.failedUnmap(reason);
     }
 
+    @Override
+    public void warmupPagesPlanned(long pages) {
+        delegate.warmupPagesPlanned(pages);
+    }
+
+    @Override
+    public void warmupPagesLoaded(long pages) {
+        delegate.warmupPagesLoaded(pages);
+    }
+
+    @Override
+    public void evictionPolicy(String policy) {
+        delegate.evictionPolicy(policy);
+    }
+
+    @Override
+    public void evictionPolicyColdAdmissions(long pages) {
+        delegate.evictionPolicyColdAdmissions(pages);
+    }
+
+    @Override
+    public void evictionPolicyProtections(long pages) {
+        delegate.evictionPolicyProtections(pages);
+    }
+
+    @Override
+    public void preFetchHits(long pages) {
+        delegate.preFetchHits(pages);
+    }
+
+    @Override
+    public void preFetchWaste(long pages) {
+        delegate.preFetchWaste(pages);
+    }
+
+    @Override
+    public void numaNodes(int nodes) {
+        delegate.numaNodes(nodes);
+    }
+
+    @Override
+    public void numaNodeHits(int node, long hits) {
+        delegate.numaNodeHits(node, hits);
+    }
+
+    @Override
+    public void numaNodeFaults(int node, long faults) {
+        delegate.numaNodeFaults(node, faults);
+    }
+
+    @Override
+    public void protectedPages(long pages) {
+        delegate.protectedPages(pages);
+    }
+
+    @Override
+    public void softReservationOverrides(long overrides) {
+        delegate.softReservationOverrides(overrides);
+    }
+
     @Override
     public long filesMapped() {
         return delegate.filesMapped();
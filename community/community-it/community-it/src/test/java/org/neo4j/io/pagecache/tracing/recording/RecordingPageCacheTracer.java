@@ -264,6 +264,66 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
         return 0;
     }
 
+    @Override
+    public long warmupPagesPlanned() {
+        return 0;
+    }
+
+    @Override
+    public long warmupPagesLoaded() {
+        return 0;
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return "";
+    }
+
+    @Override
+    public long evictionPolicyColdAdmissions() {
+        return 0;
+    }
+
+    @Override
+    public long evictionPolicyProtections() {
+        return 0;
+    }
+
+    @Override
+    public long preFetchHits() {
+        return 0;
+    }
+
+    @Override
+    public long preFetchWaste() {
+        return 0;
+    }
+
+    @Override
+    public int numaNodes() {
+        return 1;
+    }
+
+    @Override
+    public long numaNodeHits(int node) {
+        return 0;
+    }
+
+    @Override
+    public long numaNodeFaults(int node) {
+        return 0;
+    }
+
+    @Override
+    public long protectedPages() {
+        return 0;
+    }
+
+    @Override
+    public long softReservationOverrides() {
+        return 0;
+    }
+
     @Override
     public void pins(long pins) {
         this.pins.getAndAdd(pins);
@@ -351,6 +411,42 @@ public class RecordingPageCacheTracer extends RecordingTracer implements PageCac
     @Override
     public void failedUnmap(String reason) {}
 
+    @Override
+    public void warmupPagesPlanned(long pages) {}
+
+    @Override
+    public void warmupPagesLoaded(long pages) {}
+
+    @Override
+    public void evictionPolicy(String policy) {}
+
+    @Override
+    public void evictionPolicyColdAdmissions(long pages) {}
+
+    @Override
+    public void evictionPolicyProtections(long pages) {}
+
+    @Override
+    public void preFetchHits(long pages) {}
+
+    @Override
+    public void preFetchWaste(long pages) {}
+
+    @Override
+    public void numaNodes(int nodes) {}
+
+    @Override
+    public void numaNodeHits(int node, long hits) {}
+
+    @Override
+    public void numaNodeFaults(int node, long faults) {}
+
+    @Override
+    public void protectedPages(long pages) {}
+
+    @Override
+    public void softReservationOverrides(long overrides) {}
+
     private void evicted(long filePageId, PageSwapper swapper) {
         record(new Evict(swapper, filePageId));
     }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmer_enabled;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.logging.LogAssertions.assertThat;
+import static org.neo4j.test.assertion.Assert.assertEventually;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.neo4j.test.extension.DbmsController;
+import org.neo4j.test.extension.DbmsExtension;
+import org.neo4j.test.extension.ExtensionCallback;
+import org.neo4j.test.extension.Inject;
+
+@DbmsExtension(configurationCallback = "configure")
+class PageCacheWarmerIT {
+    private final AssertableLogProvider logProvider = new AssertableLogProvider();
+
+    @Inject
+    private GraphDatabaseAPI database;
+
+    @Inject
+    private DbmsController dbmsController;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    @ExtensionCallback
+    void configure(TestDatabaseManagementServiceBuilder builder) {
+        builder.setConfig(pagecache_warmer_enabled, true)
+                .setConfig(pagecache_warmup_profiling_interval, Duration.ofMillis(100))
+                .setConfig(pagecache_warmup_blocking, true)
+                .setInternalLogProvider(logProvider);
+    }
+
+    @Test
+    void reheatProfiledPagesOnRestart() {
+        try (Transaction tx = database.beginTx()) {
+            for (int i = 0; i < 1_000; i++) {
+                tx.createNode(Label.label("Warm")).setProperty("id", i);
+            }
+            tx.commit();
+        }
+
+        Path profiles = databaseLayout.databaseDirectory().resolve(PageCacheWarmer.PROFILES_DIRECTORY);
+        assertEventually(() -> fs.fileExists(profiles) && fs.listFiles(profiles).length > 0, done -> done, 1, MINUTES);
+
+        dbmsController.restartDbms();
+
+        assertThat(logProvider).forClass(PageCacheWarmer.class).containsMessages("Page cache warmup completed");
+    }
+}
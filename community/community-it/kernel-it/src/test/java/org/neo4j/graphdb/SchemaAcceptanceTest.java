@@ -37,6 +37,7 @@ import static org.neo4j.kernel.api.index.IndexDirectoryStructure.directoriesByPr
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
@@ -2797,7 +2798,10 @@ class SchemaAcceptanceTest extends SchemaAcceptanceTestBase {
 
             first.untilWaitingIn(BinaryLatch.class.getMethod("await"));
             beforeSecondCreatesIndex.await();
-            second.untilWaitingIn(ForsetiClient.class.getMethod("incrementalBackoffWait", long.class));
+            second.untilWaitingIn(Arrays.stream(ForsetiClient.class.getDeclaredMethods())
+                    .filter(method -> method.getName().equals("awaitRelease"))
+                    .findFirst()
+                    .orElseThrow());
             second.untilWaiting();
             pauseFirst.release();
             firstFuture.get();
@@ -240,7 +240,8 @@ class TransactionLogChannelAllocatorIT {
                 LatestVersions.BINARY_VERSIONS,
                 false,
                 LogSegments.DEFAULT_LOG_SEGMENT_SIZE,
-                256);
+                256,
+                null);
     }
 
     private static class AdviseCountingChannelNativeAccessor extends ChannelNativeAccessor.EmptyChannelNativeAccessor {
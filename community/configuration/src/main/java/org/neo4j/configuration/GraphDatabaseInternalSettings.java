@@ -98,6 +98,54 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .dynamic()
             .build();
 
+    @Internal
+    @Description("Escalate the node and relationship locks of a transaction to a single lock on their id range, "
+            + "when the transaction takes an exclusive lock that makes it hold a multiple of this many locks in the "
+            + "range, and no other transaction holds locks in it. Enabling escalation makes every transaction take "
+            + "intention locks on the id ranges it locks in. Zero disables escalation.")
+    public static final Setting<Integer> lock_manager_escalation_threshold = newBuilder(
+                    "internal.dbms.lock_manager.escalation_threshold", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("The size of the id ranges that node and relationship locks are escalated to, as a power of two, "
+            + "see internal.dbms.lock_manager.escalation_threshold.")
+    public static final Setting<Integer> lock_manager_escalation_range_bits = newBuilder(
+                    "internal.dbms.lock_manager.escalation_range_bits", INT, 10)
+            .addConstraint(range(0, 30))
+            .build();
+
+    @Internal
+    @Description("Let lock clients adapt how they wait for contended locks to how long waits for the same type of "
+            + "resource usually take, spinning for short waits and parking until the lock is released for long ones. "
+            + "Otherwise lock clients wait with a fixed spin and sleep backoff.")
+    public static final Setting<Boolean> lock_manager_adaptive_waits =
+            newBuilder("internal.dbms.lock_manager.adaptive_waits", BOOL, false).build();
+
+    @Internal
+    @Description("Keep the global lock maps of the lock manager in striped tables keyed on primitive resource ids, "
+            + "which do not allocate when locks are acquired and released, instead of in concurrent hash maps. "
+            + "Inserting and removing locks on many different resources can be slower with striped tables.")
+    public static final Setting<Boolean> lock_manager_striped_lock_tables = newBuilder(
+                    "internal.dbms.lock_manager.striped_lock_tables", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Sample one in this many lock waits to find the most contended resources, "
+            + "see dbms.listLockContention. Zero disables the lock contention profiler.")
+    public static final Setting<Integer> lock_manager_contention_sample_interval = newBuilder(
+                    "internal.dbms.lock_manager.contention_sample_interval", INT, 4)
+            .addConstraint(min(0))
+            .build();
+
+    @Internal
+    @Description("The number of most contended resources the lock contention profiler keeps track of.")
+    public static final Setting<Integer> lock_manager_contention_tracked_resources = newBuilder(
+                    "internal.dbms.lock_manager.contention_tracked_resources", INT, 64)
+            .addConstraint(min(1))
+            .build();
+
     @Internal
     @Description("Name of the tracer factory to be used. Current implementations are: null, default & verbose.")
     public static final Setting<String> tracer =
@@ -850,6 +898,39 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
             .addConstraint(range(2, 100))
             .build();
 
+    @Internal
+    @Description("Rate, in bytes of transaction log per second, at which the `RECOVERY_TIME` checkpoint policy assumes "
+            + "recovery replays transactions, until it has observed how fast transactions are applied to the store.")
+    public static final Setting<Long> checkpoint_recovery_time_default_replay_rate = newBuilder(
+                    "internal.db.checkpoint.recovery_time.default_replay_rate", BYTES, mebiBytes(16))
+            .addConstraint(min(1L))
+            .build();
+
+    @Internal
+    @Description("Write dirty pages back to the store files continuously in the background, instead of leaving all "
+            + "of them to the next checkpoint. The rate follows how fast pages are dirtied, and "
+            + "`internal.db.checkpoint.incremental_flush.target`, so that checkpoints only need to write back a small "
+            + "residual. The background writes go through the same IO limit as checkpoints.")
+    public static final Setting<Boolean> checkpoint_incremental_flush_enabled = newBuilder(
+                    "internal.db.checkpoint.incremental_flush.enabled", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Target time for the incremental checkpoint flusher to write back the pages that are dirty. "
+            + "A shorter target keeps the residual work of checkpoints smaller at the cost of more background IO, "
+            + "since pages that are written back can be dirtied again before the next checkpoint.")
+    public static final Setting<Duration> checkpoint_incremental_flush_target = newBuilder(
+                    "internal.db.checkpoint.incremental_flush.target", DURATION, ofSeconds(30))
+            .addConstraint(min(ofSeconds(1)))
+            .build();
+
+    @Internal
+    @Description("Time between two passes of the incremental checkpoint flusher over the store files.")
+    public static final Setting<Duration> checkpoint_incremental_flush_interval = newBuilder(
+                    "internal.db.checkpoint.incremental_flush.interval", DURATION, ofSeconds(1))
+            .addConstraint(min(ofMillis(10)))
+            .build();
+
     @Internal
     @Description(
             "Whether or not to dump system and database diagnostics. This takes a non-negligible amount of time to do and therefore "
@@ -952,6 +1033,16 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.strictly_prioritize_id_freelist", BOOL, true)
             .build();
 
+    @Internal
+    @Description("The largest range of consecutive node or relationship ids a transaction is handed at a time. "
+            + "Transactions allocating many ids get ranges sized to how many ids they have allocated so far, up to "
+            + "this size, and release the ids they did not use when they close. "
+            + "Ranges of one, or zero, make transactions allocate their ids one at a time.")
+    public static final Setting<Integer> transaction_id_range_size = newBuilder(
+                    "internal.dbms.idgenerator.transaction_range_size", INT, 0)
+            .addConstraint(min(0))
+            .build();
+
     @Internal
     @Description("Block/buffer size for index population")
     public static final Setting<Long> index_populator_block_size = newBuilder(
@@ -1080,6 +1171,32 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.dbms.tx.logs.dedicated.appender", BOOL, Boolean.FALSE)
             .build();
 
+    @Description("Maximum time the dedicated transaction appender holds back forcing the transaction log, to let more "
+            + "transactions join the same group commit. The actual delay adapts to the observed transaction arrival "
+            + "rate and log force latency, and never exceeds this value. Zero disables group commit delays.")
+    @Internal
+    public static final Setting<Duration> group_commit_max_delay = newBuilder(
+                    "internal.dbms.tx.logs.dedicated.appender.group_commit.max_delay", DURATION, Duration.ZERO)
+            .build();
+
+    @Description("Maximum number of bytes the dedicated transaction appender appends to the transaction log while "
+            + "waiting for more transactions to join a group commit, before it forces the log.")
+    @Internal
+    public static final Setting<Long> group_commit_max_batch_bytes = newBuilder(
+                    "internal.dbms.tx.logs.dedicated.appender.group_commit.max_batch_bytes", BYTES, mebiBytes(1))
+            .addConstraint(min(1L))
+            .build();
+
+    @Description("Number of transaction batches the dedicated transaction appender may have written to the "
+            + "transaction log while they are still waiting to be forced. With a depth above zero, forces happen on "
+            + "a separate thread, and the appender serializes the next batches while the previous ones are forced. "
+            + "Zero forces every batch on the appender thread before starting on the next one.")
+    @Internal
+    public static final Setting<Integer> log_writer_pipeline_depth = newBuilder(
+                    "internal.dbms.tx.logs.dedicated.appender.pipeline_depth", INT, 0)
+            .addConstraint(range(0, 1024))
+            .build();
+
     @Internal
     @Description("Enable per page file metrics collection in a default page cache and cursor tracer.")
     public static final Setting<Boolean> per_file_metrics_counters =
@@ -1090,6 +1207,70 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
     public static final Setting<Boolean> pre_sketch_transaction_logs =
             newBuilder("internal.dbms.tx_log.presketch", BOOL, false).build();
 
+    public enum TransactionLogCompression {
+        NONE,
+        ZSTD
+    }
+
+    @Internal
+    @Description("Codec used to compress transaction log entries in the envelope log format. Every entry that fits in "
+            + "a single envelope is compressed on its own, and is only stored compressed if that makes it smaller. "
+            + "Entries spanning several envelopes are always stored uncompressed, and so are entries written with a "
+            + "kernel version that predates compressed envelopes. Compressed logs can be read regardless of this "
+            + "setting.")
+    public static final Setting<TransactionLogCompression> tx_log_compression = newBuilder(
+                    "internal.dbms.tx_log.compression",
+                    ofEnum(TransactionLogCompression.class),
+                    TransactionLogCompression.NONE)
+            .build();
+
+    @Internal
+    @Description("Transaction log entries smaller than this are not compressed, see internal.dbms.tx_log.compression.")
+    public static final Setting<Long> tx_log_compression_min_entry_size = newBuilder(
+                    "internal.dbms.tx_log.compression.min_entry_size", BYTES, 256L)
+            .addConstraint(range(1L, mebiBytes(1)))
+            .build();
+
+    @Internal
+    @Description("Read transaction log files that have been rotated away from through read-only memory mappings, "
+            + "instead of through buffered reads. Only applies to log files written without envelopes, and never "
+            + "on Windows, where mapped files can not be deleted.")
+    public static final Setting<Boolean> tx_log_mmap_rotated_files =
+            newBuilder("internal.dbms.tx_log.mmap_rotated_files", BOOL, false).build();
+
+    @Internal
+    @Description(
+            "Write a sparse index of transaction start positions next to every transaction log file that is "
+                    + "rotated away from, so that old transactions can be found without scanning their log file from the start.")
+    public static final Setting<Boolean> tx_log_position_index =
+            newBuilder("internal.dbms.tx_log.position_index", BOOL, true).build();
+
+    @Internal
+    @Description("Minimum distance between two transactions recorded in the transaction log position index, "
+            + "see internal.dbms.tx_log.position_index. Lookups scan at most about this much of a log file.")
+    public static final Setting<Long> tx_log_position_index_interval = newBuilder(
+                    "internal.dbms.tx_log.position_index.interval", BYTES, kibiBytes(64))
+            .addConstraint(range(1L, mebiBytes(64)))
+            .build();
+
+    @Internal
+    @Description("Number of spare transaction log files to keep prepared in the background, so that log rotation "
+            + "only has to rename one of them into place and write its header. Where the file system cannot preallocate "
+            + "space, each spare file is filled with zeros up to the rotation threshold, which costs that much "
+            + "background disk writing per spare file. Zero disables spare log files.")
+    public static final Setting<Integer> tx_log_spare_files = newBuilder("internal.dbms.tx_log.spare_files", INT, 0)
+            .addConstraint(range(0, 16))
+            .build();
+
+    @Internal
+    @Description("Maximum number of transaction log files, or regions of a transaction log file, that are scanned "
+            + "concurrently when looking for the tail of the transaction logs at startup and when checking recovered "
+            + "logs for corruption. A value of 1 scans everything on the calling thread.")
+    public static final Setting<Integer> tx_log_tail_scan_parallelism = newBuilder(
+                    "internal.dbms.tx_log.tail_scan.parallelism", INT, 4)
+            .addConstraint(min(1))
+            .build();
+
     @Internal
     @Description(
             "Enables using format versions that are still under development, which will trigger migration to them on start up. "
@@ -1176,12 +1357,82 @@ public class GraphDatabaseInternalSettings implements SettingsDeclaration {
                     "internal.db.multiversion.transaction.validation.locks.dump", BOOL, false)
             .build();
 
+    public enum PageCacheEvictionPolicy {
+        CLOCK,
+        TINY_LFU
+    }
+
+    @Internal
+    @Description("The policy the page cache uses to pick pages to evict. 'CLOCK' evicts the pages that have not "
+            + "been used recently. 'TINY_LFU' also takes into account how frequently pages have been used, which "
+            + "keeps large scans from pushing the working set out of the page cache.")
+    public static final Setting<PageCacheEvictionPolicy> pagecache_eviction_policy = newBuilder(
+                    "internal.db.memory.pagecache.eviction_policy",
+                    ofEnum(PageCacheEvictionPolicy.class),
+                    PageCacheEvictionPolicy.CLOCK)
+            .build();
+
+    @Internal
+    @Description("Use Linux io_uring for the batched reads and writes of the page cache, i.e. for flushing and "
+            + "pre-fetching of pages. Falls back to regular file channel IO where io_uring is not available.")
+    public static final Setting<Boolean> pagecache_io_uring_enabled = newBuilder(
+                    "internal.db.memory.pagecache.io_uring.enabled", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Partition the page cache memory by NUMA node, so page faulting threads prefer pages with memory "
+            + "that is local to the CPU they run on. Has no effect on machines with a single NUMA node.")
+    public static final Setting<Boolean> pagecache_numa_partitioning = newBuilder(
+                    "internal.db.memory.pagecache.numa_partitioning", BOOL, false)
+            .build();
+
+    @Internal
+    @Description("Split the page cache freelist into stripes, one per available processor, so concurrently page "
+            + "faulting threads do not all contend on the same freelist. Disabling this keeps a single freelist per "
+            + "page cache partition.")
+    public static final Setting<Boolean> pagecache_freelist_striping = newBuilder(
+                    "internal.db.memory.pagecache.freelist_striping", BOOL, true)
+            .build();
+
+    @Internal
+    @Description("Page cache reservations for databases, as `database:soft:hard` entries where the soft and hard "
+            + "reservations are sizes, like `neo4j:2g:1g`. Eviction passes over the pages of a database while it has "
+            + "no more pages in the cache than its reservation, so other databases can not push them out. The soft "
+            + "reservation is only respected for as long as there are other pages to evict.")
+    public static final Setting<List<String>> pagecache_database_reservations = newBuilder(
+                    "internal.db.memory.pagecache.database_reservations", listOf(STRING), List.of())
+            .build();
+
+    @Internal
+    @Description("Page cache reservations for store files, as `file name:soft:hard` entries, like "
+            + "`neostore.nodestore.db:512m:256m`. The reservation applies to the file with that name in every "
+            + "database. See `internal.db.memory.pagecache.database_reservations`.")
+    public static final Setting<List<String>> pagecache_file_reservations = newBuilder(
+                    "internal.db.memory.pagecache.file_reservations", listOf(STRING), List.of())
+            .build();
+
+    @Internal
+    @Description("File names of dynamic record stores, like `neostore.propertystore.db.strings`, that should be kept "
+            + "compressed on disk. Compression only applies to store files that are created while it is configured, "
+            + "existing store files are not converted. Compressed store files stay readable when this is changed.")
+    public static final Setting<List<String>> compressed_store_files = newBuilder(
+                    "internal.db.store.compressed_store_files", listOf(STRING), List.of())
+            .build();
+
     @Internal
     @Description("Page Cache Warmer blocks database start until it's completed")
     public static final Setting<Boolean> pagecache_warmup_blocking = newBuilder(
                     "internal.db.memory.pagecache.warmup.blocking_enabled", BOOL, false)
             .build();
 
+    @Internal
+    @Description("Run the page cache warmer of the kernel for every database. It periodically profiles the page cache "
+            + "into the 'profiles' directory of the database, and warms the page cache up from those profiles when the "
+            + "database starts. Only has an effect while 'db.memory.pagecache.warmup.enable' is enabled.")
+    public static final Setting<Boolean> pagecache_warmer_enabled = newBuilder(
+                    "internal.db.memory.pagecache.warmup.warmer_enabled", BOOL, false)
+            .build();
+
     @Internal
     @Description("A feature toggle behind which change data capture feature is developed")
     public static final Setting<Boolean> change_data_capture =
@@ -430,7 +430,8 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
         PERIODIC,
         CONTINUOUS,
         VOLUME,
-        VOLUMETRIC
+        VOLUMETRIC,
+        RECOVERY_TIME
     }
 
     @Description(
@@ -451,6 +452,11 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
 
             * `VOLUMETRIC` -- it makes the best effort to checkpoint often enough so that the database does not get too far behind on
               deleting old transaction logs as specified in the `<<config_db.tx_log.rotation.retention_policy,db.tx_log.rotation.retention_policy>>` setting.
+
+            * `RECOVERY_TIME` -- it runs a checkpoint when recovery from the last checkpoint is estimated to take longer
+              than `<<config_db.checkpoint.interval.recovery_time,db.checkpoint.interval.recovery_time>>`. The estimate
+              is based on the size of the transaction logs since the last checkpoint, and the observed rate at which
+              transactions are applied to the store.
             """)
     public static final Setting<CheckpointPolicy> check_point_policy = newBuilder(
                     "db.checkpoint", ofEnum(CheckpointPolicy.class), CheckpointPolicy.PERIODIC)
@@ -492,6 +498,16 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
             .addConstraint(min(ByteUnit.kibiBytes(1)))
             .build();
 
+    @Description("Configures the estimated recovery time at which a checkpoint is made, when "
+            + "`<<config_db.checkpoint,db.checkpoint>>` is `RECOVERY_TIME`. Recovery replays the transaction logs "
+            + "from the last checkpoint, so this bounds how long recovery takes in case of a crash. The recovery time "
+            + "is estimated from the volume of transaction logs since the last checkpoint, and the observed rate at "
+            + "which committed transactions are applied to the store.")
+    public static final Setting<Duration> check_point_interval_recovery_time = newBuilder(
+                    "db.checkpoint.interval.recovery_time", DURATION, ofMinutes(1))
+            .addConstraint(min(ofSeconds(1)))
+            .build();
+
     @Description("Limit the number of IOs the background checkpoint process consumes per second. "
             + "This setting is advisory. It is ignored in Neo4j Community Edition and is followed to "
             + "best effort in Enterprise Edition. "
@@ -646,9 +662,10 @@ public class GraphDatabaseSettings implements SettingsDeclaration {
                     "db.memory.pagecache.warmup.preload.allowlist", STRING, ".*")
             .build();
 
-    @Description(
-            "Use direct I/O for page cache. "
-                    + "Setting is supported only on Linux and only for a subset of record formats that use platform aligned page size.")
+    @Description("Use direct I/O for page cache. "
+            + "Setting is supported only on Linux and only for a subset of record formats that use platform aligned page size. "
+            + "On file systems that do not support direct I/O, store files are read and written through the "
+            + "operating system cache, and evicted from it once they are held by the page cache.")
     public static final Setting<Boolean> pagecache_direct_io =
             newBuilder("server.memory.pagecache.directio", BOOL, false).build();
 
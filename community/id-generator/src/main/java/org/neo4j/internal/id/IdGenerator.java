@@ -25,6 +25,7 @@ import org.neo4j.annotations.documented.ReporterFactory;
 import org.neo4j.collection.PrimitiveLongResourceCollections;
 import org.neo4j.collection.PrimitiveLongResourceIterator;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.internal.id.range.ConsecutiveIdRange;
 import org.neo4j.internal.id.range.PageIdRange;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
@@ -56,6 +57,23 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
      */
     long nextConsecutiveIdRange(int numberOfIds, boolean favorSamePage, CursorContext cursorContext);
 
+    /**
+     * Allocates a range of consecutive IDs for a caller that expects to need up to {@code maxNumberOfIds} of them, e.g. a transaction
+     * creating many entities. Unlike {@link #nextConsecutiveIdRange(int, boolean, CursorContext)} the range may hold fewer IDs than asked for,
+     * so that runs of consecutive free IDs can be reused rather than passed over for new ones.
+     * IDs in the range that end up not being used must be released with {@link ConsecutiveIdRange#unallocate(TransactionalMarker)}.
+     *
+     * @param maxNumberOfIds the largest number of IDs the range may hold.
+     * @param cursorContext for tracing page accesses.
+     * @return a range of between one and {@code maxNumberOfIds} consecutive IDs.
+     */
+    default ConsecutiveIdRange nextIdRange(int maxNumberOfIds, CursorContext cursorContext) {
+        if (maxNumberOfIds == 1 || hasOnlySingleIds()) {
+            return new ConsecutiveIdRange(nextId(cursorContext), 1);
+        }
+        return new ConsecutiveIdRange(nextConsecutiveIdRange(maxNumberOfIds, false, cursorContext), maxNumberOfIds);
+    }
+
     /**
      * Reserve range of ids that cover whole page of the store
      * @param cursorContext for tracking cursor interaction.
@@ -332,6 +350,11 @@ public interface IdGenerator extends IdSequence, Closeable, ConsistencyCheckable
             return delegate.nextConsecutiveIdRange(numberOfIds, favorSamePage, cursorContext);
         }
 
+        @Override
+        public ConsecutiveIdRange nextIdRange(int maxNumberOfIds, CursorContext cursorContext) {
+            return delegate.nextIdRange(maxNumberOfIds, cursorContext);
+        }
+
         @Override
         public PageIdRange nextPageRange(CursorContext cursorContext, int idsPerPage) {
             return delegate.nextPageRange(cursorContext, idsPerPage);
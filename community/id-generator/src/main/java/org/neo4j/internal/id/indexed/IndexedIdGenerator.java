@@ -70,6 +70,7 @@ import org.neo4j.internal.id.IdSlotDistribution;
 import org.neo4j.internal.id.IdType;
 import org.neo4j.internal.id.IdValidator;
 import org.neo4j.internal.id.range.ArrayBasedRange;
+import org.neo4j.internal.id.range.ConsecutiveIdRange;
 import org.neo4j.internal.id.range.ContinuousIdRange;
 import org.neo4j.internal.id.range.PageIdRange;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -312,6 +313,11 @@ public class IndexedIdGenerator implements IdGenerator {
     private final boolean strictlyPrioritizeFreelist;
     private final int biggestSlotSize;
 
+    /**
+     * Sizes of the runs of consecutive IDs that the {@link #cache} holds, in ascending order.
+     */
+    private final int[] slotSizes;
+
     private final Set<Long> lockedPageRanges;
 
     public IndexedIdGenerator(
@@ -348,6 +354,10 @@ public class IndexedIdGenerator implements IdGenerator {
                 .map(IdSlotDistribution.Slot::slotSize)
                 .max(naturalOrder())
                 .orElseThrow();
+        this.slotSizes = Arrays.stream(slots)
+                .mapToInt(IdSlotDistribution.Slot::slotSize)
+                .sorted()
+                .toArray();
         this.maxId = maxId;
         this.monitor = monitor;
         this.lockedPageRanges = isMultiVersioned(openOptions) ? ConcurrentHashMap.newKeySet() : emptySet();
@@ -541,6 +551,27 @@ public class IndexedIdGenerator implements IdGenerator {
             }
         }
 
+        return allocateConsecutiveFromHighId(numberOfIds, favorSamePage);
+    }
+
+    @Override
+    public ConsecutiveIdRange nextIdRange(int maxNumberOfIds, CursorContext cursorContext) {
+        checkRefillCache(cursorContext);
+        // Prefer the largest run of free IDs that fits over growing the store, like single ID allocation does
+        for (int slotIndex = slotSizes.length - 1; slotIndex >= 0; slotIndex--) {
+            int slotSize = slotSizes[slotIndex];
+            if (slotSize <= maxNumberOfIds) {
+                long id = cache.takeOrDefault(NO_ID, slotSize, monitor, scanner::queueWastedCachedId);
+                if (id != NO_ID) {
+                    monitor.allocatedFromReused(id, slotSize);
+                    return new ConsecutiveIdRange(id, slotSize);
+                }
+            }
+        }
+        return new ConsecutiveIdRange(allocateConsecutiveFromHighId(maxNumberOfIds, false), maxNumberOfIds);
+    }
+
+    private long allocateConsecutiveFromHighId(int numberOfIds, boolean favorSamePage) {
         long readHighId;
         long endId;
         int skipped;
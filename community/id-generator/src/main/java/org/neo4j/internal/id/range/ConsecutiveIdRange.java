@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.id.range;
+
+import org.neo4j.internal.id.IdGenerator;
+
+/**
+ * Range of consecutive ids handed out by {@link IdGenerator#nextIdRange(int, org.neo4j.io.pagecache.context.CursorContext)}.
+ * Unlike a {@link PageIdRange} it is not tied to a page of the store, it may start anywhere in one page and end in another.
+ */
+public class ConsecutiveIdRange {
+    private final long rangeStart;
+    private final int rangeSize;
+    private int cursor;
+
+    public ConsecutiveIdRange(long rangeStart, int rangeSize) {
+        this.rangeStart = rangeStart;
+        this.rangeSize = rangeSize;
+    }
+
+    /**
+     * Id from this range. Should be used only in combination with {@link #hasNext()}
+     */
+    public long nextId() {
+        return rangeStart + (cursor++);
+    }
+
+    /**
+     * Check if there still any ids available in this range.
+     */
+    public boolean hasNext() {
+        return cursor < rangeSize;
+    }
+
+    /**
+     * Mark all ids left in this range as unallocated, such that they can be handed out again.
+     */
+    public void unallocate(IdGenerator.TransactionalMarker marker) {
+        if (hasNext()) {
+            marker.markUnallocated(rangeStart + cursor, rangeSize - cursor);
+        }
+    }
+
+    public int getRangeSize() {
+        return rangeSize;
+    }
+
+    @Override
+    public String toString() {
+        return "ConsecutiveIdRange{" + "rangeStart=" + rangeStart + ", rangeSize=" + rangeSize + ", cursor=" + cursor
+                + '}';
+    }
+}
@@ -22,7 +22,7 @@ package org.neo4j.internal.id.range;
 import org.neo4j.internal.id.IdGenerator;
 
 /**
- * Range that covers ids for the whole page of particular store
+ * Range of consecutive ids, e.g. covering the whole page of particular store
  */
 public class ContinuousIdRange implements PageIdRange {
     private final long rangeStart;
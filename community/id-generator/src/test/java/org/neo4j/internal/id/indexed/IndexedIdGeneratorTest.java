@@ -269,6 +269,72 @@ class IndexedIdGeneratorTest {
         assertThat(idGenerator.nextConsecutiveIdRange(2, true, NULL_CONTEXT)).isEqualTo(0);
     }
 
+    @Test
+    void shouldAllocateIdRangeFromHighIdWhenNoFreeIds() throws IOException {
+        // given
+        open(Config.defaults(), NO_MONITOR, false, diminishingSlotDistribution(new int[] {1, 2, 4}));
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        idGenerator.nextId(NULL_CONTEXT);
+
+        // when
+        var range = idGenerator.nextIdRange(100, NULL_CONTEXT);
+
+        // then
+        assertThat(range.getRangeSize()).isEqualTo(100);
+        assertThat(range.nextId()).isEqualTo(1);
+        assertThat(idGenerator.getHighId()).isEqualTo(101);
+    }
+
+    @Test
+    void shouldReuseLargestRunOfFreeIdsForIdRange() throws IOException {
+        // given
+        open(Config.defaults(), NO_MONITOR, false, diminishingSlotDistribution(new int[] {1, 2, 4}));
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long firstId = idGenerator.nextConsecutiveIdRange(4, true, NULL_CONTEXT);
+        long usedId = idGenerator.nextId(NULL_CONTEXT);
+        long singleId = idGenerator.nextId(NULL_CONTEXT);
+        markUsed(firstId, 4);
+        markUsed(usedId);
+        markUsed(singleId);
+        markDeleted(singleId);
+        markDeleted(firstId, 4);
+        markFree(singleId);
+        markFree(firstId, 4);
+        idGenerator.maintenance(NULL_CONTEXT);
+        long highId = idGenerator.getHighId();
+
+        // when
+        var largestRun = idGenerator.nextIdRange(100, NULL_CONTEXT);
+        var singleIdRun = idGenerator.nextIdRange(100, NULL_CONTEXT);
+
+        // then
+        assertThat(largestRun.getRangeSize()).isEqualTo(4);
+        assertThat(largestRun.nextId()).isEqualTo(firstId);
+        assertThat(singleIdRun.getRangeSize()).isEqualTo(1);
+        assertThat(singleIdRun.nextId()).isEqualTo(singleId);
+        assertThat(idGenerator.getHighId()).isEqualTo(highId);
+    }
+
+    @Test
+    void shouldNotHandOutIdRangeLargerThanAskedFor() throws IOException {
+        // given
+        open(Config.defaults(), NO_MONITOR, false, diminishingSlotDistribution(new int[] {1, 2, 4}));
+        idGenerator.start(NO_FREE_IDS, NULL_CONTEXT);
+        long firstId = idGenerator.nextConsecutiveIdRange(4, true, NULL_CONTEXT);
+        markUsed(firstId, 4);
+        markDeleted(firstId, 4);
+        markFree(firstId, 4);
+        idGenerator.maintenance(NULL_CONTEXT);
+
+        // when
+        var range = idGenerator.nextIdRange(2, NULL_CONTEXT);
+
+        // then
+        assertThat(range.getRangeSize()).isEqualTo(2);
+        assertThat(range.nextId()).isEqualTo(firstId);
+        assertThat(idGenerator.nextIdRange(2, NULL_CONTEXT).nextId()).isEqualTo(firstId + 2);
+    }
+
     @Test
     void shouldStayConsistentAndNotLoseIdsInConcurrent_Allocate_Delete_Free() throws Throwable {
         // given
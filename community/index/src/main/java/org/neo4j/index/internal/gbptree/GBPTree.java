@@ -156,6 +156,11 @@ public class GBPTree<KEY, VALUE> extends MultiRootGBPTree<SingleRoot, KEY, VALUE
         return access.allocateSeeker(cursorContext);
     }
 
+    @Override
+    public Seeker<KEY, VALUE> allocateScanSeeker(CursorContext cursorContext) throws IOException {
+        return access.allocateScanSeeker(cursorContext);
+    }
+
     @Override
     public Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, KEY fromInclusive, KEY toExclusive) throws IOException {
         return access.seek(seeker, fromInclusive, toExclusive);
@@ -100,7 +100,17 @@ class RootLayerSupport {
             LeafNodeBehaviour<K, V> leafNode,
             InternalNodeBehaviour<K> internalNode)
             throws IOException {
-        PageCursor cursor = pagedFile.io(0L /*ignored*/, PF_SHARED_READ_LOCK, cursorContext);
+        return internalAllocateSeeker(layout, cursorContext, leafNode, internalNode, 0);
+    }
+
+    <K, V> SeekCursor<K, V> internalAllocateSeeker(
+            Layout<K, V> layout,
+            CursorContext cursorContext,
+            LeafNodeBehaviour<K, V> leafNode,
+            InternalNodeBehaviour<K> internalNode,
+            int additionalPfFlags)
+            throws IOException {
+        PageCursor cursor = pagedFile.io(0L /*ignored*/, PF_SHARED_READ_LOCK | additionalPfFlags, cursorContext);
         return new SeekCursor<>(
                 cursor, layout, leafNode, internalNode, generationSupplier, exceptionDecorator, cursorContext);
     }
@@ -76,6 +76,18 @@ public interface Seeker<KEY, VALUE> extends Closeable {
          */
         Seeker<KEY, VALUE> allocateSeeker(CursorContext cursorContext) throws IOException;
 
+        /**
+         * Allocates a {@link Seeker} instance for seeking through large parts of the tree, like {@link #allocateSeeker(CursorContext)}.
+         * Where supported, the page cache pre-fetches the tree pages ahead of the seeker, as it progresses through the tree.
+         *
+         * @param cursorContext {@link CursorContext} to use in the {@link Seeker} instance.
+         * @return the allocated and reusable {@link Seeker} instance.
+         * @throws IOException on I/O error opening a seeker.
+         */
+        default Seeker<KEY, VALUE> allocateScanSeeker(CursorContext cursorContext) throws IOException {
+            return allocateSeeker(cursorContext);
+        }
+
         /**
          * Seeks hits in this tree, given a key range. Hits are iterated over using the returned {@link Seeker}.
          * There's no guarantee that neither the {@link KEY} nor the {@link VALUE} instances are immutable and so
@@ -24,6 +24,7 @@ import static org.neo4j.index.internal.gbptree.Generation.stableGeneration;
 import static org.neo4j.index.internal.gbptree.Generation.unstableGeneration;
 import static org.neo4j.index.internal.gbptree.SeekCursor.LEAF_LEVEL;
 import static org.neo4j.index.internal.gbptree.TreeNodeUtil.DATA_LAYER_FLAG;
+import static org.neo4j.io.pagecache.PagedFile.PF_READ_AHEAD;
 import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 import java.io.IOException;
@@ -199,6 +200,11 @@ class SingleRootLayer<KEY, VALUE> extends RootLayer<SingleRoot, KEY, VALUE> {
             return support.internalAllocateSeeker(layout, cursorContext, leafNode, internalNode);
         }
 
+        @Override
+        public Seeker<KEY, VALUE> allocateScanSeeker(CursorContext cursorContext) throws IOException {
+            return support.internalAllocateSeeker(layout, cursorContext, leafNode, internalNode, PF_READ_AHEAD);
+        }
+
         @Override
         public Seeker<KEY, VALUE> seek(Seeker<KEY, VALUE> seeker, KEY fromInclusive, KEY toExclusive)
                 throws IOException {
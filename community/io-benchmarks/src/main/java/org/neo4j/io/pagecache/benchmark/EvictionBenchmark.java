@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Eviction under memory pressure: concurrent writers dirty uniformly random pages of a file that is four times larger
+ * than the page cache. Most pages that get evicted are dirty, so the eviction thread and the writers that evict
+ * cooperatively have to flush them before they can be reused.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EvictionBenchmark extends PageCacheBenchmarkState {
+    private static final int CACHE_PAGES = 1024;
+    private static final int FILE_PAGES = 4 * CACHE_PAGES;
+
+    private PagedFile pagedFile;
+
+    @Override
+    protected int cachePages() {
+        return CACHE_PAGES;
+    }
+
+    @Override
+    protected void setUp() throws IOException {
+        pagedFile = createFile("eviction", FILE_PAGES);
+    }
+
+    @Override
+    protected void tearDown() {
+        pagedFile.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        private SplittableRandom random;
+        private PageCursor cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(EvictionBenchmark benchmark, ThreadParams threadParams) throws IOException {
+            random = new SplittableRandom(threadParams.getThreadIndex());
+            cursor = benchmark.pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void dirtyRandomPages(Writer writer) throws IOException {
+        PageCursor cursor = writer.cursor;
+        long pageId = writer.random.nextInt(FILE_PAGES);
+        cursor.next(pageId);
+        cursor.putLong(0, pageId);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Flushing a file with a number of dirty pages, spread evenly over the file. Few dirty pages are flushed one by one,
+ * while a fully dirty file is flushed with large vectored writes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlushAndForceBenchmark extends PageCacheBenchmarkState {
+    private static final int FILE_PAGES = 1024;
+
+    @Param({"16", "256", "1024"})
+    public int dirtyPages;
+
+    private PagedFile pagedFile;
+
+    @Override
+    protected int cachePages() {
+        return 2 * FILE_PAGES;
+    }
+
+    @Override
+    protected void setUp() throws IOException {
+        pagedFile = createFile("flush", FILE_PAGES);
+    }
+
+    @Override
+    protected void tearDown() {
+        pagedFile.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void dirtyPages() throws IOException {
+        int stride = FILE_PAGES / dirtyPages;
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (long pageId = 0; pageId < FILE_PAGES; pageId += stride) {
+                cursor.next(pageId);
+                cursor.putLong(0, pageId);
+            }
+        }
+    }
+
+    @Benchmark
+    public void flushAndForce() throws IOException {
+        pagedFile.flushAndForce(FileFlushEvent.NULL);
+    }
+}
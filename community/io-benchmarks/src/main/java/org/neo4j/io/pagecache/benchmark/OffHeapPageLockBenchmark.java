@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.pagecache.impl.muninn.OffHeapPageLock;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Optimistic reads of a page guarded by an {@link OffHeapPageLock}, alone and next to a writer that keeps taking the
+ * write lock of the page. The {@code retries} counter shows how many reads had to be retried because the write lock was
+ * taken while they were reading.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {
+            "-Xms2g",
+            "-Xmx2g",
+            "--add-opens=java.base/java.nio=ALL-UNNAMED",
+            "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"
+        })
+public class OffHeapPageLockBenchmark {
+    // The lock word, followed by a long of page data
+    private static final long SIZE = 2 * Long.BYTES;
+
+    private long address;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        address = UnsafeUtil.allocateMemory(SIZE, EmptyMemoryTracker.INSTANCE);
+        UnsafeUtil.putLong(address, OffHeapPageLock.initialLockWordWithExclusiveLock());
+        UnsafeUtil.putLong(address + Long.BYTES, 0);
+        OffHeapPageLock.unlockExclusive(address);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        UnsafeUtil.free(address, SIZE, EmptyMemoryTracker.INSTANCE);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ReadRetries {
+        public long retries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retries = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    public long optimisticRead(ReadRetries readRetries) {
+        return read(readRetries);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public long contendedOptimisticRead(ReadRetries readRetries) {
+        return read(readRetries);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void write() {
+        if (OffHeapPageLock.tryWriteLock(address, false)) {
+            UnsafeUtil.putLong(address + Long.BYTES, UnsafeUtil.getLong(address + Long.BYTES) + 1);
+            OffHeapPageLock.unlockWrite(address);
+        }
+    }
+
+    private long read(ReadRetries readRetries) {
+        long stamp = OffHeapPageLock.tryOptimisticReadLock(address);
+        long value = UnsafeUtil.getLong(address + Long.BYTES);
+        while (!OffHeapPageLock.validateReadLock(address, stamp)) {
+            readRetries.retries++;
+            stamp = OffHeapPageLock.tryOptimisticReadLock(address);
+            value = UnsafeUtil.getLong(address + Long.BYTES);
+        }
+        return value;
+    }
+}
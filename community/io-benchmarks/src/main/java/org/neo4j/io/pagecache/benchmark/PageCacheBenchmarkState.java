@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.eclipse.collections.api.factory.Sets;
+import org.neo4j.io.IOUtils;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.test.scheduler.ThreadPoolJobScheduler;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A page cache for a benchmark, on top of either an in-memory file system, or a real file system in a directory that
+ * should be on tmpfs. Either way the benchmarks measure the page cache, and not the disk.
+ * <p>
+ * The tmpfs directory is {@code /dev/shm}, unless it is overridden with the {@value #TMPFS_DIRECTORY_PROPERTY} system
+ * property, e.g. {@code java -jar benchmarks.jar -jvmArgsAppend -Dneo4j.benchmark.tmpfs=/mnt/tmpfs}.
+ * <p>
+ * All page cache benchmarks share the same fork, warmup and measurement settings, and a fixed heap, so that results
+ * of different commits can be compared.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {
+            "-Xms2g",
+            "-Xmx2g",
+            "--add-opens=java.base/java.nio=ALL-UNNAMED",
+            "--add-opens=java.base/sun.nio.ch=ALL-UNNAMED"
+        })
+public abstract class PageCacheBenchmarkState {
+    public static final String TMPFS_DIRECTORY_PROPERTY = "neo4j.benchmark.tmpfs";
+    static final String DATABASE_NAME = "benchmark";
+
+    public enum FileSystemType {
+        EPHEMERAL,
+        TMPFS
+    }
+
+    @Param({"EPHEMERAL", "TMPFS"})
+    public FileSystemType fileSystem;
+
+    protected FileSystemAbstraction fs;
+    protected Path directory;
+    protected PageCache pageCache;
+    private JobScheduler jobScheduler;
+
+    @Setup(Level.Trial)
+    public void setUpPageCache() throws IOException {
+        if (fileSystem == FileSystemType.EPHEMERAL) {
+            fs = new EphemeralFileSystemAbstraction();
+            directory = Path.of("/benchmark").toAbsolutePath();
+            fs.mkdirs(directory);
+        } else {
+            fs = new DefaultFileSystemAbstraction();
+            Path tmpfs = Path.of(System.getProperty(TMPFS_DIRECTORY_PROPERTY, "/dev/shm"));
+            directory = Files.createTempDirectory(tmpfs, "page-cache-benchmark");
+        }
+        jobScheduler = new ThreadPoolJobScheduler();
+        var swapperFactory = new SingleFilePageSwapperFactory(fs, PageCacheTracer.NULL, EmptyMemoryTracker.INSTANCE);
+        pageCache = new MuninnPageCache(swapperFactory, jobScheduler, configure(MuninnPageCache.config(cachePages())));
+        setUp();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownPageCache() throws Exception {
+        try {
+            tearDown();
+        } finally {
+            IOUtils.closeAll(pageCache, jobScheduler);
+            fs.deleteRecursively(directory);
+            fs.close();
+        }
+    }
+
+    /**
+     * @return the number of pages in the page cache.
+     */
+    protected abstract int cachePages();
+
+    protected MuninnPageCache.Configuration configure(MuninnPageCache.Configuration configuration) {
+        return configuration;
+    }
+
+    protected void setUp() throws IOException {}
+
+    protected void tearDown() throws IOException {}
+
+    /**
+     * Create and map a file with the given number of pages. Every long of a page holds the id of that page, and the
+     * file is flushed, so none of its pages are dirty.
+     */
+    protected PagedFile createFile(String name, int pages) throws IOException {
+        PagedFile pagedFile =
+                pageCache.map(directory.resolve(name), pageCache.pageSize(), DATABASE_NAME, Sets.immutable.of(CREATE));
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            for (long pageId = 0; pageId < pages; pageId++) {
+                cursor.next(pageId);
+                for (int offset = 0; offset + Long.BYTES <= pagedFile.payloadSize(); offset += Long.BYTES) {
+                    cursor.putLong(offset, pageId);
+                }
+            }
+        }
+        pagedFile.flushAndForce(FileFlushEvent.NULL);
+        return pagedFile;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * The cursor hot path: pinning pages that are already in the page cache, and reading from them. One operation is one
+ * page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PageCursorBenchmark extends PageCacheBenchmarkState {
+    private static final int FILE_PAGES = 1024;
+
+    private PagedFile pagedFile;
+
+    @Override
+    protected int cachePages() {
+        return 2 * FILE_PAGES;
+    }
+
+    @Override
+    protected void setUp() throws IOException {
+        pagedFile = createFile("cursor", FILE_PAGES);
+    }
+
+    @Override
+    protected void tearDown() {
+        pagedFile.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_PAGES)
+    public long next() throws IOException {
+        long pages = 0;
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            while (cursor.next()) {
+                pages++;
+            }
+        }
+        return pages;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILE_PAGES)
+    public long nextAndGetLong() throws IOException {
+        long sum = 0;
+        int payloadSize = pagedFile.payloadSize();
+        try (PageCursor cursor = pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT)) {
+            while (cursor.next()) {
+                long pageSum;
+                do {
+                    pageSum = 0;
+                    for (int offset = 0; offset + Long.BYTES <= payloadSize; offset += Long.BYTES) {
+                        pageSum += cursor.getLong(offset);
+                    }
+                } while (cursor.shouldRetry());
+                sum += pageSum;
+            }
+        }
+        return sum;
+    }
+}
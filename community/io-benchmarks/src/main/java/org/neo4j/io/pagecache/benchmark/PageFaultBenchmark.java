@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.benchmark;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Cold page faults: every operation reads a uniformly random page of a file that is sixteen times larger than the page
+ * cache, so nearly every operation faults in a page, and evicts a clean one to make room for it. Runs with a single
+ * freelist and with a striped one, to show how striping the freelist helps concurrent page faults.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PageFaultBenchmark extends PageCacheBenchmarkState {
+    private static final int CACHE_PAGES = 1024;
+    private static final int FILE_PAGES = 16 * CACHE_PAGES;
+
+    @Param({"1", "4"})
+    public int freelistStripes;
+
+    private PagedFile pagedFile;
+
+    @Override
+    protected int cachePages() {
+        return CACHE_PAGES;
+    }
+
+    @Override
+    protected MuninnPageCache.Configuration configure(MuninnPageCache.Configuration configuration) {
+        return configuration.freelistStripes(freelistStripes);
+    }
+
+    @Override
+    protected void setUp() throws IOException {
+        pagedFile = createFile("faults", FILE_PAGES);
+    }
+
+    @Override
+    protected void tearDown() {
+        pagedFile.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+        private SplittableRandom random;
+        private PageCursor cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(PageFaultBenchmark benchmark, ThreadParams threadParams) throws IOException {
+            // Seeded by thread, so every run reads the same pages in the same order
+            random = new SplittableRandom(threadParams.getThreadIndex());
+            cursor = benchmark.pagedFile.io(0, PF_SHARED_READ_LOCK, NULL_CONTEXT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            cursor.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long fault(Reader reader) throws IOException {
+        return readRandomPage(reader);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long faultConcurrently(Reader reader) throws IOException {
+        return readRandomPage(reader);
+    }
+
+    private static long readRandomPage(Reader reader) throws IOException {
+        PageCursor cursor = reader.cursor;
+        cursor.next(reader.random.nextInt(FILE_PAGES));
+        long value;
+        do {
+            value = cursor.getLong(0);
+        } while (cursor.shouldRetry());
+        return value;
+    }
+}
@@ -22,6 +22,8 @@ package org.neo4j.io.fs;
 import java.io.Flushable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.InterruptibleChannel;
@@ -101,4 +103,12 @@ public interface StoreChannel
      * An uninterruptible channel will not automatically close itself if a calling thread is interrupted before or during an IO operation.
      */
     void tryMakeUninterruptible();
+
+    /**
+     * Map a region of this channel's file directly into memory.
+     * @return the mapped region, or {@code null} if this channel is not backed by a file that can be memory mapped,
+     * in which case the region has to be read through the channel instead.
+     * @see FileChannel#map(FileChannel.MapMode, long, long)
+     */
+    MappedByteBuffer map(FileChannel.MapMode mode, long position, long size) throws IOException;
 }
@@ -30,6 +30,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import org.neo4j.function.ThrowingFunction;
@@ -219,6 +220,11 @@ public class StoreFileChannel implements StoreChannel {
         channel.force(metaData);
     }
 
+    @Override
+    public MappedByteBuffer map(FileChannel.MapMode mode, long position, long size) throws IOException {
+        return channel.map(mode, position, size);
+    }
+
     @Override
     public int read(ByteBuffer dst) throws IOException {
         return channel.read(dst);
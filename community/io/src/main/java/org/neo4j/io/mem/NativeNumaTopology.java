@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import org.neo4j.internal.nativeimpl.NativeAccess;
+
+final class NativeNumaTopology implements NumaTopology {
+    private final NativeAccess nativeAccess;
+    private final int nodeCount;
+
+    NativeNumaTopology(NativeAccess nativeAccess) {
+        this.nativeAccess = nativeAccess;
+        this.nodeCount = nativeAccess.getNumaNodeCount();
+    }
+
+    @Override
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public int currentNode() {
+        return nativeAccess.getCurrentNumaNode();
+    }
+
+    @Override
+    public void bindMemory(long address, long bytes, int node) {
+        // Memory placement is only an optimisation. The memory is perfectly usable wherever the operating system puts
+        // it, so failures are ignored.
+        nativeAccess.tryBindMemoryToNumaNode(address, bytes, node);
+    }
+
+    @Override
+    public String toString() {
+        return "NumaTopology[nodes=" + nodeCount + "]";
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.mem;
+
+import org.neo4j.internal.nativeimpl.NativeAccess;
+import org.neo4j.internal.nativeimpl.NativeAccessProvider;
+
+/**
+ * The NUMA nodes of the machine, and a way to place memory on them.
+ * <p>
+ * Nodes are numbered from zero up to, but not including, {@link #nodeCount()}.
+ */
+public interface NumaTopology {
+    /**
+     * Topology of a machine without NUMA, or where NUMA should be ignored.
+     */
+    NumaTopology SINGLE_NODE = new NumaTopology() {
+        @Override
+        public int nodeCount() {
+            return 1;
+        }
+
+        @Override
+        public int currentNode() {
+            return 0;
+        }
+
+        @Override
+        public void bindMemory(long address, long bytes, int node) {}
+
+        @Override
+        public String toString() {
+            return "NumaTopology[nodes=1]";
+        }
+    };
+
+    /**
+     * @return the topology of this machine, or {@link #SINGLE_NODE} if it has only one node or if the topology can not
+     * be determined.
+     */
+    static NumaTopology detect() {
+        NativeAccess nativeAccess = NativeAccessProvider.getNativeAccess();
+        if (!nativeAccess.isAvailable() || nativeAccess.getNumaNodeCount() < 2) {
+            return SINGLE_NODE;
+        }
+        return new NativeNumaTopology(nativeAccess);
+    }
+
+    /**
+     * @return the number of NUMA nodes.
+     */
+    int nodeCount();
+
+    /**
+     * @return the node the calling thread is currently running on. Threads can move between nodes at any time, so
+     * this is only a hint.
+     */
+    int currentNode();
+
+    /**
+     * Place the memory of the given region on the given node, as far as possible. This is only a hint, and is best
+     * applied before the memory is first written to.
+     *
+     * @param address start of the region, aligned to the operating system page size.
+     * @param bytes size of the region.
+     * @param node the node to place the memory on.
+     */
+    void bindMemory(long address, long bytes, int node);
+}
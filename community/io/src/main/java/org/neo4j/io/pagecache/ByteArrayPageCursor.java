@@ -391,6 +391,16 @@ public class ByteArrayPageCursor extends PageCursor {
         @Override
         public void flushAndForce(FileFlushEvent flushEvent) {}
 
+        @Override
+        public long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) {
+            return 0;
+        }
+
+        @Override
+        public long dirtyPages() {
+            return 0;
+        }
+
         @Override
         public long getLastPageId() {
             return 0;
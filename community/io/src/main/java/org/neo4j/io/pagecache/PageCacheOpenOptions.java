@@ -44,6 +44,13 @@ public enum PageCacheOpenOptions implements OpenOption {
      */
     DIRECT,
 
+    /**
+     * Keep the pages of the mapped file compressed on disk. Files that are created by the mapping become compressed,
+     * existing files keep the format recorded in them. A compressed file must always be mapped with this option. Takes precedence over {@link #DIRECT}.
+     * @see PageSwapperFactory#createCompressedPageSwapper
+     */
+    COMPRESSED,
+
     /**
      * Use big-endian byte order when operating with mapped file
      */
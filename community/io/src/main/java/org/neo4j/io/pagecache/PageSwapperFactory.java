@@ -69,4 +69,40 @@ public interface PageSwapperFactory {
             EvictionBouncer evictionBouncer,
             SwapperSet swappers)
             throws IOException;
+
+    /**
+     * Create a PageSwapper that keeps the pages of the given file compressed on disk. Only files that are created, or
+     * are still empty, become compressed. Existing files keep the format they were written in. A compressed file must
+     * always be mapped through this method, {@link #createPageSwapper} does not look at the file header.
+     *
+     * @param path The file that the PageSwapper will move file pages in and out of.
+     * @param filePageSize The size of the uncompressed pages in the file.
+     * @param onEviction The PageSwapper will be told about evictions, and has the responsibility of informing the
+     * PagedFile via this callback.
+     * @param createIfNotExist When true, creates the given file if it does not exist, instead of throwing an
+     * exception.
+     * @param ioController controller to report swapper io's
+     * @param evictionBouncer eviction bouncer to check if flushing for the dirty page is still required or can be skipped
+     * @param swappers set of already registered swappers
+     * @return A working PageSwapper instance for the given file.
+     * @throws IOException If the PageSwapper could not be created, or if this factory does not support compression.
+     */
+    default PageSwapper createCompressedPageSwapper(
+            Path path,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist,
+            IOController ioController,
+            EvictionBouncer evictionBouncer,
+            SwapperSet swappers)
+            throws IOException {
+        throw new IOException("Cannot map " + path + " compressed, compression is not supported by "
+                + getClass().getSimpleName() + ".");
+    }
+
+    /**
+     * Release any resources held by the factory. Called when the page cache that owns the factory is closed, after all
+     * files have been unmapped.
+     */
+    default void close() {}
 }
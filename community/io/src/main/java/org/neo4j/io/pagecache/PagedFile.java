@@ -178,6 +178,28 @@ public interface PagedFile extends AutoCloseable {
      */
     void flushAndForce(FileFlushEvent flushEvent) throws IOException;
 
+    /**
+     * Write back some of the dirty pages of this file, without forcing the file to disk. This is meant for flushing
+     * dirty pages incrementally in the background, so that the next {@link #flushAndForce(FileFlushEvent)} has less
+     * to do. Pages are written back in the order they were dirtied since a previous call last visited them, so the
+     * cost of a call depends on the number of dirty pages rather than the size of the file. Only the first call on a
+     * file visits all of its pages, to find the pages that were dirtied before. Pages that are being flushed by
+     * someone else are skipped until the next call. IO will be limited by the specific io controller used by mapped
+     * file.
+     *
+     * @param maxPages the maximum number of pages to write back.
+     * @param flushEvent event to report the flushed pages to.
+     * @return the number of pages written back, at most {@code maxPages}.
+     */
+    long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) throws IOException;
+
+    /**
+     * @return the number of pages that {@link #flushDirtyPages(long, FileFlushEvent)} has yet to visit, because they
+     * were dirtied since it last visited them. Pages written back by other means in the meantime are still counted.
+     * This is {@code 0} until the first call to {@link #flushDirtyPages(long, FileFlushEvent)}.
+     */
+    long dirtyPages();
+
     /**
      * Get the file-page-id of the last page in the file.
      * <p>
@@ -22,7 +22,7 @@ package org.neo4j.io.pagecache.impl;
 import java.io.IOException;
 import org.neo4j.io.fs.StoreChannel;
 
-sealed interface BlockSwapper permits UnsafeBlockSwapper, FallbackBlockSwapper {
+sealed interface BlockSwapper permits UnsafeBlockSwapper, FallbackBlockSwapper, IoUringBlockSwapper {
     /**
      * Reads from channel to specified location in memory
      */
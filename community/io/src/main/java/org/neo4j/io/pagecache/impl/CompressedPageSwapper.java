@@ -0,0 +1,891 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.io.fs.DefaultFileSystemAbstraction.WRITE_OPTIONS;
+
+import com.github.luben.zstd.Zstd;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.CRC32C;
+import org.apache.commons.lang3.SystemUtils;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.memory.ByteBuffers;
+import org.neo4j.io.pagecache.IOController;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PageEvictionCallback;
+import org.neo4j.io.pagecache.PageSwapper;
+import org.neo4j.io.pagecache.impl.muninn.EvictionBouncer;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
+import org.neo4j.io.pagecache.tracing.PageFileSwapperTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A PageSwapper that keeps the pages of a single file zstd compressed on disk.
+ * <p>
+ * The page cache still sees fixed size file pages. Every page is compressed on its way out, and decompressed straight
+ * into its page cache frame on fault. On disk the file is a header followed by records, each holding one version of
+ * one page and aligned to {@link #BLOCK_SIZE} bytes:
+ * <pre>
+ * [magic:int][flags:int][filePageId:long][sequence:long][storedLength:int][checksum:int][page data...]
+ * </pre>
+ * Pages that do not compress are stored as is. Records are never overwritten while they hold the latest durable
+ * version of a page: a new version goes to a free record, or to the end of the file, and the record with the previous
+ * version only becomes free again after the next {@link #force()}. A torn write can therefore not damage a durable
+ * page.
+ * <p>
+ * The record offset of each page is kept in an in-memory map. When the file is closed that map, and the free records,
+ * are written as an index after the last record, and the file header points to it. Opening the file again loads the
+ * index and removes the pointer before anything else is written. Only when there is no valid index, because the file
+ * was not closed cleanly, is every record scanned, and for each page the valid record with the highest sequence number
+ * wins.
+ * <p>
+ * The file header also marks the file as compressed, see {@link #isCompressedFile(FileSystemAbstraction, Path)}, so
+ * the file is never mistaken for a plain store file. This swapper is meant for cold, mostly read store files, where
+ * the disk space saved is worth the extra CPU spent on every fault and flush.
+ */
+public class CompressedPageSwapper implements PageSwapper {
+    static final int BLOCK_SIZE = 512;
+    private static final int FILE_HEADER_SIZE = BLOCK_SIZE;
+    private static final long FILE_MAGIC = 0x4E43_5041_4745_5A01L; // "NCPAGEZ" + format version 1
+    private static final int HEADER_PAGE_SIZE_OFFSET = 8;
+    static final int HEADER_INDEX_OFFSET_OFFSET = 16;
+    private static final int HEADER_INDEX_LENGTH_OFFSET = 24;
+    private static final int HEADER_INDEX_CHECKSUM_OFFSET = 32;
+    private static final int RECORD_MAGIC = 0x5A50_4147; // "ZPAG"
+    private static final int MAGIC_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 4;
+    private static final int PAGE_ID_OFFSET = 8;
+    private static final int SEQUENCE_OFFSET = 16;
+    private static final int STORED_LENGTH_OFFSET = 24;
+    private static final int CHECKSUM_OFFSET = 28;
+    private static final int RECORD_HEADER_SIZE = 32;
+    private static final int FLAG_UNCOMPRESSED = 1;
+    private static final long NO_RECORD = 0; // the file header is at offset 0, so no record can ever be there
+    // [endOfFile:long][nextSequence:long][logicalFileSize:long][pageCount:int][freeRecordCount:int]
+    private static final int INDEX_HEADER_SIZE = 3 * Long.BYTES + 2 * Integer.BYTES;
+    // [offset:long][size:int], both for pages and for free records
+    private static final int INDEX_ENTRY_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int INDEX_CHUNK_SIZE = 1 << 16;
+    // Faults are latency sensitive, so favour compression speed over ratio.
+    private static final int COMPRESSION_LEVEL = 1;
+
+    private final FileSystemAbstraction fs;
+    private final Path path;
+    private final int filePageSize;
+    private final IOController ioController;
+    private final PageFileSwapperTracer fileSwapperTracer;
+    private final EvictionBouncer evictionBouncer;
+    private final MemoryTracker memoryTracker;
+    private final StoreChannel channel;
+    private final int maxCompressedSize;
+    private final int swapperId;
+    // Off-heap buffers for the records, and pages, that are on their way in and out. A buffer is taken for a single
+    // read or write, and only allocated when all pooled ones are in use.
+    private final AtomicReferenceArray<ByteBuffer> scratchBuffers;
+    private final int scratchSize;
+    private FileLock fileLock;
+    private volatile PageEvictionCallback onEviction;
+
+    // All fields below are guarded by synchronized(this).
+    private long[] recordOffsets = new long[0];
+    private int[] recordSizes = new int[0];
+    // Free records by their size in blocks. Records are at most one uncompressed page, so this has few entries.
+    private LongArrayList[] freeRecords;
+    // Records holding superseded page versions, that become free once the versions that replaced them are durable.
+    private LongArrayList pendingFreeOffsets = new LongArrayList();
+    private IntArrayList pendingFreeSizes = new IntArrayList();
+    private long endOfFile;
+    private long nextSequence;
+    private long logicalFileSize;
+
+    CompressedPageSwapper(
+            Path path,
+            FileSystemAbstraction fs,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            IOController ioController,
+            SwapperSet swapperSet,
+            PageFileSwapperTracer fileSwapperTracer,
+            EvictionBouncer evictionBouncer,
+            MemoryTracker memoryTracker)
+            throws IOException {
+        this.fs = fs;
+        this.path = path;
+        this.filePageSize = filePageSize;
+        this.onEviction = onEviction;
+        this.ioController = ioController;
+        this.fileSwapperTracer = fileSwapperTracer;
+        this.evictionBouncer = evictionBouncer;
+        this.memoryTracker = memoryTracker;
+        this.maxCompressedSize = Math.toIntExact(Zstd.compressBound(filePageSize));
+        this.scratchSize = recordSize(maxCompressedSize) + filePageSize;
+        this.scratchBuffers = new AtomicReferenceArray<>(Runtime.getRuntime().availableProcessors());
+        this.freeRecords = newFreeRecords();
+        this.channel = fs.open(path, WRITE_OPTIONS);
+        channel.tryMakeUninterruptible();
+
+        try {
+            acquireLock();
+            long size = channel.size();
+            if (size == 0) {
+                writeFileHeader(0, 0, 0);
+                endOfFile = FILE_HEADER_SIZE;
+            } else {
+                ByteBuffer header = readFileHeader(size);
+                if (!loadIndex(header, size)) {
+                    scanRecords(size);
+                }
+                if (header.getLong(HEADER_INDEX_OFFSET_OFFSET) != 0) {
+                    // The index goes stale with the first write, so it must be gone before that write can happen.
+                    writeFileHeader(0, 0, 0);
+                    channel.force(false);
+                    channel.truncate(endOfFile);
+                }
+            }
+        } catch (IOException e) {
+            try {
+                channel.close();
+            } catch (IOException ioe) {
+                e.addSuppressed(ioe);
+            }
+            throw e;
+        }
+        this.swapperId = swapperSet.allocate(this);
+    }
+
+    /**
+     * @return {@code true} if the given file has the header of a file written by this swapper. Such a file must only be
+     * read through this swapper, and must therefore be mapped with
+     * {@link org.neo4j.io.pagecache.PageCacheOpenOptions#COMPRESSED}.
+     */
+    public static boolean isCompressedFile(FileSystemAbstraction fs, Path path) throws IOException {
+        try (StoreChannel channel = fs.read(path)) {
+            if (channel.size() < FILE_HEADER_SIZE) {
+                return false;
+            }
+            ByteBuffer magic = ByteBuffer.allocate(Long.BYTES);
+            channel.readAll(magic);
+            return magic.getLong(0) == FILE_MAGIC;
+        }
+    }
+
+    private void acquireLock() throws IOException {
+        if (SystemUtils.IS_OS_WINDOWS) {
+            // See SingleFilePageSwapper, file locks on Windows restrict all IO to the locking channel.
+            return;
+        }
+
+        try {
+            fileLock = channel.tryLock();
+            if (fileLock == null) {
+                throw new FileLockException(path);
+            }
+        } catch (OverlappingFileLockException e) {
+            throw new FileLockException(path, e);
+        }
+    }
+
+    private void writeFileHeader(long indexOffset, long indexLength, int indexChecksum) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putLong(0, FILE_MAGIC)
+                .putInt(HEADER_PAGE_SIZE_OFFSET, filePageSize)
+                .putLong(HEADER_INDEX_OFFSET_OFFSET, indexOffset)
+                .putLong(HEADER_INDEX_LENGTH_OFFSET, indexLength)
+                .putInt(HEADER_INDEX_CHECKSUM_OFFSET, indexChecksum);
+        channel.writeAll(header, 0);
+    }
+
+    private ByteBuffer readFileHeader(long size) throws IOException {
+        if (size < FILE_HEADER_SIZE) {
+            throw new IOException("File " + path + " is not a compressed store file, it is only " + size + " bytes.");
+        }
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        readFully(header, 0);
+        long magic = header.getLong(0);
+        if (magic != FILE_MAGIC) {
+            throw new IOException(
+                    "File " + path + " is not a compressed store file, magic: " + Long.toHexString(magic) + ".");
+        }
+        int storedPageSize = header.getInt(HEADER_PAGE_SIZE_OFFSET);
+        if (storedPageSize != filePageSize) {
+            throw new IOException("Compressed store file " + path + " has page size " + storedPageSize
+                    + ", but was mapped with page size " + filePageSize + ".");
+        }
+        return header;
+    }
+
+    /**
+     * Load the offset map and the free records from the index written when the file was last closed.
+     *
+     * @return {@code false} if there is no index, or if it is not intact, in which case nothing has been loaded.
+     */
+    private boolean loadIndex(ByteBuffer header, long size) throws IOException {
+        long indexOffset = header.getLong(HEADER_INDEX_OFFSET_OFFSET);
+        long indexLength = header.getLong(HEADER_INDEX_LENGTH_OFFSET);
+        if (indexOffset < FILE_HEADER_SIZE || indexLength < INDEX_HEADER_SIZE || indexOffset + indexLength > size) {
+            return false;
+        }
+
+        IndexReader reader = new IndexReader(indexOffset, indexLength);
+        ByteBuffer chunk = reader.next(INDEX_HEADER_SIZE);
+        long indexedEndOfFile = chunk.getLong();
+        long indexedNextSequence = chunk.getLong();
+        long indexedLogicalFileSize = chunk.getLong();
+        int pageCount = chunk.getInt();
+        int freeRecordCount = chunk.getInt();
+        if (indexedEndOfFile != indexOffset
+                || pageCount < 0
+                || freeRecordCount < 0
+                || indexLength != INDEX_HEADER_SIZE + (long) (pageCount + freeRecordCount) * INDEX_ENTRY_SIZE) {
+            return false;
+        }
+
+        long[] offsets = new long[pageCount];
+        int[] sizes = new int[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            chunk = reader.next(INDEX_ENTRY_SIZE);
+            offsets[i] = chunk.getLong();
+            sizes[i] = chunk.getInt();
+        }
+        LongArrayList[] free = newFreeRecords();
+        for (int i = 0; i < freeRecordCount; i++) {
+            chunk = reader.next(INDEX_ENTRY_SIZE);
+            long offset = chunk.getLong();
+            int blocks = chunk.getInt() / BLOCK_SIZE;
+            if (blocks <= 0 || blocks >= free.length) {
+                return false;
+            }
+            addFreeRecord(free, offset, blocks);
+        }
+        if (reader.checksum() != header.getInt(HEADER_INDEX_CHECKSUM_OFFSET)) {
+            return false;
+        }
+
+        recordOffsets = offsets;
+        recordSizes = sizes;
+        freeRecords = free;
+        endOfFile = indexedEndOfFile;
+        nextSequence = indexedNextSequence;
+        logicalFileSize = indexedLogicalFileSize;
+        return true;
+    }
+
+    /**
+     * Write the offset map and the free records after the last record, and point the file header to them. Everything
+     * written before must be durable first, since the index only describes durable records.
+     */
+    private void writeIndex() throws IOException {
+        channel.force(false);
+        releasePendingFreeRecords(pendingFreeOffsets, pendingFreeSizes);
+        pendingFreeOffsets = new LongArrayList();
+        pendingFreeSizes = new IntArrayList();
+
+        int freeRecordCount = 0;
+        for (LongArrayList records : freeRecords) {
+            freeRecordCount += records == null ? 0 : records.size();
+        }
+        long indexOffset = endOfFile;
+        CRC32C crc = new CRC32C();
+        ByteBuffer chunk = ByteBuffer.allocate(INDEX_CHUNK_SIZE);
+        long position = indexOffset;
+        chunk.putLong(endOfFile)
+                .putLong(nextSequence)
+                .putLong(logicalFileSize)
+                .putInt(recordOffsets.length)
+                .putInt(freeRecordCount);
+        for (int i = 0; i < recordOffsets.length; i++) {
+            if (chunk.remaining() < INDEX_ENTRY_SIZE) {
+                position = writeIndexChunk(chunk, position, crc);
+            }
+            chunk.putLong(recordOffsets[i]).putInt(recordSizes[i]);
+        }
+        for (int blocks = 0; blocks < freeRecords.length; blocks++) {
+            LongArrayList records = freeRecords[blocks];
+            for (int i = 0; records != null && i < records.size(); i++) {
+                if (chunk.remaining() < INDEX_ENTRY_SIZE) {
+                    position = writeIndexChunk(chunk, position, crc);
+                }
+                chunk.putLong(records.get(i)).putInt(blocks * BLOCK_SIZE);
+            }
+        }
+        position = writeIndexChunk(chunk, position, crc);
+        channel.force(false);
+        writeFileHeader(indexOffset, position - indexOffset, (int) crc.getValue());
+        channel.force(false);
+    }
+
+    private long writeIndexChunk(ByteBuffer chunk, long position, CRC32C crc) throws IOException {
+        chunk.flip();
+        crc.update(chunk);
+        chunk.rewind();
+        channel.writeAll(chunk, position);
+        position += chunk.limit();
+        chunk.clear();
+        return position;
+    }
+
+    /**
+     * Rebuild the offset map from the records in the file. Anything that is not a valid record, like the remains of a
+     * torn write, is skipped block by block and becomes free space, as do records holding superseded page versions.
+     */
+    private void scanRecords(long size) throws IOException {
+        ByteBuffer buffer = acquireScratch();
+        try {
+            long[] sequences = new long[0];
+            long position = FILE_HEADER_SIZE;
+            long lastPageId = -1;
+            int maxRecordSize = recordSize(filePageSize);
+            while (position + RECORD_HEADER_SIZE <= size) {
+                buffer.clear().limit((int) Math.min(maxRecordSize, size - position));
+                readFully(buffer, position);
+                int recordSize = validRecordSize(buffer);
+                if (recordSize == -1) {
+                    addFreeRecord(freeRecords, position, 1);
+                    position += BLOCK_SIZE;
+                    continue;
+                }
+
+                long filePageId = buffer.getLong(PAGE_ID_OFFSET);
+                long sequence = buffer.getLong(SEQUENCE_OFFSET);
+                ensureCapacity(filePageId);
+                int index = (int) filePageId;
+                if (sequences.length < recordOffsets.length) {
+                    sequences = Arrays.copyOf(sequences, recordOffsets.length);
+                }
+                if (recordOffsets[index] == NO_RECORD || sequences[index] < sequence) {
+                    if (recordOffsets[index] != NO_RECORD) {
+                        addFreeRecord(freeRecords, recordOffsets[index], recordSizes[index] / BLOCK_SIZE);
+                    }
+                    recordOffsets[index] = position;
+                    recordSizes[index] = recordSize;
+                    sequences[index] = sequence;
+                } else {
+                    addFreeRecord(freeRecords, position, recordSize / BLOCK_SIZE);
+                }
+                nextSequence = Math.max(nextSequence, sequence + 1);
+                lastPageId = Math.max(lastPageId, filePageId);
+                position += recordSize;
+            }
+            endOfFile = position;
+            logicalFileSize = (lastPageId + 1) * filePageSize;
+        } finally {
+            releaseScratch(buffer);
+        }
+    }
+
+    /**
+     * @return the size of the record at the start of the given buffer, or {@code -1} if it is not a valid record.
+     */
+    private int validRecordSize(ByteBuffer record) {
+        if (record.limit() < RECORD_HEADER_SIZE || record.getInt(MAGIC_OFFSET) != RECORD_MAGIC) {
+            return -1;
+        }
+        int storedLength = record.getInt(STORED_LENGTH_OFFSET);
+        if (storedLength < 0 || storedLength > filePageSize || record.getLong(PAGE_ID_OFFSET) < 0) {
+            return -1;
+        }
+        int recordSize = recordSize(storedLength);
+        if (recordSize > record.limit() || checksum(record, storedLength) != record.getInt(CHECKSUM_OFFSET)) {
+            return -1;
+        }
+        return recordSize;
+    }
+
+    private static int checksum(ByteBuffer record, int storedLength) {
+        ByteBuffer view = record.duplicate();
+        CRC32C crc = new CRC32C();
+        crc.update(view.limit(CHECKSUM_OFFSET).position(0));
+        crc.update(view.limit(RECORD_HEADER_SIZE + storedLength).position(RECORD_HEADER_SIZE));
+        return (int) crc.getValue();
+    }
+
+    private static int recordSize(int storedLength) {
+        int size = RECORD_HEADER_SIZE + storedLength;
+        return (size + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+    }
+
+    private void ensureCapacity(long filePageId) {
+        if (filePageId >= recordOffsets.length) {
+            int length = Math.toIntExact(Math.max(filePageId + 1, recordOffsets.length * 2L));
+            recordOffsets = Arrays.copyOf(recordOffsets, length);
+            recordSizes = Arrays.copyOf(recordSizes, length);
+        }
+    }
+
+    private LongArrayList[] newFreeRecords() {
+        return new LongArrayList[recordSize(filePageSize) / BLOCK_SIZE + 1];
+    }
+
+    private static void addFreeRecord(LongArrayList[] freeRecords, long offset, int blocks) {
+        LongArrayList records = freeRecords[blocks];
+        if (records == null) {
+            records = new LongArrayList();
+            freeRecords[blocks] = records;
+        }
+        records.add(offset);
+    }
+
+    private void releasePendingFreeRecords(LongArrayList offsets, IntArrayList sizes) {
+        for (int i = 0; i < offsets.size(); i++) {
+            addFreeRecord(freeRecords, offsets.get(i), sizes.get(i) / BLOCK_SIZE);
+        }
+    }
+
+    /**
+     * Find room for a record of the given size, preferring the smallest free record that fits. What is left of a larger
+     * free record is freed again, and the file is only extended when no free record is large enough.
+     */
+    private long allocateRecord(int size) {
+        int blocks = size / BLOCK_SIZE;
+        for (int candidate = blocks; candidate < freeRecords.length; candidate++) {
+            LongArrayList records = freeRecords[candidate];
+            if (records != null && records.notEmpty()) {
+                long offset = records.removeAtIndex(records.size() - 1);
+                if (candidate > blocks) {
+                    addFreeRecord(freeRecords, offset + size, candidate - blocks);
+                }
+                return offset;
+            }
+        }
+        long offset = endOfFile;
+        endOfFile += size;
+        return offset;
+    }
+
+    private ByteBuffer acquireScratch() {
+        for (int i = 0; i < scratchBuffers.length(); i++) {
+            ByteBuffer buffer = scratchBuffers.get(i);
+            if (buffer != null && scratchBuffers.compareAndSet(i, buffer, null)) {
+                return buffer;
+            }
+        }
+        return ByteBuffers.allocateDirect(scratchSize, ByteOrder.BIG_ENDIAN, memoryTracker);
+    }
+
+    private void releaseScratch(ByteBuffer buffer) {
+        for (int i = 0; i < scratchBuffers.length(); i++) {
+            if (scratchBuffers.get(i) == null && scratchBuffers.compareAndSet(i, null, buffer)) {
+                return;
+            }
+        }
+        ByteBuffers.releaseBuffer(buffer, memoryTracker);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new IOException("Unexpected end of compressed store file " + path + " at offset "
+                        + (position + buffer.position()) + ".");
+            }
+        }
+    }
+
+    private static void clear(long bufferAddress, int bufferSize) {
+        UnsafeUtil.setMemory(bufferAddress, bufferSize, MuninnPageCache.ZERO_BYTE);
+    }
+
+    @Override
+    public long read(long filePageId, long bufferAddress) throws IOException {
+        return read(filePageId, bufferAddress, filePageSize);
+    }
+
+    @Override
+    public long read(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        long bytes = 0;
+        for (int inset = 0; inset < bufferLength; inset += filePageSize) {
+            bytes += readPage(filePageId++, bufferAddress + inset, Math.min(filePageSize, bufferLength - inset));
+        }
+        return bytes;
+    }
+
+    private int readPage(long filePageId, long bufferAddress, int length) throws IOException {
+        long offset;
+        int recordSize;
+        synchronized (this) {
+            if (filePageId * filePageSize >= logicalFileSize) {
+                clear(bufferAddress, length);
+                return 0;
+            }
+            offset = filePageId < recordOffsets.length ? recordOffsets[(int) filePageId] : NO_RECORD;
+            recordSize = offset == NO_RECORD ? 0 : recordSizes[(int) filePageId];
+        }
+        if (offset == NO_RECORD) {
+            // Inside the file, but never written. Just like a hole in a sparse file.
+            clear(bufferAddress, length);
+            return length;
+        }
+
+        // Records are only reused after the page they belong to has been written elsewhere, which cannot happen
+        // concurrently with a fault of that same page.
+        ByteBuffer buffer = acquireScratch();
+        try {
+            buffer.clear().limit(recordSize);
+            readFully(buffer, offset);
+            ioController.reportIO(1);
+            if (validRecordSize(buffer) != recordSize || buffer.getLong(PAGE_ID_OFFSET) != filePageId) {
+                throw new IOException(
+                        "Corrupted record for page " + filePageId + " at offset " + offset + " in " + path + ".");
+            }
+
+            long recordAddress = UnsafeUtil.getDirectByteBufferAddress(buffer);
+            int storedLength = buffer.getInt(STORED_LENGTH_OFFSET);
+            int pageLength;
+            if ((buffer.getInt(FLAGS_OFFSET) & FLAG_UNCOMPRESSED) != 0) {
+                pageLength = Math.min(storedLength, length);
+                UnsafeUtil.copyMemory(recordAddress + RECORD_HEADER_SIZE, bufferAddress, pageLength);
+            } else {
+                // A short buffer cannot take a whole page, so such pages go through the spare room in the scratch.
+                boolean direct = length == filePageSize;
+                long pageAddress = direct ? bufferAddress : recordAddress + recordSize(maxCompressedSize);
+                long decompressed = Zstd.decompressUnsafe(
+                        pageAddress, filePageSize, recordAddress + RECORD_HEADER_SIZE, storedLength);
+                if (Zstd.isError(decompressed)) {
+                    throw new IOException("Failed to decompress page " + filePageId + " at offset " + offset + " in "
+                            + path + ": " + Zstd.getErrorName(decompressed));
+                }
+                pageLength = (int) Math.min(decompressed, length);
+                if (!direct) {
+                    UnsafeUtil.copyMemory(pageAddress, bufferAddress, pageLength);
+                }
+            }
+            if (pageLength < length) {
+                clear(bufferAddress + pageLength, length - pageLength);
+            }
+            return length;
+        } finally {
+            releaseScratch(buffer);
+        }
+    }
+
+    @Override
+    public long read(long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
+        long bytes = 0;
+        long filePageId = startFilePageId;
+        for (int i = 0; i < length; i++) {
+            bytes += read(filePageId, bufferAddresses[i], bufferLengths[i]);
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytes;
+    }
+
+    @Override
+    public long write(long filePageId, long bufferAddress) throws IOException {
+        return write(filePageId, bufferAddress, filePageSize);
+    }
+
+    @Override
+    public long write(long filePageId, long bufferAddress, int bufferLength) throws IOException {
+        long bytes = 0;
+        for (int inset = 0; inset < bufferLength; inset += filePageSize) {
+            bytes += writePage(filePageId++, bufferAddress + inset, Math.min(filePageSize, bufferLength - inset));
+        }
+        return bytes;
+    }
+
+    private int writePage(long filePageId, long bufferAddress, int length) throws IOException {
+        ByteBuffer buffer = acquireScratch();
+        try {
+            long recordAddress = UnsafeUtil.getDirectByteBufferAddress(buffer);
+            long compressed = Zstd.compressUnsafe(
+                    recordAddress + RECORD_HEADER_SIZE, maxCompressedSize, bufferAddress, length, COMPRESSION_LEVEL);
+            if (Zstd.isError(compressed)) {
+                throw new IOException(
+                        "Failed to compress page " + filePageId + " of " + path + ": " + Zstd.getErrorName(compressed));
+            }
+            int flags = 0;
+            int storedLength = (int) compressed;
+            if (storedLength >= length) {
+                flags = FLAG_UNCOMPRESSED;
+                storedLength = length;
+                UnsafeUtil.copyMemory(bufferAddress, recordAddress + RECORD_HEADER_SIZE, length);
+            }
+            int recordSize = recordSize(storedLength);
+            int used = RECORD_HEADER_SIZE + storedLength;
+            UnsafeUtil.setMemory(recordAddress + used, recordSize - used, MuninnPageCache.ZERO_BYTE);
+
+            long offset;
+            long sequence;
+            synchronized (this) {
+                ensureCapacity(filePageId);
+                offset = allocateRecord(recordSize);
+                sequence = nextSequence++;
+            }
+            buffer.clear().limit(recordSize);
+            buffer.putInt(MAGIC_OFFSET, RECORD_MAGIC)
+                    .putInt(FLAGS_OFFSET, flags)
+                    .putLong(PAGE_ID_OFFSET, filePageId)
+                    .putLong(SEQUENCE_OFFSET, sequence)
+                    .putInt(STORED_LENGTH_OFFSET, storedLength)
+                    .putInt(CHECKSUM_OFFSET, checksum(buffer, storedLength));
+            channel.writeAll(buffer, offset);
+            ioController.reportIO(1);
+
+            synchronized (this) {
+                int index = (int) filePageId;
+                if (recordOffsets[index] != NO_RECORD) {
+                    pendingFreeOffsets.add(recordOffsets[index]);
+                    pendingFreeSizes.add(recordSizes[index]);
+                }
+                recordOffsets[index] = offset;
+                recordSizes[index] = recordSize;
+                logicalFileSize = Math.max(logicalFileSize, (filePageId + 1) * filePageSize);
+            }
+            return length;
+        } finally {
+            releaseScratch(buffer);
+        }
+    }
+
+    @Override
+    public long write(
+            long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length, int totalAffectedPages)
+            throws IOException {
+        long bytes = 0;
+        long filePageId = startFilePageId;
+        for (int i = 0; i < length; i++) {
+            bytes += write(filePageId, bufferAddresses[i], bufferLengths[i]);
+            filePageId += bufferLengths[i] / filePageSize;
+        }
+        return bytes;
+    }
+
+    @Override
+    public void evicted(long filePageId) {
+        PageEvictionCallback callback = this.onEviction;
+        if (callback != null) {
+            callback.onEvict(filePageId);
+        }
+    }
+
+    @Override
+    public Path path() {
+        return path;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (channel.isOpen()) {
+                writeIndex();
+            }
+        } finally {
+            closeChannel();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            // See SingleFilePageSwapper, pages bound to this swapper can outlive it until they are evicted.
+            onEviction = null;
+            for (int i = 0; i < scratchBuffers.length(); i++) {
+                ByteBuffer buffer = scratchBuffers.getAndSet(i, null);
+                if (buffer != null) {
+                    ByteBuffers.releaseBuffer(buffer, memoryTracker);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void closeAndDelete() throws IOException {
+        closeChannel();
+        fs.deleteFile(path);
+    }
+
+    @Override
+    public void force() throws IOException {
+        LongArrayList superseded;
+        IntArrayList supersededSizes;
+        synchronized (this) {
+            superseded = pendingFreeOffsets;
+            supersededSizes = pendingFreeSizes;
+            pendingFreeOffsets = new LongArrayList();
+            pendingFreeSizes = new IntArrayList();
+        }
+        channel.force(false);
+        synchronized (this) {
+            releasePendingFreeRecords(superseded, supersededSizes);
+        }
+    }
+
+    @Override
+    public synchronized long getLastPageId() {
+        if (logicalFileSize == 0) {
+            return PageCursor.UNBOUND_PAGE_ID;
+        }
+        long div = logicalFileSize / filePageSize;
+        long mod = logicalFileSize % filePageSize;
+        return mod == 0 ? div - 1 : div;
+    }
+
+    @Override
+    public void truncate() throws IOException {
+        truncate(0);
+    }
+
+    /**
+     * Dropped pages only live on as records in the file, so those are made invalid before the new size is accepted.
+     * The same goes for every free record, since a free record can hold an older version of a dropped page, which
+     * must not come back when the file is scanned on the next open.
+     */
+    @Override
+    public synchronized void truncate(long size) throws IOException {
+        if (size == 0) {
+            channel.truncate(FILE_HEADER_SIZE);
+            recordOffsets = new long[0];
+            recordSizes = new int[0];
+            Arrays.fill(freeRecords, null);
+            pendingFreeOffsets = new LongArrayList();
+            pendingFreeSizes = new IntArrayList();
+            endOfFile = FILE_HEADER_SIZE;
+            logicalFileSize = 0;
+            return;
+        }
+
+        // The versions that superseded the pending free records must be durable before those records are invalidated.
+        channel.force(false);
+        long keptPages = (size + filePageSize - 1) / filePageSize;
+        for (long filePageId = keptPages; filePageId < recordOffsets.length; filePageId++) {
+            int index = (int) filePageId;
+            if (recordOffsets[index] != NO_RECORD) {
+                pendingFreeOffsets.add(recordOffsets[index]);
+                pendingFreeSizes.add(recordSizes[index]);
+                recordOffsets[index] = NO_RECORD;
+            }
+        }
+        for (int i = 0; i < pendingFreeOffsets.size(); i++) {
+            invalidateRecord(pendingFreeOffsets.get(i));
+        }
+        releasePendingFreeRecords(pendingFreeOffsets, pendingFreeSizes);
+        pendingFreeOffsets = new LongArrayList();
+        pendingFreeSizes = new IntArrayList();
+        for (LongArrayList records : freeRecords) {
+            if (records != null) {
+                for (int i = 0; i < records.size(); i++) {
+                    invalidateRecord(records.get(i));
+                }
+            }
+        }
+        channel.force(false);
+        logicalFileSize = size;
+    }
+
+    private void invalidateRecord(long offset) throws IOException {
+        channel.writeAll(ByteBuffer.allocate(Integer.BYTES), offset + MAGIC_OFFSET);
+    }
+
+    @Override
+    public boolean canAllocate() {
+        // The size of the file depends on how well the pages compress, so there is nothing sensible to preallocate.
+        return false;
+    }
+
+    @Override
+    public void allocate(long newFileSize) {
+        // Never called, since we cannot allocate.
+    }
+
+    @Override
+    public int swapperId() {
+        return swapperId;
+    }
+
+    @Override
+    public PageFileSwapperTracer fileSwapperTracer() {
+        return fileSwapperTracer;
+    }
+
+    @Override
+    public boolean isPageFlushable(long pageRef) {
+        return evictionBouncer.allowPageFlush(pageRef);
+    }
+
+    /**
+     * Reads the index in chunks, keeping a checksum of everything read.
+     */
+    private class IndexReader {
+        private final ByteBuffer chunk = ByteBuffer.allocate(INDEX_CHUNK_SIZE).limit(0);
+        private final CRC32C crc = new CRC32C();
+        private long position;
+        private long remaining;
+
+        IndexReader(long offset, long length) {
+            this.position = offset;
+            this.remaining = length;
+        }
+
+        /**
+         * @return the chunk, positioned at the next {@code bytes} bytes of the index.
+         */
+        ByteBuffer next(int bytes) throws IOException {
+            if (chunk.remaining() < bytes) {
+                chunk.compact();
+                int read = (int) Math.min(chunk.remaining(), remaining);
+                chunk.limit(chunk.position() + read);
+                ByteBuffer fresh = chunk.slice();
+                readFully(fresh, position);
+                crc.update(fresh.flip());
+                position += read;
+                remaining -= read;
+                chunk.position(chunk.limit()).flip();
+            }
+            return chunk;
+        }
+
+        int checksum() {
+            return (int) crc.getValue();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return path.equals(((CompressedPageSwapper) o).path);
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "CompressedPageSwapper{" + "filePageSize=" + filePageSize + ", file=" + path + '}';
+    }
+}
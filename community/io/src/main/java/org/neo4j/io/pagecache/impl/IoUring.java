@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_ENTER_GETEVENTS;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_FEAT_SINGLE_MMAP;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_OFF_CQ_RING;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_OFF_SQES;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.IORING_OFF_SQ_RING;
+import static org.neo4j.internal.nativeimpl.LinuxIoUring.PARAMS_SIZE;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+
+/**
+ * A single io_uring submission/completion ring pair, owned by one thread at a time.
+ * <p>
+ * A batch of reads or writes of consecutive file regions is laid out as one readv/writev submission entry per buffer,
+ * handed to the kernel with a single {@code io_uring_enter} call, and then reaped from the completion ring. The
+ * kernel is free to service the entries of a batch concurrently, which is what makes this cheaper than issuing the
+ * same reads or writes one after another.
+ */
+final class IoUring implements AutoCloseable {
+    private static final byte IORING_OP_READV = 1;
+    private static final byte IORING_OP_WRITEV = 2;
+
+    private static final int SQE_SIZE = 64;
+    private static final int CQE_SIZE = 16;
+    private static final int IOVEC_SIZE = 16;
+
+    // Offsets into struct io_uring_params.
+    private static final int PARAMS_SQ_ENTRIES = 0;
+    private static final int PARAMS_CQ_ENTRIES = 4;
+    private static final int PARAMS_FEATURES = 20;
+    private static final int PARAMS_SQ_OFF = 40;
+    private static final int PARAMS_CQ_OFF = 80;
+
+    // Offsets into struct io_sqring_offsets and struct io_cqring_offsets.
+    private static final int RING_HEAD = 0;
+    private static final int RING_TAIL = 4;
+    private static final int RING_MASK = 8;
+    private static final int SQ_ARRAY = 24;
+    private static final int CQ_CQES = 20;
+
+    // Offsets into struct io_uring_sqe and struct io_uring_cqe.
+    private static final int SQE_OPCODE = 0;
+    private static final int SQE_FD = 4;
+    private static final int SQE_OFF = 8;
+    private static final int SQE_ADDR = 16;
+    private static final int SQE_LEN = 24;
+    private static final int SQE_USER_DATA = 32;
+    private static final int CQE_USER_DATA = 0;
+    private static final int CQE_RES = 8;
+
+    // The ring heads and tails are shared with the kernel, and need acquire/release semantics.
+    private static final VarHandle RING_INDEX =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final int ringFd;
+    private final int entries;
+    private final ByteBuffer sqRing;
+    private final ByteBuffer cqRing;
+    private final ByteBuffer sqes;
+    private final ByteBuffer iovecs;
+    private final long iovecsAddress;
+
+    private final int sqTail;
+    private final int sqMask;
+    private final int sqArray;
+    private final int cqHead;
+    private final int cqTail;
+    private final int cqMask;
+    private final int cqes;
+
+    private IoUring(int ringFd, ByteBuffer params) throws IOException {
+        this.ringFd = ringFd;
+        this.entries = params.getInt(PARAMS_SQ_ENTRIES);
+        int cqEntries = params.getInt(PARAMS_CQ_ENTRIES);
+
+        int sqSize = params.getInt(PARAMS_SQ_OFF + SQ_ARRAY) + entries * Integer.BYTES;
+        int cqSize = params.getInt(PARAMS_CQ_OFF + CQ_CQES) + cqEntries * CQE_SIZE;
+        boolean singleMap = (params.getInt(PARAMS_FEATURES) & IORING_FEAT_SINGLE_MMAP) != 0;
+        if (singleMap) {
+            sqSize = Math.max(sqSize, cqSize);
+        }
+        this.sqRing = LinuxIoUring.map(ringFd, sqSize, IORING_OFF_SQ_RING);
+        this.cqRing = singleMap ? sqRing : LinuxIoUring.map(ringFd, cqSize, IORING_OFF_CQ_RING);
+        this.sqes = LinuxIoUring.map(ringFd, entries * SQE_SIZE, IORING_OFF_SQES);
+        this.iovecs = ByteBuffer.allocateDirect(entries * IOVEC_SIZE).order(ByteOrder.nativeOrder());
+        this.iovecsAddress = LinuxIoUring.addressOf(iovecs);
+
+        this.sqTail = params.getInt(PARAMS_SQ_OFF + RING_TAIL);
+        this.sqMask = sqRing.getInt(params.getInt(PARAMS_SQ_OFF + RING_MASK));
+        this.sqArray = params.getInt(PARAMS_SQ_OFF + SQ_ARRAY);
+        this.cqHead = params.getInt(PARAMS_CQ_OFF + RING_HEAD);
+        this.cqTail = params.getInt(PARAMS_CQ_OFF + RING_TAIL);
+        this.cqMask = cqRing.getInt(params.getInt(PARAMS_CQ_OFF + RING_MASK));
+        this.cqes = params.getInt(PARAMS_CQ_OFF + CQ_CQES);
+    }
+
+    static IoUring create(int entries) throws IOException {
+        ByteBuffer params = ByteBuffer.allocateDirect(PARAMS_SIZE).order(ByteOrder.nativeOrder());
+        int ringFd = LinuxIoUring.setup(entries, params);
+        try {
+            return new IoUring(ringFd, params);
+        } catch (IOException e) {
+            try {
+                LinuxIoUring.closeRing(ringFd);
+            } catch (IOException ce) {
+                e.addSuppressed(ce);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Read consecutive regions of a file, starting at the given offset, into the given buffers.
+     *
+     * @param results receives the result of every individual read: the number of bytes read, or a negated errno.
+     */
+    void read(int fd, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length, int[] results)
+            throws IOException {
+        submitAndWait(IORING_OP_READV, fd, fileOffset, bufferAddresses, bufferLengths, length, results);
+    }
+
+    /**
+     * Write the given buffers to consecutive regions of a file, starting at the given offset.
+     *
+     * @param results receives the result of every individual write: the number of bytes written, or a negated errno.
+     */
+    void write(int fd, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length, int[] results)
+            throws IOException {
+        submitAndWait(IORING_OP_WRITEV, fd, fileOffset, bufferAddresses, bufferLengths, length, results);
+    }
+
+    private void submitAndWait(
+            byte opcode,
+            int fd,
+            long fileOffset,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int length,
+            int[] results)
+            throws IOException {
+        long offset = fileOffset;
+        for (int batchStart = 0; batchStart < length; batchStart += entries) {
+            int batchSize = Math.min(entries, length - batchStart);
+            int tail = sqRing.getInt(sqTail);
+            for (int i = 0; i < batchSize; i++) {
+                int buffer = batchStart + i;
+                int index = tail & sqMask;
+                int iovec = index * IOVEC_SIZE;
+                iovecs.putLong(iovec, bufferAddresses[buffer]);
+                iovecs.putLong(iovec + Long.BYTES, bufferLengths[buffer]);
+
+                int sqe = index * SQE_SIZE;
+                for (int word = 0; word < SQE_SIZE; word += Long.BYTES) {
+                    sqes.putLong(sqe + word, 0);
+                }
+                sqes.put(sqe + SQE_OPCODE, opcode);
+                sqes.putInt(sqe + SQE_FD, fd);
+                sqes.putLong(sqe + SQE_OFF, offset);
+                sqes.putLong(sqe + SQE_ADDR, iovecsAddress + iovec);
+                sqes.putInt(sqe + SQE_LEN, 1);
+                sqes.putLong(sqe + SQE_USER_DATA, buffer);
+                sqRing.putInt(sqArray + index * Integer.BYTES, index);
+
+                offset += bufferLengths[buffer];
+                tail++;
+            }
+            // Entries must be visible to the kernel before the tail that publishes them.
+            RING_INDEX.setRelease(sqRing, sqTail, tail);
+
+            int submitted = 0;
+            int completed = 0;
+            while (completed < batchSize) {
+                submitted += LinuxIoUring.enter(ringFd, batchSize - submitted, 1, IORING_ENTER_GETEVENTS);
+                completed += reapCompletions(results);
+            }
+        }
+    }
+
+    private int reapCompletions(int[] results) {
+        int head = cqRing.getInt(cqHead);
+        // Completion entries must not be read before the tail that publishes them.
+        int tail = (int) RING_INDEX.getAcquire(cqRing, cqTail);
+        int reaped = tail - head;
+        for (; head != tail; head++) {
+            int cqe = cqes + (head & cqMask) * CQE_SIZE;
+            results[(int) cqRing.getLong(cqe + CQE_USER_DATA)] = cqRing.getInt(cqe + CQE_RES);
+        }
+        RING_INDEX.setRelease(cqRing, cqHead, head);
+        return reaped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            LinuxIoUring.unmap(sqes);
+            if (cqRing != sqRing) {
+                LinuxIoUring.unmap(cqRing);
+            }
+            LinuxIoUring.unmap(sqRing);
+        } finally {
+            LinuxIoUring.closeRing(ringFd);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import static org.neo4j.io.fs.FileSystemAbstraction.INVALID_FILE_DESCRIPTOR;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.neo4j.io.fs.StoreChannel;
+
+/**
+ * BlockSwapper that hands whole batches of consecutive blocks to the kernel at once through io_uring.
+ * <p>
+ * Single block transfers gain nothing from a ring and go straight to the wrapped block swapper, as do batches for
+ * channels that do not expose a file descriptor. Rings are pooled and handed out to one thread at a time; the pool
+ * grows with the number of threads concurrently doing batched IO.
+ */
+final class IoUringBlockSwapper implements BlockSwapper, AutoCloseable {
+    private static final int RING_ENTRIES = 64;
+    private static final int MAX_IDLE_RINGS = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final BlockSwapper delegate;
+    private final ConcurrentLinkedQueue<IoUring> idleRings = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleRingCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    IoUringBlockSwapper(BlockSwapper delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int swapIn(StoreChannel channel, long bufferAddress, long fileOffset, int bufferSize) throws IOException {
+        return delegate.swapIn(channel, bufferAddress, fileOffset, bufferSize);
+    }
+
+    @Override
+    public void swapOut(StoreChannel channel, long bufferAddress, long fileOffset, int bufferLength)
+            throws IOException {
+        delegate.swapOut(channel, bufferAddress, fileOffset, bufferLength);
+    }
+
+    /**
+     * Reads consecutive regions of the channel, starting at the given offset, into the given buffers. Anything
+     * past the end of the file is zero filled.
+     *
+     * @return total number of bytes read.
+     */
+    long swapIn(StoreChannel channel, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        int[] results = submit(channel, false, fileOffset, bufferAddresses, bufferLengths, length);
+        long readTotal = 0;
+        long offset = fileOffset;
+        for (int i = 0; i < length; i++) {
+            int read = results == null ? 0 : checkResult(channel, "Read", results[i], offset);
+            if (read < bufferLengths[i]) {
+                // Short read, either at the end of the file or an interrupted transfer. Finish it synchronously.
+                read += delegate.swapIn(channel, bufferAddresses[i] + read, offset + read, bufferLengths[i] - read);
+            }
+            readTotal += read;
+            offset += bufferLengths[i];
+        }
+        return readTotal;
+    }
+
+    /**
+     * Writes the given buffers to consecutive regions of the channel, starting at the given offset.
+     *
+     * @return total number of bytes written.
+     */
+    long swapOut(StoreChannel channel, long fileOffset, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        int[] results = submit(channel, true, fileOffset, bufferAddresses, bufferLengths, length);
+        long writtenTotal = 0;
+        long offset = fileOffset;
+        for (int i = 0; i < length; i++) {
+            int written = results == null ? 0 : checkResult(channel, "Write", results[i], offset);
+            if (written < bufferLengths[i]) {
+                delegate.swapOut(channel, bufferAddresses[i] + written, offset + written, bufferLengths[i] - written);
+            }
+            writtenTotal += bufferLengths[i];
+            offset += bufferLengths[i];
+        }
+        return writtenTotal;
+    }
+
+    /**
+     * @return per buffer results of the batch, or {@code null} if the batch could not be submitted through a ring and
+     * has to be transferred synchronously.
+     */
+    private int[] submit(
+            StoreChannel channel,
+            boolean write,
+            long fileOffset,
+            long[] bufferAddresses,
+            int[] bufferLengths,
+            int length)
+            throws IOException {
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+        int fd = channel.getFileDescriptor();
+        if (fd == INVALID_FILE_DESCRIPTOR) {
+            return null;
+        }
+        IoUring ring = acquireRing();
+        if (ring == null) {
+            return null;
+        }
+        int[] results = new int[length];
+        try {
+            if (write) {
+                ring.write(fd, fileOffset, bufferAddresses, bufferLengths, length, results);
+            } else {
+                ring.read(fd, fileOffset, bufferAddresses, bufferLengths, length, results);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A ring that failed part way through may still have transfers in flight, so it is never reused.
+            try {
+                ring.close();
+            } catch (IOException ce) {
+                e.addSuppressed(ce);
+            }
+            throw e;
+        }
+        releaseRing(ring);
+        return results;
+    }
+
+    private static int checkResult(StoreChannel channel, String operation, int result, long fileOffset)
+            throws IOException {
+        if (result >= 0) {
+            return result;
+        }
+        if (!channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+        throw new IOException(operation + " at fileOffset " + fileOffset + " failed with errno " + -result + ".");
+    }
+
+    private IoUring acquireRing() {
+        IoUring ring = idleRings.poll();
+        if (ring != null) {
+            idleRingCount.decrementAndGet();
+            return ring;
+        }
+        try {
+            return IoUring.create(RING_ENTRIES);
+        } catch (IOException e) {
+            // Rings are a limited resource, e.g. by RLIMIT_MEMLOCK on older kernels. Fall back to synchronous IO.
+            return null;
+        }
+    }
+
+    private void releaseRing(IoUring ring) throws IOException {
+        if (!closed) {
+            if (idleRingCount.incrementAndGet() <= MAX_IDLE_RINGS) {
+                idleRings.offer(ring);
+                if (closed) {
+                    closeIdleRings();
+                }
+                return;
+            }
+            idleRingCount.decrementAndGet();
+        }
+        ring.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        closeIdleRings();
+    }
+
+    private void closeIdleRings() throws IOException {
+        IOException exception = null;
+        IoUring ring;
+        while ((ring = idleRings.poll()) != null) {
+            idleRingCount.decrementAndGet();
+            try {
+                ring.close();
+            } catch (IOException e) {
+                if (exception == null) {
+                    exception = e;
+                } else {
+                    exception.addSuppressed(e);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
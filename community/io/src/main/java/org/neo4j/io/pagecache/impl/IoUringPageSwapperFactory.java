@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.neo4j.internal.nativeimpl.LinuxIoUring;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A factory for SingleFilePageSwapper instances that do their batched page IO through Linux io_uring.
+ * <p>
+ * Vectored reads, as done by {@link org.neo4j.io.pagecache.PagedFile#touch touching} and pre-fetching, and vectored
+ * writes, as done by flushing, submit all their pages to the kernel in one go and wait for them all to complete,
+ * instead of transferring them one by one. Everything else behaves exactly like a {@link SingleFilePageSwapper}.
+ * <p>
+ * Where io_uring is not {@link #isAvailable() available}, a plain {@link SingleFilePageSwapperFactory} should be used
+ * instead.
+ */
+public class IoUringPageSwapperFactory extends SingleFilePageSwapperFactory {
+    private final IoUringBlockSwapper blockSwapper;
+
+    public IoUringPageSwapperFactory(
+            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+        this(fs, pageCacheTracer, memoryTracker, Monitor.NO_MONITOR);
+    }
+
+    public IoUringPageSwapperFactory(
+            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, Monitor monitor) {
+        this(fs, pageCacheTracer, memoryTracker, new IoUringBlockSwapper(createBlockSwapper(memoryTracker)), monitor);
+    }
+
+    private IoUringPageSwapperFactory(
+            FileSystemAbstraction fs,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            IoUringBlockSwapper blockSwapper,
+            Monitor monitor) {
+        super(fs, pageCacheTracer, memoryTracker, blockSwapper, monitor);
+        this.blockSwapper = blockSwapper;
+    }
+
+    /**
+     * @return {@code true} if io_uring can be used on this system.
+     */
+    public static boolean isAvailable() {
+        return LinuxIoUring.isAvailable();
+    }
+
+    /**
+     * @return description of io_uring availability, including the reason why it is not available.
+     */
+    public static String describeAvailability() {
+        return LinuxIoUring.describe();
+    }
+
+    @Override
+    public void close() {
+        try {
+            blockSwapper.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
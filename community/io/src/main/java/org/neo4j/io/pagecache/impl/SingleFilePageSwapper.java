@@ -31,6 +31,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileSystemException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -51,6 +52,7 @@ import org.neo4j.io.pagecache.impl.muninn.EvictionBouncer;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
 import org.neo4j.io.pagecache.impl.muninn.SwapperSet;
 import org.neo4j.io.pagecache.tracing.PageFileSwapperTracer;
+import org.neo4j.memory.MemoryTracker;
 
 /**
  * A simple PageSwapper implementation that directs all page swapping to a
@@ -65,6 +67,11 @@ public class SingleFilePageSwapper implements PageSwapper {
     private final IOController ioController;
     private final int filePageSize;
     private final Set<OpenOption> openOptions;
+    private final MemoryTracker memoryTracker;
+    // Alignment that buffers, file offsets and lengths must have for the file system to accept direct IO, 0 otherwise.
+    private final int directIOAlignment;
+    // Set when direct IO was requested, but the file system refused to open the file with O_DIRECT.
+    private final boolean evictFromOsCache;
     private volatile PageEvictionCallback onEviction;
     private StoreChannel channel;
     private FileLock fileLock;
@@ -82,6 +89,8 @@ public class SingleFilePageSwapper implements PageSwapper {
     private volatile long fileSize;
 
     private static final VarHandle FILE_SIZE;
+    // The reason the JDK gives to exceptions for EINVAL.
+    private static final String EINVAL_REASON = "Invalid argument";
 
     static {
         try {
@@ -103,20 +112,42 @@ public class SingleFilePageSwapper implements PageSwapper {
             PageFileSwapperTracer fileSwapperTracer,
             BlockSwapper blockSwapper,
             NativeAccessFactory nativeAccessFactory,
-            EvictionBouncer evictionBouncer)
+            EvictionBouncer evictionBouncer,
+            MemoryTracker memoryTracker,
+            SingleFilePageSwapperFactory.Monitor monitor)
             throws IOException {
         this.fs = fs;
         this.path = path;
         this.ioController = ioController;
         this.fileSwapperTracer = fileSwapperTracer;
+        this.nativeAccess = nativeAccessFactory.create(path);
+        this.memoryTracker = memoryTracker;
 
         var options = new ArrayList<>(WRITE_OPTIONS);
         if (useDirectIO) {
-            validateDirectIOPossibility(path, filePageSize);
+            int blockSize = validateDirectIOPossibility(path, filePageSize);
             options.add(ExtendedOpenOption.DIRECT);
+            StoreChannel directChannel = tryOpenDirectChannel(Set.copyOf(options), monitor);
+            if (directChannel != null) {
+                this.directIOAlignment = blockSize;
+                this.evictFromOsCache = false;
+                this.openOptions = Set.copyOf(options);
+                this.channel = directChannel;
+            } else {
+                // The file system refuses O_DIRECT, e.g. tmpfs on older kernels or some network file systems.
+                // Settle for buffered IO, and drop the pages we have cached ourselves from the OS page cache instead.
+                options.remove(ExtendedOpenOption.DIRECT);
+                this.directIOAlignment = 0;
+                this.evictFromOsCache = true;
+                this.openOptions = Set.copyOf(options);
+                this.channel = createStoreChannel();
+            }
+        } else {
+            this.directIOAlignment = 0;
+            this.evictFromOsCache = false;
+            this.openOptions = Set.copyOf(options);
+            this.channel = createStoreChannel();
         }
-        openOptions = Set.copyOf(options);
-        channel = createStoreChannel();
 
         this.filePageSize = filePageSize;
         this.onEviction = onEviction;
@@ -135,17 +166,45 @@ public class SingleFilePageSwapper implements PageSwapper {
         this.canDoVectorizedIO = channel.hasPositionLock() && UnsafeUtil.unsafeByteBufferAccessAvailable();
         this.swapperId = swapperSet.allocate(this);
         this.blockSwapper = blockSwapper;
-        this.nativeAccess = nativeAccessFactory.create(path);
         this.evictionBouncer = evictionBouncer;
     }
 
     private StoreChannel createStoreChannel() throws IOException {
-        var storeChannel = fs.open(path, openOptions);
+        return openStoreChannel(openOptions);
+    }
+
+    private StoreChannel openStoreChannel(Set<OpenOption> options) throws IOException {
+        var storeChannel = fs.open(path, options);
         storeChannel.tryMakeUninterruptible();
         return storeChannel;
     }
 
-    private void validateDirectIOPossibility(Path file, int filePageSize) throws IOException {
+    /**
+     * @return a channel opened with O_DIRECT, or {@code null} if the file system does not support direct IO and the
+     * OS page cache can be bypassed by evicting file regions from it instead.
+     */
+    private StoreChannel tryOpenDirectChannel(
+            Set<OpenOption> directOptions, SingleFilePageSwapperFactory.Monitor monitor) throws IOException {
+        try {
+            return openStoreChannel(directOptions);
+        } catch (FileSystemException e) {
+            if (!isDirectIONotSupported(e) || !nativeAccess.isAvailable()) {
+                throw e;
+            }
+            monitor.directIONotSupported(path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Opening a file with O_DIRECT fails with EINVAL on file systems that do not support it. Other failures, like
+     * missing permissions or running out of file descriptors, have nothing to do with direct IO.
+     */
+    private static boolean isDirectIONotSupported(FileSystemException e) {
+        return e.getClass() == FileSystemException.class && EINVAL_REASON.equals(e.getReason());
+    }
+
+    private int validateDirectIOPossibility(Path file, int filePageSize) throws IOException {
         if (!IS_OS_LINUX) {
             throw new IllegalArgumentException("DirectIO support is available only on Linux.");
         }
@@ -156,6 +215,7 @@ public class SingleFilePageSwapper implements PageSwapper {
                     "Direct IO can be used only when page cache page size is a multiplier of a block size. "
                             + "File page size: " + filePageSize + ", block size: " + blockSize);
         }
+        return (int) blockSize;
     }
 
     private void increaseFileSizeTo(long newFileSize) {
@@ -191,19 +251,90 @@ public class SingleFilePageSwapper implements PageSwapper {
     }
 
     private int swapIn(long bufferAddress, long fileOffset, int bufferSize) throws IOException {
-        var readTotal = blockSwapper.swapIn(channel, bufferAddress, fileOffset, bufferSize);
+        int readTotal;
+        if (isAligned(bufferAddress)) {
+            readTotal = blockSwapper.swapIn(channel, bufferAddress, fileOffset, bufferSize);
+        } else {
+            readTotal = swapInAligned(bufferAddress, fileOffset, bufferSize);
+        }
         ioController.reportIO(1);
+        evictFromOsCache(fileOffset, bufferSize);
         return readTotal;
     }
 
     private int swapOut(long bufferAddress, long fileOffset, int bufferSize, boolean countIo) throws IOException {
-        blockSwapper.swapOut(channel, bufferAddress, fileOffset, bufferSize);
+        if (isAligned(bufferAddress)) {
+            blockSwapper.swapOut(channel, bufferAddress, fileOffset, bufferSize);
+        } else {
+            swapOutAligned(bufferAddress, fileOffset, bufferSize);
+        }
         if (countIo) {
             ioController.reportIO(1);
         }
         return bufferSize;
     }
 
+    /**
+     * Direct IO transfers need buffers aligned to the block size of the file system. Page buffers are normally
+     * allocated with a suitable alignment, any other buffer is transferred through an aligned copy.
+     */
+    private boolean isAligned(long bufferAddress) {
+        return directIOAlignment == 0 || bufferAddress % directIOAlignment == 0;
+    }
+
+    private boolean isAligned(long[] bufferAddresses, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!isAligned(bufferAddresses[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int swapInAligned(long bufferAddress, long fileOffset, int bufferSize) throws IOException {
+        long allocationSize = bufferSize + directIOAlignment;
+        long allocation = UnsafeUtil.allocateMemory(allocationSize, memoryTracker);
+        try {
+            long alignedAddress = alignUp(allocation);
+            int readTotal = blockSwapper.swapIn(channel, alignedAddress, fileOffset, bufferSize);
+            UnsafeUtil.copyMemory(alignedAddress, bufferAddress, bufferSize);
+            return readTotal;
+        } finally {
+            UnsafeUtil.free(allocation, allocationSize, memoryTracker);
+        }
+    }
+
+    private void swapOutAligned(long bufferAddress, long fileOffset, int bufferSize) throws IOException {
+        long allocationSize = bufferSize + directIOAlignment;
+        long allocation = UnsafeUtil.allocateMemory(allocationSize, memoryTracker);
+        try {
+            long alignedAddress = alignUp(allocation);
+            UnsafeUtil.copyMemory(bufferAddress, alignedAddress, bufferSize);
+            blockSwapper.swapOut(channel, alignedAddress, fileOffset, bufferSize);
+        } finally {
+            UnsafeUtil.free(allocation, allocationSize, memoryTracker);
+        }
+    }
+
+    private long alignUp(long address) {
+        long misalignment = address % directIOAlignment;
+        return misalignment == 0 ? address : address + directIOAlignment - misalignment;
+    }
+
+    /**
+     * Drop a region of the file that we now hold in the page cache from the OS page cache, so it is not cached twice.
+     * Only used when direct IO was requested but is not supported by the file system. Dirty regions are not dropped
+     * until they have been written back, which is why the whole file is evicted again after every {@link #force()}.
+     */
+    private void evictFromOsCache(long fileOffset, long length) {
+        if (evictFromOsCache) {
+            int fd = channel.getFileDescriptor();
+            if (fd != INVALID_FILE_DESCRIPTOR) {
+                nativeAccess.tryEvictFromCache(fd, fileOffset, length);
+            }
+        }
+    }
+
     private static void clear(long bufferAddress, int bufferSize) {
         UnsafeUtil.setMemory(bufferAddress, bufferSize, MuninnPageCache.ZERO_BYTE);
     }
@@ -242,6 +373,12 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
+                    if (!isAligned(bufferAddresses, length)) {
+                        return readPositionedVectoredFallback(startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
+                    if (blockSwapper instanceof IoUringBlockSwapper ioUring) {
+                        return readBatched(ioUring, startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
                     if (canDoVectorizedIO) {
                         return readPositionedVectoredToFileChannel(
                                 startFilePageId, bufferAddresses, bufferLengths, length);
@@ -255,12 +392,23 @@ public class SingleFilePageSwapper implements PageSwapper {
         return -1;
     }
 
+    private long readBatched(
+            IoUringBlockSwapper ioUring, long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        long fileOffset = pageIdToPosition(startFilePageId);
+        long bytesRead = ioUring.swapIn(channel, fileOffset, bufferAddresses, bufferLengths, length);
+        ioController.reportIO(1);
+        evictFromOsCache(fileOffset, countBuffersLengths(bufferLengths, length));
+        return bytesRead;
+    }
+
     private long readPositionedVectoredToFileChannel(
             long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
         long fileOffset = pageIdToPosition(startFilePageId);
         long bytesToRead = countBuffersLengths(bufferLengths, length);
         ByteBuffer[] srcs = convertToByteBuffers(bufferAddresses, bufferLengths, length);
         long bytesRead = lockPositionReadVector(fileOffset, srcs, bytesToRead);
+        evictFromOsCache(fileOffset, bytesToRead);
         if (bytesRead == -1) {
             for (int i = 0; i < length; i++) {
                 UnsafeUtil.setMemory(bufferAddresses[i], bufferLengths[i], MuninnPageCache.ZERO_BYTE);
@@ -355,6 +503,12 @@ public class SingleFilePageSwapper implements PageSwapper {
         try (Retry retry = new Retry()) {
             do {
                 try {
+                    if (!isAligned(bufferAddresses, length)) {
+                        return writePositionVectoredFallback(startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
+                    if (blockSwapper instanceof IoUringBlockSwapper ioUring) {
+                        return writeBatched(ioUring, startFilePageId, bufferAddresses, bufferLengths, length);
+                    }
                     if (canDoVectorizedIO) {
                         return writePositionedVectoredToFileChannel(
                                 startFilePageId, bufferAddresses, bufferLengths, length);
@@ -368,6 +522,15 @@ public class SingleFilePageSwapper implements PageSwapper {
         return -1;
     }
 
+    private long writeBatched(
+            IoUringBlockSwapper ioUring, long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length)
+            throws IOException {
+        long fileOffset = pageIdToPosition(startFilePageId);
+        increaseFileSizeTo(fileOffset + countBuffersLengths(bufferLengths, length));
+        // like the other vectored writes this is checkpoint io, which is accounted for by the checkpointer
+        return ioUring.swapOut(channel, fileOffset, bufferAddresses, bufferLengths, length);
+    }
+
     private long writePositionedVectoredToFileChannel(
             long startFilePageId, long[] bufferAddresses, int[] bufferLengths, int length) throws IOException {
         long fileOffset = pageIdToPosition(startFilePageId);
@@ -528,6 +691,10 @@ public class SingleFilePageSwapper implements PageSwapper {
             do {
                 try {
                     channel.force(false);
+                    if (evictFromOsCache) {
+                        // Everything written so far is clean now, and can be dropped from the OS page cache.
+                        nativeAccess.tryEvictFromCache(channel.getFileDescriptor());
+                    }
                 } catch (ClosedChannelException e) {
                     retry.caught(e);
                 }
@@ -606,7 +773,8 @@ public class SingleFilePageSwapper implements PageSwapper {
 
     @Override
     public String toString() {
-        return "SingleFilePageSwapper{" + "filePageSize=" + filePageSize + ", file=" + path + '}';
+        return "SingleFilePageSwapper{" + "filePageSize=" + filePageSize + ", file=" + path + ", directIO="
+                + (evictFromOsCache ? "evict from OS cache" : directIOAlignment != 0) + '}';
     }
 
     private class Retry implements AutoCloseable {
@@ -19,6 +19,7 @@
  */
 package org.neo4j.io.pagecache.impl;
 
+import com.github.luben.zstd.util.Native;
 import java.io.IOException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
@@ -44,13 +45,31 @@ import org.neo4j.util.VisibleForTesting;
 public class SingleFilePageSwapperFactory implements PageSwapperFactory {
     private final FileSystemAbstraction fs;
     private final PageCacheTracer pageCacheTracer;
+    private final MemoryTracker memoryTracker;
     private final BlockSwapper blockSwapper;
+    private final Monitor monitor;
 
     public SingleFilePageSwapperFactory(
             FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+        this(fs, pageCacheTracer, memoryTracker, Monitor.NO_MONITOR);
+    }
+
+    public SingleFilePageSwapperFactory(
+            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, Monitor monitor) {
+        this(fs, pageCacheTracer, memoryTracker, createBlockSwapper(memoryTracker), monitor);
+    }
+
+    SingleFilePageSwapperFactory(
+            FileSystemAbstraction fs,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            BlockSwapper blockSwapper,
+            Monitor monitor) {
         this.fs = fs;
         this.pageCacheTracer = pageCacheTracer;
-        this.blockSwapper = createBlockSwapper(memoryTracker);
+        this.memoryTracker = memoryTracker;
+        this.blockSwapper = blockSwapper;
+        this.monitor = monitor;
     }
 
     @Override
@@ -78,10 +97,65 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory {
                 pageCacheTracer.createFileSwapperTracer(),
                 blockSwapper,
                 nativeAccessFactory(),
-                evictionBouncer);
+                evictionBouncer,
+                memoryTracker,
+                monitor);
+    }
+
+    @Override
+    public PageSwapper createCompressedPageSwapper(
+            Path file,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            boolean createIfNotExist,
+            IOController ioController,
+            EvictionBouncer evictionBouncer,
+            SwapperSet swappers)
+            throws IOException {
+        if (!createIfNotExist && !fs.fileExists(file)) {
+            throw new NoSuchFileException(file.toString(), null, "Cannot map non-existing file");
+        }
+        if (fs.fileExists(file) && fs.getFileSize(file) > 0 && !CompressedPageSwapper.isCompressedFile(fs, file)) {
+            // Existing files are not converted, they keep being read the way they were written.
+            return createPageSwapper(
+                    file, filePageSize, onEviction, false, false, ioController, evictionBouncer, swappers);
+        }
+        return compressedPageSwapper(file, filePageSize, onEviction, ioController, evictionBouncer, swappers);
     }
 
-    private static BlockSwapper createBlockSwapper(MemoryTracker memoryTracker) {
+    private PageSwapper compressedPageSwapper(
+            Path file,
+            int filePageSize,
+            PageEvictionCallback onEviction,
+            IOController ioController,
+            EvictionBouncer evictionBouncer,
+            SwapperSet swappers)
+            throws IOException {
+        if (!isCompressionAvailable()) {
+            throw new IOException("Cannot map " + file + " compressed, the zstd native library could not be loaded.");
+        }
+        return new CompressedPageSwapper(
+                file,
+                fs,
+                filePageSize,
+                onEviction,
+                ioController,
+                swappers,
+                pageCacheTracer.createFileSwapperTracer(),
+                evictionBouncer,
+                memoryTracker);
+    }
+
+    private static boolean isCompressionAvailable() {
+        try {
+            Native.load();
+            return Native.isLoaded();
+        } catch (Throwable t) {
+            return false;
+        }
+    }
+
+    static BlockSwapper createBlockSwapper(MemoryTracker memoryTracker) {
         if (UnsafeUtil.unsafeByteBufferAccessAvailable()) {
             return new UnsafeBlockSwapper();
         }
@@ -92,4 +166,20 @@ public class SingleFilePageSwapperFactory implements PageSwapperFactory {
     protected NativeAccessFactory nativeAccessFactory() {
         return file -> NativeAccessProvider.getNativeAccess();
     }
+
+    /**
+     * Notified of events in the swappers created by this factory that users should know about.
+     */
+    public interface Monitor {
+        Monitor NO_MONITOR = (file, cause) -> {};
+
+        /**
+         * Direct IO was asked for, but the file system does not support it. The file is opened for buffered IO
+         * instead, and its pages are evicted from the OS page cache once they are in the page cache.
+         *
+         * @param file the file that was mapped.
+         * @param cause why the file could not be opened for direct IO.
+         */
+        void directIONotSupported(Path file, IOException cause);
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * The classic clock algorithm. Every access increments the usage counter of a page, up to a maximum of four, and the
+ * eviction thread decrements it as it passes by, evicting the pages that have run out of usage.
+ */
+final class ClockEvictionPolicy implements EvictionPolicy {
+    static final EvictionPolicy INSTANCE = new ClockEvictionPolicy();
+
+    private ClockEvictionPolicy() {}
+
+    @Override
+    public void pageAccessed(long pageRef) {
+        PageList.incrementUsage(pageRef);
+    }
+
+    @Override
+    public boolean sweep(long pageRef) {
+        return PageList.decrementUsage(pageRef);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Keeps track of the pages of a {@link MuninnPagedFile} that have been dirtied since they were last visited by
+ * {@link MuninnPagedFile#flushDirtyPages(long, org.neo4j.io.pagecache.tracing.FileFlushEvent)}, such that incremental
+ * flushing only has to look at those pages, rather than at every page of the file.
+ * <p>
+ * A bit per file page id tells if the page is tracked. Write cursors add their page when they pin it, which costs a
+ * single volatile read unless the page is not tracked yet, in which case it is also queued. The flusher polls pages
+ * from the queue in the order they were first dirtied, which untracks them. A page may be queued even though it has
+ * been flushed in the meantime, by a checkpoint or by eviction, so polled pages must still be checked for being dirty.
+ */
+final class DirtyPageTracker {
+    private static final int CHUNK_SIZE_POWER = 15;
+    private static final int CHUNK_SIZE_MASK = (1 << CHUNK_SIZE_POWER) - 1;
+    private static final int WORDS_PER_CHUNK = (1 << CHUNK_SIZE_POWER) / Long.SIZE;
+    private static final int INITIAL_QUEUE_CAPACITY = 64;
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    static final long EMPTY = -1;
+
+    // Bits of the tracked pages, in chunks that are allocated on demand.
+    private volatile long[][] chunks = new long[0][];
+    // Queue of the tracked pages, a ring buffer guarded by this.
+    private long[] queue = new long[INITIAL_QUEUE_CAPACITY];
+    private int head;
+    private int size;
+
+    /**
+     * Start tracking the given page, unless it is tracked already.
+     */
+    void add(long filePageId) {
+        long[] words = chunk((int) (filePageId >>> CHUNK_SIZE_POWER));
+        int index = (int) (filePageId & CHUNK_SIZE_MASK);
+        int wordIndex = index >>> 6;
+        long bit = 1L << index;
+        long word;
+        do {
+            word = (long) WORDS.getVolatile(words, wordIndex);
+            if ((word & bit) != 0) {
+                return;
+            }
+        } while (!WORDS.compareAndSet(words, wordIndex, word, word | bit));
+        enqueue(filePageId);
+    }
+
+    /**
+     * Stop tracking the page that has been tracked the longest.
+     *
+     * @return the file page id of that page, or {@link #EMPTY} if no pages are tracked.
+     */
+    long poll() {
+        long filePageId;
+        synchronized (this) {
+            if (size == 0) {
+                return EMPTY;
+            }
+            filePageId = queue[head];
+            head = (head + 1) & (queue.length - 1);
+            size--;
+        }
+        long[] words = chunks[(int) (filePageId >>> CHUNK_SIZE_POWER)];
+        int index = (int) (filePageId & CHUNK_SIZE_MASK);
+        long bit = 1L << index;
+        WORDS.getAndBitwiseAnd(words, index >>> 6, ~bit);
+        return filePageId;
+    }
+
+    /**
+     * @return the number of tracked pages.
+     */
+    synchronized long size() {
+        return size;
+    }
+
+    private synchronized void enqueue(long filePageId) {
+        if (size == queue.length) {
+            long[] grown = new long[queue.length * 2];
+            for (int i = 0; i < size; i++) {
+                grown[i] = queue[(head + i) & (queue.length - 1)];
+            }
+            queue = grown;
+            head = 0;
+        }
+        queue[(head + size) & (queue.length - 1)] = filePageId;
+        size++;
+    }
+
+    private long[] chunk(int chunkId) {
+        long[][] cs = chunks;
+        if (chunkId < cs.length && cs[chunkId] != null) {
+            return cs[chunkId];
+        }
+        return growChunks(chunkId);
+    }
+
+    private synchronized long[] growChunks(int chunkId) {
+        long[][] cs = chunks;
+        if (chunkId >= cs.length) {
+            long[][] grown = new long[chunkId + 1][];
+            System.arraycopy(cs, 0, grown, 0, cs.length);
+            cs = grown;
+        }
+        if (cs[chunkId] == null) {
+            cs[chunkId] = new long[WORDS_PER_CHUNK];
+        }
+        chunks = cs;
+        return cs[chunkId];
+    }
+}
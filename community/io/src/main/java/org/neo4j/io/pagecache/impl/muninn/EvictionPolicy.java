@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+/**
+ * Decides which pages the {@link MuninnPageCache} keeps, by maintaining the usage counters of the pages in the
+ * {@link PageList}.
+ * <p>
+ * Implementations must be cheap and thread safe: {@link #pageAccessed(long)} is called by every cursor on every pin,
+ * while {@link #sweep(long)} is mostly called by the background eviction thread, but also by page faulting threads
+ * when they have to evict cooperatively. A policy may refuse to evict a page it considers hot, but it must not refuse
+ * forever, or cooperatively evicting threads will give up with a live-lock exception.
+ */
+interface EvictionPolicy {
+    /**
+     * Called when a cursor pins the given page, unless the cursor is {@link org.neo4j.io.pagecache.PagedFile#PF_TRANSIENT transient}.
+     */
+    void pageAccessed(long pageRef);
+
+    /**
+     * Called by the background eviction thread before its clock arm starts passing pages, such that the policy can do
+     * its housekeeping away from the threads that pin pages.
+     */
+    default void evictionStarted() {}
+
+    /**
+     * Called when a clock arm, either that of the background eviction thread or that of a cooperatively evicting page
+     * faulting thread, passes the given loaded page.
+     * @return {@code true} if the page should be evicted.
+     */
+    boolean sweep(long pageRef);
+
+    /**
+     * Called when the page cache is closed, to release the memory held by the policy.
+     */
+    default void close() {}
+}
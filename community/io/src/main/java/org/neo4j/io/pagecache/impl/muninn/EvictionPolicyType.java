@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * The eviction policies the {@link MuninnPageCache} can be configured with.
+ */
+public enum EvictionPolicyType {
+    /**
+     * The classic clock algorithm over the page usage counters.
+     */
+    CLOCK {
+        @Override
+        EvictionPolicy create(int pageCount, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+            return ClockEvictionPolicy.INSTANCE;
+        }
+    },
+    /**
+     * The clock algorithm with a TinyLFU frequency sketch in front of it. Large scans, that touch every page only
+     * once, can not push the frequently accessed pages out of the cache.
+     */
+    TINY_LFU {
+        @Override
+        EvictionPolicy create(int pageCount, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+            return new TinyLfuEvictionPolicy(pageCount, pageCacheTracer, memoryTracker);
+        }
+    };
+
+    abstract EvictionPolicy create(int pageCount, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker);
+}
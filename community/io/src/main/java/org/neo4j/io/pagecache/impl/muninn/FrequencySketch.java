@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static org.neo4j.internal.helpers.Numbers.ceilingPowerOfTwo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.memory.HeapEstimator;
+
+/**
+ * A count-min sketch of 4-bit counters that estimates how often a key has been seen recently.
+ * <p>
+ * Every key maps to one counter in each of {@link #DEPTH} rows of the table, and its estimated frequency is the
+ * smallest of those counters. Once {@link #increment(long) increments} have been recorded for ten times as many keys
+ * as the sketch was sized for, the next call to {@link #ageIfDue()} halves all counters, so that the sketch forgets
+ * about keys that are no longer accessed.
+ * <p>
+ * Counters are incremented atomically, so concurrent increments are never lost. Ageing is left to a single thread
+ * calling {@link #ageIfDue()}, such that the threads recording increments never have to pay for it.
+ */
+final class FrequencySketch {
+    static final int MAX_FREQUENCY = 15;
+    private static final int DEPTH = 4;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = {
+        0xc3a5_c85c_97cb_3127L, 0xb492_b66f_be98_f273L, 0x9ae1_6a3b_2f90_404fL, 0xcbf2_9ce4_8422_2325L
+    };
+    private static final VarHandle TABLE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final long SHALLOW_SIZE = HeapEstimator.shallowSizeOfInstance(FrequencySketch.class)
+            + HeapEstimator.shallowSizeOfInstance(LongAdder.class);
+
+    private final long[] table;
+    private final int tableMask;
+    private final long sampleSize;
+    private final LongAdder additions = new LongAdder();
+
+    FrequencySketch(long expectedKeys) {
+        int tableSize = (int) Math.min(MAX_TABLE_SIZE, ceilingPowerOfTwo(Math.max(expectedKeys, Long.SIZE)));
+        this.table = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.sampleSize = 10 * Math.max(expectedKeys, 1);
+    }
+
+    /**
+     * @return the estimated number of times the given key has been seen recently, at most {@link #MAX_FREQUENCY}.
+     */
+    int frequency(long key) {
+        long hash = spread(key);
+        int frequency = MAX_FREQUENCY;
+        for (int i = 0; i < DEPTH; i++) {
+            long counterHash = counterHash(hash, i);
+            int shift = counterShift(counterHash);
+            long value = (long) TABLE.getOpaque(table, counterIndex(counterHash));
+            frequency = Math.min(frequency, (int) ((value >>> shift) & 0xF));
+        }
+        return frequency;
+    }
+
+    /**
+     * Record that the given key has been seen.
+     * @return the estimated number of times the key has been seen recently, including this time.
+     */
+    int increment(long key) {
+        long hash = spread(key);
+        int frequency = MAX_FREQUENCY;
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            long counterHash = counterHash(hash, i);
+            int index = counterIndex(counterHash);
+            int shift = counterShift(counterHash);
+            int count;
+            while (true) {
+                long value = (long) TABLE.getVolatile(table, index);
+                count = (int) ((value >>> shift) & 0xF);
+                if (count == MAX_FREQUENCY) {
+                    break;
+                }
+                if (TABLE.weakCompareAndSet(table, index, value, value + (1L << shift))) {
+                    count++;
+                    added = true;
+                    break;
+                }
+            }
+            frequency = Math.min(frequency, count);
+        }
+        if (added) {
+            additions.increment();
+        }
+        return frequency;
+    }
+
+    /**
+     * Halve all counters if increments have been recorded for enough keys since the sketch was last aged.
+     * Must not be called concurrently with itself.
+     */
+    void ageIfDue() {
+        long added = additions.sum();
+        if (added < sampleSize) {
+            return;
+        }
+        // The halved counters still account for half of the increments
+        additions.add(-(added - (added >>> 1)));
+        for (int i = 0; i < table.length; i++) {
+            long value;
+            do {
+                value = (long) TABLE.getVolatile(table, i);
+            } while (!TABLE.weakCompareAndSet(table, i, value, (value >>> 1) & RESET_MASK));
+        }
+    }
+
+    /**
+     * @return the estimated heap memory used by this sketch.
+     */
+    long estimatedHeapUsage() {
+        return SHALLOW_SIZE + HeapEstimator.sizeOfLongArray(table.length);
+    }
+
+    private int counterIndex(long counterHash) {
+        return (int) counterHash & tableMask;
+    }
+
+    private static int counterShift(long counterHash) {
+        // The top 4 bits of the hash pick one of the 16 counters in the table word.
+        return (int) (counterHash >>> 60) << 2;
+    }
+
+    private static long counterHash(long hash, int row) {
+        long h = hash * SEEDS[row];
+        return h ^ (h >>> 32);
+    }
+
+    private static long spread(long key) {
+        // The finalization mix of MurmurHash3.
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51_afd7_ed55_8ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ce_b9fe_1a85_ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
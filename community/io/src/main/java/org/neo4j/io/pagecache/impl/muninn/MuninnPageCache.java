@@ -39,6 +39,7 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -50,12 +51,14 @@ import java.util.concurrent.locks.LockSupport;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.pagecache.IOController;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.PageSwapperFactory;
 import org.neo4j.io.pagecache.PagedFile;
 import org.neo4j.io.pagecache.buffer.IOBufferFactory;
+import org.neo4j.io.pagecache.monitoring.ResidentPageCounters;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.io.pagecache.tracing.EvictionRunEvent;
 import org.neo4j.io.pagecache.tracing.FileFlushEvent;
@@ -119,7 +122,7 @@ import org.neo4j.util.VisibleForTesting;
  *     locks to make uncontended reads and writes fast.
  * </p>
  */
-public class MuninnPageCache implements PageCache {
+public class MuninnPageCache implements PageCache, ResidentPageCounters {
     public static final byte ZERO_BYTE = (byte) (flag(MuninnPageCache.class, "brandedZeroByte", false) ? 0x0f : 0);
 
     // The amount of memory we need for every page, both its buffer and its meta-data.
@@ -135,6 +138,11 @@ public class MuninnPageCache implements PageCache {
     private static final int cooperativeEvictionLiveLockThreshold =
             getInteger(MuninnPageCache.class, "cooperativeEvictionLiveLockThreshold", 100);
 
+    // The number of stripes the freelist is split into, to spread out the contention of concurrently page faulting
+    // threads. Small page caches get fewer stripes, so every stripe still has a reasonable number of pages.
+    private static final int freelistStripes = getInteger(
+            MuninnPageCache.class, "freelistStripes", Runtime.getRuntime().availableProcessors());
+
     // This is a pre-allocated constant, so we can throw it without allocating any objects:
     @SuppressWarnings("ThrowableInstanceNeverThrown")
     private static final IOException oomException =
@@ -173,24 +181,38 @@ public class MuninnPageCache implements PageCache {
     private final MemoryAllocator memoryAllocator;
     private final boolean closeAllocatorOnShutdown;
     final PageList pages;
+    final EvictionPolicy evictionPolicy;
     // All PageCursors are initialised with their pointers pointing to the victim page. This way, we don't have to throw
     // exceptions on bounds checking failures; we can instead return the victim page pointer, and permit the page
     // accesses to take place without fear of segfaulting newly allocated cursors.
     final long victimPage;
 
-    // The freelist is a thread-safe linked-list of FreePage objects, or an AtomicInteger, or null.
-    // Initially, the field is an AtomicInteger that counts from zero to the max page count, at which point all of the
-    // pages have been put in use. Once this happens, the field is set to null to allow the background eviction thread
-    // to start its work. From that point on, the field will operate as a concurrent stack of FreePage objects. The
-    // eviction thread pushes newly freed FreePage objects onto the stack, and page faulting threads pops FreePage
-    // objects from the stack. The FreePage objects are single-use, to avoid running into the ABA-problem.
-    @SuppressWarnings("unused") // accessed via VarHandle.
-    private volatile Object freelist;
+    // The pages, and the memory behind them, are split into one partition per NUMA node, and each partition is split
+    // into stripes. A single partition with a single stripe covering all the pages is used when the page cache is
+    // neither NUMA aware nor striped.
+    private final PagePartitions partitions;
+
+    // Every stripe has its own freelist, which is a thread-safe linked-list of FreePage objects, or an AtomicInteger,
+    // or null. Initially, each freelist is an AtomicInteger that counts from the first to the last page of its stripe,
+    // at which point all of those pages have been put in use. Once this happens, the freelist is set to null to allow
+    // the background eviction thread to start its work. From that point on, the freelist will operate as a concurrent
+    // stack of FreePage objects. The eviction thread pushes newly freed FreePage objects onto the stack of the stripe
+    // the page belongs to, and page faulting threads pops FreePage objects from the stack of their own stripe first,
+    // stealing from the other stripes when their own is empty. The FreePage objects are single-use, to avoid running
+    // into the ABA-problem.
+    private final Object[] freelists;
 
-    private static final VarHandle FREE_LIST;
+    private static final VarHandle FREE_LIST = MethodHandles.arrayElementVarHandle(Object[].class);
 
     private final ConcurrentHashMap<String, MuninnPagedFile> mappedFiles;
 
+    // The page reservations, the resident pages of every database with mapped files, and the files with page
+    // reservations, either of their own or of their database, by swapper id. Eviction passes over the pages of those
+    // files while they are within their reservations. The array is copied on write, while holding the monitor lock.
+    private final PageCacheReservations reservations;
+    private final ConcurrentHashMap<String, ResidentPageAccount> databaseResidency;
+    private volatile MuninnPagedFile[] reservedFiles;
+
     // The thread that runs the eviction algorithm. We unpark this when we've run out of
     // free pages to grab.
     private volatile Thread evictionThread;
@@ -211,15 +233,6 @@ public class MuninnPageCache implements PageCache {
     // 'true' (the default) if we should print any exceptions we get when unmapping a file.
     private boolean printExceptionsOnClose;
 
-    static {
-        try {
-            MethodHandles.Lookup l = MethodHandles.lookup();
-            FREE_LIST = l.findVarHandle(MuninnPageCache.class, "freelist", Object.class);
-        } catch (ReflectiveOperationException e) {
-            throw new ExceptionInInitializerError(e);
-        }
-    }
-
     /**
      * Compute the amount of memory needed for a page cache with the given number of 8 KiB pages.
      * @param pageCount The number of pages
@@ -241,6 +254,10 @@ public class MuninnPageCache implements PageCache {
         private final boolean preallocateStoreFiles;
         private final int reservedPageSize;
         private final boolean closeAllocatorOnShutdown;
+        private final EvictionPolicyType evictionPolicy;
+        private final NumaTopology numaTopology;
+        private final int freelistStripes;
+        private final PageCacheReservations reservations;
 
         private Configuration(
                 MemoryAllocator memoryAllocator,
@@ -253,7 +270,11 @@ public class MuninnPageCache implements PageCache {
                 boolean enableEvictionThread,
                 boolean preallocateStoreFiles,
                 int reservedPageSize,
-                boolean closeAllocatorOnShutdown) {
+                boolean closeAllocatorOnShutdown,
+                EvictionPolicyType evictionPolicy,
+                NumaTopology numaTopology,
+                int freelistStripes,
+                PageCacheReservations reservations) {
             this.memoryAllocator = memoryAllocator;
             this.clock = clock;
             this.memoryTracker = memoryTracker;
@@ -265,6 +286,10 @@ public class MuninnPageCache implements PageCache {
             this.enableEvictionThread = enableEvictionThread;
             this.preallocateStoreFiles = preallocateStoreFiles;
             this.closeAllocatorOnShutdown = closeAllocatorOnShutdown;
+            this.evictionPolicy = evictionPolicy;
+            this.numaTopology = numaTopology;
+            this.freelistStripes = freelistStripes;
+            this.reservations = reservations;
         }
 
         /**
@@ -282,7 +307,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -300,7 +329,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -318,7 +351,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -336,7 +373,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -354,7 +395,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -372,7 +417,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -390,7 +439,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageBytes,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -408,7 +461,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -426,7 +483,11 @@ public class MuninnPageCache implements PageCache {
                     false,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -444,7 +505,100 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
+        }
+
+        /**
+         * @param evictionPolicy the policy that decides which pages to evict when the page cache is full
+         */
+        public Configuration evictionPolicy(EvictionPolicyType evictionPolicy) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
+        }
+
+        /**
+         * @param numaTopology the NUMA topology to partition the pages and their memory by
+         */
+        public Configuration numaTopology(NumaTopology numaTopology) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
+        }
+
+        /**
+         * @param freelistStripes the number of stripes to split the freelist into, to reduce the contention between
+         * concurrently page faulting threads. Small page caches can end up with fewer stripes than asked for.
+         */
+        public Configuration freelistStripes(int freelistStripes) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
+        }
+
+        /**
+         * @param reservations the pages to reserve for databases and files, so other databases can not evict them
+         */
+        public Configuration reservations(PageCacheReservations reservations) {
+            return new Configuration(
+                    memoryAllocator,
+                    clock,
+                    memoryTracker,
+                    pageCacheTracer,
+                    pageSize,
+                    bufferFactory,
+                    faultLockStriping,
+                    enableEvictionThread,
+                    preallocateStoreFiles,
+                    reservedPageSize,
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
 
         /**
@@ -463,7 +617,11 @@ public class MuninnPageCache implements PageCache {
                     enableEvictionThread,
                     preallocateStoreFiles,
                     reservedPageSize,
-                    closeAllocatorOnShutdown);
+                    closeAllocatorOnShutdown,
+                    evictionPolicy,
+                    numaTopology,
+                    freelistStripes,
+                    reservations);
         }
     }
 
@@ -491,7 +649,11 @@ public class MuninnPageCache implements PageCache {
                 true,
                 true,
                 RESERVED_BYTES,
-                false);
+                false,
+                EvictionPolicyType.CLOCK,
+                NumaTopology.SINGLE_NODE,
+                freelistStripes,
+                PageCacheReservations.NONE);
     }
 
     /**
@@ -515,13 +677,15 @@ public class MuninnPageCache implements PageCache {
         this.printExceptionsOnClose = true;
         this.bufferFactory = configuration.bufferFactory;
         this.victimPage = VictimPageReference.getVictimPage(cachePageSize, configuration.memoryTracker);
+        this.partitions = new PagePartitions(maxPages, configuration.numaTopology, configuration.freelistStripes);
         this.pages = new PageList(
                 maxPages,
                 cachePageSize,
                 configuration.memoryAllocator,
                 new SwapperSet(),
                 victimPage,
-                getBufferAlignment(cachePageSize));
+                getBufferAlignment(cachePageSize),
+                partitions);
         this.scheduler = jobScheduler;
         this.clock = configuration.clock;
         this.faultLockStriping = configuration.faultLockStriping;
@@ -529,11 +693,27 @@ public class MuninnPageCache implements PageCache {
         this.preallocateStoreFiles = configuration.preallocateStoreFiles;
         this.memoryAllocator = configuration.memoryAllocator;
         this.closeAllocatorOnShutdown = configuration.closeAllocatorOnShutdown;
-        setFreelistHead(new AtomicInteger());
+        this.evictionPolicy =
+                configuration.evictionPolicy.create(maxPages, pageCacheTracer, configuration.memoryTracker);
+        this.freelists = new Object[partitions.stripeCount()];
+        for (int stripe = 0; stripe < partitions.stripeCount(); stripe++) {
+            setFreelistHead(stripe, new AtomicInteger(partitions.stripeStart(stripe)));
+        }
 
         // Expose the total number of pages
         pageCacheTracer.maxPages(maxPages, cachePageSize);
+        pageCacheTracer.numaNodes(partitions.count());
+        pageCacheTracer.evictionPolicy(configuration.evictionPolicy.name());
         this.mappedFiles = new ConcurrentHashMap<>();
+        this.reservations = configuration.reservations;
+        this.databaseResidency = new ConcurrentHashMap<>();
+        this.reservedFiles = new MuninnPagedFile[0];
+        if (reservations.hardReservedPages() > maxPages - keepFree) {
+            throw new IllegalArgumentException(format(
+                    "Page cache has room for %s pages that are not kept free for page faults, but %s pages are hard "
+                            + "reserved.",
+                    maxPages - keepFree, reservations.hardReservedPages()));
+        }
     }
 
     /**
@@ -599,6 +779,7 @@ public class MuninnPageCache implements PageCache {
         boolean deleteOnClose = false;
         boolean anyPageSize = false;
         boolean useDirectIO = false;
+        boolean compressed = false;
         boolean littleEndian = true;
         boolean multiVersioned = false;
         boolean preallocation = preallocateStoreFiles;
@@ -614,6 +795,8 @@ public class MuninnPageCache implements PageCache {
                 anyPageSize = true;
             } else if (option.equals(PageCacheOpenOptions.DIRECT)) {
                 useDirectIO = true;
+            } else if (option.equals(PageCacheOpenOptions.COMPRESSED)) {
+                compressed = true;
             } else if (option.equals(PageCacheOpenOptions.BIG_ENDIAN)) {
                 littleEndian = false;
             } else if (option.equals(PageCacheOpenOptions.MULTI_VERSIONED)) {
@@ -664,6 +847,9 @@ public class MuninnPageCache implements PageCache {
         }
 
         // there was no existing mapping
+        var databaseAccount = databaseResidency.computeIfAbsent(
+                databaseName, name -> new ResidentPageAccount(reservations.forDatabase(name)));
+        var fileAccount = new ResidentPageAccount(reservations.forFile(path));
         var pagedFile = new MuninnPagedFile(
                 path,
                 this,
@@ -673,8 +859,11 @@ public class MuninnPageCache implements PageCache {
                 createIfNotExists,
                 truncateExisting,
                 useDirectIO,
+                compressed,
                 preallocation,
                 databaseName,
+                databaseAccount,
+                fileAccount,
                 faultLockStriping,
                 ioController,
                 evictionBouncer,
@@ -686,6 +875,9 @@ public class MuninnPageCache implements PageCache {
         pagedFile.incrementRefCount();
         pagedFile.setDeleteOnClose(deleteOnClose);
         mappedFiles.put(filePath, pagedFile);
+        if (pagedFile.reserved) {
+            setReservedFile(pagedFile.swapperId, pagedFile);
+        }
         pageCacheTracer.mappedFile(pagedFile.swapperId, pagedFile);
         return pagedFile;
     }
@@ -746,9 +938,86 @@ public class MuninnPageCache implements PageCache {
             var current = mappedFiles.remove(filePath);
             if (current != null) {
                 pageCacheTracer.unmappedFile(file.swapperId, file);
+                if (file.reserved) {
+                    setReservedFile(file.swapperId, null);
+                }
                 flushAndCloseWithoutFail(file);
+                if (mappedFiles.values().stream().noneMatch(f -> f.databaseName.equals(file.databaseName))) {
+                    databaseResidency.remove(file.databaseName);
+                }
+            }
+        }
+    }
+
+    /**
+     * Note: Must be called while synchronizing on the MuninnPageCache instance.
+     */
+    private void setReservedFile(int swapperId, MuninnPagedFile file) {
+        MuninnPagedFile[] files = reservedFiles;
+        if (swapperId >= files.length) {
+            if (file == null) {
+                return;
+            }
+            files = Arrays.copyOf(files, Math.max(swapperId + 1, files.length * 2));
+        } else {
+            files = files.clone();
+        }
+        files[swapperId] = file;
+        reservedFiles = files;
+    }
+
+    /**
+     * @param respectSoftReservations {@code false} if only hard page reservations should protect the page.
+     * @return {@code true} if the given loaded page has to stay in the cache, because of the page reservation of its
+     * file or database.
+     */
+    private boolean isProtectedByReservation(long pageRef, boolean respectSoftReservations) {
+        MuninnPagedFile[] files = reservedFiles;
+        if (files.length == 0) {
+            return false;
+        }
+        int swapperId = PageList.getSwapperId(pageRef);
+        MuninnPagedFile file = swapperId < files.length ? files[swapperId] : null;
+        return file != null && file.protectsPagesFromEviction(respectSoftReservations);
+    }
+
+    @Override
+    public List<ResidentPages> residentPages() {
+        List<ResidentPages> residentPages = new ArrayList<>();
+        databaseResidency.forEach((databaseName, account) -> residentPages.add(
+                account.isReserved()
+                        ? residentPages(databaseName, null, account)
+                        : unreservedResidentPages(databaseName)));
+        for (MuninnPagedFile file : mappedFiles.values()) {
+            if (file.fileResidency().isReserved()) {
+                String fileName = file.path().getFileName().toString();
+                residentPages.add(residentPages(file.databaseName, fileName, file.fileResidency()));
+            }
+        }
+        residentPages.sort(Comparator.comparing(ResidentPages::databaseName)
+                .thenComparing(ResidentPages::fileName, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return residentPages;
+    }
+
+    private ResidentPages unreservedResidentPages(String databaseName) {
+        // Pages of databases without a reservation are not counted as they come and go, so count them now instead
+        long pages = 0;
+        for (MuninnPagedFile file : mappedFiles.values()) {
+            if (file.databaseName.equals(databaseName)) {
+                pages += file.countResidentPages();
             }
         }
+        return new ResidentPages(databaseName, null, pages, 0, 0, 0);
+    }
+
+    private static ResidentPages residentPages(String databaseName, String fileName, ResidentPageAccount account) {
+        return new ResidentPages(
+                databaseName,
+                fileName,
+                account.residentPages(),
+                account.reservation().softPages(),
+                account.reservation().hardPages(),
+                account.protectedPages());
     }
 
     private void flushAndCloseWithoutFail(MuninnPagedFile file) {
@@ -846,6 +1115,8 @@ public class MuninnPageCache implements PageCache {
 
         interrupt(evictionThread);
         evictionThread = null;
+        evictionPolicy.close();
+        swapperFactory.close();
         if (closeAllocatorOnShutdown) {
             memoryAllocator.close();
         }
@@ -888,7 +1159,11 @@ public class MuninnPageCache implements PageCache {
 
     @Override
     public long freePages() {
-        return getFreeListSize(pages, getFreelistHead());
+        long freePages = 0;
+        for (int stripe = 0; stripe < partitions.stripeCount(); stripe++) {
+            freePages += getFreeListSize(stripe, getFreelistHead(stripe));
+        }
+        return freePages;
     }
 
     @Override
@@ -921,77 +1196,122 @@ public class MuninnPageCache implements PageCache {
         // to check and see if it is the shutdownSignal instance. If that's the
         // case, then the page cache has been shut down, and we should throw an
         // exception from our page fault routine.
-        Object current;
+        // Every stripe has its own freelist. We look for a free page in the freelist of our own stripe, in the
+        // partition local to the NUMA node we are running on, first. Only if that is empty do we steal from the
+        // freelists of the other stripes.
+        int localStripe = partitions.localStripe();
         for (; ; ) {
             assertHealthy();
-            current = getFreelistHead();
-            if (current == null) {
+            long pageRef = grabFreePage(localStripe, faultEvent);
+            if (pageRef == 0) {
                 unparkEvictor();
-                long pageRef = cooperativelyEvict(faultEvent);
-                if (pageRef != 0) {
-                    return pageRef;
-                }
-            } else if (current instanceof AtomicInteger counter) {
-                int pageCount = pages.getPageCount();
-                int pageId = counter.get();
-                if (pageId < pageCount && counter.compareAndSet(pageId, pageId + 1)) {
-                    faultEvent.freeListSize(pageCount - counter.get());
-                    return pages.deref(pageId);
-                }
-                if (pageId >= pageCount) {
-                    compareAndSetFreelistHead(current, null);
-                }
-            } else if (current instanceof FreePage freePage) {
-                if (freePage == shutdownSignal) {
-                    throw new IllegalStateException("The PageCache has been shut down.");
+                pageRef = cooperativelyEvict(localStripe, faultEvent);
+            }
+            if (pageRef != 0) {
+                if (partitions.isPartitioned()) {
+                    pageCacheTracer.numaNodeFaults(partitions.partitionOf(pages.toId(pageRef)), 1);
                 }
+                return pageRef;
+            }
+        }
+    }
+
+    private long grabFreePage(int localStripe, PageFaultEvent faultEvent) {
+        int stripeCount = partitions.stripeCount();
+        for (int attempt = 0; attempt < stripeCount; attempt++) {
+            int stripe = partitions.stealingStripe(localStripe, attempt);
+            Object current;
+            while ((current = getFreelistHead(stripe)) != null) {
+                if (current instanceof AtomicInteger counter) {
+                    int end = partitions.stripeEnd(stripe);
+                    int pageId = counter.get();
+                    if (pageId < end && counter.compareAndSet(pageId, pageId + 1)) {
+                        faultEvent.freeListSize(end - counter.get());
+                        return pages.deref(pageId);
+                    }
+                    if (pageId >= end) {
+                        compareAndSetFreelistHead(stripe, current, null);
+                    }
+                } else if (current instanceof FreePage freePage) {
+                    if (freePage == shutdownSignal) {
+                        throw new IllegalStateException("The PageCache has been shut down.");
+                    }
 
-                Object nextPage = freePage.next;
-                if (compareAndSetFreelistHead(freePage, nextPage)) {
-                    faultEvent.freeListSize(getFreeListSize(pages, nextPage));
-                    return freePage.pageRef;
+                    Object nextPage = freePage.next;
+                    if (compareAndSetFreelistHead(stripe, freePage, nextPage)) {
+                        faultEvent.freeListSize(getFreeListSize(stripe, nextPage));
+                        return freePage.pageRef;
+                    }
                 }
             }
         }
+        return 0;
     }
 
-    private static int getFreeListSize(PageList pageList, Object next) {
+    private int getFreeListSize(int stripe, Object next) {
         if (next instanceof FreePage) {
             return ((FreePage) next).count;
         } else if (next instanceof AtomicInteger) {
-            return pageList.getPageCount() - ((AtomicInteger) next).get();
+            return Math.max(0, partitions.stripeEnd(stripe) - ((AtomicInteger) next).get());
         } else {
             return 0;
         }
     }
 
-    private long cooperativelyEvict(PageFaultEvent faultEvent) throws IOException {
+    private boolean hasFreePages() {
+        for (int stripe = 0; stripe < partitions.stripeCount(); stripe++) {
+            if (getFreelistHead(stripe) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long cooperativelyEvict(int localStripe, PageFaultEvent faultEvent) throws IOException {
         int iterations = 0;
         int pageCount = pages.getPageCount();
-        int clockArm = ThreadLocalRandom.current().nextInt(pageCount);
+        // Start the clock somewhere in our own stripe, so the page we evict is likely to be backed by local memory,
+        // and we are unlikely to be competing with other cooperatively evicting threads for the same pages.
+        int stripeStart = partitions.stripeStart(localStripe);
+        int clockArm =
+                stripeStart + ThreadLocalRandom.current().nextInt(partitions.stripeEnd(localStripe) - stripeStart);
         boolean evicted = false;
         long pageRef;
-        do {
-            assertHealthy();
-            if (getFreelistHead() != null) {
-                return 0;
-            }
+        // Soft page reservations are only respected in the first revolution of the clock.
+        long scannedPages = 0;
+        long protectedPages = 0;
+        try {
+            do {
+                assertHealthy();
+                if (hasFreePages()) {
+                    return 0;
+                }
 
-            if (clockArm == pageCount) {
-                if (iterations == cooperativeEvictionLiveLockThreshold) {
-                    throw cooperativeEvictionLiveLock();
+                if (clockArm == pageCount) {
+                    if (iterations == cooperativeEvictionLiveLockThreshold) {
+                        throw cooperativeEvictionLiveLock();
+                    }
+                    iterations++;
+                    clockArm = 0;
                 }
-                iterations++;
-                clockArm = 0;
-            }
 
-            pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
-                evicted = pages.tryEvict(pageRef, faultEvent);
+                pageRef = pages.deref(clockArm);
+                if (PageList.isLoaded(pageRef)) {
+                    if (isProtectedByReservation(pageRef, scannedPages < pageCount)) {
+                        protectedPages++;
+                    } else if (evictionPolicy.sweep(pageRef)) {
+                        evicted = pages.tryEvict(pageRef, faultEvent);
+                    }
+                }
+                scannedPages++;
+                clockArm++;
+            } while (!evicted);
+            return pageRef;
+        } finally {
+            if (protectedPages > 0) {
+                pageCacheTracer.protectedPages(protectedPages);
             }
-            clockArm++;
-        } while (!evicted);
-        return pageRef;
+        }
     }
 
     private static CacheLiveLockException cooperativeEvictionLiveLock() {
@@ -1022,22 +1342,22 @@ public class MuninnPageCache implements PageCache {
         evictorParked = false;
     }
 
-    private Object getFreelistHead() {
-        return FREE_LIST.getVolatile(this);
+    private Object getFreelistHead(int stripe) {
+        return FREE_LIST.getVolatile(freelists, stripe);
     }
 
-    private boolean compareAndSetFreelistHead(Object expected, Object update) {
-        return FREE_LIST.compareAndSet(this, expected, update);
+    private boolean compareAndSetFreelistHead(int stripe, Object expected, Object update) {
+        return FREE_LIST.compareAndSet(freelists, stripe, expected, update);
     }
 
-    private void setFreelistHead(Object newFreelistHead) {
-        FREE_LIST.setVolatile(this, newFreelistHead);
+    private void setFreelistHead(int stripe, Object newFreelistHead) {
+        FREE_LIST.setVolatile(freelists, stripe, newFreelistHead);
     }
 
     /**
      * Scan through all the pages, one by one, and decrement their usage stamps.
-     * If a usage reaches zero, we try-write-locking it, and if we get that lock,
-     * we evict the page. If we don't, we move on to the next page.
+     * If a usage reaches zero, and the {@link EvictionPolicy} agrees, we try-write-locking it,
+     * and if we get that lock, we evict the page. If we don't, we move on to the next page.
      * Once we have enough free pages, we park our thread. Page-faulting will
      * unpark our thread as needed.
      */
@@ -1053,8 +1373,10 @@ public class MuninnPageCache implements PageCache {
         }
 
         // The last thing we do, is signalling the shutdown of the cache via
-        // the freelist. This signal is looked out for in grabFreePage.
-        setFreelistHead(shutdownSignal);
+        // the freelists. This signal is looked out for in grabFreePage.
+        for (int stripe = 0; stripe < partitions.stripeCount(); stripe++) {
+            setFreelistHead(stripe, shutdownSignal);
+        }
     }
 
     private int parkUntilEvictionRequired(int keepFree) {
@@ -1076,26 +1398,30 @@ public class MuninnPageCache implements PageCache {
 
     @VisibleForTesting
     int tryGetNumberOfPagesToEvict(int keepFree) {
-        Object freelistHead = getFreelistHead();
-
-        if (freelistHead == null) {
-            return keepFree;
-        } else if (freelistHead.getClass() == FreePage.class) {
-            int availablePages = ((FreePage) freelistHead).count;
-            if (availablePages < keepFree) {
-                return keepFree - availablePages;
-            }
-        } else if (freelistHead.getClass() == AtomicInteger.class) {
-            AtomicInteger counter = (AtomicInteger) freelistHead;
-            long count = pages.getPageCount() - counter.get();
-            if (count < keepFree) {
-                return count < 0 ? keepFree : (int) (keepFree - count);
-            }
+        long freePages = 0;
+        for (int stripe = 0; stripe < partitions.stripeCount(); stripe++) {
+            freePages += getFreeListSize(stripe, getFreelistHead(stripe));
         }
-        return UNKNOWN_PAGES_TO_EVICT;
+        return freePages < keepFree ? (int) (keepFree - freePages) : UNKNOWN_PAGES_TO_EVICT;
+    }
+
+    private boolean isShortOfFreePages(int stripe, int keepFree) {
+        return getFreeListSize(stripe, getFreelistHead(stripe)) < keepFree;
     }
 
     int evictPages(int pageEvictionAttempts, int clockArm, EvictionRunEvent evictionRunEvent) {
+        int stripeCount = partitions.stripeCount();
+        int keepFreePerStripe = (keepFree + stripeCount - 1) / stripeCount;
+        int satisfiedStripes = 0;
+        // Soft page reservations are respected until a whole revolution of the clock finds nothing to evict but pages
+        // that are protected by reservations. After another such revolution only hard reserved pages are left, and we
+        // give up. A fruitless revolution that also came across free pages means there is no pressure to relieve.
+        boolean respectSoftReservations = true;
+        int pagesSinceEvictable = 0;
+        boolean sawProtectedPage = false;
+        boolean sawFreePage = false;
+        evictionPolicy.evictionStarted();
+        long protectedPages = 0;
         while (pageEvictionAttempts > 0 && !closed) {
             if (clockArm == pages.getPageCount()) {
                 clockArm = 0;
@@ -1106,26 +1432,61 @@ public class MuninnPageCache implements PageCache {
                 return 0;
             }
 
+            if (stripeCount > 1) {
+                // Spend the evictions on the stripes that are short on free pages.
+                int stripe = partitions.stripeOf(clockArm);
+                if (!isShortOfFreePages(stripe, keepFreePerStripe)) {
+                    if (++satisfiedStripes == stripeCount) {
+                        break;
+                    }
+                    clockArm = partitions.stripeEnd(stripe);
+                    continue;
+                }
+                satisfiedStripes = 0;
+            }
+
             long pageRef = pages.deref(clockArm);
-            if (PageList.isLoaded(pageRef) && PageList.decrementUsage(pageRef)) {
-                try {
-                    pageEvictionAttempts--;
-                    if (pages.tryEvict(pageRef, evictionRunEvent)) {
-                        clearEvictorException();
-                        addFreePageToFreelist(pageRef, evictionRunEvent);
+            if (!PageList.isLoaded(pageRef)) {
+                sawFreePage = true;
+            } else if (isProtectedByReservation(pageRef, respectSoftReservations)) {
+                sawProtectedPage = true;
+                protectedPages++;
+            } else {
+                pagesSinceEvictable = -1;
+                sawProtectedPage = false;
+                sawFreePage = false;
+                if (evictionPolicy.sweep(pageRef)) {
+                    try {
+                        pageEvictionAttempts--;
+                        if (pages.tryEvict(pageRef, evictionRunEvent)) {
+                            clearEvictorException();
+                            addFreePageToFreelist(pageRef, evictionRunEvent);
+                        }
+                    } catch (IOException e) {
+                        evictorException = e;
+                    } catch (OutOfMemoryError oom) {
+                        evictorException = oomException;
+                    } catch (Throwable th) {
+                        evictorException = new IOException("Eviction thread encountered a problem", th);
                     }
-                } catch (IOException e) {
-                    evictorException = e;
-                } catch (OutOfMemoryError oom) {
-                    evictorException = oomException;
-                } catch (Throwable th) {
-                    evictorException = new IOException("Eviction thread encountered a problem", th);
                 }
             }
 
+            if (++pagesSinceEvictable >= pages.getPageCount() && sawProtectedPage) {
+                if (!respectSoftReservations || sawFreePage) {
+                    break;
+                }
+                respectSoftReservations = false;
+                pagesSinceEvictable = 0;
+                sawProtectedPage = false;
+                pageCacheTracer.softReservationOverrides(1);
+            }
             clockArm++;
         }
 
+        if (protectedPages > 0) {
+            pageCacheTracer.protectedPages(protectedPages);
+        }
         return clockArm;
     }
 
@@ -1157,14 +1518,15 @@ public class MuninnPageCache implements PageCache {
         Object current;
         assert getPageHorizon(pageRef) == 0;
         FreePage freePage = new FreePage(pageRef);
-        int pageCount = pages.getPageCount();
+        int stripe = partitions.stripeOf(pages.toId(pageRef));
+        int stripeEnd = partitions.stripeEnd(stripe);
         do {
-            current = getFreelistHead();
-            if (current instanceof AtomicInteger && ((AtomicInteger) current).get() > pageCount) {
+            current = getFreelistHead(stripe);
+            if (current instanceof AtomicInteger && ((AtomicInteger) current).get() > stripeEnd) {
                 current = null;
             }
-            freePage.setNext(pageCount, current);
-        } while (!compareAndSetFreelistHead(current, freePage));
+            freePage.setNext(stripeEnd, current);
+        } while (!compareAndSetFreelistHead(stripe, current, freePage));
         evictions.freeListSize(freePage.count);
     }
 
@@ -1205,8 +1567,8 @@ public class MuninnPageCache implements PageCache {
         });
     }
 
-    void startPreFetching(MuninnPageCursor cursor, CursorFactory cursorFactory) {
-        PreFetcher preFetcher = new PreFetcher(cursor, cursorFactory, clock);
+    void startPreFetching(MuninnPageCursor cursor) {
+        PreFetcher preFetcher = new PreFetcher(cursor, clock, pageCacheTracer);
         var pagedFile = cursor.pagedFile;
         var fileName = pagedFile.swapper.path().getFileName();
         var monitoringParams = systemJob(pagedFile.databaseName, "Pre-fetching of file '" + fileName + "'");
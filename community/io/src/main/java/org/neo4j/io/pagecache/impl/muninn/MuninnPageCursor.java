@@ -87,6 +87,7 @@ public abstract class MuninnPageCursor extends PageCursor {
     protected final boolean noLoad;
     protected final boolean noGrow;
     private final boolean updateUsage;
+    private final EvictionPolicy evictionPolicy;
     protected final boolean multiVersioned;
     protected final boolean contextVersionUpdates;
     protected final boolean littleEndian;
@@ -109,6 +110,9 @@ public abstract class MuninnPageCursor extends PageCursor {
     protected MuninnPageCursor linkedCursor;
     protected MuninnPageCursor backLinkedCursor;
     protected JobHandle<?> preFetcher;
+    // The distance between the two most recently visited pages, only maintained while a pre-fetcher observes us.
+    private long accessStride;
+    private long lastAccessedPageId;
 
     // This is a String with the exception message if usePreciseCursorErrorStackTraces is false, otherwise it is a
     // CursorExceptionWithPreciseStackTrace with the message and stack trace pointing more or less directly at the
@@ -116,11 +120,13 @@ public abstract class MuninnPageCursor extends PageCursor {
     private Object cursorException;
 
     private static final VarHandle CURRENT_PAGE_ID;
+    private static final VarHandle ACCESS_STRIDE;
 
     static {
         try {
             MethodHandles.Lookup l = MethodHandles.lookup();
             CURRENT_PAGE_ID = l.findVarHandle(MuninnPageCursor.class, "currentPageId", long.class);
+            ACCESS_STRIDE = l.findVarHandle(MuninnPageCursor.class, "accessStride", long.class);
         } catch (ReflectiveOperationException e) {
             throw new ExceptionInInitializerError(e);
         }
@@ -141,6 +147,7 @@ public abstract class MuninnPageCursor extends PageCursor {
         this.pf_flags = pf_flags;
         this.eagerFlush = isFlagRaised(pf_flags, PF_EAGER_FLUSH);
         this.updateUsage = !isFlagRaised(pf_flags, PF_TRANSIENT);
+        this.evictionPolicy = pagedFile.pageCache.evictionPolicy;
         this.noFault = isFlagRaised(pf_flags, PF_NO_FAULT);
         this.chainFollow = !isFlagRaised(pf_flags, PF_NO_CHAIN_FOLLOW);
         this.noLoad = isFlagRaised(pf_flags, PF_NO_LOAD);
@@ -158,6 +165,8 @@ public abstract class MuninnPageCursor extends PageCursor {
         offset = pageReservedBytes;
         pointer = victimPage;
         tracer.openCursor();
+        lastAccessedPageId = UNBOUND_PAGE_ID;
+        ACCESS_STRIDE.setRelease(this, 0L);
         storeCurrentPageId(UNBOUND_PAGE_ID);
         closed = false;
     }
@@ -176,6 +185,24 @@ public abstract class MuninnPageCursor extends PageCursor {
 
     protected void storeCurrentPageId(long pageId) {
         CURRENT_PAGE_ID.setRelease(this, pageId);
+        if (preFetcher != null && pageId != UNBOUND_PAGE_ID) {
+            trackAccess(pageId);
+        }
+    }
+
+    private void trackAccess(long pageId) {
+        if (lastAccessedPageId != UNBOUND_PAGE_ID) {
+            ACCESS_STRIDE.setRelease(this, pageId - lastAccessedPageId);
+        }
+        lastAccessedPageId = pageId;
+    }
+
+    /**
+     * @return the signed distance between the two most recently visited pages, as observed by a pre-fetcher, or
+     * {@code 0} if the cursor has not moved yet.
+     */
+    long loadVolatileAccessStride() {
+        return (long) ACCESS_STRIDE.getVolatile(this);
     }
 
     public final void init(PinEvent pinEvent, long pageRef) {
@@ -186,7 +213,7 @@ public abstract class MuninnPageCursor extends PageCursor {
         this.pointer = PageList.getAddress(pageRef);
         pinEvent.setCachePageId(pagedFile.toId(pageRef));
         if (updateUsage) {
-            PageList.incrementUsage(pageRef);
+            evictionPolicy.pageAccessed(pageRef);
         }
     }
 
@@ -345,6 +372,7 @@ public abstract class MuninnPageCursor extends PageCursor {
                 if (locked && PageList.isBoundTo(pageRef, swapperId, filePageId)) {
                     pinCursorToPage(pinEvent, pageRef, filePageId, swapper);
                     pinEvent.hit();
+                    pagedFile.reportNumaNodeHit(mappedPageId);
                     return;
                 }
                 if (locked) {
@@ -445,6 +473,7 @@ public abstract class MuninnPageCursor extends PageCursor {
             pageId = pagedFile.toId(pageRef);
             faultEvent.setCachePageId(pageId);
             MuninnPagedFile.TRANSLATION_TABLE_ARRAY.setVolatile(chunk, chunkIndex, pageId);
+            pagedFile.pagesLoaded(1);
             // Once we page has been published to the translation table, we can convert our exclusive lock to whatever
             // we
             // need for the page cursor.
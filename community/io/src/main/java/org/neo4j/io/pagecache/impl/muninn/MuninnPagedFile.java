@@ -98,6 +98,12 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
     final int swapperId;
     private final CursorFactory cursorFactory;
     final String databaseName;
+    // Count the pages of this file, and of its database, that are in the cache, and protect them from eviction while
+    // they are within their page reservations.
+    private final ResidentPageAccount fileResidency;
+    private final ResidentPageAccount databaseResidency;
+    final boolean reserved;
+    private final boolean databaseReserved;
     private final IOController ioController;
     // If store files should be automatically pre-allocated,
     // this flag does not influence explicit preAllocate() operation.
@@ -105,6 +111,9 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
 
     private volatile boolean deleteOnClose;
 
+    // The pages dirtied since incremental flushing last visited them, only tracked once incremental flushing started.
+    private volatile DirtyPageTracker dirtyPageTracker;
+
     // Used to trace the causes of any exceptions from getLastPageId.
     private volatile Exception closeStackTrace;
 
@@ -153,9 +162,12 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
      * @param createIfNotExists should create file if it does not exists
      * @param truncateExisting should truncate file if it exists
      * @param useDirectIo use direct io for page file operations
+     * @param compressed keep the pages of the file compressed on disk, direct io is not used for compressed files
      * @param preallocateFile try to preallocate store files when they grow on supported platforms
      * @param databaseName an optional name of the database this file belongs to. This option associates the mapped file with a database.
-     * This information is currently used only for monitoring purposes.
+     * This information is used for monitoring purposes, and for page reservations.
+     * @param databaseResidency resident pages of the database this file belongs to
+     * @param fileResidency resident pages of this file
      * @param ioController io controller to report page file io operations
      * @param multiVersioned if file is mutli versioned
      * @param versionStorage page file old versioned pages storage
@@ -171,8 +183,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             boolean createIfNotExists,
             boolean truncateExisting,
             boolean useDirectIo,
+            boolean compressed,
             boolean preallocateFile,
             String databaseName,
+            ResidentPageAccount databaseResidency,
+            ResidentPageAccount fileResidency,
             int faultLockStriping,
             IOController ioController,
             EvictionBouncer evictionBouncer,
@@ -195,6 +210,10 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         this.pageFaultLatches = new LatchMap(faultLockStriping);
         this.bufferFactory = pageCache.getBufferFactory();
         this.databaseName = requireNonNull(databaseName);
+        this.databaseResidency = databaseResidency;
+        this.fileResidency = fileResidency;
+        this.databaseReserved = databaseResidency.isReserved();
+        this.reserved = databaseReserved || fileResidency.isReserved();
         this.ioController = requireNonNull(ioController);
         this.preallocateFile = preallocateFile;
 
@@ -215,15 +234,18 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         // filled with UNMAPPED_TTE values, and then finally assigns the new outer array to the translationTable field
         // and releases the resize lock.
         PageEvictionCallback onEviction = this::evictPage;
-        swapper = swapperFactory.createPageSwapper(
-                path,
-                filePageSize,
-                onEviction,
-                createIfNotExists,
-                useDirectIo,
-                ioController,
-                evictionBouncer,
-                getSwappers());
+        swapper = compressed
+                ? swapperFactory.createCompressedPageSwapper(
+                        path, filePageSize, onEviction, createIfNotExists, ioController, evictionBouncer, getSwappers())
+                : swapperFactory.createPageSwapper(
+                        path,
+                        filePageSize,
+                        onEviction,
+                        createIfNotExists,
+                        useDirectIo,
+                        ioController,
+                        evictionBouncer,
+                        getSwappers());
         if (truncateExisting) {
             swapper.truncate();
         }
@@ -259,7 +281,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         }
 
         if ((pf_flags & PF_READ_AHEAD) == PF_READ_AHEAD && (pf_flags & PF_NO_FAULT) != PF_NO_FAULT) {
-            pageCache.startPreFetching(cursor, cursorFactory);
+            pageCache.startPreFetching(cursor);
         }
         return cursor;
     }
@@ -331,6 +353,11 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         }
 
         evictPages();
+        // Pages that could not be evicted yet are no longer counted for the database. They will be evicted eventually.
+        long remainingPages = fileResidency.close();
+        if (databaseReserved) {
+            databaseResidency.pagesEvicted(remainingPages);
+        }
         if (!deleteOnClose) {
             swapper.close();
         } else {
@@ -385,6 +412,20 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         pageCache.clearEvictorException();
     }
 
+    @Override
+    public long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) throws IOException {
+        try {
+            return doFlushDirtyPages(maxPages, flushEvent);
+        } catch (ClosedChannelException e) {
+            if (getRefCount() > 0) {
+                e.addSuppressed(closeStackTrace);
+                throw e;
+            }
+            // The file was closed while we were flushing it, and unmapping flushed the remaining dirty pages.
+            return 0;
+        }
+    }
+
     void flushAndForceForClose() throws IOException {
         if (deleteOnClose) {
             // No need to spend time flushing data to a file we're going to delete anyway.
@@ -492,6 +533,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                             // see MuninnPageCursor#pageFault
                             translationTableSetVolatile(chunk, chunkIndex, UNMAPPED_TTE);
                             clearBinding(pageRef);
+                            pageUnloaded();
                             pageCache.addFreePageToFreelist(pageRef, EvictionRunEvent.NULL);
                             continue chunkLoop;
                         }
@@ -694,6 +736,138 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         swapper.force();
     }
 
+    private long doFlushDirtyPages(long maxPages, FileFlushEvent flushEvent) throws IOException {
+        DirtyPageTracker tracker = startTrackingDirtyPages();
+        long[] pages = new long[TRANSLATION_TABLE_CHUNK_SIZE];
+        long[] flushStamps = new long[TRANSLATION_TABLE_CHUNK_SIZE];
+        long[] bufferAddresses = new long[TRANSLATION_TABLE_CHUNK_SIZE];
+        int[] bufferLengths = new int[TRANSLATION_TABLE_CHUNK_SIZE];
+        long pagesFlushed = 0;
+        int pagesGrabbed = 0;
+        long lastFilePageId = -1;
+        // Visit every tracked page at most once, such that pages we put back are left for the next call.
+        for (long visits = tracker.size(); visits > 0 && pagesFlushed + pagesGrabbed < maxPages; visits--) {
+            long filePageId = tracker.poll();
+            if (filePageId == DirtyPageTracker.EMPTY) {
+                break;
+            }
+            if (pagesGrabbed > 0 && (filePageId != lastFilePageId + 1 || pagesGrabbed == pages.length)) {
+                // The pages we have grabbed so far can only be written back together with adjacent pages.
+                pagesFlushed += flushGrabbedPages(
+                        tracker, pages, bufferAddresses, flushStamps, bufferLengths, pagesGrabbed, flushEvent);
+                pagesGrabbed = 0;
+            }
+            int[][] tt = this.translationTable;
+            int chunkId = computeChunkId(filePageId);
+            if (chunkId >= tt.length) {
+                continue; // the file was truncated
+            }
+            int pageId = translationTableGetVolatile(tt[chunkId], computeChunkIndex(filePageId));
+            if (pageId != UNMAPPED_TTE) {
+                long pageRef = deref(pageId);
+                if (isModified(pageRef)) {
+                    long flushStamp = tryFlushLock(pageRef);
+                    if (flushStamp == 0) {
+                        // Someone else is flushing the page, check on it again in the next call.
+                        tracker.add(filePageId);
+                    } else if (isBoundTo(pageRef, swapperId, filePageId) && isModified(pageRef)) {
+                        pages[pagesGrabbed] = pageRef;
+                        flushStamps[pagesGrabbed] = flushStamp;
+                        bufferAddresses[pagesGrabbed] = getAddress(pageRef);
+                        bufferLengths[pagesGrabbed] = filePageSize;
+                        pagesGrabbed++;
+                        lastFilePageId = filePageId;
+                    } else {
+                        unlockFlush(pageRef, flushStamp, false);
+                    }
+                }
+            }
+        }
+        pagesFlushed += flushGrabbedPages(
+                tracker, pages, bufferAddresses, flushStamps, bufferLengths, pagesGrabbed, flushEvent);
+        return pagesFlushed;
+    }
+
+    /**
+     * Dirty pages are only tracked once incremental flushing has started on this file, so that files that are never
+     * flushed incrementally don't pay for it. Pages dirtied before that are found by visiting every page once.
+     */
+    private DirtyPageTracker startTrackingDirtyPages() {
+        DirtyPageTracker tracker = dirtyPageTracker;
+        if (tracker != null) {
+            return tracker;
+        }
+        synchronized (this) {
+            tracker = dirtyPageTracker;
+            if (tracker == null) {
+                tracker = new DirtyPageTracker();
+                // Publish the tracker before looking at the pages, such that any page dirtied after we looked at it
+                // is tracked by the write cursor that dirtied it.
+                dirtyPageTracker = tracker;
+                int[][] tt = this.translationTable;
+                for (int chunkId = 0; chunkId < tt.length; chunkId++) {
+                    int[] chunk = tt[chunkId];
+                    for (int chunkIndex = 0; chunkIndex < chunk.length; chunkIndex++) {
+                        int pageId = translationTableGetVolatile(chunk, chunkIndex);
+                        if (pageId != UNMAPPED_TTE && isModified(deref(pageId))) {
+                            tracker.add(((long) chunkId << TRANSLATION_TABLE_CHUNK_SIZE_POWER) + chunkIndex);
+                        }
+                    }
+                }
+            }
+            return tracker;
+        }
+    }
+
+    /**
+     * Called by write cursors when they have pinned a page, which marks it as modified.
+     */
+    void pageDirtied(long filePageId) {
+        DirtyPageTracker tracker = dirtyPageTracker;
+        if (tracker != null) {
+            tracker.add(filePageId);
+        }
+    }
+
+    @Override
+    public long dirtyPages() {
+        DirtyPageTracker tracker = dirtyPageTracker;
+        return tracker != null ? tracker.size() : 0;
+    }
+
+    private int flushGrabbedPages(
+            DirtyPageTracker tracker,
+            long[] pages,
+            long[] bufferAddresses,
+            long[] flushStamps,
+            int[] bufferLengths,
+            int pagesGrabbed,
+            FileFlushEvent flushEvent)
+            throws IOException {
+        if (pagesGrabbed > 0) {
+            long startFilePageId = getFilePageId(pages[0]);
+            vectoredFlush(
+                    pages,
+                    bufferAddresses,
+                    flushStamps,
+                    bufferLengths,
+                    pagesGrabbed,
+                    pagesGrabbed,
+                    0,
+                    flushEvent,
+                    false);
+            flushEvent.reportIO(pagesGrabbed);
+            ioController.maybeLimitIO(pagesGrabbed, flushEvent);
+            for (int i = 0; i < pagesGrabbed; i++) {
+                // Pages that were written to while we flushed them are still dirty, and must be tracked again.
+                if (isModified(pages[i])) {
+                    tracker.add(startFilePageId + i);
+                }
+            }
+        }
+        return pagesGrabbed;
+    }
+
     private void vectoredFlush(
             long[] pages,
             long[] bufferAddresses,
@@ -899,6 +1073,18 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
         return pageCache.grabFreeAndExclusivelyLockedPage(faultEvent);
     }
 
+    /**
+     * Count a page hit towards the NUMA node the memory of the given page is on, when the page cache is partitioned.
+     *
+     * @param pageId The id of the page cache page that was hit.
+     */
+    void reportNumaNodeHit(int pageId) {
+        PagePartitions partitions = getPartitions();
+        if (partitions.isPartitioned()) {
+            pageCacheTracer.numaNodeHits(partitions.partitionOf(pageId), 1);
+        }
+    }
+
     /**
      * Remove the mapping of the given filePageId from the translation table, and return the evicted page object.
      *
@@ -915,6 +1101,57 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
             setHighestEvictedTransactionId(getAndResetLastModifiedTransactionId(pageRef));
         }
         translationTableSetVolatile(chunk, chunkIndex, UNMAPPED_TTE);
+        pageUnloaded();
+    }
+
+    /**
+     * Called when pages have been faulted in, and published in the translation table. Pages are only counted when
+     * there is a reservation that eviction has to check them against, so faults and evictions of unreserved files
+     * do not contend on shared counters.
+     */
+    void pagesLoaded(int pages) {
+        if (reserved) {
+            fileResidency.pagesLoaded(pages);
+            if (databaseReserved) {
+                databaseResidency.pagesLoaded(pages);
+            }
+        }
+    }
+
+    private void pageUnloaded() {
+        if (reserved && fileResidency.pageEvicted() && databaseReserved) {
+            databaseResidency.pageEvicted();
+        }
+    }
+
+    /**
+     * Count the pages of this file that are in the page cache by walking its translation table, for files whose pages
+     * are not counted as they are loaded and evicted.
+     */
+    long countResidentPages() {
+        long pages = 0;
+        for (int[] chunk : translationTable) {
+            for (int chunkIndex = 0; chunkIndex < chunk.length; chunkIndex++) {
+                if (translationTableGetVolatile(chunk, chunkIndex) != UNMAPPED_TTE) {
+                    pages++;
+                }
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * @param respectSoftReservations {@code false} if only hard page reservations should protect the pages.
+     * @return {@code true} if eviction should pass over the pages of this file, to keep them within the page
+     * reservations of the file or its database.
+     */
+    boolean protectsPagesFromEviction(boolean respectSoftReservations) {
+        return (fileResidency.isReserved() && fileResidency.protectsPage(respectSoftReservations))
+                || (databaseResidency.isReserved() && databaseResidency.protectsPage(respectSoftReservations));
+    }
+
+    ResidentPageAccount fileResidency() {
+        return fileResidency;
     }
 
     private void setHighestEvictedTransactionId(long modifiedTransactionId) {
@@ -1150,6 +1387,7 @@ final class MuninnPagedFile extends PageList implements PagedFile, Flushable {
                 int chunkIndex = computeChunkIndex(filePageId + i);
                 translationTableSetVolatile(translationTable[chunkId], chunkIndex, pageCachePageId);
             }
+            pagesLoaded(numberOfPages);
             faultEvent.addPagesFaulted(numberOfPages, pageRefs, this);
         } catch (Throwable throwable) {
             faultEvent.setException(throwable);
@@ -193,6 +193,7 @@ final class MuninnWritePageCursor extends MuninnPageCursor {
         // after the reset() call, which means that if we throw, the cursor will
         // be closed and the page lock will be released.
         assertCursorOpenFileMappedAndGetIdOfLastPage();
+        pagedFile.pageDirtied(filePageId);
         if (multiVersioned) {
             long pagePointer = pointer;
             long headVersion = getLongAt(pagePointer, littleEndian);
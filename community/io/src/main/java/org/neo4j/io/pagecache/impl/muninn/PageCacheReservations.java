@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import static java.util.Objects.requireNonNull;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The number of pages the {@link MuninnPageCache} reserves for the pages of a database, or of a file.
+ * <p>
+ * Eviction passes over the pages of a database, or file, for as long as it has no more pages in the cache than its
+ * reservation, so other databases cannot push its working set out of the cache. A soft reservation is only respected
+ * for as long as there are other pages left to evict, while a hard reservation is always respected. File reservations
+ * are matched on the name of the file, and apply to every mapping of a file with that name.
+ */
+public final class PageCacheReservations {
+    public static final PageCacheReservations NONE = new PageCacheReservations(Map.of(), Map.of());
+
+    private final Map<String, Reservation> databases;
+    private final Map<String, Reservation> files;
+
+    private PageCacheReservations(Map<String, Reservation> databases, Map<String, Reservation> files) {
+        this.databases = databases;
+        this.files = files;
+    }
+
+    /**
+     * @param databaseName name of the database to reserve pages for.
+     * @param softPages number of pages to keep for the database for as long as there are other pages to evict.
+     * @param hardPages number of pages to always keep for the database, at most {@code softPages}.
+     */
+    public PageCacheReservations database(String databaseName, long softPages, long hardPages) {
+        Map<String, Reservation> newDatabases = new HashMap<>(databases);
+        newDatabases.put(requireNonNull(databaseName), new Reservation(softPages, hardPages));
+        return new PageCacheReservations(Map.copyOf(newDatabases), files);
+    }
+
+    /**
+     * @param fileName name of the files to reserve pages for, in every database.
+     * @param softPages number of pages to keep for each such file for as long as there are other pages to evict.
+     * @param hardPages number of pages to always keep for each such file, at most {@code softPages}.
+     */
+    public PageCacheReservations file(String fileName, long softPages, long hardPages) {
+        Map<String, Reservation> newFiles = new HashMap<>(files);
+        newFiles.put(requireNonNull(fileName), new Reservation(softPages, hardPages));
+        return new PageCacheReservations(databases, Map.copyOf(newFiles));
+    }
+
+    boolean isEmpty() {
+        return databases.isEmpty() && files.isEmpty();
+    }
+
+    Reservation forDatabase(String databaseName) {
+        return databases.getOrDefault(databaseName, Reservation.NONE);
+    }
+
+    Reservation forFile(Path path) {
+        Path fileName = path.getFileName();
+        return fileName == null ? Reservation.NONE : files.getOrDefault(fileName.toString(), Reservation.NONE);
+    }
+
+    /**
+     * @return the sum of all hard reservations, counting every file reservation once.
+     */
+    long hardReservedPages() {
+        long pages = 0;
+        for (Reservation reservation : databases.values()) {
+            pages += reservation.hardPages();
+        }
+        for (Reservation reservation : files.values()) {
+            pages += reservation.hardPages();
+        }
+        return pages;
+    }
+
+    record Reservation(long softPages, long hardPages) {
+        static final Reservation NONE = new Reservation(0, 0);
+
+        Reservation {
+            if (hardPages < 0 || softPages < hardPages) {
+                throw new IllegalArgumentException("A page reservation needs 0 <= hard pages <= soft pages, but was "
+                        + hardPages + " hard and " + softPages + " soft pages.");
+            }
+        }
+
+        boolean isNone() {
+            return softPages == 0;
+        }
+    }
+}
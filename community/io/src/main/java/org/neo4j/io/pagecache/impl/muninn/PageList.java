@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.lang.invoke.VarHandle;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.pagecache.PageCursor;
 import org.neo4j.io.pagecache.PageSwapper;
 import org.neo4j.io.pagecache.tracing.EvictionEvent;
@@ -88,6 +89,7 @@ class PageList implements PageReferenceTranslator {
     private final long victimPageAddress;
     private final long baseAddress;
     private final long bufferAlignment;
+    private final PagePartitions partitions;
 
     PageList(
             int pageCount,
@@ -96,6 +98,24 @@ class PageList implements PageReferenceTranslator {
             SwapperSet swappers,
             long victimPageAddress,
             long bufferAlignment) {
+        this(
+                pageCount,
+                cachePageSize,
+                memoryAllocator,
+                swappers,
+                victimPageAddress,
+                bufferAlignment,
+                new PagePartitions(pageCount, NumaTopology.SINGLE_NODE));
+    }
+
+    PageList(
+            int pageCount,
+            int cachePageSize,
+            MemoryAllocator memoryAllocator,
+            SwapperSet swappers,
+            long victimPageAddress,
+            long bufferAlignment,
+            PagePartitions partitions) {
         this.pageCount = pageCount;
         this.cachePageSize = cachePageSize;
         this.memoryAllocator = memoryAllocator;
@@ -104,6 +124,7 @@ class PageList implements PageReferenceTranslator {
         long bytes = ((long) pageCount) * META_DATA_BYTES_PER_PAGE;
         this.baseAddress = memoryAllocator.allocateAligned(bytes, Long.BYTES);
         this.bufferAlignment = bufferAlignment;
+        this.partitions = partitions;
         clearMemory(baseAddress, pageCount);
     }
 
@@ -123,6 +144,7 @@ class PageList implements PageReferenceTranslator {
         this.victimPageAddress = pageList.victimPageAddress;
         this.baseAddress = pageList.baseAddress;
         this.bufferAlignment = pageList.bufferAlignment;
+        this.partitions = pageList.partitions;
     }
 
     private static void clearMemory(long baseAddress, long pageCount) {
@@ -170,6 +192,10 @@ class PageList implements PageReferenceTranslator {
         return pageCount;
     }
 
+    PagePartitions getPartitions() {
+        return partitions;
+    }
+
     SwapperSet getSwappers() {
         return swappers;
     }
@@ -283,6 +309,9 @@ class PageList implements PageReferenceTranslator {
         var address = getAddress(pageRef);
         if (address == 0L) {
             address = memoryAllocator.allocateAligned(getCachePageSize(), bufferAlignment);
+            // Place the memory before it is first written to, which is when the operating system backs it with
+            // physical memory.
+            partitions.bindMemory(toId(pageRef), address, getCachePageSize());
             UnsafeUtil.putLong(offAddress(pageRef), address);
         }
         return address;
@@ -376,6 +405,13 @@ class PageList implements PageReferenceTranslator {
         return (int) (v & MASK_SHIFTED_SWAPPER_ID); // 21 bits.
     }
 
+    /**
+     * @return the swapper id and file page id the page is bound to, combined into a single value.
+     */
+    static long getPageBinding(long pageRef) {
+        return UnsafeUtil.getLong(offPageBinding(pageRef)) >>> SHIFT_SWAPPER_ID;
+    }
+
     static void setSwapperId(long pageRef, int swapperId) {
         swapperId = swapperId << SHIFT_SWAPPER_ID;
         long address = offPageBinding(pageRef);
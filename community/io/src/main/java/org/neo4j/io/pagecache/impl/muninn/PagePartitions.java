@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.mem.NumaTopology;
+
+/**
+ * Splits the pages of the page cache into one contiguous range of page ids per NUMA node, and each of those ranges
+ * into a number of stripes.
+ * <p>
+ * The memory of the pages in a partition is placed on the node of that partition. Each stripe has its own free list,
+ * so concurrently page faulting threads don't all contend on the same free list head. A thread takes free pages from
+ * its own stripe first, then steals from the other stripes of its partition, and only then from the stripes of the
+ * other partitions. Without NUMA there is a single partition, and with a single stripe the page cache behaves as if it
+ * was not partitioned at all.
+ */
+final class PagePartitions {
+    // Partitions smaller than this are not worth it, and would make the page cache more prone to live-locks.
+    static final int MIN_PAGES_PER_PARTITION = 1024;
+    // Stripes smaller than this would have too few free pages each for the eviction thread to keep up.
+    static final int MIN_PAGES_PER_STRIPE = 256;
+
+    private final NumaTopology topology;
+    private final int pageCount;
+    private final int partitionCount;
+    private final int partitionSize;
+    private final int stripesPerPartition;
+
+    PagePartitions(int pageCount, NumaTopology topology) {
+        this(pageCount, topology, 1);
+    }
+
+    PagePartitions(int pageCount, NumaTopology topology, int stripes) {
+        this.topology = topology;
+        this.pageCount = pageCount;
+        this.partitionCount = Math.max(1, Math.min(topology.nodeCount(), pageCount / MIN_PAGES_PER_PARTITION));
+        this.partitionSize = (int) Math.max(1, ((long) pageCount + partitionCount - 1) / partitionCount);
+        int wantedStripesPerPartition = Math.max(1, (stripes + partitionCount - 1) / partitionCount);
+        // The last partition can be a little smaller than the others, and must still have room for all its stripes.
+        int smallestPartition = pageCount - (partitionCount - 1) * partitionSize;
+        this.stripesPerPartition =
+                Math.max(1, Math.min(wantedStripesPerPartition, smallestPartition / MIN_PAGES_PER_STRIPE));
+    }
+
+    /**
+     * @return the number of partitions, which is also the number of NUMA nodes the pages are spread over.
+     */
+    int count() {
+        return partitionCount;
+    }
+
+    boolean isPartitioned() {
+        return partitionCount > 1;
+    }
+
+    /**
+     * @return the first page id of the given partition.
+     */
+    int start(int partition) {
+        return partition * partitionSize;
+    }
+
+    /**
+     * @return the page id right after the last page of the given partition.
+     */
+    int end(int partition) {
+        return Math.min(pageCount, start(partition) + partitionSize);
+    }
+
+    int partitionOf(int pageId) {
+        return pageId / partitionSize;
+    }
+
+    /**
+     * @return the partition on the NUMA node of the calling thread.
+     */
+    int localPartition() {
+        return partitionCount == 1 ? 0 : topology.currentNode() % partitionCount;
+    }
+
+    /**
+     * @return the total number of stripes, over all partitions.
+     */
+    int stripeCount() {
+        return partitionCount * stripesPerPartition;
+    }
+
+    /**
+     * @return the first page id of the given stripe.
+     */
+    int stripeStart(int stripe) {
+        int partition = stripe / stripesPerPartition;
+        int start = start(partition);
+        long partitionLength = end(partition) - start;
+        return start + (int) (stripe % stripesPerPartition * partitionLength / stripesPerPartition);
+    }
+
+    /**
+     * @return the page id right after the last page of the given stripe.
+     */
+    int stripeEnd(int stripe) {
+        int partition = stripe / stripesPerPartition;
+        int start = start(partition);
+        long partitionLength = end(partition) - start;
+        return start + (int) ((stripe % stripesPerPartition + 1) * partitionLength / stripesPerPartition);
+    }
+
+    int stripeOf(int pageId) {
+        int partition = partitionOf(pageId);
+        int start = start(partition);
+        long partitionLength = end(partition) - start;
+        long offset = pageId - start;
+        return partition * stripesPerPartition + (int) (((offset + 1) * stripesPerPartition - 1) / partitionLength);
+    }
+
+    /**
+     * @return the stripe of the calling thread, in the partition on the NUMA node of the calling thread. A thread
+     * keeps using the same stripe for as long as it stays on the same node.
+     */
+    int localStripe() {
+        int stripe =
+                stripesPerPartition == 1 ? 0 : (int) (Thread.currentThread().getId() % stripesPerPartition);
+        return localPartition() * stripesPerPartition + stripe;
+    }
+
+    /**
+     * The order in which a thread looks for free pages: its own stripe first, then the other stripes of the same
+     * partition, and then the stripes of the other partitions.
+     *
+     * @param localStripe the stripe of the calling thread.
+     * @param attempt the number of stripes looked at so far, from zero up to, but not including, {@link #stripeCount()}.
+     * @return the stripe to look at next.
+     */
+    int stealingStripe(int localStripe, int attempt) {
+        int partition = (localStripe / stripesPerPartition + attempt / stripesPerPartition) % partitionCount;
+        int stripe = (localStripe + attempt) % stripesPerPartition;
+        return partition * stripesPerPartition + stripe;
+    }
+
+    /**
+     * Place the memory of the given page on the NUMA node of its partition.
+     */
+    void bindMemory(int pageId, long address, long bytes) {
+        if (partitionCount > 1) {
+            topology.bindMemory(address, bytes, partitionOf(pageId));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PagePartitions[partitions=" + partitionCount + ", partitionSize=" + partitionSize
+                + ", stripesPerPartition=" + stripesPerPartition + "]";
+    }
+}
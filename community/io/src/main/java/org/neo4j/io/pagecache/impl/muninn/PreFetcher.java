@@ -20,131 +20,139 @@
 package org.neo4j.io.pagecache.impl.muninn;
 
 import static org.neo4j.io.pagecache.PageCursor.UNBOUND_PAGE_ID;
-import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 import org.neo4j.internal.unsafe.UnsafeUtil;
-import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.io.pagecache.tracing.cursor.PageCursorTracer;
 import org.neo4j.scheduler.CancelListener;
 import org.neo4j.time.SystemNanoClock;
 
 /**
- * An adaptive page pre-fetcher for sequential scans, for either forwards (increasing page id order) or backwards (decreasing page id order) scans.
+ * An adaptive page pre-fetcher for scans that visit pages in a regular pattern: forwards (increasing page id order), backwards (decreasing page id
+ * order), or strided, where the scanner skips a fixed number of pages between each page it visits.
  *
  * The given page cursor is being "weakly" observed from a background pre-fetcher thread, as it is progressing through its scan, and the pre-fetcher tries
  * to touch pages ahead of the scanning cursor in order to move page fault overhead from the scanning thread to the pre-fetching thread.
  *
- * The pre-fetcher relies on {@code ordered stores} of the "current page id" from the scanner thread,
+ * The pre-fetcher relies on {@code ordered stores} of the "current page id" and of the "access stride" from the scanner thread,
  * and on {@link UnsafeUtil#getLongVolatile(long) volatile loads} in the pre-fetcher thread, in order to observe the progress of the scanner without placing
  * too much synchronisation overhead on the scanner. Because this does not form a "synchronises-with" edge in Java Memory Model palace, we say that the
  * scanning cursor is being "weakly" observed. Ordered stores have compiler barriers, but no CPU or cache coherence barriers beyond plain stores.
  *
  * The pre-fetcher is adaptive because the number of pages the pre-fetcher will move ahead of the scanning cursor, and the length of time the pre-fetcher
- * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be.
- * The pre-fetcher also automatically figures out if the scanner is scanning the file in a forward or backwards direction.
+ * will wait in between checking on the progress of the scanner, are dynamically computed and updated based on how fast the scanner appears to be, and
+ * on how long it takes the pre-fetcher to fault in a page. The read-ahead window is sized to cover what the scanner will consume while the window is
+ * being faulted in, so slow storage grows the window and fast storage, or a slow scanner, shrinks it. Contiguous runs of pages are faulted in with
+ * vectored reads. The access pattern is only acted upon once the scanner has followed it for two consecutive observations, and the pre-fetcher starts
+ * over with a small window whenever the pattern changes.
+ *
+ * Pre-fetched pages are reported to the {@link PageCacheTracer} as {@link PageCacheTracer#preFetchHits(long) hits} when the scanner goes on to reach them,
+ * and as {@link PageCacheTracer#preFetchWaste(long) waste} when the scan changes pattern or ends before reaching them.
  */
 class PreFetcher implements Runnable, CancelListener {
     private static final String TRACER_PRE_FETCHER_TAG = "Pre-fetcher";
+    private static final int MAX_TOUCH_BATCH = 64;
+    static final int MAX_WINDOW = 1024;
+    private static final long MAX_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
     private final MuninnPageCursor observedCursor;
-    private final CursorFactory cursorFactory;
     private final SystemNanoClock clock;
+    private final PageCacheTracer pageCacheTracer;
+    private final PendingPages pending = new PendingPages(MAX_WINDOW);
     private volatile boolean cancelled;
     private long startTime;
     private long deadline;
     private long tripCount;
-    private long pauseNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private long pauseNanos = MAX_PAUSE_NANOS;
+
+    // The signed distance between the pages the scanner visits, negative for backwards scans.
+    private long step;
+    // The number of steps to pre-fetch ahead of the scanner.
+    private int window = 1;
+    // The last page we pre-fetched, or UNBOUND_PAGE_ID if we have not pre-fetched anything for the current pattern.
+    private long frontier = UNBOUND_PAGE_ID;
+    // Moving average of how long it takes us to fault in a single page.
+    private long faultNanos;
+    private long lastObservedPageId = UNBOUND_PAGE_ID;
 
-    PreFetcher(MuninnPageCursor observedCursor, CursorFactory cursorFactory, SystemNanoClock clock) {
+    PreFetcher(MuninnPageCursor observedCursor, SystemNanoClock clock, PageCacheTracer pageCacheTracer) {
         this.observedCursor = observedCursor;
-        this.cursorFactory = cursorFactory;
         this.clock = clock;
+        this.pageCacheTracer = pageCacheTracer;
     }
 
     @Override
     public void run() {
+        try {
+            preFetch();
+        } finally {
+            // Whatever the scanner has not reached by now, it will not reach with our help.
+            settle(lastObservedPageId, true);
+        }
+    }
+
+    private void preFetch() {
         // Phase 1: Wait for observed cursor to start moving.
         setDeadline(150, TimeUnit.MILLISECONDS); // Give up if nothing happens for 150 milliseconds.
-        long initialPageId;
-        while ((initialPageId = getCurrentObservedPageId()) == UNBOUND_PAGE_ID) {
+        while (getCurrentObservedPageId() == UNBOUND_PAGE_ID) {
             pause();
             if (pastDeadline()) {
                 return; // Give up. Looks like this cursor is either already finished, or never started.
             }
         }
 
-        // Phase 2: Wait for the cursor to move either forwards or backwards, to determine the prefetching direction.
+        // Phase 2: Wait for the cursor to move from one page to another, to learn its access pattern.
         setDeadline(200, TimeUnit.MILLISECONDS); // We will wait up to 200 milliseconds for this phase to complete.
-        long secondPageId;
-        while ((secondPageId = getCurrentObservedPageId()) == initialPageId) {
+        while ((step = observedCursor.loadVolatileAccessStride()) == 0) {
             pause();
             if (pastDeadline()) {
                 return; // Okay, this is going too slow. Give up.
             }
         }
-        if (secondPageId == UNBOUND_PAGE_ID) {
-            return; // We're done. The observed cursor was closed.
-        }
-
-        // Phase 3: We now know what direction to prefetch in.
-        // Just keep loading pages on the right side of the cursor until its closed.
-        boolean forward = initialPageId < secondPageId;
-        long currentPageId;
-        long cp;
-        long nextPageId;
-        long fromPage;
-        long toPage;
-
-        // Offset is a fixed adjustment of the observed cursor position.
-        // This moves the start of the pre-fetch range forward for forward pre-fetching,
-        // or the end position backward for backward pre-fetching.
-        long offset = forward ? 1 : -1;
-
-        // Jump is the dynamically adjusted size of the prefetch range,
-        // with a sign component to indicate forwards or backwards pre-fetching.
-        // That is, jump is negative if we are pre-fetching backwards.
-        // This way, observed position + jump is the end or start of the pre-fetch range,
-        // for forwards or backwards pre-fetch respectively.
-        // The initial value don't matter so much. Just same as offset, so we initially fetch one page.
-        long jump = offset;
-
-        try (var context = observedCursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG);
-                PageCursor prefetchCursor = cursorFactory.takeReadCursor(0, PF_SHARED_READ_LOCK, context)) {
-            currentPageId = getCurrentObservedPageId();
+
+        // Phase 3: Keep loading pages ahead of the cursor, along its access pattern, until it is closed.
+        MuninnPagedFile pagedFile = observedCursor.pagedFile;
+        try (var context = observedCursor.cursorContext.createRelatedContext(TRACER_PRE_FETCHER_TAG)) {
+            long currentPageId = getCurrentObservedPageId();
+            long roundStart = clock.nanos();
             while (currentPageId != UNBOUND_PAGE_ID) {
-                cp = currentPageId + offset;
-                if (forward) {
-                    fromPage = cp;
-                    toPage = cp + jump;
-                } else {
-                    fromPage = Math.max(0, cp + jump);
-                    toPage = cp;
-                }
-                while (fromPage < toPage) {
-                    if (!prefetchCursor.next(fromPage) || cancelled) {
-                        return; // Reached the end of the file. Or got cancelled.
-                    }
-                    fromPage++;
+                long observedStep = observedCursor.loadVolatileAccessStride();
+                // A stride of zero only means that the scanner visited the same page again, which tells us nothing
+                // about where it goes next, so we keep following the pattern we already know.
+                if (observedStep != 0 && observedStep != step) {
+                    // The pattern changed. Whatever we fetched for the old one is not going to be used.
+                    // We only act on the new pattern once we have seen the scanner follow it in the next round.
+                    settle(currentPageId, true);
+                    step = observedStep;
+                    window = 1;
+                    frontier = UNBOUND_PAGE_ID;
+                } else if (!fetchAhead(pagedFile, context, currentPageId)) {
+                    return; // Reached the end of the file. Or got cancelled.
                 }
 
                 // Phase 3.5: After each prefetch round, we wait for the cursor to move again.
-                // If it just stops somewhere for more than a second, then we quit.
-                nextPageId = getCurrentObservedPageId();
+                // If it just stops somewhere for more than ten seconds, then we quit.
+                long nextPageId = getCurrentObservedPageId();
                 if (nextPageId == currentPageId) {
                     setDeadline(10, TimeUnit.SECONDS);
                     while (nextPageId == currentPageId) {
                         pause();
                         if (pastDeadline()) {
-                            return; // The cursor hasn't made any progress for a whole second. Leave it alone.
+                            return; // The cursor hasn't made any progress for a long time. Leave it alone.
                         }
                         nextPageId = getCurrentObservedPageId();
                     }
                     madeProgress();
                 }
                 if (nextPageId != UNBOUND_PAGE_ID) {
-                    jump = (nextPageId - currentPageId) * 2;
+                    long now = clock.nanos();
+                    adjustWindow(nextPageId - currentPageId, now - roundStart);
+                    roundStart = now;
+                    settle(nextPageId, false);
                 }
                 currentPageId = nextPageId;
             }
@@ -153,6 +161,119 @@ class PreFetcher implements Runnable, CancelListener {
         }
     }
 
+    /**
+     * Touch the pages of the read-ahead window that we have not already touched.
+     *
+     * @return {@code false} if we reached the end of the file, or got cancelled.
+     */
+    private boolean fetchAhead(MuninnPagedFile pagedFile, CursorContext context, long currentPageId)
+            throws IOException {
+        if (step == 0) {
+            return true; // No pattern to follow.
+        }
+        PageCursorTracer cursorTracer = context.getCursorTracer();
+        long windowEnd = currentPageId + step * window;
+        // Continue from where the previous round left off, unless the scanner has already overtaken us.
+        long fromPage = frontier != UNBOUND_PAGE_ID && isAhead(frontier, currentPageId)
+                ? frontier + step
+                : currentPageId + step;
+        while (!isAhead(fromPage, windowEnd) && !pending.isFull()) {
+            if (fromPage < 0) {
+                break; // Reached the start of the file.
+            }
+            // Contiguous runs are touched in batches, so that the missing pages of each batch are faulted in with a
+            // single vectored read, which the swapper can hand to the kernel as one submission.
+            int batch = 1;
+            if (step == 1 || step == -1) {
+                long remaining = Math.abs(windowEnd - fromPage) + 1;
+                batch = (int) Math.min(remaining, MAX_TOUCH_BATCH);
+                if (step < 0) {
+                    batch = (int) Math.min(batch, fromPage + 1);
+                }
+            }
+            long firstPage = step < 0 ? fromPage - batch + 1 : fromPage;
+
+            long faultsBefore = cursorTracer.faults();
+            long touchStart = clock.nanos();
+            int touched = pagedFile.touch(firstPage, batch, context);
+            long faulted = cursorTracer.faults() - faultsBefore;
+            if (faulted > 0 && touched > 0) {
+                recordFaultLatency(clock.nanos() - touchStart, faulted);
+                pending.add(fromPage, touched, faulted);
+            }
+            if (touched < batch || cancelled) {
+                return false;
+            }
+            frontier = fromPage + step * (batch - 1);
+            fromPage = frontier + step;
+        }
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the given page comes after the reference page, in the direction of the scan.
+     */
+    private boolean isAhead(long pageId, long referencePageId) {
+        return step > 0 ? pageId > referencePageId : pageId < referencePageId;
+    }
+
+    private void recordFaultLatency(long elapsedNanos, long faultedPages) {
+        long perPage = elapsedNanos / faultedPages;
+        faultNanos = faultNanos == 0 ? perPage : (faultNanos * 3 + perPage) / 4;
+    }
+
+    /**
+     * Size the window to cover what the scanner consumes while we fault in the window and wait for the next round,
+     * with some headroom.
+     */
+    private void adjustWindow(long distance, long elapsedNanos) {
+        if (step == 0 || distance == 0 || elapsedNanos <= 0 || (distance ^ step) < 0) {
+            return;
+        }
+        double stepsPerNano = (double) (distance / step) / elapsedNanos;
+        double leadNanos = pauseNanos + (double) faultNanos * window;
+        long desired = (long) Math.ceil(stepsPerNano * leadNanos * 2);
+        window = (int) Math.max(1, Math.min(desired, MAX_WINDOW));
+    }
+
+    /**
+     * Account for the pre-fetched pages the scanner has passed.
+     *
+     * @param pageId the page the scanner was last observed at.
+     * @param all {@code true} if the scanner is not going to reach any of the remaining pre-fetched pages.
+     */
+    private void settle(long pageId, boolean all) {
+        long hits = 0;
+        long waste = 0;
+        while (!pending.isEmpty()) {
+            long first = pending.firstPage();
+            int pages = pending.pages();
+            long faulted = pending.faulted();
+            long reached = 0;
+            if (pageId != UNBOUND_PAGE_ID) {
+                long last = first + step * (pages - 1);
+                if (!isAhead(last, pageId)) {
+                    reached = pages;
+                } else if (!isAhead(first, pageId)) {
+                    reached = (pageId - first) / step + 1;
+                }
+            }
+            if (reached < pages && !all) {
+                break;
+            }
+            long faultedHits = faulted * reached / pages;
+            hits += faultedHits;
+            waste += faulted - faultedHits;
+            pending.remove();
+        }
+        if (hits > 0) {
+            pageCacheTracer.preFetchHits(hits);
+        }
+        if (waste > 0) {
+            pageCacheTracer.preFetchWaste(waste);
+        }
+    }
+
     private void setDeadline(long timeout, TimeUnit unit) {
         startTime = clock.nanos();
         deadline = unit.toNanos(timeout) + startTime;
@@ -185,18 +306,72 @@ class PreFetcher implements Runnable, CancelListener {
         // time).
         long timeToProgressNanos = clock.nanos() - startTime;
         long pause = (pauseNanos * 3 + timeToProgressNanos * 5) / 8;
-        pauseNanos = Math.min(pause, TimeUnit.MILLISECONDS.toNanos(10));
+        pauseNanos = Math.min(pause, MAX_PAUSE_NANOS);
     }
 
     private long getCurrentObservedPageId() {
         // Read as volatile even though the field isn't volatile.
         // We rely on the ordered-store of all writes to the current page id field, in order to weakly observe this
         // value.
-        return observedCursor.loadVolatileCurrentPageId();
+        long pageId = observedCursor.loadVolatileCurrentPageId();
+        if (pageId != UNBOUND_PAGE_ID) {
+            lastObservedPageId = pageId;
+        }
+        return pageId;
     }
 
     @Override
     public void cancelled() {
         cancelled = true;
     }
+
+    /**
+     * Bounded queue of the runs of pages we have faulted in, ahead of the scanner, in scan order.
+     */
+    private static final class PendingPages {
+        private final long[] firstPages;
+        private final int[] pages;
+        private final long[] faulted;
+        private int head;
+        private int size;
+
+        PendingPages(int capacity) {
+            firstPages = new long[capacity];
+            pages = new int[capacity];
+            faulted = new long[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean isFull() {
+            return size == firstPages.length;
+        }
+
+        void add(long firstPage, int pageCount, long faultedPages) {
+            int index = (head + size) % firstPages.length;
+            firstPages[index] = firstPage;
+            pages[index] = pageCount;
+            faulted[index] = faultedPages;
+            size++;
+        }
+
+        long firstPage() {
+            return firstPages[head];
+        }
+
+        int pages() {
+            return pages[head];
+        }
+
+        long faulted() {
+            return faulted[head];
+        }
+
+        void remove() {
+            head = (head + 1) % firstPages.length;
+            size--;
+        }
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheReservations.Reservation;
+
+/**
+ * Counts the pages of a database, or of a single mapped file, that are currently in the page cache, and decides if
+ * eviction has to pass over them because of their {@link PageCacheReservations page reservation}. Accounts are only
+ * kept up to date where there is a reservation to check, see {@link MuninnPagedFile#pagesLoaded(int)}.
+ */
+final class ResidentPageAccount {
+    // A closed file account goes, and stays, negative, so pages of the file that are evicted after it was unmapped are
+    // not taken off the account of its database a second time.
+    private static final long CLOSED = Long.MIN_VALUE / 2;
+
+    private final Reservation reservation;
+    private final AtomicLong residentPages = new AtomicLong();
+    private final LongAdder protectedPages = new LongAdder();
+
+    ResidentPageAccount(Reservation reservation) {
+        this.reservation = reservation;
+    }
+
+    void pagesLoaded(long pages) {
+        residentPages.addAndGet(pages);
+    }
+
+    /**
+     * @return {@code true} if the account was still open, and the page was taken off of it.
+     */
+    boolean pageEvicted() {
+        return residentPages.decrementAndGet() >= 0;
+    }
+
+    void pagesEvicted(long pages) {
+        residentPages.addAndGet(-pages);
+    }
+
+    /**
+     * Close the account of an unmapped file.
+     * @return the number of pages of the file that are still in the cache.
+     */
+    long close() {
+        return Math.max(0, residentPages.getAndSet(CLOSED));
+    }
+
+    long residentPages() {
+        return Math.max(0, residentPages.get());
+    }
+
+    boolean isReserved() {
+        return !reservation.isNone();
+    }
+
+    Reservation reservation() {
+        return reservation;
+    }
+
+    /**
+     * @return the number of times eviction passed over a page because of the reservation of this account.
+     */
+    long protectedPages() {
+        return protectedPages.sum();
+    }
+
+    /**
+     * @param respectSoftReservation {@code false} if only the hard reservation should protect the pages.
+     * @return {@code true} if evicting one more page would take the account below its reservation.
+     */
+    boolean protectsPage(boolean respectSoftReservation) {
+        long resident = residentPages.get();
+        if (resident <= reservation.hardPages() || (respectSoftReservation && resident <= reservation.softPages())) {
+            protectedPages.increment();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.impl.muninn;
+
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A scan resistant variant of the {@link ClockEvictionPolicy clock}, that uses a {@link FrequencySketch} of recent
+ * page accesses as a TinyLFU filter in front of the usage counters.
+ * <p>
+ * Pages only gain usage once they have been accessed repeatedly within the sketch window, so the pages of a large
+ * scan are admitted "cold" and are the first to go. When the clock arm finds an eviction candidate that has been
+ * accessed much more frequently than the candidates it has seen recently, that page is passed over instead of being
+ * evicted. To bound the work of the evicting threads, protection is suspended once a full revolution of the clock has
+ * produced nothing but protected pages.
+ * <p>
+ * Pinning threads only ever increment the sketch. Ageing the sketch is left to the eviction thread, and reporting to
+ * the tracer to the evicting threads, as part of their eviction decisions.
+ */
+final class TinyLfuEvictionPolicy implements EvictionPolicy {
+    // Pages seen fewer times than this within the sketch window do not gain any usage when accessed.
+    private static final int ADMISSION_FREQUENCY = 2;
+    // Candidates are only protected if they have been accessed at least this many times...
+    private static final int MIN_PROTECTED_FREQUENCY = 3;
+    // ...and at least this many times more often than the recent eviction candidates.
+    private static final double PROTECTION_FACTOR = 2.0;
+    // The weight of every new candidate in the moving average of candidate frequencies.
+    private static final double CANDIDATE_WEIGHT = 1.0 / 64;
+
+    private final FrequencySketch sketch;
+    private final PageCacheTracer pageCacheTracer;
+    private final MemoryTracker memoryTracker;
+    private final int pageCount;
+
+    // Mostly accessed by the eviction thread. Racing updates from cooperatively evicting threads only skew the
+    // statistics, and the protection streak stays bounded by the page count.
+    private double averageCandidateFrequency = 1;
+    private int protectedInARow;
+
+    TinyLfuEvictionPolicy(int pageCount, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker) {
+        this.sketch = new FrequencySketch(pageCount);
+        this.pageCacheTracer = pageCacheTracer;
+        this.memoryTracker = memoryTracker;
+        this.pageCount = pageCount;
+        memoryTracker.allocateHeap(sketch.estimatedHeapUsage());
+    }
+
+    @Override
+    public void pageAccessed(long pageRef) {
+        if (sketch.increment(PageList.getPageBinding(pageRef)) >= ADMISSION_FREQUENCY) {
+            PageList.incrementUsage(pageRef);
+        }
+    }
+
+    @Override
+    public void evictionStarted() {
+        sketch.ageIfDue();
+    }
+
+    @Override
+    public boolean sweep(long pageRef) {
+        if (!PageList.decrementUsage(pageRef)) {
+            return false;
+        }
+        int frequency = sketch.frequency(PageList.getPageBinding(pageRef));
+        if (frequency < ADMISSION_FREQUENCY) {
+            // A page that was admitted cold, and never gained any usage of its own
+            pageCacheTracer.evictionPolicyColdAdmissions(1);
+        }
+        double threshold = Math.max(MIN_PROTECTED_FREQUENCY, averageCandidateFrequency * PROTECTION_FACTOR);
+        averageCandidateFrequency += (frequency - averageCandidateFrequency) * CANDIDATE_WEIGHT;
+        if (frequency >= threshold && protectedInARow < pageCount) {
+            protectedInARow++;
+            pageCacheTracer.evictionPolicyProtections(1);
+            return false;
+        }
+        protectedInARow = 0;
+        return true;
+    }
+
+    @Override
+    public void close() {
+        memoryTracker.releaseHeap(sketch.estimatedHeapUsage());
+    }
+}
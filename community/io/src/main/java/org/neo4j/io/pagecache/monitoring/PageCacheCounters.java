@@ -180,4 +180,70 @@ public interface PageCacheCounters {
     long copiedPages();
 
     long snapshotsLoaded();
+
+    /**
+     * @return The number of pages page cache warmup planned to load thus far.
+     */
+    long warmupPagesPlanned();
+
+    /**
+     * @return The number of pages loaded by page cache warmup thus far.
+     */
+    long warmupPagesLoaded();
+
+    /**
+     * @return The name of the eviction policy used by the page cache, or an empty string if it has not been reported.
+     * All other counters, and in particular {@link #hitRatio()}, describe the page cache running with this policy.
+     */
+    String evictionPolicy();
+
+    /**
+     * @return The number of pages evicted that the eviction policy had admitted without any usage credit, because they
+     * were not accessed frequently enough to be considered part of the working set.
+     */
+    long evictionPolicyColdAdmissions();
+
+    /**
+     * @return The number of times the eviction policy kept a frequently accessed page from being evicted.
+     */
+    long evictionPolicyProtections();
+
+    /**
+     * @return The number of pages faulted in by read-ahead pre-fetching that were subsequently reached by the
+     * scanning cursor they were fetched for.
+     */
+    long preFetchHits();
+
+    /**
+     * @return The number of pages faulted in by read-ahead pre-fetching that the scanning cursor never reached.
+     */
+    long preFetchWaste();
+
+    /**
+     * @return The number of NUMA nodes the pages of the page cache are partitioned over, or 1 if the page cache is not
+     * partitioned.
+     */
+    int numaNodes();
+
+    /**
+     * @return The number of page hits on pages with memory on the given NUMA node.
+     */
+    long numaNodeHits(int node);
+
+    /**
+     * @return The number of page faults into pages with memory on the given NUMA node.
+     */
+    long numaNodeFaults(int node);
+
+    /**
+     * @return The number of times eviction passed over a page, because the page was protected by the page reservation
+     * of its database or file.
+     */
+    long protectedPages();
+
+    /**
+     * @return The number of times eviction found no pages left to evict, other than the pages protected by soft page
+     * reservations, and started to evict those.
+     */
+    long softReservationOverrides();
 }
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.io.pagecache.monitoring;
+
+import java.util.List;
+
+/**
+ * Exposes how many pages of each database, and of each file with a page reservation, are in the page cache.
+ */
+public interface ResidentPageCounters {
+    /**
+     * @return one entry per database with mapped files, followed by one entry per mapped file with a page reservation.
+     */
+    List<ResidentPages> residentPages();
+
+    /**
+     * @param databaseName name of the database.
+     * @param fileName name of the file, or {@code null} for the entry that covers the whole database.
+     * @param residentPages number of pages currently in the page cache.
+     * @param softReservedPages number of pages reserved for as long as there are other pages to evict.
+     * @param hardReservedPages number of pages that are always reserved.
+     * @param protectedPages number of times eviction passed over a page because of the reservations.
+     */
+    record ResidentPages(
+            String databaseName,
+            String fileName,
+            long residentPages,
+            long softReservedPages,
+            long hardReservedPages,
+            long protectedPages) {}
+}
@@ -63,7 +63,18 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     protected final LongAdder closedCursors = new LongAdder();
     protected final LongAdder copiedPages = new LongAdder();
     protected final LongAdder snapshotsLoaded = new LongAdder();
+    protected final LongAdder warmupPagesPlanned = new LongAdder();
+    protected final LongAdder warmupPagesLoaded = new LongAdder();
+    protected final LongAdder evictionPolicyColdAdmissions = new LongAdder();
+    protected final LongAdder evictionPolicyProtections = new LongAdder();
+    protected final LongAdder preFetchHits = new LongAdder();
+    protected final LongAdder preFetchWaste = new LongAdder();
     protected final AtomicLong maxPages = new AtomicLong();
+    protected volatile String evictionPolicy = "";
+    protected volatile LongAdder[] numaNodeHits = newAdders(1);
+    protected volatile LongAdder[] numaNodeFaults = newAdders(1);
+    protected final LongAdder protectedPages = new LongAdder();
+    protected final LongAdder softReservationOverrides = new LongAdder();
 
     private final boolean tracePageFileIndividually;
 
@@ -288,6 +299,68 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
         return snapshotsLoaded.sum();
     }
 
+    @Override
+    public long warmupPagesPlanned() {
+        return warmupPagesPlanned.sum();
+    }
+
+    @Override
+    public long warmupPagesLoaded() {
+        return warmupPagesLoaded.sum();
+    }
+
+    @Override
+    public String evictionPolicy() {
+        return evictionPolicy;
+    }
+
+    @Override
+    public long evictionPolicyColdAdmissions() {
+        return evictionPolicyColdAdmissions.sum();
+    }
+
+    @Override
+    public long evictionPolicyProtections() {
+        return evictionPolicyProtections.sum();
+    }
+
+    @Override
+    public long preFetchHits() {
+        return preFetchHits.sum();
+    }
+
+    @Override
+    public long preFetchWaste() {
+        return preFetchWaste.sum();
+    }
+
+    @Override
+    public int numaNodes() {
+        return numaNodeHits.length;
+    }
+
+    @Override
+    public long numaNodeHits(int node) {
+        LongAdder[] hits = numaNodeHits;
+        return node < hits.length ? hits[node].sum() : 0;
+    }
+
+    @Override
+    public long numaNodeFaults(int node) {
+        LongAdder[] faults = numaNodeFaults;
+        return node < faults.length ? faults[node].sum() : 0;
+    }
+
+    @Override
+    public long protectedPages() {
+        return protectedPages.sum();
+    }
+
+    @Override
+    public long softReservationOverrides() {
+        return softReservationOverrides.sum();
+    }
+
     @Override
     public void iopq(long iopq) {
         iopqPerformed.add(iopq);
@@ -327,6 +400,81 @@ public class DefaultPageCacheTracer implements PageCacheTracer {
     @Override
     public void failedUnmap(String reason) {}
 
+    @Override
+    public void warmupPagesPlanned(long pages) {
+        this.warmupPagesPlanned.add(pages);
+    }
+
+    @Override
+    public void warmupPagesLoaded(long pages) {
+        this.warmupPagesLoaded.add(pages);
+    }
+
+    @Override
+    public void evictionPolicy(String policy) {
+        this.evictionPolicy = policy;
+    }
+
+    @Override
+    public void evictionPolicyColdAdmissions(long pages) {
+        this.evictionPolicyColdAdmissions.add(pages);
+    }
+
+    @Override
+    public void evictionPolicyProtections(long pages) {
+        this.evictionPolicyProtections.add(pages);
+    }
+
+    @Override
+    public void preFetchHits(long pages) {
+        this.preFetchHits.add(pages);
+    }
+
+    @Override
+    public void preFetchWaste(long pages) {
+        this.preFetchWaste.add(pages);
+    }
+
+    @Override
+    public void numaNodes(int nodes) {
+        this.numaNodeHits = newAdders(nodes);
+        this.numaNodeFaults = newAdders(nodes);
+    }
+
+    @Override
+    public void numaNodeHits(int node, long hits) {
+        LongAdder[] adders = this.numaNodeHits;
+        if (node < adders.length) {
+            adders[node].add(hits);
+        }
+    }
+
+    @Override
+    public void numaNodeFaults(int node, long faults) {
+        LongAdder[] adders = this.numaNodeFaults;
+        if (node < adders.length) {
+            adders[node].add(faults);
+        }
+    }
+
+    @Override
+    public void protectedPages(long pages) {
+        this.protectedPages.add(pages);
+    }
+
+    @Override
+    public void softReservationOverrides(long overrides) {
+        this.softReservationOverrides.add(overrides);
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
     @Override
     public void pins(long pins) {
         this.pins.add(pins);
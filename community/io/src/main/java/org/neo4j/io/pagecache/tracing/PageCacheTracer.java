@@ -235,6 +235,66 @@ public interface PageCacheTracer extends PageCacheCounters {
             return 0;
         }
 
+        @Override
+        public long warmupPagesPlanned() {
+            return 0;
+        }
+
+        @Override
+        public long warmupPagesLoaded() {
+            return 0;
+        }
+
+        @Override
+        public String evictionPolicy() {
+            return "";
+        }
+
+        @Override
+        public long evictionPolicyColdAdmissions() {
+            return 0;
+        }
+
+        @Override
+        public long evictionPolicyProtections() {
+            return 0;
+        }
+
+        @Override
+        public long preFetchHits() {
+            return 0;
+        }
+
+        @Override
+        public long preFetchWaste() {
+            return 0;
+        }
+
+        @Override
+        public int numaNodes() {
+            return 1;
+        }
+
+        @Override
+        public long numaNodeHits(int node) {
+            return 0;
+        }
+
+        @Override
+        public long numaNodeFaults(int node) {
+            return 0;
+        }
+
+        @Override
+        public long protectedPages() {
+            return 0;
+        }
+
+        @Override
+        public long softReservationOverrides() {
+            return 0;
+        }
+
         @Override
         public void pins(long pins) {}
 
@@ -316,6 +376,42 @@ public interface PageCacheTracer extends PageCacheCounters {
         @Override
         public void failedUnmap(String reason) {}
 
+        @Override
+        public void warmupPagesPlanned(long pages) {}
+
+        @Override
+        public void warmupPagesLoaded(long pages) {}
+
+        @Override
+        public void evictionPolicy(String policy) {}
+
+        @Override
+        public void evictionPolicyColdAdmissions(long pages) {}
+
+        @Override
+        public void evictionPolicyProtections(long pages) {}
+
+        @Override
+        public void preFetchHits(long pages) {}
+
+        @Override
+        public void preFetchWaste(long pages) {}
+
+        @Override
+        public void numaNodes(int nodes) {}
+
+        @Override
+        public void numaNodeHits(int node, long hits) {}
+
+        @Override
+        public void numaNodeFaults(int node, long faults) {}
+
+        @Override
+        public void protectedPages(long pages) {}
+
+        @Override
+        public void softReservationOverrides(long overrides) {}
+
         @Override
         public String toString() {
             return PageCacheTracer.class.getName() + ".NULL";
@@ -531,6 +627,66 @@ public interface PageCacheTracer extends PageCacheCounters {
      */
     void failedUnmap(String reason);
 
+    /**
+     * report number of pages that page cache warmup is going to load.
+     */
+    void warmupPagesPlanned(long pages);
+
+    /**
+     * report number of pages loaded by page cache warmup.
+     */
+    void warmupPagesLoaded(long pages);
+
+    /**
+     * report the eviction policy used by the page cache.
+     */
+    void evictionPolicy(String policy);
+
+    /**
+     * report number of pages evicted that the eviction policy had admitted without usage credit.
+     */
+    void evictionPolicyColdAdmissions(long pages);
+
+    /**
+     * report number of eviction candidates protected by the eviction policy.
+     */
+    void evictionPolicyProtections(long pages);
+
+    /**
+     * report number of pre-fetched pages that were reached by the scanning cursor.
+     */
+    void preFetchHits(long pages);
+
+    /**
+     * report number of pre-fetched pages that were never reached by the scanning cursor.
+     */
+    void preFetchWaste(long pages);
+
+    /**
+     * report number of NUMA nodes the pages of the page cache are partitioned over.
+     */
+    void numaNodes(int nodes);
+
+    /**
+     * report number of page hits on pages with memory on the given NUMA node.
+     */
+    void numaNodeHits(int node, long hits);
+
+    /**
+     * report number of page faults into pages with memory on the given NUMA node.
+     */
+    void numaNodeFaults(int node, long faults);
+
+    /**
+     * report number of times eviction passed over a page protected by a page reservation.
+     */
+    void protectedPages(long pages);
+
+    /**
+     * report number of times eviction started to evict pages protected by soft page reservations.
+     */
+    void softReservationOverrides(long overrides);
+
     /**
      * called during page file unmap for testing purposes
      */
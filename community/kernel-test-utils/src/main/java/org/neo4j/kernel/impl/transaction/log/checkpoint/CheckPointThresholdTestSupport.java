@@ -33,6 +33,7 @@ import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.configuration.SettingImpl;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.logging.NullLogProvider;
 import org.neo4j.time.Clocks;
@@ -48,6 +49,7 @@ public class CheckPointThresholdTestSupport {
     protected FakeClock clock;
     protected LogPruning logPruning;
     protected InternalLogProvider logProvider;
+    protected DatabaseTracer databaseTracer;
     protected Integer intervalTx;
     protected Duration intervalTime;
     protected Consumer<String> notTriggered;
@@ -60,6 +62,7 @@ public class CheckPointThresholdTestSupport {
         clock = Clocks.fakeClock();
         logPruning = LogPruning.NO_PRUNING;
         logProvider = NullLogProvider.getInstance();
+        databaseTracer = DatabaseTracer.NULL;
         intervalTx = config.get(GraphDatabaseSettings.check_point_interval_tx);
         intervalTime = config.get(GraphDatabaseSettings.check_point_interval_time);
         triggerConsumer = new LinkedBlockingQueue<>();
@@ -85,7 +88,7 @@ public class CheckPointThresholdTestSupport {
     }
 
     protected CheckPointThreshold createThreshold() {
-        return CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider);
+        return CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider, databaseTracer);
     }
 
     protected void verifyTriggered(String... reason) {
@@ -20,8 +20,11 @@
 package org.neo4j.kernel.impl.pagecache;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_database_reservations;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_file_reservations;
 import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_memory;
 import static org.neo4j.configuration.GraphDatabaseSettings.preallocate_store_files;
 import static org.neo4j.io.pagecache.PageCache.PAGE_SIZE;
@@ -30,13 +33,16 @@ import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.configuration.Config;
+import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.monitoring.ResidentPageCounters.ResidentPages;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.AssertableLogProvider;
 import org.neo4j.logging.LogAssertions;
@@ -116,6 +122,50 @@ class ConfiguringPageCacheFactoryTest {
         }
     }
 
+    @Test
+    void shouldApplyConfiguredReservations() throws IOException {
+        Config config = Config.newBuilder()
+                .set(pagecache_memory, ByteUnit.mebiBytes(8))
+                .set(pagecache_database_reservations, List.of("foo:1m:512k"))
+                .set(pagecache_file_reservations, List.of("a:256k:128k"))
+                .build();
+        ConfiguringPageCacheFactory factory = new ConfiguringPageCacheFactory(
+                fs,
+                config,
+                PageCacheTracer.NULL,
+                NullLog.getInstance(),
+                jobScheduler,
+                Clocks.nanoClock(),
+                new MemoryPools());
+
+        Path testFile = testDirectory.createFile("a");
+        try (var cache = (MuninnPageCache) factory.getOrCreatePageCache();
+                var file = cache.map(testFile, PAGE_SIZE, "foo");
+                var io = file.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+            assertThat(io.next()).isTrue();
+            assertThat(cache.residentPages())
+                    .containsExactly(
+                            new ResidentPages("foo", null, 1, 128, 64, 0), new ResidentPages("foo", "a", 1, 32, 16, 0));
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedReservations() {
+        Config config = Config.defaults(pagecache_database_reservations, List.of("foo:1m"));
+        ConfiguringPageCacheFactory factory = new ConfiguringPageCacheFactory(
+                fs,
+                config,
+                PageCacheTracer.NULL,
+                NullLog.getInstance(),
+                jobScheduler,
+                Clocks.nanoClock(),
+                new MemoryPools());
+
+        assertThatThrownBy(factory::getOrCreatePageCache)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("foo:1m");
+    }
+
     @Test
     void shouldDumpConfigurationWithUnspecifiedPageCacheMemorySetting() {
         // givben
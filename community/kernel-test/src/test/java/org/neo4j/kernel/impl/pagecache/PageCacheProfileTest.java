@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_WRITE_LOCK;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.pagecache.EphemeralPageCacheExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@EphemeralPageCacheExtension
+class PageCacheProfileTest {
+    @Inject
+    private PageCache pageCache;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    @Inject
+    private TestDirectory testDirectory;
+
+    @Test
+    void captureResidentPagesOfMappedFile() throws IOException {
+        Path file = testDirectory.createFile("store");
+        try (PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                for (int i = 0; i < 70; i++) {
+                    assertThat(cursor.next()).isTrue();
+                }
+            }
+
+            PageCacheProfile profile = PageCacheProfile.capture(pagedFile, NULL_CONTEXT, () -> false);
+
+            assertThat(profile.pageCount()).isEqualTo(70);
+            assertThat(profile.residentPages()).isEqualTo(70);
+            assertThat(profile.residentRunLength(0, 128)).isEqualTo(70);
+            assertThat(profile.nextResidentPage(70)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void captureEmptyFile() throws IOException {
+        Path file = testDirectory.createFile("store");
+        try (PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            PageCacheProfile profile = PageCacheProfile.capture(pagedFile, NULL_CONTEXT, () -> false);
+
+            assertThat(profile.pageCount()).isZero();
+            assertThat(profile.nextResidentPage(0)).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void captureIsAbortedWhenStopped() throws IOException {
+        Path file = testDirectory.createFile("store");
+        try (PagedFile pagedFile = pageCache.map(file, pageCache.pageSize(), "neo4j")) {
+            try (PageCursor cursor = pagedFile.io(0, PF_SHARED_WRITE_LOCK, NULL_CONTEXT)) {
+                assertThat(cursor.next()).isTrue();
+            }
+
+            assertThat(PageCacheProfile.capture(pagedFile, NULL_CONTEXT, () -> true))
+                    .isNull();
+        }
+    }
+
+    @Test
+    void allPagesMarksEveryPageResident() {
+        PageCacheProfile profile = PageCacheProfile.allPages(130);
+
+        assertThat(profile.residentPages()).isEqualTo(130);
+        assertThat(profile.isResident(0)).isTrue();
+        assertThat(profile.isResident(129)).isTrue();
+        assertThat(profile.isResident(130)).isFalse();
+        assertThat(profile.residentRunLength(100, 128)).isEqualTo(30);
+    }
+
+    @Test
+    void writeAndReadProfile() throws IOException {
+        Path profileFile = testDirectory.homePath().resolve("profiles").resolve("store.cacheprof");
+        PageCacheProfile.allPages(200).write(fs, profileFile);
+
+        PageCacheProfile read = PageCacheProfile.read(fs, profileFile);
+
+        assertThat(read.pageCount()).isEqualTo(200);
+        assertThat(read.residentPages()).isEqualTo(200);
+        assertThat(read.nextResidentPage(199)).isEqualTo(199);
+    }
+
+    @Test
+    void readMissingProfile() throws IOException {
+        assertThat(PageCacheProfile.read(fs, testDirectory.file("missing.cacheprof")))
+                .isNull();
+    }
+
+    @Test
+    void rejectUnrecognizedProfile() throws IOException {
+        Path profileFile = testDirectory.file("garbage.cacheprof");
+        try (OutputStream out = fs.openAsOutputStream(profileFile, false)) {
+            out.write(new byte[] {1, 2, 3, 4});
+        }
+
+        assertThrows(IOException.class, () -> PageCacheProfile.read(fs, profileFile));
+    }
+}
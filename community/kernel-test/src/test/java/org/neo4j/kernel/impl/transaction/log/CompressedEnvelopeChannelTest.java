@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.neo4j.kernel.KernelVersion.VERSION_COMPRESSED_LOG_ENVELOPES_INTRODUCED;
+import static org.neo4j.kernel.impl.transaction.log.EnvelopeWriteChannel.START_INDEX;
+import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
+import static org.neo4j.kernel.impl.transaction.log.rotation.LogRotation.NO_ROTATION;
+import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
+import static org.neo4j.test.LatestVersions.LATEST_KERNEL_VERSION;
+import static org.neo4j.test.LatestVersions.LATEST_LOG_FORMAT;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.io.memory.HeapScopedBuffer;
+import org.neo4j.kernel.KernelVersion;
+import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
+import org.neo4j.kernel.impl.transaction.log.files.LogFileChannelNativeAccessor;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
+import org.neo4j.storageengine.api.StoreId;
+import org.neo4j.test.RandomSupport;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.RandomExtension;
+import org.neo4j.test.extension.testdirectory.TestDirectoryExtension;
+import org.neo4j.test.utils.TestDirectory;
+
+@TestDirectoryExtension
+@ExtendWith(RandomExtension.class)
+class CompressedEnvelopeChannelTest {
+    private static final int SEGMENT_SIZE = 1024;
+    private static final int MIN_PAYLOAD_SIZE = 64;
+    private static final KernelVersion COMPRESSED_VERSION = VERSION_COMPRESSED_LOG_ENVELOPES_INTRODUCED;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private TestDirectory directory;
+
+    @Inject
+    private RandomSupport random;
+
+    @Test
+    void shouldReadBackMixOfCompressedAndUncompressedEntries() throws IOException {
+        List<byte[]> entries = List.of(
+                compressible(700),
+                incompressible(MIN_PAYLOAD_SIZE / 2),
+                incompressible(SEGMENT_SIZE * 3),
+                compressible(SEGMENT_SIZE - 100),
+                incompressible(300),
+                compressible(MIN_PAYLOAD_SIZE));
+
+        EnvelopeCompressor compressor = new EnvelopeCompressor(MIN_PAYLOAD_SIZE);
+        List<Long> entryEnds = writeEntries(compressor, COMPRESSED_VERSION, entries);
+
+        EnvelopeCompressor.Statistics statistics = compressor.takeStatistics();
+        // The small entry is below the threshold, and the one spanning segments is never compressed
+        assertThat(statistics.compressedEnvelopes()).isGreaterThanOrEqualTo(2);
+        assertThat(statistics.envelopes()).isGreaterThan(statistics.compressedEnvelopes());
+        assertThat(statistics.storedBytes()).isLessThan(statistics.uncompressedBytes());
+        assertThat(statistics.compressionRatio()).isGreaterThan(1D);
+        assertThat(compressor.takeStatistics().envelopes()).isZero();
+
+        try (var channel = readChannel()) {
+            for (int i = 0; i < entries.size(); i++) {
+                assertEntry(channel, entries.get(i));
+                assertThat(channel.position()).isEqualTo(entryEnds.get(i));
+            }
+            assertEndOfLog(channel);
+        }
+    }
+
+    @Test
+    void shouldPositionAtStartOfCompressedEntries() throws IOException {
+        List<byte[]> entries = List.of(compressible(500), compressible(600), incompressible(200), compressible(400));
+        List<Long> entryEnds = writeEntries(new EnvelopeCompressor(MIN_PAYLOAD_SIZE), COMPRESSED_VERSION, entries);
+
+        try (var channel = readChannel()) {
+            // Positions of entries as recorded by e.g. checkpoints and transaction metadata
+            for (int i = entries.size() - 1; i > 0; i--) {
+                channel.position(entryEnds.get(i - 1));
+                assertEntry(channel, entries.get(i));
+            }
+
+            // Positions marked when starting to read an entry
+            channel.position(entryEnds.get(0));
+            LogPositionMarker marker = new LogPositionMarker();
+            assertThat(channel.markAndGetVersion(marker)).isEqualTo(COMPRESSED_VERSION.version());
+            channel.getLong();
+            channel.setLogPosition(marker);
+            assertEntry(channel, entries.get(1));
+            assertThat(channel.position()).isEqualTo(entryEnds.get(1));
+        }
+    }
+
+    @Test
+    void shouldReadUncompressedEntriesWrittenWithoutCompressor() throws IOException {
+        List<byte[]> entries = List.of(compressible(500), incompressible(SEGMENT_SIZE * 2), compressible(300));
+        List<Long> entryEnds = writeEntries(null, COMPRESSED_VERSION, entries);
+
+        try (var channel = readChannel()) {
+            for (int i = 0; i < entries.size(); i++) {
+                assertEntry(channel, entries.get(i));
+                assertThat(channel.position()).isEqualTo(entryEnds.get(i));
+            }
+            assertEndOfLog(channel);
+        }
+        assertThat(entryEnds.get(entryEnds.size() - 1))
+                .as("uncompressed log should take more space than the sum of the entries")
+                .isGreaterThan(SEGMENT_SIZE
+                        + Arrays.stream(entries.toArray(byte[][]::new))
+                                .mapToLong(entry -> entry.length)
+                                .sum());
+    }
+
+    @Test
+    void shouldNotCompressEntriesOfKernelVersionsThatPredateCompression() throws IOException {
+        List<byte[]> entries = List.of(compressible(500), compressible(300));
+        EnvelopeCompressor compressor = new EnvelopeCompressor(MIN_PAYLOAD_SIZE);
+        List<Long> entryEnds = writeEntries(compressor, LATEST_KERNEL_VERSION, entries);
+
+        assertThat(compressor.takeStatistics().envelopes()).isZero();
+        try (var channel = readChannel()) {
+            for (int i = 0; i < entries.size(); i++) {
+                assertEntry(channel, entries.get(i));
+                assertThat(channel.position()).isEqualTo(entryEnds.get(i));
+            }
+            assertEndOfLog(channel);
+        }
+    }
+
+    private List<Long> writeEntries(EnvelopeCompressor compressor, KernelVersion kernelVersion, List<byte[]> entries)
+            throws IOException {
+        Path path = directory.homePath().resolve("log.0");
+        try (var storeChannel = fileSystem.write(path)) {
+            ByteBuffer header = ByteBuffer.allocate(SEGMENT_SIZE).order(LITTLE_ENDIAN);
+            LogFormat.V10.serializeHeader(
+                    header,
+                    LogFormat.V10.newHeader(0, 1, 1, StoreId.UNKNOWN, SEGMENT_SIZE, BASE_TX_CHECKSUM, kernelVersion));
+            storeChannel.writeAll(header.clear());
+        }
+
+        List<Long> entryEnds = new ArrayList<>();
+        try (var writeChannel = new EnvelopeWriteChannel(
+                logChannel(path),
+                new HeapScopedBuffer(SEGMENT_SIZE * 4, LITTLE_ENDIAN, INSTANCE),
+                SEGMENT_SIZE,
+                BASE_TX_CHECKSUM,
+                START_INDEX,
+                DatabaseTracer.NULL,
+                NO_ROTATION,
+                compressor)) {
+            for (byte[] entry : entries) {
+                writeChannel.putVersion(kernelVersion.version());
+                writeChannel.putInt(entry.length);
+                writeChannel.put(entry, entry.length);
+                writeChannel.endCurrentEntry();
+                entryEnds.add(writeChannel.position());
+            }
+        }
+        return entryEnds;
+    }
+
+    private EnvelopeReadChannel readChannel() throws IOException {
+        PhysicalLogVersionedStoreChannel channel =
+                logChannel(directory.homePath().resolve("log.0"));
+        channel.position(SEGMENT_SIZE);
+        return new EnvelopeReadChannel(channel, SEGMENT_SIZE, NO_MORE_CHANNELS, INSTANCE, false);
+    }
+
+    private PhysicalLogVersionedStoreChannel logChannel(Path path) throws IOException {
+        PhysicalLogVersionedStoreChannel channel = new PhysicalLogVersionedStoreChannel(
+                fileSystem.write(path),
+                0,
+                LATEST_LOG_FORMAT,
+                path,
+                mock(LogFileChannelNativeAccessor.class),
+                DatabaseTracer.NULL);
+        channel.position(SEGMENT_SIZE);
+        return channel;
+    }
+
+    private static void assertEntry(EnvelopeReadChannel channel, byte[] expected) throws IOException {
+        assertThat(channel.getInt()).isEqualTo(expected.length);
+        byte[] actual = new byte[expected.length];
+        channel.get(actual, actual.length);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static void assertEndOfLog(EnvelopeReadChannel channel) {
+        assertThatThrownBy(channel::get).isInstanceOf(ReadPastEndException.class);
+    }
+
+    private byte[] compressible(int length) {
+        byte[] bytes = new byte[length - Integer.BYTES];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 7);
+        }
+        return bytes;
+    }
+
+    private byte[] incompressible(int length) {
+        byte[] bytes = new byte[length - Integer.BYTES];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
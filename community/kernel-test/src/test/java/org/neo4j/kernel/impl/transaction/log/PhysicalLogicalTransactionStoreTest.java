@@ -42,6 +42,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
@@ -56,6 +57,7 @@ import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.api.txid.IdStoreTransactionIdGenerator;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
 import org.neo4j.kernel.impl.transaction.SimpleAppendIndexProvider;
+import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -290,6 +292,55 @@ class PhysicalLogicalTransactionStoreTest {
         }
     }
 
+    @Test
+    void shouldFindTransactionsInRotatedLogFilesThroughPositionIndex() throws Exception {
+        TransactionIdStore transactionIdStore = new SimpleTransactionIdStore();
+        TransactionMetadataCache positionCache = new TransactionMetadataCache();
+        Config config = Config.defaults(GraphDatabaseInternalSettings.tx_log_position_index_interval, 1L);
+        LogFiles logFiles = LogFilesBuilder.builder(
+                        databaseLayout, fileSystem, LatestVersions.LATEST_KERNEL_VERSION_PROVIDER)
+                .withConfig(config)
+                .withTransactionIdStore(transactionIdStore)
+                .withAppendIndexProvider(new SimpleAppendIndexProvider())
+                .withLogVersionRepository(new SimpleLogVersionRepository())
+                .withCommandReaderFactory(TestCommandReaderFactory.INSTANCE)
+                .withStoreId(new StoreId(1, 2, "engine-1", "format-1", 3, 4))
+                .build();
+        LifeSupport life = new LifeSupport();
+        life.add(logFiles);
+        life.start();
+        try {
+            TransactionAppender appender =
+                    life.add(createTransactionAppender(transactionIdStore, logFiles, config, jobScheduler));
+            int transactionsInRotatedLog = 10;
+            for (int i = 0; i < transactionsInRotatedLog; i++) {
+                appendTransaction(appender, positionCache, transactionIdStore);
+            }
+            LogFile logFile = logFiles.getLogFile();
+            logFile.rotate();
+            appendTransaction(appender, positionCache, transactionIdStore);
+            positionCache.clear();
+
+            LogPosition logStart = logFile.extractHeader(0).getStartPosition();
+            long lastTransactionInRotatedLog = TransactionIdStore.BASE_TX_ID + transactionsInRotatedLog;
+            LogPosition indexedPosition = logFile.closestIndexedPosition(lastTransactionInRotatedLog, logStart);
+            assertEquals(0, indexedPosition.getLogVersion());
+            assertTrue(indexedPosition.getByteOffset() > logStart.getByteOffset());
+            assertEquals(logStart, logFile.closestIndexedPosition(TransactionIdStore.BASE_TX_ID, logStart));
+
+            LogicalTransactionStore store = new PhysicalLogicalTransactionStore(
+                    logFiles, positionCache, TestCommandReaderFactory.INSTANCE, monitors, true, config);
+            for (long txId = TransactionIdStore.BASE_TX_ID + 1; txId <= lastTransactionInRotatedLog + 1; txId++) {
+                try (CommandBatchCursor cursor = store.getCommandBatches(txId)) {
+                    assertTrue(cursor.next());
+                    assertEquals(txId, cursor.get().txId());
+                }
+            }
+        } finally {
+            life.shutdown();
+        }
+    }
+
     @Test
     void shouldThrowNoSuchTransactionExceptionIfLogFileIsMissing() throws Exception {
         // GIVEN
@@ -364,6 +415,21 @@ class PhysicalLogicalTransactionStoreTest {
                 LogAppendEvent.NULL);
     }
 
+    private static void appendTransaction(
+            TransactionAppender appender, TransactionMetadataCache positionCache, TransactionIdStore transactionIdStore)
+            throws Exception {
+        CompleteTransaction transaction = new CompleteTransaction(
+                singleTestCommand(), 1, 12345, 4545, 12355, -1, LatestVersions.LATEST_KERNEL_VERSION, ANONYMOUS);
+        appender.append(
+                new TransactionToApply(
+                        transaction,
+                        NULL_CONTEXT,
+                        StoreCursors.NULL,
+                        new TransactionCommitment(positionCache, transactionIdStore),
+                        new IdStoreTransactionIdGenerator(transactionIdStore)),
+                LogAppendEvent.NULL);
+    }
+
     private static List<StorageCommand> singleTestCommand() {
         return Collections.singletonList(new TestCommand());
     }
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.transaction.log;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.common.Subject.ANONYMOUS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.log_writer_pipeline_depth;
 import static org.neo4j.monitoring.HealthEventGenerator.NO_OP;
 import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
 
@@ -34,8 +35,9 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
-import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.neo4j.configuration.Config;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
@@ -86,7 +88,6 @@ class QueueTransactionAppenderConcurrencyIT {
     private SimpleLogVersionRepository logVersionRepository;
     private SimpleTransactionIdStore transactionIdStore;
     private TransactionMetadataCache metadataCache;
-    private Config config;
     private DatabaseHealth databaseHealth;
     private NullLogProvider logProvider;
     private ExecutorService executor;
@@ -101,7 +102,6 @@ class QueueTransactionAppenderConcurrencyIT {
         appendIndexProvider = new SimpleAppendIndexProvider();
         logProvider = NullLogProvider.getInstance();
         metadataCache = new TransactionMetadataCache();
-        config = Config.defaults();
         databaseHealth = new DatabaseHealth(NO_OP, logProvider.getLog(DatabaseHealth.class));
         executor = Executors.newFixedThreadPool(20);
     }
@@ -113,12 +113,13 @@ class QueueTransactionAppenderConcurrencyIT {
         jobScheduler.close();
     }
 
-    @Test
-    void multiThreadedTransactionProcessing() throws IOException, ExecutionException {
+    @ParameterizedTest(name = "pipelineDepth={0}")
+    @ValueSource(ints = {0, 2})
+    void multiThreadedTransactionProcessing(int pipelineDepth) throws IOException, ExecutionException {
         LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore, appendIndexProvider);
         life.add(logFiles);
 
-        QueueTransactionAppender transactionAppender = createAppender(logFiles);
+        QueueTransactionAppender transactionAppender = createAppender(logFiles, pipelineDepth);
         life.add(transactionAppender);
 
         int numberOfTransactions = 10_000;
@@ -133,12 +134,13 @@ class QueueTransactionAppenderConcurrencyIT {
         assertEquals(transactionIdStore.getLastCommittedTransactionId(), initialCommittedTxId + numberOfTransactions);
     }
 
-    @Test
-    void multiThreadedTransactionWithStop() throws IOException {
+    @ParameterizedTest(name = "pipelineDepth={0}")
+    @ValueSource(ints = {0, 2})
+    void multiThreadedTransactionWithStop(int pipelineDepth) throws IOException {
         LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore, appendIndexProvider);
         life.add(logFiles);
 
-        QueueTransactionAppender transactionAppender = createAppender(logFiles);
+        QueueTransactionAppender transactionAppender = createAppender(logFiles, pipelineDepth);
         life.add(transactionAppender);
 
         int numberOfTransactions = 100_000;
@@ -163,12 +165,13 @@ class QueueTransactionAppenderConcurrencyIT {
                 .isEqualTo(numberOfTransactions);
     }
 
-    @Test
-    void multiThreadedTransactionWithPanic() throws IOException {
+    @ParameterizedTest(name = "pipelineDepth={0}")
+    @ValueSource(ints = {0, 2})
+    void multiThreadedTransactionWithPanic(int pipelineDepth) throws IOException {
         LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore, appendIndexProvider);
         life.add(logFiles);
 
-        QueueTransactionAppender transactionAppender = createAppender(logFiles);
+        QueueTransactionAppender transactionAppender = createAppender(logFiles, pipelineDepth);
         life.add(transactionAppender);
 
         int numberOfTransactions = 100_000;
@@ -194,13 +197,14 @@ class QueueTransactionAppenderConcurrencyIT {
                 .isEqualTo(numberOfTransactions);
     }
 
-    private QueueTransactionAppender createAppender(LogFiles logFiles) {
+    private QueueTransactionAppender createAppender(LogFiles logFiles, int pipelineDepth) {
         TransactionLogQueue logQueue = new TransactionLogQueue(
                 logFiles,
                 transactionIdStore,
                 databaseHealth,
                 appendIndexProvider,
                 metadataCache,
+                Config.defaults(log_writer_pipeline_depth, pipelineDepth),
                 jobScheduler,
                 logProvider);
         return new QueueTransactionAppender(logQueue);
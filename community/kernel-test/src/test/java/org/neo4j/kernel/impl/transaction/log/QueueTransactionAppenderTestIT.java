@@ -206,6 +206,7 @@ class QueueTransactionAppenderTestIT {
                         EventType.BEGIN_APPEND,
                         EventType.FILE_APPEND,
                         EventType.CLOSE_APPEND,
+                        EventType.GROUP_COMMIT,
                         EventType.ROTATED_FALSE,
                         EventType.LOG_FORCE);
     }
@@ -244,6 +245,7 @@ class QueueTransactionAppenderTestIT {
                 databaseHealth,
                 appendIndexProvider,
                 metadataCache,
+                Config.defaults(),
                 jobScheduler,
                 logProvider);
         return new QueueTransactionAppender(logQueue);
@@ -291,6 +293,7 @@ class QueueTransactionAppenderTestIT {
         ROTATED_FALSE,
         BEGIN_APPEND,
         CLOSE_APPEND,
+        GROUP_COMMIT,
         LOG_FORCE_WAIT,
         LOG_FORCE,
         CLOSE
@@ -321,6 +324,11 @@ class QueueTransactionAppenderTestIT {
             return new RecordingTransactionAppendEvent(events);
         }
 
+        @Override
+        public void groupCommit(int transactions, long bytes, long waitNanos) {
+            events.add(EventType.GROUP_COMMIT);
+        }
+
         @Override
         public LogForceWaitEvent beginLogForceWait() {
             events.add(EventType.LOG_FORCE_WAIT);
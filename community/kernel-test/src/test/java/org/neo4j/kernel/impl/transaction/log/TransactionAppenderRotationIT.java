@@ -198,6 +198,9 @@ class TransactionAppenderRotationIT {
         @Override
         public void setLogRotated(boolean logRotated) {}
 
+        @Override
+        public void groupCommit(int transactions, long bytes, long waitNanos) {}
+
         @Override
         public LogRotateEvent beginLogRotate() {
             return null;
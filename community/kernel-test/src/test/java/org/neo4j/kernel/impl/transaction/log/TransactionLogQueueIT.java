@@ -19,34 +19,46 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.neo4j.common.Subject.ANONYMOUS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.group_commit_max_delay;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.log_writer_pipeline_depth;
 import static org.neo4j.monitoring.HealthEventGenerator.NO_OP;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_ID;
 import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
+import static org.neo4j.test.Race.throwing;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.configuration.Config;
 import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.api.TestCommand;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
 import org.neo4j.kernel.impl.api.TransactionToApply;
+import org.neo4j.kernel.impl.api.tracer.DefaultTracer;
 import org.neo4j.kernel.impl.api.txid.IdStoreTransactionIdGenerator;
 import org.neo4j.kernel.impl.transaction.SimpleAppendIndexProvider;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
+import org.neo4j.kernel.impl.transaction.stats.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.logging.NullLogProvider;
@@ -55,6 +67,7 @@ import org.neo4j.storageengine.AppendIndexProvider;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.cursor.StoreCursors;
 import org.neo4j.test.LatestVersions;
+import org.neo4j.test.Race;
 import org.neo4j.test.extension.Inject;
 import org.neo4j.test.extension.LifeExtension;
 import org.neo4j.test.extension.Neo4jLayoutExtension;
@@ -150,6 +163,66 @@ class TransactionLogQueueIT {
                 () -> logQueue.submit(createTransaction(), LogAppendEvent.NULL).getCommittedTxId());
     }
 
+    @Test
+    void groupCommitTransactionsSubmittedConcurrently() throws Exception {
+        LogFiles logFiles = buildLogFiles(logVersionRepository, transactionIdStore, appendIndexProvider);
+        life.add(logFiles);
+
+        Config config = Config.newBuilder()
+                .set(group_commit_max_delay, Duration.ofMillis(100))
+                .build();
+        TransactionLogQueue logQueue = createLogQueue(logFiles, config);
+        life.add(logQueue);
+
+        int threads = 8;
+        int transactionsPerThread = 50;
+        DefaultTracer tracer = new DefaultTracer(PageCacheTracer.NULL);
+        Race race = new Race();
+        race.addContestants(threads, throwing(() -> {
+            for (int i = 0; i < transactionsPerThread; i++) {
+                assertThat(logQueue.submit(createTransaction(), tracer.logAppend())
+                                .getCommittedTxId())
+                        .isPositive();
+            }
+        }));
+        race.goUnchecked();
+
+        PowerOfTwoHistogram groupCommitTransactions = tracer.groupCommitTransactions();
+        assertThat(groupCommitTransactions.total()).isEqualTo(threads * transactionsPerThread);
+        assertThat(groupCommitTransactions.max()).isGreaterThan(1);
+        assertThat(tracer.groupCommitBytes().total()).isEqualTo(tracer.appendedBytes());
+        assertThat(tracer.groupCommitWaitNanos().count()).isEqualTo(groupCommitTransactions.count());
+        assertThat(tracer.logForceNanos().count()).isEqualTo(groupCommitTransactions.count());
+    }
+
+    @Test
+    void pipelinedWriterCompletesEveryTransactionAcrossLogRotations() throws Exception {
+        LogFiles logFiles =
+                buildLogFiles(logVersionRepository, transactionIdStore, appendIndexProvider, ByteUnit.kibiBytes(256));
+        life.add(logFiles);
+
+        Config config = Config.defaults(log_writer_pipeline_depth, 2);
+        TransactionLogQueue logQueue = createLogQueue(logFiles, config);
+        life.add(logQueue);
+
+        int threads = 4;
+        int transactionsPerThread = 2_000;
+        Set<Long> committedTxIds = ConcurrentHashMap.newKeySet();
+        Race race = new Race();
+        race.addContestants(threads, throwing(() -> {
+            for (int i = 0; i < transactionsPerThread; i++) {
+                committedTxIds.add(logQueue.submit(createTransaction(), LogAppendEvent.NULL)
+                        .getCommittedTxId());
+            }
+        }));
+        race.goUnchecked();
+
+        assertThat(committedTxIds)
+                .hasSize(threads * transactionsPerThread)
+                .allMatch(txId -> txId > BASE_TX_ID && txId <= BASE_TX_ID + threads * transactionsPerThread);
+        assertThat(logFiles.getLogFile().getHighestLogVersion()).isPositive();
+    }
+
     private TransactionToApply createTransaction() {
         CompleteTransaction tx = new CompleteTransaction(
                 List.of(new TestCommand()),
@@ -170,12 +243,17 @@ class TransactionLogQueueIT {
     }
 
     private TransactionLogQueue createLogQueue(LogFiles logFiles) {
+        return createLogQueue(logFiles, Config.defaults());
+    }
+
+    private TransactionLogQueue createLogQueue(LogFiles logFiles, Config config) {
         return new TransactionLogQueue(
                 logFiles,
                 transactionIdStore,
                 databaseHealth,
                 appendIndexProvider,
                 metadataCache,
+                config,
                 jobScheduler,
                 logProvider);
     }
@@ -185,10 +263,19 @@ class TransactionLogQueueIT {
             SimpleTransactionIdStore transactionIdStore,
             AppendIndexProvider appendIndexProvider)
             throws IOException {
+        return buildLogFiles(logVersionRepository, transactionIdStore, appendIndexProvider, ByteUnit.mebiBytes(1));
+    }
+
+    private LogFiles buildLogFiles(
+            SimpleLogVersionRepository logVersionRepository,
+            SimpleTransactionIdStore transactionIdStore,
+            AppendIndexProvider appendIndexProvider,
+            long rotationThreshold)
+            throws IOException {
         var storeId = new StoreId(1, 2, "engine-1", "format-1", 3, 4);
         return LogFilesBuilder.builder(databaseLayout, fileSystem, LatestVersions.LATEST_KERNEL_VERSION_PROVIDER)
                 .withLogVersionRepository(logVersionRepository)
-                .withRotationThreshold(ByteUnit.mebiBytes(1))
+                .withRotationThreshold(rotationThreshold)
                 .withTransactionIdStore(transactionIdStore)
                 .withAppendIndexProvider(appendIndexProvider)
                 .withCommandReaderFactory(TestCommandReaderFactory.INSTANCE)
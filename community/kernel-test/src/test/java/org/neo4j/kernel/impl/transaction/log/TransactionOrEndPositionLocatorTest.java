@@ -24,6 +24,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryFactory.newChunkStartEntry;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryFactory.newCommitEntry;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryFactory.newStartEntry;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
@@ -33,6 +34,7 @@ import static org.neo4j.test.LatestVersions.LATEST_LOG_FORMAT;
 import java.io.IOException;
 import org.junit.jupiter.api.Test;
 import org.neo4j.kernel.impl.api.TestCommand;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommand;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryCommit;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
@@ -45,6 +47,7 @@ class TransactionOrEndPositionLocatorTest {
     private static final LogPosition AFTER_COMMIT = new LogPosition(1L, 666L);
 
     private static final LogEntryStart START = newStartEntry(LATEST_KERNEL_VERSION, 0, 0, 0, 1, null, BEFORE_START);
+    private static final LogEntry CHUNK_START = newChunkStartEntry(LATEST_KERNEL_VERSION, 0, 2, 2, BEFORE_START);
     private static final LogEntryCommand COMMAND = new LogEntryCommand(new TestCommand());
     private static final LogEntryCommit COMMIT =
             newCommitEntry(LATEST_KERNEL_VERSION, TX_ID, System.currentTimeMillis(), BASE_TX_CHECKSUM);
@@ -91,6 +94,20 @@ class TransactionOrEndPositionLocatorTest {
         assertEquals(BEFORE_START, locator.getLogPosition());
     }
 
+    @Test
+    void shouldReportChunkedTransactionWhenSearchStartsAfterItsFirstChunk() throws IOException {
+        // given
+        when(logEntryReader.readLogEntry(channel)).thenReturn(CHUNK_START, COMMAND, COMMIT, null);
+
+        // when
+        final var locator = new TransactionOrEndPositionLocator(TX_ID, logEntryReader);
+
+        // then
+        assertThat(locator.visit(channel)).isFalse();
+        assertThat(locator.isChunkedTransaction()).isTrue();
+        assertThatThrownBy(locator::getLogPosition).isInstanceOf(NoSuchTransactionException.class);
+    }
+
     @Test
     void shouldFindChannelLogPositionIfTransactionNotFound() throws IOException {
         // given
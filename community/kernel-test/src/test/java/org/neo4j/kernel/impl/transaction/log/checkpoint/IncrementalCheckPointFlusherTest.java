@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_incremental_flush_enabled;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_incremental_flush_target;
+import static org.neo4j.io.pagecache.tracing.PageCacheTracer.NULL;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.OnDemandJobScheduler;
+import org.neo4j.time.FakeClock;
+
+class IncrementalCheckPointFlusherTest {
+    private final OnDemandJobScheduler scheduler = new OnDemandJobScheduler(false);
+    private final FakeClock clock = new FakeClock();
+    private final PageCache pageCache = mock(PageCache.class);
+
+    @Test
+    void shouldNotFlushWhenDisabled() {
+        IncrementalCheckPointFlusher flusher = flusher(Config.defaults());
+
+        flusher.start();
+
+        assertThat(scheduler.getJob()).isNull();
+    }
+
+    @Test
+    void shouldDeriveBudgetFromDirtyPageRateAndBacklog() throws IOException {
+        PagedFile file = mock(PagedFile.class);
+        when(file.dirtyPages()).thenReturn(100L, 99L, 199L, 165L);
+        when(file.flushDirtyPages(anyLong(), any())).thenReturn(1L, 34L);
+        when(pageCache.listExistingMappings()).thenReturn(List.of(file));
+        IncrementalCheckPointFlusher flusher = flusher(enabledConfig());
+        flusher.start();
+
+        // Nothing is known about the dirty pages before the first pass.
+        clock.forward(1, TimeUnit.SECONDS);
+        scheduler.runJob();
+        verify(file).flushDirtyPages(eq(1L), any());
+        assertThat(flusher.remainingDirtyPages()).isEqualTo(99);
+        assertThat(flusher.dirtyPagesPerSecond()).isCloseTo(30d, within(0.001));
+
+        // 30 pages per second of smoothed dirty page rate, and 99 / 30 pages per second to work off the backlog.
+        clock.forward(1, TimeUnit.SECONDS);
+        scheduler.runJob();
+        verify(file).flushDirtyPages(eq(34L), any());
+        assertThat(flusher.remainingDirtyPages()).isEqualTo(165);
+        assertThat(flusher.dirtyPagesPerSecond()).isCloseTo(51d, within(0.001));
+    }
+
+    @Test
+    void shouldShareBudgetBetweenFiles() throws IOException {
+        PagedFile first = mock(PagedFile.class);
+        PagedFile second = mock(PagedFile.class);
+        when(first.dirtyPages()).thenReturn(600L, 599L, 599L, 596L);
+        when(first.flushDirtyPages(anyLong(), any())).thenReturn(1L, 3L);
+        when(second.dirtyPages()).thenReturn(0L, 0L, 10L, 0L);
+        when(second.flushDirtyPages(anyLong(), any())).thenReturn(0L, 10L);
+        when(pageCache.listExistingMappings()).thenReturn(List.of(first, second));
+        IncrementalCheckPointFlusher flusher = flusher(enabledConfig());
+        flusher.start();
+
+        clock.forward(1, TimeUnit.SECONDS);
+        scheduler.runJob();
+        clock.forward(1, TimeUnit.SECONDS);
+        scheduler.runJob();
+
+        // 180 pages per second of dirty page rate, and 599 / 30 pages per second of backlog.
+        verify(first).flushDirtyPages(eq(200L), any());
+        verify(second).flushDirtyPages(eq(197L), any());
+    }
+
+    @Test
+    void shouldStopFlushingOnStop() throws IOException {
+        PagedFile file = mock(PagedFile.class);
+        when(pageCache.listExistingMappings()).thenReturn(List.of(file));
+        IncrementalCheckPointFlusher flusher = flusher(enabledConfig());
+        flusher.start();
+
+        flusher.stop();
+        flusher.flush();
+
+        verify(pageCache, never()).listExistingMappings();
+    }
+
+    private IncrementalCheckPointFlusher flusher(Config config) {
+        return new IncrementalCheckPointFlusher(
+                pageCache, scheduler, NULL, clock, config, "test", NullLog.getInstance());
+    }
+
+    private static Config enabledConfig() {
+        return Config.newBuilder()
+                .set(checkpoint_incremental_flush_enabled, true)
+                .set(checkpoint_incremental_flush_target, ofSeconds(30))
+                .build();
+    }
+}
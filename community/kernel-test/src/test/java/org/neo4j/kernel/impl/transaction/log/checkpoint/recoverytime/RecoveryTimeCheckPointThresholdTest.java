@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
+
+class RecoveryTimeCheckPointThresholdTest {
+    private static final long FILE_SIZE = 1_000_000;
+    private static final long DEFAULT_RATE = 1_000;
+
+    private final DatabaseTracer tracer = mock(DatabaseTracer.class);
+    private final List<String> triggers = new ArrayList<>();
+
+    @Test
+    void shouldUseDefaultReplayRateUntilApplyRateIsObserved() {
+        RecoveryTimeCheckPointThreshold threshold = threshold(10_000);
+        threshold.initialize(1, new LogPosition(0, 100));
+
+        assertThat(threshold.isCheckPointingNeeded(2, new LogPosition(0, 9_100), triggers::add))
+                .isFalse();
+        verify(tracer).recoveryTimeEstimated(9_000);
+
+        assertThat(threshold.isCheckPointingNeeded(3, new LogPosition(0, 10_100), triggers::add))
+                .isTrue();
+        verify(tracer).recoveryTimeEstimated(10_000);
+        assertThat(triggers).singleElement().asString().contains("recovery time estimated above 10s");
+    }
+
+    @Test
+    void shouldEstimateFromObservedApplyRate() {
+        RecoveryTimeCheckPointThreshold threshold = threshold(1_000);
+        threshold.initialize(1, new LogPosition(0, 0));
+
+        // 2 MB of transaction logs applied in one second.
+        when(tracer.appendedBytes()).thenReturn(2_000_000L);
+        when(tracer.storeApplyTimeNanos()).thenReturn(1_000_000_000L);
+        assertThat(threshold.isCheckPointingNeeded(2, new LogPosition(0, 1_000_000), triggers::add))
+                .isFalse();
+        assertThat(threshold.estimatedRecoveryMillis()).isEqualTo(500);
+
+        // Applying slows down to 1 MB per second, which is smoothed into the rate.
+        when(tracer.appendedBytes()).thenReturn(3_000_000L);
+        when(tracer.storeApplyTimeNanos()).thenReturn(2_000_000_000L);
+        assertThat(threshold.applyBytesPerSecond()).isEqualTo(1_800_000d);
+    }
+
+    @Test
+    void shouldCountTransactionLogsAcrossFiles() {
+        RecoveryTimeCheckPointThreshold threshold = threshold(2_000_000);
+        threshold.initialize(1, new LogPosition(3, 500_000));
+
+        assertThat(threshold.isCheckPointingNeeded(2, new LogPosition(5, 100_000), triggers::add))
+                .isFalse();
+        assertThat(threshold.estimatedRecoveryMillis()).isEqualTo(1_600_000);
+        assertThat(threshold.isCheckPointingNeeded(3, new LogPosition(5, 500_000), triggers::add))
+                .isTrue();
+    }
+
+    @Test
+    void shouldStartOverAfterCheckpoint() {
+        RecoveryTimeCheckPointThreshold threshold = threshold(1_000);
+        threshold.initialize(1, new LogPosition(0, 0));
+        assertThat(threshold.isCheckPointingNeeded(2, new LogPosition(0, 5_000), triggers::add))
+                .isTrue();
+
+        threshold.checkPointHappened(2, new LogPosition(0, 5_000));
+
+        assertThat(threshold.isCheckPointingNeeded(2, new LogPosition(0, 5_000), triggers::add))
+                .isFalse();
+        assertThat(threshold.estimatedRecoveryMillis()).isZero();
+    }
+
+    private RecoveryTimeCheckPointThreshold threshold(long targetMillis) {
+        return new RecoveryTimeCheckPointThreshold(targetMillis, FILE_SIZE, DEFAULT_RATE, tracer, tracer);
+    }
+}
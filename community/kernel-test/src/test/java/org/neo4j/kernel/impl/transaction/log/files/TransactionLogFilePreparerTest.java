@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_spare_files;
+import static org.neo4j.kernel.KernelVersion.DEFAULT_BOOTSTRAP_VERSION;
+import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_COMMIT_TIMESTAMP;
+import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.ByteUnit;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.io.layout.DatabaseLayout;
+import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
+import org.neo4j.kernel.impl.transaction.SimpleAppendIndexProvider;
+import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
+import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.storageengine.api.StoreId;
+import org.neo4j.storageengine.api.TransactionIdStore;
+import org.neo4j.test.OnDemandJobScheduler;
+import org.neo4j.test.extension.Inject;
+import org.neo4j.test.extension.LifeExtension;
+import org.neo4j.test.extension.Neo4jLayoutExtension;
+
+@Neo4jLayoutExtension
+@ExtendWith(LifeExtension.class)
+class TransactionLogFilePreparerTest {
+    private static final StoreId STORE_ID = new StoreId(1, 2, "engine-1", "format-1", 3, 4);
+
+    @Inject
+    private DatabaseLayout databaseLayout;
+
+    @Inject
+    private FileSystemAbstraction fileSystem;
+
+    @Inject
+    private LifeSupport life;
+
+    private final long rotationThreshold = ByteUnit.mebiBytes(1);
+    private final OnDemandJobScheduler jobScheduler = new OnDemandJobScheduler();
+    private final TransactionIdStore transactionIdStore = new SimpleTransactionIdStore(
+            2L, 3L, DEFAULT_BOOTSTRAP_VERSION, 0, BASE_TX_COMMIT_TIMESTAMP, UNKNOWN_CONSENSUS_INDEX, 0, 0);
+
+    @Test
+    void shouldRotateIntoPreparedSpareFile() throws IOException {
+        LogFiles logFiles = startLogFiles(1);
+        LogFile logFile = logFiles.getLogFile();
+
+        jobScheduler.runJob();
+        Path[] spareFiles = spareFiles(logFiles);
+        assertThat(spareFiles).hasSize(1);
+        assertThat(fileSystem.getFileSize(spareFiles[0])).isEqualTo(rotationThreshold);
+
+        Path rotatedTo = logFile.rotate();
+
+        assertThat(fileSystem.fileExists(spareFiles[0])).isFalse();
+        assertThat(fileSystem.getFileSize(rotatedTo)).isEqualTo(rotationThreshold);
+        LogHeader header = logFile.extractHeader(2);
+        assertThat(header.getLogVersion()).isEqualTo(2);
+
+        jobScheduler.runJob();
+        assertThat(spareFiles(logFiles)).hasSize(1);
+    }
+
+    @Test
+    void shouldDeleteIncompleteSpareFileLeftBehindOnStart() throws IOException {
+        Path logDirectory = databaseLayout.getTransactionLogsDirectory();
+        fileSystem.mkdirs(logDirectory);
+        Path incomplete = logDirectory.resolve(
+                TransactionLogFilePreparer.SPARE_FILE_PREFIX + TransactionLogFilesHelper.DEFAULT_NAME + ".7.tmp");
+        writeGarbage(incomplete);
+
+        LogFiles logFiles = startLogFiles(1);
+        assertThat(fileSystem.fileExists(incomplete)).isFalse();
+        jobScheduler.runJob();
+
+        Path[] spareFiles = spareFiles(logFiles);
+        assertThat(spareFiles).hasSize(1);
+        assertThat(spareFiles[0].getFileName().toString())
+                .isEqualTo(
+                        TransactionLogFilePreparer.SPARE_FILE_PREFIX + TransactionLogFilesHelper.DEFAULT_NAME + ".8");
+        assertOnlyZeros(spareFiles[0]);
+    }
+
+    private LogFiles startLogFiles(int spareFiles) throws IOException {
+        Config config = Config.newBuilder().set(tx_log_spare_files, spareFiles).build();
+        LogFiles logFiles = LogFilesBuilder.builder(databaseLayout, fileSystem, () -> DEFAULT_BOOTSTRAP_VERSION)
+                .withConfig(config)
+                .withRotationThreshold(rotationThreshold)
+                .withTransactionIdStore(transactionIdStore)
+                .withLogVersionRepository(new SimpleLogVersionRepository(1L))
+                .withAppendIndexProvider(new SimpleAppendIndexProvider())
+                .withCommandReaderFactory(TestCommandReaderFactory.INSTANCE)
+                .withStoreId(STORE_ID)
+                .withJobScheduler(jobScheduler)
+                .build();
+        life.add(logFiles);
+        life.start();
+        return logFiles;
+    }
+
+    private Path[] spareFiles(LogFiles logFiles) throws IOException {
+        Path[] files = fileSystem.listFiles(
+                logFiles.logFilesDirectory(),
+                file -> file.getFileName().toString().startsWith(TransactionLogFilePreparer.SPARE_FILE_PREFIX));
+        Arrays.sort(files);
+        return files;
+    }
+
+    private void writeGarbage(Path file) throws IOException {
+        byte[] garbage = new byte[(int) rotationThreshold / 2];
+        Arrays.fill(garbage, (byte) 7);
+        try (StoreChannel channel = fileSystem.write(file)) {
+            channel.writeAll(ByteBuffer.wrap(garbage), 0);
+        }
+    }
+
+    private void assertOnlyZeros(Path file) throws IOException {
+        assertThat(fileSystem.getFileSize(file)).isEqualTo(rotationThreshold);
+        ByteBuffer buffer = ByteBuffer.allocate((int) rotationThreshold);
+        try (StoreChannel channel = fileSystem.read(file)) {
+            channel.readAll(buffer);
+        }
+        assertThat(buffer.array()).containsOnly(0);
+    }
+}
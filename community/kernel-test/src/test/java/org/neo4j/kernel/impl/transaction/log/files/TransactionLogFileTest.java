@@ -31,6 +31,7 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_mmap_rotated_files;
 import static org.neo4j.kernel.KernelVersion.DEFAULT_BOOTSTRAP_VERSION;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
@@ -62,6 +63,7 @@ import org.junit.jupiter.api.condition.OS;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.mockito.stubbing.Answer;
+import org.neo4j.configuration.Config;
 import org.neo4j.internal.nativeimpl.ErrorTranslator;
 import org.neo4j.internal.nativeimpl.NativeAccess;
 import org.neo4j.internal.nativeimpl.NativeCallResult;
@@ -78,6 +80,8 @@ import org.neo4j.kernel.impl.transaction.SimpleAppendIndexProvider;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.TransactionLogVersionLocator;
 import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.IncompleteLogHeaderException;
@@ -301,6 +305,78 @@ class TransactionLogFileTest {
         }
     }
 
+    @ParameterizedTest
+    @KernelVersionSource(atLeast = "5.0")
+    void shouldReadRotatedLogsThroughMemoryMappings(KernelVersion kernelVersion) throws Exception {
+        LogFiles logFiles = buildLogFiles(kernelVersion, Config.defaults(tx_log_mmap_rotated_files, true));
+        life.start();
+        life.add(logFiles);
+
+        LogFile logFile = logFiles.getLogFile();
+        TransactionLogWriter logWriter = logFile.getTransactionLogWriter();
+        var writer = logWriter.getChannel();
+        LogPosition rotatedPosition = logWriter.getCurrentPosition();
+        byte[] someBytes = someBytes(42);
+        writer.putVersion(kernelVersion.version());
+        writer.putLong(123456789L);
+        writer.put(someBytes, someBytes.length);
+        writer.putChecksum();
+        logFile.rotate();
+        LogPosition currentPosition = logWriter.getCurrentPosition();
+        writer.putVersion(kernelVersion.version());
+        writer.putInt(45);
+        writer.putChecksum();
+        logFile.flush();
+
+        boolean mappable = !LogFormat.fromKernelVersion(kernelVersion).usesSegments();
+        try (ReadableLogChannel reader = logFile.getReader(rotatedPosition)) {
+            assertThat(reader instanceof MappedLogChannel).isEqualTo(mappable);
+            assertEquals(kernelVersion.version(), reader.getVersion());
+            assertEquals(123456789L, reader.getLong());
+            assertArrayEquals(someBytes, readBytes(reader, someBytes.length));
+            reader.getInt(); // checksum
+            if (mappable) {
+                // continues into the file currently written to, which is read without a mapping
+                assertEquals(kernelVersion.version(), reader.getVersion());
+                assertEquals(currentPosition.getLogVersion(), reader.getLogVersion());
+                assertEquals(45, reader.getInt());
+                reader.getInt(); // checksum
+                assertEquals(logWriter.getCurrentPosition(), reader.getCurrentLogPosition());
+            }
+        }
+        try (ReadableLogChannel reader = logFile.getReader(currentPosition)) {
+            assertThat(reader).isNotInstanceOf(MappedLogChannel.class);
+            assertEquals(kernelVersion.version(), reader.getVersion());
+            assertEquals(45, reader.getInt());
+        }
+        if (mappable) {
+            LogPosition beyondEnd = new LogPosition(rotatedPosition.getLogVersion(), rotationThreshold * 2);
+            IOException e = assertThrows(IOException.class, () -> logFile.getReader(beyondEnd));
+            assertThat(e).hasMessageContaining("beyond");
+        }
+    }
+
+    @ParameterizedTest
+    @KernelVersionSource(atLeast = "5.0")
+    void shouldNotReadRotatedLogsThroughMemoryMappingsByDefault(KernelVersion kernelVersion) throws Exception {
+        LogFiles logFiles = buildLogFiles(kernelVersion);
+        life.start();
+        life.add(logFiles);
+
+        LogFile logFile = logFiles.getLogFile();
+        TransactionLogWriter logWriter = logFile.getTransactionLogWriter();
+        LogPosition rotatedPosition = logWriter.getCurrentPosition();
+        logWriter.getChannel().putVersion(kernelVersion.version());
+        logWriter.getChannel().putLong(123456789L);
+        logFile.rotate();
+
+        try (ReadableLogChannel reader = logFile.getReader(rotatedPosition)) {
+            assertThat(reader).isNotInstanceOf(MappedLogChannel.class);
+            assertEquals(kernelVersion.version(), reader.getVersion());
+            assertEquals(123456789L, reader.getLong());
+        }
+    }
+
     @ParameterizedTest
     @KernelVersionSource(atLeast = "5.0")
     void shouldVisitLogFile(KernelVersion kernelVersion) throws Exception {
@@ -819,7 +895,12 @@ class TransactionLogFileTest {
     }
 
     private LogFiles buildLogFiles(KernelVersion kernelVersion) throws IOException {
+        return buildLogFiles(kernelVersion, Config.defaults());
+    }
+
+    private LogFiles buildLogFiles(KernelVersion kernelVersion, Config config) throws IOException {
         return LogFilesBuilder.builder(databaseLayout, wrappingFileSystem, () -> kernelVersion)
+                .withConfig(config)
                 .withRotationThreshold(rotationThreshold)
                 .withTransactionIdStore(transactionIdStore)
                 .withLogVersionRepository(logVersionRepository)
@@ -889,6 +970,12 @@ class TransactionLogFileTest {
             return NativeCallResult.SUCCESS;
         }
 
+        @Override
+        public NativeCallResult tryEvictFromCache(int fd, long offset, long length) {
+            evictionCounter++;
+            return NativeCallResult.SUCCESS;
+        }
+
         @Override
         public NativeCallResult tryAdviseSequentialAccess(int fd) {
             adviseCounter++;
@@ -907,6 +994,21 @@ class TransactionLogFileTest {
             return NativeCallResult.SUCCESS;
         }
 
+        @Override
+        public int getNumaNodeCount() {
+            return 1;
+        }
+
+        @Override
+        public int getCurrentNumaNode() {
+            return 0;
+        }
+
+        @Override
+        public NativeCallResult tryBindMemoryToNumaNode(long address, long length, int node) {
+            return NativeCallResult.SUCCESS;
+        }
+
         @Override
         public ErrorTranslator errorTranslator() {
             return callResult -> false;
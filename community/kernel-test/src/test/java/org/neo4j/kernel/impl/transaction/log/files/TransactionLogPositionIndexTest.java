@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.test.extension.EphemeralFileSystemExtension;
+import org.neo4j.test.extension.Inject;
+
+@ExtendWith(EphemeralFileSystemExtension.class)
+class TransactionLogPositionIndexTest {
+    private static final long LOG_FILE_SIZE = 1_000_000;
+
+    @Inject
+    private FileSystemAbstraction fs;
+
+    private final Path indexFile = Path.of("neostore.transaction.db_position_index.3");
+
+    @Test
+    void indexFileShouldNotBeMistakenForLogFile() {
+        Path logFile = Path.of("logs", "neostore.transaction.db.3");
+        Path index = TransactionLogPositionIndex.indexFileFor(logFile, 3);
+
+        assertThat(index).isEqualTo(Path.of("logs", "neostore.transaction.db_position_index.3"));
+        assertThat(new TransactionLogFilesHelper(fs, Path.of("logs")).isLogFile(index))
+                .isFalse();
+    }
+
+    @Test
+    void shouldFindClosestIndexedTransaction() throws IOException {
+        index().write(fs, indexFile);
+
+        var index = TransactionLogPositionIndex.read(fs, indexFile, LOG_FILE_SIZE);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.floorOffsetByTransactionId(9)).isEqualTo(-1);
+        assertThat(index.floorOffsetByTransactionId(10)).isEqualTo(64);
+        assertThat(index.floorOffsetByTransactionId(19)).isEqualTo(64);
+        assertThat(index.floorOffsetByTransactionId(20)).isEqualTo(70_000);
+        assertThat(index.floorOffsetByTransactionId(100)).isEqualTo(140_000);
+    }
+
+    @Test
+    void shouldIgnoreMissingIndex() throws IOException {
+        Path missingIndexFile = Path.of("neostore.transaction.db_position_index.4");
+        assertThat(TransactionLogPositionIndex.read(fs, missingIndexFile, LOG_FILE_SIZE))
+                .isNull();
+    }
+
+    @Test
+    void shouldIgnoreIndexOfLogFileWithDifferentSize() throws IOException {
+        index().write(fs, indexFile);
+
+        assertThat(TransactionLogPositionIndex.read(fs, indexFile, LOG_FILE_SIZE / 2))
+                .isNull();
+    }
+
+    @Test
+    void shouldDetectCorruptIndex() throws IOException {
+        index().write(fs, indexFile);
+        try (StoreChannel channel = fs.write(indexFile)) {
+            channel.writeAll(ByteBuffer.wrap(new byte[] {1, 2, 3}), 30);
+        }
+
+        assertThatThrownBy(() -> TransactionLogPositionIndex.read(fs, indexFile, LOG_FILE_SIZE))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    void indexerShouldRecordTransactionsAtInterval() {
+        var indexer = new TransactionLogPositionIndexer(100);
+        indexer.transactionStart(10, 15, 3, 64);
+        indexer.transactionStart(11, 16, 3, 120);
+        indexer.transactionStart(12, 17, 3, 164);
+        indexer.transactionStart(13, 18, 3, 300);
+        indexer.transactionStart(14, 19, 3, 350);
+        indexer.truncate(3, 300);
+
+        var index = indexer.seal(3, LOG_FILE_SIZE);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.floorOffsetByTransactionId(11)).isEqualTo(64);
+        assertThat(index.floorOffsetByTransactionId(14)).isEqualTo(164);
+        assertThat(indexer.seal(3, LOG_FILE_SIZE)).isNull();
+    }
+
+    @Test
+    void indexerShouldStartOverInNewLogFile() {
+        var indexer = new TransactionLogPositionIndexer(100);
+        indexer.transactionStart(10, 15, 3, 64);
+        indexer.transactionStart(11, 16, 4, 64);
+
+        assertThat(indexer.seal(3, LOG_FILE_SIZE)).isNull();
+        var index = indexer.seal(4, LOG_FILE_SIZE);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.floorOffsetByTransactionId(10)).isEqualTo(-1);
+    }
+
+    private static TransactionLogPositionIndex index() {
+        return new TransactionLogPositionIndex(
+                LOG_FILE_SIZE, new long[] {10, 20, 30}, new long[] {15, 25, 35}, new long[] {64, 70_000, 140_000});
+    }
+}
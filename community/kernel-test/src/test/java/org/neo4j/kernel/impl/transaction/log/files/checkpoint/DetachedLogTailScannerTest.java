@@ -42,7 +42,9 @@ import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
@@ -55,6 +57,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.DatabaseLayout;
 import org.neo4j.kernel.KernelVersion;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.impl.transaction.SimpleAppendIndexProvider;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
@@ -69,7 +72,10 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFilesBuilder;
 import org.neo4j.kernel.impl.transaction.log.files.LogTailInformation;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.recovery.LogTailScannerMonitor;
 import org.neo4j.logging.AssertableLogProvider;
+import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.TransactionId;
@@ -91,6 +97,8 @@ class DetachedLogTailScannerTest {
     protected LogVersionRepository logVersionRepository;
     protected TransactionIdStore transactionIdStore;
     private SimpleAppendIndexProvider appendIndexProvider;
+    private final Monitors monitors = new Monitors();
+    private JobScheduler jobScheduler;
 
     private static Stream<Arguments> params() {
         return Stream.of(arguments(1, 2), arguments(42, 43));
@@ -115,6 +123,8 @@ class DetachedLogTailScannerTest {
                 .withStoreId(storeId)
                 .withLogProvider(logProvider)
                 .withConfig(Config.defaults(fail_on_corrupted_log_files, false))
+                .withMonitors(monitors)
+                .withJobScheduler(jobScheduler)
                 .build();
     }
 
@@ -709,6 +719,68 @@ class DetachedLogTailScannerTest {
                 .isEqualTo(consensusIndex);
     }
 
+    @Test
+    void parseConsensusIndexFromTransactionHeaderWhenInOlderLogScannedInParallel() throws Exception {
+        // given
+        long transactionId = 7;
+        long consensusIndex = 999;
+        List<LogTailScannerMonitor.Phase> phases = new CopyOnWriteArrayList<>();
+        monitors.addMonitorListener(new LogTailScannerMonitor() {
+            @Override
+            public void corruptedLogFile(long version, Throwable t) {}
+
+            @Override
+            public void corruptedCheckpointFile(long version, Throwable t) {}
+
+            @Override
+            public void phaseCompleted(Phase phase, long elapsedMillis) {
+                phases.add(phase);
+            }
+        });
+        LifeSupport schedulerLife = new LifeSupport();
+        jobScheduler = schedulerLife.add(JobSchedulerFactory.createInitialisedScheduler());
+        schedulerLife.start();
+        try {
+            setupLogFiles(
+                    13,
+                    logFile(
+                            KernelVersion.V5_0,
+                            start(555),
+                            commit(transactionId - 1),
+                            start(consensusIndex),
+                            commit(transactionId)),
+                    logFile(KernelVersion.V5_0),
+                    logFile(KernelVersion.V5_0),
+                    logFile(
+                            KernelVersion.V5_0,
+                            checkPoint(new TransactionId(
+                                    transactionId,
+                                    transactionId,
+                                    LATEST_KERNEL_VERSION,
+                                    BASE_TX_CHECKSUM,
+                                    BASE_TX_COMMIT_TIMESTAMP,
+                                    UNKNOWN_CONSENSUS_INDEX))));
+
+            // when
+            var logTailInformation = logFiles.getTailMetadata();
+
+            // then
+            assertThat(logTailInformation
+                            .getLastCheckPoint()
+                            .orElseThrow()
+                            .transactionId()
+                            .consensusIndex())
+                    .isEqualTo(consensusIndex);
+            assertThat(phases)
+                    .endsWith(
+                            LogTailScannerMonitor.Phase.CHECKPOINT_LOOKUP,
+                            LogTailScannerMonitor.Phase.TRANSACTION_LOG_SCAN,
+                            LogTailScannerMonitor.Phase.CONSENSUS_INDEX_LOOKUP);
+        } finally {
+            schedulerLife.shutdown();
+        }
+    }
+
     // === Below is code for helping the tests above ===
 
     void setupLogFiles(long endLogVersion, LogCreator... logFiles) throws Exception {
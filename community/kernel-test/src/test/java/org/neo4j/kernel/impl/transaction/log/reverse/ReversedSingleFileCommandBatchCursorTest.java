@@ -52,7 +52,7 @@ import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
 import org.neo4j.kernel.impl.transaction.log.CompleteTransaction;
 import org.neo4j.kernel.impl.transaction.log.FlushableLogPositionAwareChannel;
-import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryWriter;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
@@ -168,7 +168,7 @@ class ReversedSingleFileCommandBatchCursorTest {
         writeTransactions(1, 1, 1);
 
         // when
-        try (ReadAheadLogChannel channel = (ReadAheadLogChannel)
+        try (ReadableLogChannel channel =
                 logFile.getReader(logFiles.getLogFile().extractHeader(0).getStartPosition())) {
             new ReversedSingleFileCommandBatchCursor(channel, logEntryReader(), false, monitor);
             fail("Should've failed");
@@ -223,7 +223,7 @@ class ReversedSingleFileCommandBatchCursorTest {
     }
 
     private ReversedSingleFileCommandBatchCursor txCursor(boolean failOnCorruptedLogFiles) throws IOException {
-        ReadAheadLogChannel fileReader = (ReadAheadLogChannel)
+        ReadableLogChannel fileReader =
                 logFile.getReader(logFiles.getLogFile().extractHeader(0).getStartPosition());
         try {
             return new ReversedSingleFileCommandBatchCursor(
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class PowerOfTwoHistogramTest {
+    @Test
+    void shouldBeEmptyWhenNothingIsRecorded() {
+        var histogram = new PowerOfTwoHistogram();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.total()).isZero();
+        assertThat(histogram.max()).isZero();
+        assertThat(histogram.mean()).isZero();
+        assertThat(histogram.percentile(99)).isZero();
+    }
+
+    @Test
+    void shouldCountValuesInPowerOfTwoBuckets() {
+        var histogram = new PowerOfTwoHistogram();
+
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+        histogram.record(1000);
+        histogram.record(-5);
+
+        long[] buckets = histogram.bucketCounts();
+        assertThat(buckets[0]).isEqualTo(2);
+        assertThat(buckets[1]).isEqualTo(1);
+        assertThat(buckets[2]).isEqualTo(2);
+        assertThat(buckets[10]).isEqualTo(1);
+        assertThat(histogram.count()).isEqualTo(6);
+        assertThat(histogram.total()).isEqualTo(1006);
+        assertThat(histogram.max()).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldReportBucketUpperBoundAsPercentile() {
+        var histogram = new PowerOfTwoHistogram();
+        for (int i = 0; i < 90; i++) {
+            histogram.record(5);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(100);
+        }
+
+        assertThat(histogram.percentile(50)).isEqualTo(7);
+        assertThat(histogram.percentile(90)).isEqualTo(7);
+        assertThat(histogram.percentile(99)).isEqualTo(100);
+        assertThat(histogram.percentile(100)).isEqualTo(100);
+        assertThatThrownBy(() -> histogram.percentile(101)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldHandleLargestValues() {
+        var histogram = new PowerOfTwoHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.bucketCounts()[Long.SIZE - 1]).isOne();
+        assertThat(histogram.percentile(50)).isEqualTo(Long.MAX_VALUE);
+        assertThat(PowerOfTwoHistogram.bucketUpperBound(Long.SIZE - 1)).isEqualTo(Long.MAX_VALUE);
+    }
+}
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.io.ByteUnit.mebiBytes;
 import static org.neo4j.kernel.impl.transaction.log.entry.v57.DetachedCheckpointLogEntrySerializerV5_7.RECORD_LENGTH_BYTES;
 import static org.neo4j.kernel.recovery.CorruptedLogsTruncator.CORRUPTED_TX_LOGS_BASE_NAME;
 import static org.neo4j.memory.EmptyMemoryTracker.INSTANCE;
@@ -34,10 +35,13 @@ import static org.neo4j.test.LatestVersions.LATEST_LOG_FORMAT;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import org.apache.commons.io.FilenameUtils;
@@ -53,7 +57,9 @@ import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.nativeimpl.NativeAccessProvider;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemUtils;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.api.TestCommandReaderFactory;
+import org.neo4j.kernel.impl.scheduler.JobSchedulerFactory;
 import org.neo4j.kernel.impl.transaction.SimpleAppendIndexProvider;
 import org.neo4j.kernel.impl.transaction.SimpleLogVersionRepository;
 import org.neo4j.kernel.impl.transaction.SimpleTransactionIdStore;
@@ -66,6 +72,7 @@ import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.CheckpointFile;
 import org.neo4j.kernel.impl.transaction.tracing.LogCheckPointEvent;
 import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.TransactionId;
 import org.neo4j.test.RandomSupport;
@@ -211,6 +218,42 @@ class CorruptedLogsTruncatorTest {
         assertEquals(1, files.length);
     }
 
+    @Test
+    void doNotTruncateLogWithLargePreAllocatedZerosCheckedInParallel() throws IOException {
+        life.start();
+        LogPosition logPosAfterGeneratingLogs = generateTransactionLogFiles(logFiles);
+        Path highestLogFile = logFiles.getLogFile().getHighestLogFile();
+        appendSparse(highestLogFile, mebiBytes(40), (byte) 0);
+        long expectedFileSizeAfterTruncate = Files.size(highestLogFile);
+
+        var monitor = new PhaseRecordingMonitor();
+        parallelLogPruner(monitor).truncate(logPosAfterGeneratingLogs);
+
+        assertEquals(TOTAL_NUMBER_OF_LOG_FILES, logFiles.logFiles().length);
+        assertEquals(expectedFileSizeAfterTruncate, Files.size(highestLogFile));
+        assertTrue(ArrayUtils.isEmpty(databaseDirectory.toFile().listFiles(File::isDirectory)));
+        assertThat(monitor.phases).containsExactly(LogTailScannerMonitor.Phase.CORRUPTION_CHECK);
+    }
+
+    @Test
+    void truncateLogWithCorruptionInLastRegionCheckedInParallel() throws IOException {
+        life.start();
+        LogPosition logPosAfterGeneratingLogs = generateTransactionLogFiles(logFiles);
+        Path highestLogFile = logFiles.getLogFile().getHighestLogFile();
+        appendSparse(highestLogFile, mebiBytes(40), (byte) 7);
+
+        var monitor = new PhaseRecordingMonitor();
+        parallelLogPruner(monitor).truncate(logPosAfterGeneratingLogs);
+
+        assertEquals(TOTAL_NUMBER_OF_LOG_FILES, logFiles.logFiles().length);
+        assertEquals(logPosAfterGeneratingLogs.getByteOffset(), Files.size(highestLogFile));
+        File[] files =
+                databaseDirectory.resolve(CORRUPTED_TX_LOGS_BASE_NAME).toFile().listFiles();
+        assertNotNull(files);
+        assertEquals(1, files.length);
+        assertThat(monitor.phases).containsExactly(LogTailScannerMonitor.Phase.CORRUPTION_CHECK);
+    }
+
     @Test
     @EnabledOnOs(OS.LINUX) // based on pre-allocated files, which does not work on windows
     void pruneAndArchiveLastLog() throws IOException {
@@ -334,6 +377,32 @@ class CorruptedLogsTruncatorTest {
         }
     }
 
+    private CorruptedLogsTruncator parallelLogPruner(LogTailScannerMonitor monitor) {
+        JobScheduler jobScheduler = life.add(JobSchedulerFactory.createInitialisedScheduler());
+        return new CorruptedLogsTruncator(databaseDirectory, logFiles, fs, INSTANCE, jobScheduler, 4, monitor);
+    }
+
+    private void appendSparse(Path file, long gap, byte lastByte) throws IOException {
+        try (StoreChannel channel = fs.write(file)) {
+            channel.writeAll(ByteBuffer.wrap(new byte[] {lastByte}), channel.size() + gap);
+        }
+    }
+
+    private static class PhaseRecordingMonitor implements LogTailScannerMonitor {
+        private final List<Phase> phases = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void corruptedLogFile(long version, Throwable t) {}
+
+        @Override
+        public void corruptedCheckpointFile(long version, Throwable t) {}
+
+        @Override
+        public void phaseCompleted(Phase phase, long elapsedMillis) {
+            phases.add(phase);
+        }
+    }
+
     private static void checkEntryNameAndSize(ZipFile zipFile, String entryName, long expectedSize) throws IOException {
         ZipEntry entry = zipFile.getEntry(entryName);
         InputStream inputStream = zipFile.getInputStream(entry);
@@ -36,7 +36,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
 import org.neo4j.configuration.Config;
 import org.neo4j.counts.CountsStore;
@@ -84,6 +86,8 @@ import org.neo4j.storageengine.api.txstate.validation.TransactionValidatorFactor
 import org.neo4j.test.Barrier;
 
 class ParallelRecoveryVisitorTest {
+    private static final RecoveryMonitor NO_MONITOR = new RecoveryMonitor() {};
+
     private final CursorContextFactory contextFactory = new CursorContextFactory(NULL, EMPTY_CONTEXT_SUPPLIER);
 
     @Test
@@ -108,7 +112,7 @@ class ParallelRecoveryVisitorTest {
 
         // when
         try (ParallelRecoveryVisitor visitor =
-                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 2)) {
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", NO_MONITOR, 2)) {
             visitor.visit(tx(2, commandsRelatedToNode(99)));
             visitor.visit(tx(3, commandsRelatedToNode(999)));
         }
@@ -135,7 +139,7 @@ class ParallelRecoveryVisitorTest {
 
         // when
         try (ParallelRecoveryVisitor visitor =
-                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 2)) {
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", NO_MONITOR, 2)) {
             visitor.visit(tx(2, commandsRelatedToNode(99)));
             visitor.visit(tx(3, commandsRelatedToNode(99)));
         }
@@ -148,36 +152,24 @@ class ParallelRecoveryVisitorTest {
     @Test
     void shouldApplyUnrelatedInParallelToRelatedInSequence() throws Exception {
         // given
-        Barrier.Control barrier = new Barrier.Control();
+        CountDownLatch firstApplied = new CountDownLatch(1);
         RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine() {
-            @Override
-            public void lockRecoveryCommands(
-                    CommandStream commands,
-                    LockService lockService,
-                    LockGroup lockGroup,
-                    TransactionApplicationMode mode) {
-                if (idOf(commands) == 5) {
-                    barrier.release();
-                }
-                super.lockRecoveryCommands(commands, lockService, lockGroup, RECOVERY);
-            }
-
             @Override
             public void apply(CommandBatchToApply batch, TransactionApplicationMode mode) throws Exception {
                 long txId = idOf(batch);
                 if (txId > 2) {
-                    barrier.awaitUninterruptibly();
+                    firstApplied.await();
                 }
                 super.apply(batch, mode);
                 if (txId == 2) {
-                    barrier.reached();
+                    firstApplied.countDown();
                 }
             }
         };
 
         // when
         try (ParallelRecoveryVisitor visitor =
-                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 2)) {
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", NO_MONITOR, 2)) {
             visitor.visit(tx(2, commandsRelatedToNode(99)));
             visitor.visit(tx(3, commandsRelatedToNode(999)));
             visitor.visit(tx(4, commandsRelatedToNode(9999)));
@@ -187,8 +179,77 @@ class ParallelRecoveryVisitorTest {
         // then
         assertThat(storageEngine.lockOrder()).isEqualTo(new long[] {2, 3, 4, 5});
         long[] applyOrder = storageEngine.applyOrder();
+        assertThat(applyOrder).hasSize(4);
         assertThat(applyOrder[0]).isEqualTo(2);
-        assertThat(applyOrder[applyOrder.length - 1]).isEqualTo(5);
+    }
+
+    @Test
+    void shouldApplyUnrelatedAheadOfWaitingRelated() throws Exception {
+        // given
+        CountDownLatch unrelatedApplied = new CountDownLatch(1);
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine() {
+            @Override
+            public void apply(CommandBatchToApply batch, TransactionApplicationMode mode) throws Exception {
+                long txId = idOf(batch);
+                if (txId == 2) {
+                    unrelatedApplied.await();
+                }
+                super.apply(batch, mode);
+                if (txId == 4) {
+                    unrelatedApplied.countDown();
+                }
+            }
+        };
+
+        // when
+        try (ParallelRecoveryVisitor visitor =
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", NO_MONITOR, 2)) {
+            visitor.visit(tx(2, commandsRelatedToNode(99)));
+            visitor.visit(tx(3, commandsRelatedToNode(99)));
+            visitor.visit(tx(4, commandsRelatedToNode(999)));
+        }
+
+        // then
+        assertThat(storageEngine.lockOrder()).isEqualTo(new long[] {2, 3, 4});
+        assertThat(storageEngine.applyOrder()).isEqualTo(new long[] {4, 2, 3});
+    }
+
+    @Test
+    void shouldReportParallelRecoveryStatistics() throws Exception {
+        // given
+        CountDownLatch allVisited = new CountDownLatch(1);
+        RecoveryControllableStorageEngine storageEngine = new RecoveryControllableStorageEngine() {
+            @Override
+            public void apply(CommandBatchToApply batch, TransactionApplicationMode mode) throws Exception {
+                if (idOf(batch) == 2) {
+                    allVisited.await();
+                }
+                super.apply(batch, mode);
+            }
+        };
+        AtomicLong recoveredBatches = new AtomicLong();
+        AtomicLong conflictingBatches = new AtomicLong();
+        RecoveryMonitor monitor = new RecoveryMonitor() {
+            @Override
+            public void parallelRecoveryCompleted(
+                    long recovered, long conflicting, long recoveryTimeMillis, long applierIdleTimeMillis) {
+                recoveredBatches.set(recovered);
+                conflictingBatches.set(conflicting);
+            }
+        };
+
+        // when
+        try (ParallelRecoveryVisitor visitor =
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", monitor, 2)) {
+            visitor.visit(tx(2, commandsRelatedToNode(99)));
+            visitor.visit(tx(3, commandsRelatedToNode(99)));
+            visitor.visit(tx(4, commandsRelatedToNode(999)));
+            allVisited.countDown();
+        }
+
+        // then
+        assertThat(recoveredBatches.get()).isEqualTo(3);
+        assertThat(conflictingBatches.get()).isEqualTo(1);
     }
 
     @Test
@@ -205,7 +266,7 @@ class ParallelRecoveryVisitorTest {
 
         // when
         try (ParallelRecoveryVisitor visitor =
-                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 2)) {
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", NO_MONITOR, 2)) {
             assertThatThrownBy(() -> {
                         for (long txId = 2; txId < 100; txId++) {
                             visitor.visit(tx(txId, commandsRelatedToNode(99)));
@@ -233,7 +294,7 @@ class ParallelRecoveryVisitorTest {
 
         // when
         ParallelRecoveryVisitor visitor =
-                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", 2);
+                new ParallelRecoveryVisitor(storageEngine, RECOVERY, contextFactory, "test", NO_MONITOR, 2);
         visitor.visit(tx(2, commandsRelatedToNode(99)));
         assertThatThrownBy(visitor::close).getCause().hasMessageContaining(failure);
     }
@@ -229,6 +229,7 @@ class TransactionLogsRecoveryTest {
                             recoveryLogFiles,
                             LatestVersions.LATEST_KERNEL_VERSION_PROVIDER,
                             NO_MONITOR,
+                            monitor,
                             mock(InternalLog.class),
                             Clocks.systemClock(),
                             false,
@@ -349,6 +350,7 @@ class TransactionLogsRecoveryTest {
                             logFiles,
                             LatestVersions.LATEST_KERNEL_VERSION_PROVIDER,
                             NO_MONITOR,
+                            monitor,
                             mock(InternalLog.class),
                             Clocks.systemClock(),
                             false,
@@ -654,6 +656,7 @@ class TransactionLogsRecoveryTest {
                             logFiles,
                             LatestVersions.LATEST_KERNEL_VERSION_PROVIDER,
                             NO_MONITOR,
+                            monitor,
                             mock(InternalLog.class),
                             Clocks.systemClock(),
                             false,
@@ -267,6 +267,16 @@ public class DatabasePageCache implements PageCache {
             flushTicket.use();
         }
 
+        @Override
+        public long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) throws IOException {
+            return delegate.flushDirtyPages(maxPages, flushEvent);
+        }
+
+        @Override
+        public long dirtyPages() {
+            return delegate.dirtyPages();
+        }
+
         @Override
         public long getLastPageId() throws IOException {
             return delegate.getLastPageId();
@@ -127,6 +127,7 @@ import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.locking.multiversion.MultiVersionLockManager;
 import org.neo4j.kernel.impl.pagecache.IOControllerService;
 import org.neo4j.kernel.impl.pagecache.PageCacheLifecycle;
+import org.neo4j.kernel.impl.pagecache.PageCacheWarmer;
 import org.neo4j.kernel.impl.pagecache.VersionStorageFactory;
 import org.neo4j.kernel.impl.query.QueryEngineProvider;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
@@ -144,6 +145,7 @@ import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointScheduler;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointerImpl;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckpointerLifecycle;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.IncrementalCheckPointFlusher;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.SimpleTriggerInfo;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.StoreCopyCheckPointMutex;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
@@ -592,6 +594,18 @@ public class Database extends AbstractDatabase {
 
         life.add(idController);
         life.add(onStart(this::registerUpgradeListener));
+        if (databaseConfig.get(GraphDatabaseInternalSettings.pagecache_warmer_enabled)) {
+            life.add(new PageCacheWarmer(
+                    fs,
+                    databasePageCache,
+                    scheduler,
+                    databaseLayout.databaseDirectory(),
+                    namedDatabaseId.name(),
+                    databaseConfig,
+                    internalLogProvider.getLog(PageCacheWarmer.class),
+                    tracers.getPageCacheTracer(),
+                    cursorContextFactory));
+        }
         life.add(databaseHealth);
         life.add(databaseAvailabilityGuard);
         life.add(databaseAvailability);
@@ -904,7 +918,8 @@ public class Database extends AbstractDatabase {
         final LogicalTransactionStore logicalTransactionStore = new PhysicalLogicalTransactionStore(
                 logFiles, transactionMetadataCache, commandReaderFactory, monitors, true, config);
 
-        CheckPointThreshold threshold = CheckPointThreshold.createThreshold(config, clock, logPruning, logProvider);
+        CheckPointThreshold threshold = CheckPointThreshold.createThreshold(
+                config, clock, logPruning, logProvider, tracers.getDatabaseTracer());
 
         var checkpointAppender = logFiles.getCheckpointFile().getCheckpointAppender();
         final CheckPointerImpl checkPointer = new CheckPointerImpl(
@@ -928,6 +943,14 @@ public class Database extends AbstractDatabase {
 
         life.add(checkPointer);
         life.add(checkPointScheduler);
+        life.add(new IncrementalCheckPointFlusher(
+                databasePageCache,
+                scheduler,
+                tracers.getPageCacheTracer(),
+                clock,
+                config,
+                namedDatabaseId.name(),
+                logProvider.getLog(IncrementalCheckPointFlusher.class)));
 
         TransactionLogServiceImpl transactionLogService = new TransactionLogServiceImpl(
                 metadataProvider,
@@ -25,6 +25,7 @@ import java.util.concurrent.atomic.LongAdder;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
+import org.neo4j.kernel.impl.transaction.stats.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.tracing.AppendTransactionEvent;
 import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
@@ -50,6 +51,12 @@ public class DefaultTracer implements DatabaseTracer {
     private final LongAdder batchesRolledBack = new LongAdder();
     private final LongAdder batchTransactionsRolledBack = new LongAdder();
     private final AtomicLong appliedBatchSize = new AtomicLong();
+    private final PowerOfTwoHistogram groupCommitTransactions = new PowerOfTwoHistogram();
+    private final PowerOfTwoHistogram groupCommitBytes = new PowerOfTwoHistogram();
+    private final PowerOfTwoHistogram groupCommitWaitNanos = new PowerOfTwoHistogram();
+    private final PowerOfTwoHistogram logForceNanos = new PowerOfTwoHistogram();
+    private final LongAdder storeApplyNanos = new LongAdder();
+    private volatile long estimatedRecoveryTimeMillis = -1;
 
     private final CountingLogRotateEvent countingLogRotateEvent = new CountingLogRotateEvent();
     private final LogFileCreateEvent logFileCreateEvent = () -> appendedBytes.add(LogFormat.BIGGEST_HEADER);
@@ -120,6 +127,31 @@ public class DefaultTracer implements DatabaseTracer {
         return batchTransactionsRolledBack.longValue();
     }
 
+    @Override
+    public PowerOfTwoHistogram groupCommitTransactions() {
+        return groupCommitTransactions;
+    }
+
+    @Override
+    public PowerOfTwoHistogram groupCommitBytes() {
+        return groupCommitBytes;
+    }
+
+    @Override
+    public PowerOfTwoHistogram groupCommitWaitNanos() {
+        return groupCommitWaitNanos;
+    }
+
+    @Override
+    public PowerOfTwoHistogram logForceNanos() {
+        return logForceNanos;
+    }
+
+    @Override
+    public long storeApplyTimeNanos() {
+        return storeApplyNanos.sum();
+    }
+
     @Override
     public long numberOfCheckPoints() {
         return logCheckPointEvent.numberOfCheckPoints();
@@ -165,11 +197,21 @@ public class DefaultTracer implements DatabaseTracer {
         return logCheckPointEvent.flushedBytes();
     }
 
+    @Override
+    public long estimatedRecoveryTimeMillis() {
+        return estimatedRecoveryTimeMillis;
+    }
+
     @Override
     public LogCheckPointEvent beginCheckPoint() {
         return logCheckPointEvent;
     }
 
+    @Override
+    public void recoveryTimeEstimated(long estimatedRecoveryTimeMillis) {
+        this.estimatedRecoveryTimeMillis = estimatedRecoveryTimeMillis;
+    }
+
     @Override
     public LogFileCreateEvent createLogFile() {
         return logFileCreateEvent;
@@ -235,7 +277,8 @@ public class DefaultTracer implements DatabaseTracer {
 
         @Override
         public StoreApplyEvent beginStoreApply() {
-            return StoreApplyEvent.NULL;
+            long startNanos = System.nanoTime();
+            return () -> storeApplyNanos.add(System.nanoTime() - startNanos);
         }
 
         @Override
@@ -293,6 +336,13 @@ public class DefaultTracer implements DatabaseTracer {
             return AppendTransactionEvent.NULL;
         }
 
+        @Override
+        public void groupCommit(int transactions, long bytes, long waitNanos) {
+            groupCommitTransactions.record(transactions);
+            groupCommitBytes.record(bytes);
+            groupCommitWaitNanos.record(waitNanos);
+        }
+
         @Override
         public LogForceWaitEvent beginLogForceWait() {
             return LogForceWaitEvent.NULL;
@@ -300,7 +350,8 @@ public class DefaultTracer implements DatabaseTracer {
 
         @Override
         public LogForceEvent beginLogForce() {
-            return LogForceEvent.NULL;
+            long startNanos = System.nanoTime();
+            return () -> logForceNanos.record(System.nanoTime() - startNanos);
         }
     }
 }
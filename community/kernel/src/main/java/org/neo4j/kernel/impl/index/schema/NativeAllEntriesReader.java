@@ -60,7 +60,7 @@ public class NativeAllEntriesReader<KEY extends NativeIndexKey<KEY>> implements
         to.initValuesAsHighest();
         try {
             closeSeeker();
-            seeker = tree.seek(from, to, cursorContext);
+            seeker = tree.seek(tree.allocateScanSeeker(cursorContext), from, to);
             return new PrefetchingIterator<>() {
                 @Override
                 protected Long fetchNextOrNull() {
@@ -28,16 +28,22 @@ import static org.neo4j.memory.MemoryGroup.PAGE_CACHE;
 import java.util.function.Function;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseInternalSettings.PageCacheEvictionPolicy;
 import org.neo4j.configuration.pagecache.ConfigurableIOBufferFactory;
+import org.neo4j.graphdb.config.Setting;
 import org.neo4j.internal.unsafe.UnsafeUtil;
 import org.neo4j.io.ByteUnit;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.mem.MemoryAllocator;
+import org.neo4j.io.mem.NumaTopology;
 import org.neo4j.io.os.OsBeanUtil;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageSwapperFactory;
+import org.neo4j.io.pagecache.impl.IoUringPageSwapperFactory;
 import org.neo4j.io.pagecache.impl.SingleFilePageSwapperFactory;
+import org.neo4j.io.pagecache.impl.muninn.EvictionPolicyType;
 import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.impl.muninn.PageCacheReservations;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.memory.MachineMemory;
@@ -110,7 +116,7 @@ public class ConfiguringPageCacheFactory {
         long pageCacheMaxMemory = getPageCacheMaxMemory(config);
         var memoryPool = memoryPools.pool(PAGE_CACHE, pageCacheMaxMemory, false, null);
         var memoryTracker = memoryPool.getPoolMemoryTracker();
-        var swapperFactory = createAndConfigureSwapperFactory(fs, pageCacheTracer, memoryTracker, log);
+        var swapperFactory = createAndConfigureSwapperFactory(fs, config, pageCacheTracer, memoryTracker, log);
         MemoryAllocator memoryAllocator = buildMemoryAllocator(
                 pageCacheMaxMemory,
                 config.get(GraphDatabaseInternalSettings.page_cache_allocation_grab_size),
@@ -123,11 +129,67 @@ public class ConfiguringPageCacheFactory {
                 .preallocateStoreFiles(config.get(preallocate_store_files))
                 .clock(clock)
                 .pageCacheTracer(pageCacheTracer)
-                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown));
+                .closeAllocatorOnShutdown(config.get(GraphDatabaseInternalSettings.close_allocator_on_shutdown))
+                .evictionPolicy(evictionPolicy(config.get(GraphDatabaseInternalSettings.pagecache_eviction_policy)))
+                .numaTopology(numaTopology())
+                .reservations(reservations());
+        if (!config.get(GraphDatabaseInternalSettings.pagecache_freelist_striping)) {
+            configuration = configuration.freelistStripes(1);
+        }
         configuration = pageCacheConfigurator.apply(configuration);
         return new MuninnPageCache(swapperFactory, scheduler, configuration);
     }
 
+    private NumaTopology numaTopology() {
+        if (!config.get(GraphDatabaseInternalSettings.pagecache_numa_partitioning)) {
+            return NumaTopology.SINGLE_NODE;
+        }
+        NumaTopology topology = NumaTopology.detect();
+        if (topology.nodeCount() > 1) {
+            log.info("Partitioning the page cache over " + topology.nodeCount() + " NUMA nodes.");
+        } else {
+            log.info("Page cache NUMA partitioning is enabled, but only a single NUMA node was found.");
+        }
+        return topology;
+    }
+
+    private PageCacheReservations reservations() {
+        var reservations = PageCacheReservations.NONE;
+        var databaseReservations = GraphDatabaseInternalSettings.pagecache_database_reservations;
+        for (String entry : config.get(databaseReservations)) {
+            String[] reservation = parseReservation(databaseReservations, entry);
+            reservations =
+                    reservations.database(reservation[0], reservedPages(reservation[1]), reservedPages(reservation[2]));
+        }
+        var fileReservations = GraphDatabaseInternalSettings.pagecache_file_reservations;
+        for (String entry : config.get(fileReservations)) {
+            String[] reservation = parseReservation(fileReservations, entry);
+            reservations =
+                    reservations.file(reservation[0], reservedPages(reservation[1]), reservedPages(reservation[2]));
+        }
+        return reservations;
+    }
+
+    private static String[] parseReservation(Setting<?> setting, String entry) {
+        String[] reservation = entry.split(":");
+        if (reservation.length != 3 || reservation[0].isBlank()) {
+            throw new IllegalArgumentException("Invalid page cache reservation '" + entry + "' in " + setting.name()
+                    + ", expected `name:soft size:hard size`.");
+        }
+        return reservation;
+    }
+
+    private static long reservedPages(String size) {
+        return BYTES.parse(size.trim()) / PageCache.PAGE_SIZE;
+    }
+
+    private static EvictionPolicyType evictionPolicy(PageCacheEvictionPolicy policy) {
+        return switch (policy) {
+            case CLOCK -> EvictionPolicyType.CLOCK;
+            case TINY_LFU -> EvictionPolicyType.TINY_LFU;
+        };
+    }
+
     private static MemoryAllocator buildMemoryAllocator(
             long pageCacheMaxMemory, Long grabSize, MemoryTracker memoryTracker) {
         return createAllocator(pageCacheMaxMemory, grabSize, memoryTracker);
@@ -204,12 +266,27 @@ public class ConfiguringPageCacheFactory {
     }
 
     private static PageSwapperFactory createAndConfigureSwapperFactory(
-            FileSystemAbstraction fs, PageCacheTracer pageCacheTracer, MemoryTracker memoryTracker, InternalLog log) {
+            FileSystemAbstraction fs,
+            Config config,
+            PageCacheTracer pageCacheTracer,
+            MemoryTracker memoryTracker,
+            InternalLog log) {
         if (!UnsafeUtil.unsafeByteBufferAccessAvailable()) {
             log.warn("Reflection access to java.nio.DirectByteBuffer is not available, using fallback mode. "
                     + "This could have negative impact on performance and memory usage. "
                     + "Consider adding --add-opens=java.base/java.nio=ALL-UNNAMED to VM options.");
         }
-        return new SingleFilePageSwapperFactory(fs, pageCacheTracer, memoryTracker);
+        SingleFilePageSwapperFactory.Monitor monitor = (file, cause) -> log.warn(
+                "Direct IO is not supported by the file system of " + file + ", using buffered IO and evicting its "
+                        + "pages from the OS page cache instead.",
+                cause);
+        if (config.get(GraphDatabaseInternalSettings.pagecache_io_uring_enabled)) {
+            if (IoUringPageSwapperFactory.isAvailable()) {
+                return new IoUringPageSwapperFactory(fs, pageCacheTracer, memoryTracker, monitor);
+            }
+            log.warn("Page cache io_uring support is enabled but not available, using file channel IO instead. "
+                    + IoUringPageSwapperFactory.describeAvailability());
+        }
+        return new SingleFilePageSwapperFactory(fs, pageCacheTracer, memoryTracker, monitor);
     }
 }
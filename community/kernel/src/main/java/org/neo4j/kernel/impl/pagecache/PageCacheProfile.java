@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_CHAIN_FOLLOW;
+import static org.neo4j.io.pagecache.PagedFile.PF_NO_FAULT;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_READ_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_TRANSIENT;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+
+/**
+ * A snapshot of which pages of a single {@link PagedFile} were resident in the page cache at the time it was taken.
+ * <p>
+ * The profile is a plain bitmap with one bit per file page, stored gzip compressed. Resident pages are usually
+ * clustered, so the compressed profile of even a very large store file is only a few kilobytes.
+ */
+final class PageCacheProfile {
+    static final String PROFILE_SUFFIX = ".cacheprof";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long MAGIC = 0x4E43_5052_4F46_0001L; // "NCPROF" + format version 1
+    private static final int BITS_PER_WORD = Long.SIZE;
+
+    private final long pageCount;
+    private final long[] words;
+
+    private PageCacheProfile(long pageCount, long[] words) {
+        this.pageCount = pageCount;
+        this.words = words;
+    }
+
+    /**
+     * Record the currently resident pages of the given file without faulting any pages in, or touching their usage
+     * counters.
+     *
+     * @param pagedFile file to profile.
+     * @param cursorContext context of the profiling cursor.
+     * @param stopped checked between pages, profiling is aborted as soon as it returns {@code true}.
+     * @return the profile, or {@code null} if profiling was aborted.
+     */
+    static PageCacheProfile capture(PagedFile pagedFile, CursorContext cursorContext, BooleanSupplier stopped)
+            throws IOException {
+        long lastPageId = pagedFile.getLastPageId();
+        long pageCount = lastPageId < 0 ? 0 : lastPageId + 1;
+        long[] words = new long[wordsFor(pageCount)];
+        int flags = PF_SHARED_READ_LOCK | PF_NO_FAULT | PF_TRANSIENT | PF_NO_CHAIN_FOLLOW;
+        try (PageCursor cursor = pagedFile.io(0, flags, cursorContext)) {
+            // With PF_NO_FAULT the cursor visits every page of the file, but is only bound to the resident ones.
+            for (long pageId = 0; pageId < pageCount && cursor.next(); pageId++) {
+                if (stopped.getAsBoolean()) {
+                    return null;
+                }
+                if (cursor.getCurrentPageId() != PageCursor.UNBOUND_PAGE_ID) {
+                    words[(int) (pageId / BITS_PER_WORD)] |= 1L << (pageId % BITS_PER_WORD);
+                }
+            }
+        }
+        return new PageCacheProfile(pageCount, words);
+    }
+
+    /**
+     * A profile where every page of a file with the given number of pages is considered resident.
+     */
+    static PageCacheProfile allPages(long pageCount) {
+        long[] words = new long[wordsFor(pageCount)];
+        for (int i = 0; i < words.length; i++) {
+            long remaining = pageCount - (long) i * BITS_PER_WORD;
+            words[i] = remaining >= BITS_PER_WORD ? -1L : (1L << remaining) - 1;
+        }
+        return new PageCacheProfile(pageCount, words);
+    }
+
+    /**
+     * Read a previously written profile.
+     *
+     * @return the profile, or {@code null} if there is no profile at the given location.
+     */
+    static PageCacheProfile read(FileSystemAbstraction fs, Path profileFile) throws IOException {
+        if (!fs.fileExists(profileFile)) {
+            return null;
+        }
+        try (InputStream in = fs.openAsInputStream(profileFile);
+                DataInputStream data = new DataInputStream(new GZIPInputStream(in))) {
+            long magic = data.readLong();
+            if (magic != MAGIC) {
+                throw new IOException(
+                        "Unrecognized page cache profile " + profileFile + ", magic: " + Long.toHexString(magic) + ".");
+            }
+            long pageCount = data.readLong();
+            if (pageCount < 0) {
+                throw new IOException("Corrupted page cache profile " + profileFile + ", page count: " + pageCount);
+            }
+            long[] words = new long[wordsFor(pageCount)];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = data.readLong();
+            }
+            return new PageCacheProfile(pageCount, words);
+        }
+    }
+
+    /**
+     * Atomically replace the profile at the given location with this one.
+     */
+    void write(FileSystemAbstraction fs, Path profileFile) throws IOException {
+        fs.mkdirs(profileFile.getParent());
+        Path tempFile = profileFile.resolveSibling(profileFile.getFileName() + TEMP_SUFFIX);
+        try (OutputStream out = fs.openAsOutputStream(tempFile, false);
+                DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeLong(MAGIC);
+            data.writeLong(pageCount);
+            for (long word : words) {
+                data.writeLong(word);
+            }
+        }
+        fs.renameFile(tempFile, profileFile, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    long pageCount() {
+        return pageCount;
+    }
+
+    long residentPages() {
+        long resident = 0;
+        for (long word : words) {
+            resident += Long.bitCount(word);
+        }
+        return resident;
+    }
+
+    /**
+     * @return the id of the first resident page at or after {@code fromPageId}, or {@code -1} if there are none.
+     */
+    long nextResidentPage(long fromPageId) {
+        if (fromPageId >= pageCount) {
+            return -1;
+        }
+        int wordIndex = (int) (fromPageId / BITS_PER_WORD);
+        long word = words[wordIndex] & (-1L << (fromPageId % BITS_PER_WORD));
+        while (word == 0) {
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+        return (long) wordIndex * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @return the number of consecutive resident pages starting at {@code fromPageId}, capped at {@code maxPages}.
+     */
+    int residentRunLength(long fromPageId, int maxPages) {
+        int run = 0;
+        long pageId = fromPageId;
+        while (run < maxPages && pageId < pageCount && isResident(pageId)) {
+            run++;
+            pageId++;
+        }
+        return run;
+    }
+
+    boolean isResident(long pageId) {
+        return pageId >= 0
+                && pageId < pageCount
+                && (words[(int) (pageId / BITS_PER_WORD)] & (1L << (pageId % BITS_PER_WORD))) != 0;
+    }
+
+    private static int wordsFor(long pageCount) {
+        return Math.toIntExact((pageCount + BITS_PER_WORD - 1) / BITS_PER_WORD);
+    }
+}
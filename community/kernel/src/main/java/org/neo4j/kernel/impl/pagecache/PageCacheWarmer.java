@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.pagecache;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.pagecache_warmup_blocking;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_enabled;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_prefetch_allowlist;
+import static org.neo4j.configuration.GraphDatabaseSettings.pagecache_warmup_profiling_interval;
+import static org.neo4j.internal.helpers.Format.duration;
+import static org.neo4j.scheduler.Group.FILE_IO_HELPER;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.regex.Pattern;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.Stopwatch;
+
+/**
+ * Keeps the page cache warm across restarts of a database.
+ * <p>
+ * While the database is running, the warmer periodically records which pages of each of the database's mapped files
+ * are resident in the page cache, and stores those {@link PageCacheProfile profiles} in the {@value #PROFILES_DIRECTORY}
+ * directory of the database. When the database starts again, the recorded pages are loaded back in by a single job, one
+ * file after the other, in file order and in vectored batches through {@link PagedFile#touch(long, int, CursorContext)}.
+ * The job does the loading itself rather than waiting for other {@link Group#FILE_IO_HELPER} jobs, which could starve
+ * that group.
+ * <p>
+ * The warmer is only run when {@link GraphDatabaseInternalSettings#pagecache_warmer_enabled} is set.
+ * <p>
+ * The warmup either runs concurrently with the database accepting traffic, or blocks the database start until it
+ * completes. Progress is reported through {@link PageCacheTracer#warmupPagesPlanned(long)} and
+ * {@link PageCacheTracer#warmupPagesLoaded(long)}.
+ */
+public class PageCacheWarmer extends LifecycleAdapter {
+    public static final String PROFILES_DIRECTORY = "profiles";
+    private static final int MAX_PAGES_PER_TOUCH = 128;
+    private static final String WARMUP_TAG = "pageCacheWarmup";
+    private static final String PROFILE_TAG = "pageCacheProfile";
+
+    private final FileSystemAbstraction fs;
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final Path databaseDirectory;
+    private final String databaseName;
+    private final Config config;
+    private final InternalLog log;
+    private final PageCacheTracer pageCacheTracer;
+    private final CursorContextFactory contextFactory;
+
+    private volatile boolean stopped;
+    private volatile boolean warmingUp;
+    private JobHandle<?> warmupJob;
+    private JobHandle<?> profileJob;
+
+    public PageCacheWarmer(
+            FileSystemAbstraction fs,
+            PageCache pageCache,
+            JobScheduler scheduler,
+            Path databaseDirectory,
+            String databaseName,
+            Config config,
+            InternalLog log,
+            PageCacheTracer pageCacheTracer,
+            CursorContextFactory contextFactory) {
+        this.fs = fs;
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.databaseDirectory = databaseDirectory;
+        this.databaseName = databaseName;
+        this.config = config;
+        this.log = log;
+        this.pageCacheTracer = pageCacheTracer;
+        this.contextFactory = contextFactory;
+    }
+
+    @Override
+    public void start() throws Exception {
+        if (!config.get(pagecache_warmup_enabled)) {
+            return;
+        }
+        stopped = false;
+        warmingUp = true;
+        warmupJob = scheduler.schedule(FILE_IO_HELPER, systemJob(databaseName, "Page cache warmup"), () -> warmUp());
+        if (config.get(pagecache_warmup_blocking)) {
+            warmupJob.waitTermination();
+        }
+        long intervalMillis = config.get(pagecache_warmup_profiling_interval).toMillis();
+        profileJob = scheduler.scheduleRecurring(
+                FILE_IO_HELPER,
+                systemJob(databaseName, "Page cache profiling"),
+                this::profile,
+                intervalMillis,
+                intervalMillis,
+                MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws Exception {
+        stopped = true;
+        if (profileJob != null) {
+            profileJob.cancel();
+            profileJob = null;
+        }
+        if (warmupJob != null) {
+            awaitQuietly(warmupJob);
+            warmupJob = null;
+        }
+        // Wait for any ongoing profiling to notice that we have stopped.
+        synchronized (this) {
+            warmingUp = false;
+        }
+    }
+
+    /**
+     * Record the resident pages of all files mapped by this database.
+     * Profiling is skipped while a warmup is in progress, since it would only record a partially warmed cache.
+     */
+    synchronized void profile() {
+        if (stopped || warmingUp) {
+            return;
+        }
+        try (CursorContext cursorContext = contextFactory.create(PROFILE_TAG)) {
+            for (PagedFile pagedFile : existingMappings()) {
+                if (stopped) {
+                    return;
+                }
+                Path profileFile = profileFile(pagedFile.path());
+                if (profileFile == null) {
+                    continue;
+                }
+                try {
+                    PageCacheProfile profile = PageCacheProfile.capture(pagedFile, cursorContext, () -> stopped);
+                    if (profile != null) {
+                        profile.write(fs, profileFile);
+                    }
+                } catch (FileIsNotMappedException e) {
+                    // The file was unmapped while we were profiling it, there is nothing to keep a profile for.
+                } catch (IOException e) {
+                    log.warn("Failed to write page cache profile of '" + pagedFile.path() + "'.", e);
+                }
+            }
+        }
+    }
+
+    private void warmUp() {
+        try {
+            Stopwatch stopwatch = Stopwatch.start();
+            List<FileWarmup> warmups = planWarmups();
+            long plannedPages = 0;
+            for (FileWarmup warmup : warmups) {
+                plannedPages += warmup.profile.residentPages();
+            }
+            if (plannedPages == 0) {
+                return;
+            }
+            // Never try to load more pages than the cache can hold, that would only evict what we just loaded.
+            long pageBudget = Math.min(plannedPages, pageCache.maxCachedPages());
+            pageCacheTracer.warmupPagesPlanned(pageBudget);
+            log.info("Page cache warmup started. Loading up to %d pages of %d files.", pageBudget, warmups.size());
+
+            long remainingBudget = pageBudget;
+            long loadedPages = 0;
+            for (FileWarmup warmup : warmups) {
+                if (stopped || remainingBudget == 0) {
+                    break;
+                }
+                try {
+                    long loaded = warmUp(warmup, remainingBudget);
+                    remainingBudget -= loaded;
+                    loadedPages += loaded;
+                } catch (IOException e) {
+                    log.warn("Page cache warmup of '" + warmup.pagedFile.path() + "' failed.", e);
+                }
+            }
+            if (stopped) {
+                log.info("Page cache warmup aborted after loading %d pages.", loadedPages);
+            } else {
+                log.info(
+                        "Page cache warmup completed. %d pages loaded. Duration: %s.",
+                        loadedPages, duration(stopwatch.elapsed(MILLISECONDS)));
+            }
+        } finally {
+            warmingUp = false;
+        }
+    }
+
+    private List<FileWarmup> planWarmups() {
+        boolean preload = config.get(pagecache_warmup_prefetch);
+        Pattern allowlist = Pattern.compile(config.get(pagecache_warmup_prefetch_allowlist));
+        List<FileWarmup> warmups = new ArrayList<>();
+        for (PagedFile pagedFile : existingMappings()) {
+            Path profileFile = profileFile(pagedFile.path());
+            if (profileFile == null) {
+                continue;
+            }
+            try {
+                PageCacheProfile profile;
+                if (preload) {
+                    String relativePath =
+                            databaseDirectory.relativize(pagedFile.path()).toString();
+                    profile = allowlist.matcher(relativePath).find()
+                            ? PageCacheProfile.allPages(Math.max(pagedFile.getLastPageId() + 1, 0))
+                            : null;
+                } else {
+                    profile = PageCacheProfile.read(fs, profileFile);
+                }
+                if (profile != null) {
+                    warmups.add(new FileWarmup(pagedFile, profile));
+                }
+            } catch (IOException e) {
+                log.warn("Ignoring page cache profile of '" + pagedFile.path() + "'.", e);
+            }
+        }
+        return warmups;
+    }
+
+    private long warmUp(FileWarmup warmup, long pageBudget) throws IOException {
+        PageCacheProfile profile = warmup.profile;
+        PagedFile pagedFile = warmup.pagedFile;
+        long loaded = 0;
+        try (CursorContext cursorContext = contextFactory.create(WARMUP_TAG)) {
+            long pageId = profile.nextResidentPage(0);
+            while (pageId != -1 && !stopped) {
+                int run = profile.residentRunLength(pageId, MAX_PAGES_PER_TOUCH);
+                int granted = (int) Math.min(run, pageBudget - loaded);
+                if (granted == 0) {
+                    break;
+                }
+                int touched = pagedFile.touch(pageId, granted, cursorContext);
+                pageCacheTracer.warmupPagesLoaded(touched);
+                loaded += touched;
+                if (touched < granted) {
+                    // The file is shorter than when it was profiled.
+                    break;
+                }
+                pageId = profile.nextResidentPage(pageId + run);
+            }
+        } catch (FileIsNotMappedException e) {
+            // The file was unmapped while we were warming it up, so there is nothing more to do for it.
+        }
+        return loaded;
+    }
+
+    private List<PagedFile> existingMappings() {
+        try {
+            return pageCache.listExistingMappings();
+        } catch (IOException e) {
+            log.warn("Unable to list the files mapped by the page cache.", e);
+            return List.of();
+        }
+    }
+
+    private Path profileFile(Path pagedFilePath) {
+        if (!pagedFilePath.startsWith(databaseDirectory)) {
+            return null;
+        }
+        Path relativePath = databaseDirectory.relativize(pagedFilePath);
+        return databaseDirectory
+                .resolve(PROFILES_DIRECTORY)
+                .resolve(relativePath.toString() + PageCacheProfile.PROFILE_SUFFIX);
+    }
+
+    private void awaitQuietly(JobHandle<?> job) {
+        try {
+            job.waitTermination();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Page cache warmup failed.", e.getCause());
+        } catch (RuntimeException e) {
+            // The job was cancelled.
+        }
+    }
+
+    private record FileWarmup(PagedFile pagedFile, PageCacheProfile profile) {}
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.COMPRESSED_PAYLOAD_HEADER_SIZE;
+import static org.neo4j.util.Preconditions.requirePositive;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.util.Native;
+import java.nio.ByteBuffer;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.EnvelopeCodec;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.EnvelopeType;
+
+/**
+ * Compresses the payloads of {@link EnvelopeType#FULL} envelopes written by an {@link EnvelopeWriteChannel}, turning
+ * them into {@link EnvelopeType#FULL_COMPRESSED} envelopes. A payload is only replaced when compressing it actually
+ * saves space, so the decision is made per envelope.
+ * <p>
+ * The compressor also keeps statistics about the envelopes it has seen since the last call to
+ * {@link #takeStatistics()}, which the transaction log uses to report the compression ratio and the time spent
+ * compressing for every log file it rotates away from.
+ * <p>
+ * Instances are not thread safe, and belong to a single write channel.
+ */
+public class EnvelopeCompressor {
+    private static final int COMPRESSION_LEVEL = 1;
+
+    private final int minPayloadSize;
+    private byte[] uncompressed = new byte[0];
+    private byte[] compressed = new byte[0];
+
+    private long envelopes;
+    private long compressedEnvelopes;
+    private long uncompressedBytes;
+    private long storedBytes;
+    private long compressionNanos;
+
+    /**
+     * @param minPayloadSize payloads smaller than this are never compressed.
+     */
+    public EnvelopeCompressor(int minPayloadSize) {
+        this.minPayloadSize = requirePositive(minPayloadSize);
+    }
+
+    /**
+     * @return {@code true} if the native zstd library could be loaded on this platform.
+     */
+    public static boolean isAvailable() {
+        return NativeLibrary.AVAILABLE;
+    }
+
+    /**
+     * Try to compress a payload in place.
+     *
+     * @param buffer the buffer holding the payload.
+     * @param payloadOffset offset of the payload in the buffer.
+     * @param payloadLength length of the uncompressed payload.
+     * @return the new length of the payload, including the {@link EnvelopeType#FULL_COMPRESSED} payload header, or
+     * {@code -1} if the payload was left uncompressed.
+     */
+    int compress(ByteBuffer buffer, int payloadOffset, int payloadLength) {
+        envelopes++;
+        uncompressedBytes += payloadLength;
+        if (payloadLength < minPayloadSize) {
+            storedBytes += payloadLength;
+            return -1;
+        }
+
+        long startNanos = System.nanoTime();
+        if (uncompressed.length < payloadLength) {
+            uncompressed = new byte[payloadLength];
+            compressed = new byte[Math.toIntExact(Zstd.compressBound(payloadLength))];
+        }
+        buffer.get(payloadOffset, uncompressed, 0, payloadLength);
+        long compressedLength = Zstd.compressByteArray(
+                compressed, 0, compressed.length, uncompressed, 0, payloadLength, COMPRESSION_LEVEL);
+        if (Zstd.isError(compressedLength)) {
+            throw new IllegalStateException(
+                    "Failed to compress transaction log envelope: " + Zstd.getErrorName(compressedLength));
+        }
+
+        int storedLength = COMPRESSED_PAYLOAD_HEADER_SIZE + (int) compressedLength;
+        if (storedLength >= payloadLength) {
+            compressionNanos += System.nanoTime() - startNanos;
+            storedBytes += payloadLength;
+            return -1;
+        }
+
+        buffer.put(payloadOffset, EnvelopeCodec.ZSTD.codecValue)
+                .putInt(payloadOffset + Byte.BYTES, payloadLength)
+                .put(payloadOffset + COMPRESSED_PAYLOAD_HEADER_SIZE, compressed, 0, (int) compressedLength);
+        compressionNanos += System.nanoTime() - startNanos;
+        compressedEnvelopes++;
+        storedBytes += storedLength;
+        return storedLength;
+    }
+
+    /**
+     * Decompress the payload of a {@link EnvelopeType#FULL_COMPRESSED} envelope.
+     *
+     * @param codec codec from the compressed payload header.
+     * @param src array holding the compressed data, without the compressed payload header.
+     * @param srcLength length of the compressed data.
+     * @param dst array to decompress into.
+     * @param dstLength expected uncompressed length, from the compressed payload header.
+     * @return {@code true} if the data decompressed into exactly {@code dstLength} bytes.
+     * @throws IllegalStateException if the native library of the codec can not be loaded on this platform, since the
+     * envelope is then unreadable rather than corrupt.
+     */
+    static boolean decompress(EnvelopeCodec codec, byte[] src, int srcLength, byte[] dst, int dstLength) {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Unable to read a compressed transaction log envelope: the native " + codec
+                    + " library is not available on this platform.");
+        }
+        long decompressed =
+                switch (codec) {
+                    case ZSTD -> Zstd.decompressByteArray(dst, 0, dstLength, src, 0, srcLength);
+                };
+        return !Zstd.isError(decompressed) && decompressed == dstLength;
+    }
+
+    /**
+     * @return the statistics gathered since the previous call, and reset them.
+     */
+    public Statistics takeStatistics() {
+        Statistics statistics =
+                new Statistics(envelopes, compressedEnvelopes, uncompressedBytes, storedBytes, compressionNanos);
+        envelopes = 0;
+        compressedEnvelopes = 0;
+        uncompressedBytes = 0;
+        storedBytes = 0;
+        compressionNanos = 0;
+        return statistics;
+    }
+
+    /**
+     * @param envelopes number of single envelope entries that were considered for compression.
+     * @param compressedEnvelopes how many of those that ended up compressed.
+     * @param uncompressedBytes payload bytes of the considered envelopes before compression.
+     * @param storedBytes payload bytes of the considered envelopes as written to the log.
+     * @param compressionNanos time spent compressing.
+     */
+    public record Statistics(
+            long envelopes, long compressedEnvelopes, long uncompressedBytes, long storedBytes, long compressionNanos) {
+        public double compressionRatio() {
+            return storedBytes == 0 ? 1D : (double) uncompressedBytes / storedBytes;
+        }
+    }
+
+    private static final class NativeLibrary {
+        private static final boolean AVAILABLE = load();
+
+        private static boolean load() {
+            try {
+                Native.load();
+                return Native.isLoaded();
+            } catch (Throwable t) {
+                return false;
+            }
+        }
+    }
+}
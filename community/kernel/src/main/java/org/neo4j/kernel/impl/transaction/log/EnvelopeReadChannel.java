@@ -23,6 +23,7 @@ import static java.lang.Math.min;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.util.Objects.requireNonNull;
 import static org.neo4j.io.fs.ChecksumWriter.CHECKSUM_FACTORY;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.COMPRESSED_PAYLOAD_HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.IGNORE_KERNEL_VERSION;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.MAX_ZERO_PADDING_SIZE;
@@ -41,6 +42,7 @@ import org.neo4j.io.memory.NativeScopedBuffer;
 import org.neo4j.io.memory.ScopedBuffer;
 import org.neo4j.kernel.impl.transaction.log.entry.InvalidLogEnvelopeReadException;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader;
+import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.EnvelopeCodec;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.EnvelopeType;
 import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
@@ -78,6 +80,12 @@ import org.neo4j.util.VisibleForTesting;
  *               payloadStartOffset     payloadEndOffset
  * </pre>
  *
+ * The payload of a {@link EnvelopeType#FULL_COMPRESSED} envelope is decompressed as soon as its header has been read,
+ * and the entry is then read from the decompressed copy. Positions inside such a payload can not be expressed as file
+ * offsets, so while it is being read {@link #position()} reports the start of the payload, and once all of it has been
+ * read, the end of it. Since a compressed envelope always holds exactly one complete entry, the positions of entries
+ * are the same as they would be for an uncompressed log.
+ *
  * @see LogEnvelopeHeader
  * @see EnvelopeType
  * @see EnvelopeWriteChannel
@@ -95,6 +103,12 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     private final ByteBuffer checksumView;
     private final int segmentShift;
     private final int segmentMask;
+    private byte[] compressedPayload = new byte[0];
+    private byte[] decompressedPayload = new byte[0];
+    // The decompressed payload of the current envelope, if it is a compressed one.
+    private ByteBuffer decompressed;
+    // Where the payload of the current envelope is read from. Either the segment buffer or the decompressed payload.
+    private ByteBuffer payload;
 
     private LogVersionedStoreChannel channel;
     // The log file header of the current file.
@@ -146,6 +160,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         this.scopedBuffer = scopedBuffer;
         try {
             this.buffer = scopedBuffer.getBuffer();
+            this.payload = buffer;
             this.checksumView = buffer.duplicate().order(buffer.order());
 
             long startPosition = channel.position();
@@ -186,7 +201,8 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
      */
     @Override
     public long position() {
-        return (currentSegment * segmentBlockSize) + buffer.position();
+        int bufferPosition = payload != buffer && !payload.hasRemaining() ? payloadEndOffset : buffer.position();
+        return (currentSegment * segmentBlockSize) + bufferPosition;
     }
 
     @Override
@@ -242,7 +258,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         }
         checkState(newBufferOffset == 0 || newBufferOffset <= payloadEndOffset, "Invalid end of payload.");
 
-        buffer.position(Math.max(newBufferOffset, payloadStartOffset));
+        positionInPayload(newBufferOffset);
     }
 
     /**
@@ -273,7 +289,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         readAllEnvelopesUpToIncluding(newBufferOffset, true);
         checkState(newBufferOffset == 0 || newBufferOffset <= payloadEndOffset, "Invalid end of payload.");
 
-        buffer.position(Math.max(newBufferOffset, payloadStartOffset));
+        positionInPayload(newBufferOffset);
         return previousChecksum;
     }
 
@@ -328,37 +344,37 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     @Override
     public byte get() throws IOException {
         ensureDataExists(Byte.BYTES);
-        return buffer.get();
+        return payload.get();
     }
 
     @Override
     public short getShort() throws IOException {
         ensureDataExists(Short.BYTES);
-        return buffer.getShort();
+        return payload.getShort();
     }
 
     @Override
     public int getInt() throws IOException {
         ensureDataExists(Integer.BYTES);
-        return buffer.getInt();
+        return payload.getInt();
     }
 
     @Override
     public long getLong() throws IOException {
         ensureDataExists(Long.BYTES);
-        return buffer.getLong();
+        return payload.getLong();
     }
 
     @Override
     public float getFloat() throws IOException {
         ensureDataExists(Float.BYTES);
-        return buffer.getFloat();
+        return payload.getFloat();
     }
 
     @Override
     public double getDouble() throws IOException {
         ensureDataExists(Double.BYTES);
-        return buffer.getDouble();
+        return payload.getDouble();
     }
 
     @Override
@@ -372,8 +388,8 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
                     readEnvelopeHeader();
                 }
 
-                final var chunkSize = min(payloadEndOffset - buffer.position(), length - bytesRead);
-                buffer.get(bytes, bytesRead, chunkSize);
+                final var chunkSize = min(payloadRemaining(), length - bytesRead);
+                payload.get(bytes, bytesRead, chunkSize);
                 bytesRead += chunkSize;
             }
         } catch (ClosedChannelException e) {
@@ -400,7 +416,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         do {
             skipToNextEnvelope();
             readEnvelopeHeader();
-        } while (payloadType != EnvelopeType.FULL && payloadType != EnvelopeType.BEGIN);
+        } while (!payloadType.isStarting());
         return position() - HEADER_SIZE;
     }
 
@@ -425,6 +441,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         // We need to skip the first checksum chain check as we don't know the previous checksum.
         enforceChecksumChain = false;
         payloadVersion = IGNORE_KERNEL_VERSION;
+        payload = buffer;
         buffer.position(0);
         payloadStartOffset = 0;
         payloadEndOffset = 0;
@@ -487,9 +504,31 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     }
 
     private void skipToNextEnvelope() {
+        payload = buffer;
         buffer.position(payloadEndOffset);
     }
 
+    /**
+     * Position the reader at the given offset within the current envelope, which is either its payload or the end of
+     * the segment data read so far. Only the start of a compressed payload can be positioned at, from where reading
+     * restarts from the beginning of the decompressed payload.
+     */
+    private void positionInPayload(int bufferOffset) {
+        int offset = Math.max(bufferOffset, payloadStartOffset);
+        if (payloadType == EnvelopeType.FULL_COMPRESSED && offset < payloadEndOffset) {
+            checkState(offset == payloadStartOffset, "Can not position inside a compressed envelope.");
+            payload = decompressed.position(0);
+            buffer.position(payloadStartOffset);
+        } else {
+            payload = buffer;
+            buffer.position(offset);
+        }
+    }
+
+    private int payloadRemaining() {
+        return payload != buffer ? payload.remaining() : payloadEndOffset - buffer.position();
+    }
+
     private void ensureDataExists(int requestedNumberOfBytes) throws IOException {
         try {
             if (checkForEndOfEnvelope()) {
@@ -516,14 +555,21 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     }
 
     private void bufferCheck(int requestedNumberOfBytes) throws IOException {
-        if (buffer.remaining() < requestedNumberOfBytes) {
+        if (payload.remaining() < requestedNumberOfBytes) {
             throw new InvalidLogEnvelopeReadException(
                     "Entry underflow. %d bytes was requested but only %d are available."
-                            .formatted(requestedNumberOfBytes, buffer.remaining()));
+                            .formatted(requestedNumberOfBytes, payload.remaining()));
         }
     }
 
     private boolean checkForEndOfEnvelope() {
+        if (payload != buffer) {
+            if (payload.hasRemaining()) {
+                return false;
+            }
+            // The whole decompressed payload has been read, continue after the envelope in the segment
+            skipToNextEnvelope();
+        }
         assert buffer.position() <= payloadEndOffset : "Should not read past envelope";
         return buffer.position() == payloadEndOffset;
     }
@@ -572,6 +618,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     protected void readEnvelopeHeader() throws IOException {
         int nextEnvelopeChecksum;
         EnvelopeType nextEnvelopeType;
+        payload = buffer;
 
         // Loop until we find the next header, or throws read past end exception
         while (true) {
@@ -648,6 +695,43 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
         if (readChecksum != nextEnvelopeChecksum) {
             throw new ChecksumMismatchException(nextEnvelopeChecksum, readChecksum);
         }
+
+        if (nextEnvelopeType == EnvelopeType.FULL_COMPRESSED) {
+            decompressPayload();
+        }
+    }
+
+    private void decompressPayload() throws IOException {
+        int storedLength = payloadEndOffset - payloadStartOffset;
+        if (storedLength <= COMPRESSED_PAYLOAD_HEADER_SIZE) {
+            throw new InvalidLogEnvelopeReadException(
+                    "Compressed envelope payload of %d bytes is too small to hold any data.".formatted(storedLength));
+        }
+        EnvelopeCodec codec = EnvelopeCodec.of(buffer.get(payloadStartOffset));
+        int uncompressedLength = buffer.getInt(payloadStartOffset + Byte.BYTES);
+        if (uncompressedLength <= 0 || uncompressedLength > segmentBlockSize) {
+            throw new InvalidLogEnvelopeReadException(
+                    "Invalid uncompressed length %d of compressed envelope, segmentBlockSize=%d"
+                            .formatted(uncompressedLength, segmentBlockSize));
+        }
+
+        int compressedLength = storedLength - COMPRESSED_PAYLOAD_HEADER_SIZE;
+        if (compressedPayload.length < compressedLength) {
+            compressedPayload = new byte[segmentBlockSize];
+        }
+        if (decompressedPayload.length < uncompressedLength) {
+            decompressedPayload = new byte[segmentBlockSize];
+        }
+        buffer.get(payloadStartOffset + COMPRESSED_PAYLOAD_HEADER_SIZE, compressedPayload, 0, compressedLength);
+        if (!EnvelopeCompressor.decompress(
+                codec, compressedPayload, compressedLength, decompressedPayload, uncompressedLength)) {
+            throw new InvalidLogEnvelopeReadException("Failed to decompress %s envelope of %d bytes into %d bytes."
+                    .formatted(codec, compressedLength, uncompressedLength));
+        }
+        decompressed = ByteBuffer.wrap(decompressedPayload, 0, uncompressedLength)
+                .slice()
+                .order(buffer.order());
+        payload = decompressed;
     }
 
     private void nextSegment() throws IOException {
@@ -728,6 +812,7 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
     }
 
     private int loadSegmentIntoBuffer(long newSegment) throws IOException {
+        payload = buffer;
         buffer.clear();
         channel.position(newSegment * segmentBlockSize);
         int totalRead = 0;
@@ -762,10 +847,10 @@ public class EnvelopeReadChannel implements ReadableLogChannel {
                     readEnvelopeHeader();
                 }
 
-                final var chunkSize = min(payloadEndOffset - buffer.position(), length - bytesRead);
-                dst.put(dst.position(), buffer, buffer.position(), chunkSize);
+                final var chunkSize = min(payloadRemaining(), length - bytesRead);
+                dst.put(dst.position(), payload, payload.position(), chunkSize);
                 dst.position(dst.position() + chunkSize);
-                buffer.position(buffer.position() + chunkSize);
+                payload.position(payload.position() + chunkSize);
                 bytesRead += chunkSize;
             }
         } catch (ClosedChannelException e) {
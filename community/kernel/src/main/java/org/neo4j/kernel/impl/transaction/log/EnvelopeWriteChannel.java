@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
+import static org.neo4j.kernel.KernelVersion.VERSION_COMPRESSED_LOG_ENVELOPES_INTRODUCED;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.HEADER_SIZE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.IGNORE_KERNEL_VERSION;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEnvelopeHeader.MAX_ZERO_PADDING_SIZE;
@@ -77,6 +78,10 @@ import org.neo4j.util.VisibleForTesting;
  * <p/>
  * Since we write the envelope header as part of completing an envelope, calling {@link #prepareForFlush()} will
  * <strong>only</strong> flush up until the <em>last completed envelope</em>.
+ * <p/>
+ * With an {@link EnvelopeCompressor}, entries that fit in a single envelope have their payload compressed when the
+ * envelope is completed, and are written as {@link EnvelopeType#FULL_COMPRESSED} envelopes instead. Entries that span
+ * multiple envelopes are always written uncompressed.
  */
 public class EnvelopeWriteChannel implements PhysicalLogChannel {
 
@@ -104,6 +109,7 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
     private final ScopedBuffer scopedBuffer;
     private final LogRotation logRotation;
     private final DatabaseTracer databaseTracer;
+    private final EnvelopeCompressor compressor;
     private final ByteBuffer buffer;
     private final ByteBuffer checksumView;
     private final int segmentBlockSize;
@@ -131,6 +137,23 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
             DatabaseTracer databaseTracer,
             LogRotation logRotation)
             throws IOException {
+        this(channel, scopedBuffer, segmentBlockSize, initialChecksum, currentIndex, databaseTracer, logRotation, null);
+    }
+
+    /**
+     * @param compressor compressor for the payloads of single envelope entries, or {@code null} to write all
+     *                   envelopes uncompressed.
+     */
+    public EnvelopeWriteChannel(
+            StoreChannel channel,
+            ScopedBuffer scopedBuffer,
+            int segmentBlockSize,
+            int initialChecksum,
+            long currentIndex,
+            DatabaseTracer databaseTracer,
+            LogRotation logRotation,
+            EnvelopeCompressor compressor)
+            throws IOException {
         this.channel = requireNonNull(channel);
         this.scopedBuffer = requireNonNull(scopedBuffer);
         this.previousChecksum = initialChecksum;
@@ -138,6 +161,7 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
         this.segmentBlockSize = segmentBlockSize;
         this.logRotation = requireNonNull(logRotation);
         this.databaseTracer = requireNonNull(databaseTracer);
+        this.compressor = compressor;
         this.buffer = scopedBuffer.getBuffer();
         this.checksumView = buffer.duplicate().order(buffer.order());
         this.currentIndex = currentIndex;
@@ -394,7 +418,7 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
      */
     private void completeEnvelope(boolean end) {
         EnvelopeType type = completedEnvelopeType(begin, end);
-        final int payLoadLength = currentPayloadLength();
+        int payLoadLength = currentPayloadLength();
         if (payLoadLength == 0) {
             checkState(
                     (nextSegmentOffset - currentEnvelopeStart) <= MAX_ZERO_PADDING_SIZE,
@@ -404,6 +428,18 @@ public class EnvelopeWriteChannel implements PhysicalLogChannel {
             buffer.position(currentEnvelopeStart);
             return;
         }
+        // Older kernel versions can not read compressed envelopes, so they are only written once the kernel is upgraded
+        if (type == EnvelopeType.FULL
+                && compressor != null
+                && currentVersion >= VERSION_COMPRESSED_LOG_ENVELOPES_INTRODUCED.version()) {
+            int payloadOffset = currentEnvelopeStart + HEADER_SIZE;
+            int compressedLength = compressor.compress(buffer, payloadOffset, payLoadLength);
+            if (compressedLength != -1) {
+                type = EnvelopeType.FULL_COMPRESSED;
+                payLoadLength = compressedLength;
+                buffer.position(payloadOffset + compressedLength);
+            }
+        }
         writeHeader(type, payLoadLength);
         begin = end;
         if (end) {
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Hands out read-only memory mappings of sealed log files, i.e. files that have been rotated away from and will not
+ * change anymore, to {@link MappedLogChannel}.
+ */
+public interface LogFileMappings {
+    LogFileMappings NO_MAPPINGS = new LogFileMappings() {
+        @Override
+        public ByteBuffer acquire(LogVersionedStoreChannel channel) {
+            return null;
+        }
+
+        @Override
+        public void release(long version) {}
+    };
+
+    /**
+     * Acquire a mapping of the whole file that the given channel reads from. Every successful acquire must be
+     * followed by a {@link #release(long)} of the same version once the returned buffer is no longer used.
+     *
+     * @param channel channel of the log file to map.
+     * @return a little endian view of the mapped file, positioned at the current position of the channel, or
+     * {@code null} if the file can not be mapped, for example since it is still being written to.
+     * @throws IOException if the file could not be mapped, or if the channel is positioned beyond the end of the file.
+     */
+    ByteBuffer acquire(LogVersionedStoreChannel channel) throws IOException;
+
+    /**
+     * Release a mapping previously handed out by {@link #acquire(LogVersionedStoreChannel)}.
+     *
+     * @param version version of the mapped log file.
+     */
+    void release(long version);
+}
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.log;
 
 import static java.lang.String.format;
 import static java.time.Instant.ofEpochMilli;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.neo4j.internal.helpers.Format.date;
 import static org.neo4j.internal.helpers.Format.duration;
 
@@ -117,6 +118,22 @@ public class LoggingLogFileMonitor
         }
     }
 
+    @Override
+    public void parallelRecoveryCompleted(
+            long recoveredBatches,
+            long conflictingBatches,
+            long recoveryTimeInMilliseconds,
+            long applierIdleTimeInMilliseconds) {
+        log.info(format(
+                "Parallel recovery applied %d batches at %.1f batches/s, %d of them (%.1f%%) waited for a conflicting "
+                        + "batch. Applier idle time: %s.",
+                recoveredBatches,
+                recoveredBatches * 1000.0 / Math.max(1, recoveryTimeInMilliseconds),
+                conflictingBatches,
+                conflictingBatches * 100.0 / Math.max(1, recoveredBatches),
+                duration(applierIdleTimeInMilliseconds)));
+    }
+
     @Override
     public void noCommitsAfterLastCheckPoint(LogPosition logPosition) {
         log.info(format(
@@ -159,6 +176,20 @@ public class LoggingLogFileMonitor
         log.info(sb.append('.').toString());
     }
 
+    @Override
+    public void compressedLogFileRotated(long logVersion, EnvelopeCompressor.Statistics statistics) {
+        log.info(format(
+                "Transaction log version=%d compressed %d of %d single envelope entries, from %d to %d bytes "
+                        + "(ratio %.2f). Time spent compressing: %s.",
+                logVersion,
+                statistics.compressedEnvelopes(),
+                statistics.envelopes(),
+                statistics.uncompressedBytes(),
+                statistics.storedBytes(),
+                statistics.compressionRatio(),
+                duration(NANOSECONDS.toMillis(statistics.compressionNanos()))));
+    }
+
     private void trackTxId(long txId) {
         minObservedTransaction = Math.min(minObservedTransaction, txId);
         maxObservedTransaction = Math.max(maxObservedTransaction, txId);
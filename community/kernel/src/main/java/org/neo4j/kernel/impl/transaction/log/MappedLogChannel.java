@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+import static org.neo4j.io.fs.ChecksumWriter.CHECKSUM_FACTORY;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.zip.Checksum;
+import org.neo4j.io.fs.ChecksumMismatchException;
+import org.neo4j.io.fs.ReadPastEndException;
+import org.neo4j.kernel.impl.transaction.log.entry.LogFormat;
+import org.neo4j.memory.MemoryTracker;
+
+/**
+ * A {@link ReadableLogChannel} reading sealed log files straight from read-only memory mappings, with no read system
+ * calls and no copying into an intermediate read-ahead buffer. It behaves exactly like a {@link ReadAheadLogChannel}
+ * over the same files.
+ * <p>
+ * Files are mapped through {@link LogFileMappings} as the channel moves from one log file to the next. Once it
+ * reaches a file that can not be mapped, typically the file currently being written to, it hands over the rest of the
+ * reading to a {@link ReadAheadLogChannel}.
+ * <p>
+ * Entries never span log files, so values are never split between two mappings.
+ */
+public class MappedLogChannel implements ReadableLogChannel {
+    private final Checksum checksum = CHECKSUM_FACTORY.get();
+    private final LogFileMappings mappings;
+    private final LogVersionBridge bridge;
+    private final MemoryTracker memoryTracker;
+    private final boolean raw;
+
+    private LogVersionedStoreChannel channel;
+    // The mapping of the current file, or null once reading has been handed over to the fallback channel
+    private ByteBuffer mapped;
+    private int checksumStart;
+    private ReadAheadLogChannel fallback;
+
+    /**
+     * @param channel the channel of the first file to read from.
+     * @param mapped the mapping of that file, as acquired from {@code mappings}, positioned where reading should start.
+     */
+    public MappedLogChannel(
+            LogVersionedStoreChannel channel,
+            ByteBuffer mapped,
+            LogFileMappings mappings,
+            LogVersionBridge bridge,
+            MemoryTracker memoryTracker,
+            boolean raw) {
+        this.channel = requireNonNull(channel);
+        this.mapped = requireNonNull(mapped);
+        this.mappings = requireNonNull(mappings);
+        this.bridge = requireNonNull(bridge);
+        this.memoryTracker = requireNonNull(memoryTracker);
+        this.raw = raw;
+        this.checksumStart = mapped.position();
+    }
+
+    @Override
+    public long getLogVersion() {
+        return fallback != null ? fallback.getLogVersion() : channel.getLogVersion();
+    }
+
+    @Override
+    public LogFormat getLogFormatVersion() {
+        return fallback != null ? fallback.getLogFormatVersion() : channel.getLogFormatVersion();
+    }
+
+    @Override
+    public byte get() throws IOException {
+        if (ensureDataExists(Byte.BYTES)) {
+            return mapped.get();
+        }
+        return fallback.get();
+    }
+
+    @Override
+    public short getShort() throws IOException {
+        if (ensureDataExists(Short.BYTES)) {
+            return mapped.getShort();
+        }
+        return fallback.getShort();
+    }
+
+    @Override
+    public int getInt() throws IOException {
+        if (ensureDataExists(Integer.BYTES)) {
+            return mapped.getInt();
+        }
+        return fallback.getInt();
+    }
+
+    @Override
+    public long getLong() throws IOException {
+        if (ensureDataExists(Long.BYTES)) {
+            return mapped.getLong();
+        }
+        return fallback.getLong();
+    }
+
+    @Override
+    public float getFloat() throws IOException {
+        if (ensureDataExists(Float.BYTES)) {
+            return mapped.getFloat();
+        }
+        return fallback.getFloat();
+    }
+
+    @Override
+    public double getDouble() throws IOException {
+        if (ensureDataExists(Double.BYTES)) {
+            return mapped.getDouble();
+        }
+        return fallback.getDouble();
+    }
+
+    @Override
+    public void get(byte[] bytes, int length) throws IOException {
+        assert length <= bytes.length;
+        int bytesGotten = 0;
+        while (bytesGotten < length) {
+            if (!ensureDataExists(Byte.BYTES)) {
+                byte[] rest = new byte[length - bytesGotten];
+                fallback.get(rest, rest.length);
+                System.arraycopy(rest, 0, bytes, bytesGotten, rest.length);
+                return;
+            }
+            int chunkSize = min(mapped.remaining(), length - bytesGotten);
+            mapped.get(bytes, bytesGotten, chunkSize);
+            bytesGotten += chunkSize;
+        }
+    }
+
+    @Override
+    public byte getVersion() throws IOException {
+        return get();
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int length = dst.remaining();
+        while (dst.hasRemaining()) {
+            if (!ensureDataExists(Byte.BYTES)) {
+                fallback.read(dst);
+                break;
+            }
+            int chunkSize = min(mapped.remaining(), dst.remaining());
+            dst.put(dst.position(), mapped, mapped.position(), chunkSize);
+            dst.position(dst.position() + chunkSize);
+            mapped.position(mapped.position() + chunkSize);
+        }
+        return length;
+    }
+
+    @Override
+    public byte markAndGetVersion(LogPositionMarker marker) throws IOException {
+        if (fallback != null) {
+            return fallback.markAndGetVersion(marker);
+        }
+        long version = channel.getLogVersion();
+        getCurrentLogPosition(marker);
+        byte data = getVersion();
+        if (!marker.isMarkerInLog(getLogVersion()) || fallback != null) {
+            // reading the byte moved the channel to the next log - re-mark at the correct location
+            marker.mark(getLogVersion(), position() - Byte.BYTES);
+        }
+        assert version <= getLogVersion();
+        return data;
+    }
+
+    @Override
+    public LogPositionMarker getCurrentLogPosition(LogPositionMarker positionMarker) throws IOException {
+        positionMarker.mark(getLogVersion(), position());
+        return positionMarker;
+    }
+
+    @Override
+    public LogPosition getCurrentLogPosition() throws IOException {
+        return new LogPosition(getLogVersion(), position());
+    }
+
+    @Override
+    public void setLogPosition(LogPositionMarker positionMarker) throws IOException {
+        if (positionMarker.getLogVersion() != getLogVersion()) {
+            throw new IllegalArgumentException("Log position points log version %d but the current one is %d"
+                    .formatted(positionMarker.getLogVersion(), getLogVersion()));
+        }
+        position(positionMarker.getByteOffset());
+    }
+
+    @Override
+    public void setCurrentPosition(long byteOffset) throws IOException {
+        position(byteOffset);
+    }
+
+    @Override
+    public long position() throws IOException {
+        return fallback != null ? fallback.position() : mapped.position();
+    }
+
+    @Override
+    public void position(long byteOffset) throws IOException {
+        if (fallback != null) {
+            fallback.position(byteOffset);
+            return;
+        }
+        assertOpen();
+        mapped.position((int) min(byteOffset, mapped.limit()));
+        beginChecksum();
+    }
+
+    @Override
+    public void beginChecksum() {
+        if (fallback != null) {
+            fallback.beginChecksum();
+            return;
+        }
+        checksum.reset();
+        checksumStart = mapped.position();
+    }
+
+    @Override
+    public int getChecksum() {
+        if (fallback != null) {
+            return fallback.getChecksum();
+        }
+        updateChecksum();
+        return (int) checksum.getValue();
+    }
+
+    @Override
+    public int endChecksumAndValidate() throws IOException {
+        if (!ensureDataExists(Integer.BYTES)) {
+            return fallback.endChecksumAndValidate();
+        }
+        updateChecksum();
+        int calculatedChecksum = (int) checksum.getValue();
+        int storedChecksum = mapped.getInt();
+        if (calculatedChecksum != storedChecksum) {
+            throw new ChecksumMismatchException(storedChecksum, calculatedChecksum);
+        }
+        beginChecksum();
+        return calculatedChecksum;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return fallback != null ? fallback.isOpen() : channel != null && channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fallback != null) {
+            fallback.close();
+            fallback = null;
+        }
+        if (mapped != null) {
+            mapped = null;
+            mappings.release(channel.getLogVersion());
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void updateChecksum() {
+        int position = mapped.position();
+        checksum.update(mapped.duplicate().position(checksumStart).limit(position));
+        checksumStart = position;
+    }
+
+    /**
+     * @return {@code true} if the requested number of bytes can be read from the current mapping, or {@code false} if
+     * reading has been handed over to the {@link #fallback} channel.
+     */
+    private boolean ensureDataExists(int requestedNumberOfBytes) throws IOException {
+        if (fallback != null) {
+            return false;
+        }
+        assertOpen();
+        while (mapped.remaining() < requestedNumberOfBytes) {
+            if (mapped.hasRemaining()) {
+                // Not enough data left in this file, and the rest of the value will not be found in the next file
+                throw ReadPastEndException.INSTANCE;
+            }
+            LogVersionedStoreChannel nextChannel = bridge.next(channel, raw);
+            if (nextChannel == channel) {
+                throw ReadPastEndException.INSTANCE;
+            }
+
+            // Carry the checksum calculation over to the next file
+            updateChecksum();
+            mappings.release(channel.getLogVersion());
+            mapped = null;
+            channel = nextChannel;
+            ByteBuffer nextMapping = mappings.acquire(nextChannel);
+            if (nextMapping == null) {
+                fallback = new ReadAheadLogChannel(nextChannel, bridge, memoryTracker, raw);
+                channel = null;
+                return false;
+            }
+            mapped = nextMapping;
+            checksumStart = mapped.position();
+        }
+        return true;
+    }
+
+    private void assertOpen() throws ClosedChannelException {
+        if (channel == null || !channel.isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+}
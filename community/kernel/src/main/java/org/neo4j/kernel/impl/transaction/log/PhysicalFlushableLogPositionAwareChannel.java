@@ -218,12 +218,25 @@ public class PhysicalFlushableLogPositionAwareChannel implements FlushableLogPos
         private final LogRotation logRotation;
         private final DatabaseTracer databaseTracer;
         private final ScopedBuffer buffer;
+        private final EnvelopeCompressor compressor;
 
         public VersionedPhysicalFlushableLogChannelProvider(
                 LogRotation logRotation, DatabaseTracer databaseTracer, ScopedBuffer buffer) {
+            this(logRotation, databaseTracer, buffer, null);
+        }
+
+        /**
+         * @param compressor compressor used for envelope format log files, or {@code null} to not compress them.
+         */
+        public VersionedPhysicalFlushableLogChannelProvider(
+                LogRotation logRotation,
+                DatabaseTracer databaseTracer,
+                ScopedBuffer buffer,
+                EnvelopeCompressor compressor) {
             this.logRotation = requireNonNull(logRotation);
             this.databaseTracer = requireNonNull(databaseTracer);
             this.buffer = requireNonNull(buffer);
+            this.compressor = compressor;
         }
 
         @Override
@@ -265,7 +278,8 @@ public class PhysicalFlushableLogPositionAwareChannel implements FlushableLogPos
                         EnvelopeWriteChannel
                                 .START_INDEX, // Not correct index from cluster perspective -  not needed yet.
                         databaseTracer,
-                        logRotation);
+                        logRotation,
+                        compressor);
             } else {
                 return new PhysicalFlushableLogChannel(logChannel, buffer);
             }
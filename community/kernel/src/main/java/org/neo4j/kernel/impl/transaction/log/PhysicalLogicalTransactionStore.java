@@ -93,11 +93,15 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
             var headerVisitor = new TransactionLogVersionLocator(transactionIdToStartFrom);
             logFile.accept(headerVisitor);
 
-            // ask LogFile
-            var transactionPositionLocator =
-                    new TransactionOrEndPositionLocator(transactionIdToStartFrom, logEntryReader);
-            logFile.accept(transactionPositionLocator, headerVisitor.getLogPositionOrThrow());
-            var position = transactionPositionLocator.getLogPosition();
+            // ask LogFile, starting from the closest indexed transaction in that version if there is one
+            var logStartPosition = headerVisitor.getLogPositionOrThrow();
+            var searchStartPosition = logFile.closestIndexedPosition(transactionIdToStartFrom, logStartPosition);
+            var locator = locateTransaction(transactionIdToStartFrom, logEntryReader, searchStartPosition);
+            if (locator.isChunkedTransaction() && !searchStartPosition.equals(logStartPosition)) {
+                // the first chunk of a chunked transaction can precede the closest indexed transaction
+                locator = locateTransaction(transactionIdToStartFrom, logEntryReader, logStartPosition);
+            }
+            LogPosition position = locator.getLogPosition();
             transactionMetadataCache.cacheTransactionMetadata(transactionIdToStartFrom, position);
             return new CommittedCommandBatchCursor(logFile.getReader(position), logEntryReader);
         } catch (NoSuchFileException e) {
@@ -108,4 +112,12 @@ public class PhysicalLogicalTransactionStore implements LogicalTransactionStore
                     e);
         }
     }
+
+    private TransactionOrEndPositionLocator locateTransaction(
+            long transactionId, VersionAwareLogEntryReader logEntryReader, LogPosition searchStartPosition)
+            throws IOException {
+        var transactionPositionLocator = new TransactionOrEndPositionLocator(transactionId, logEntryReader);
+        logFile.accept(transactionPositionLocator, searchStartPosition);
+        return transactionPositionLocator;
+    }
 }
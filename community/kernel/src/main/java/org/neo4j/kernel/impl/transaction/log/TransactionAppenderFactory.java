@@ -48,6 +48,7 @@ public class TransactionAppenderFactory {
                     databasePanic,
                     appendIndexProvider,
                     metadataCache,
+                    config,
                     scheduler,
                     logProvider);
             return new QueueTransactionAppender(queue);
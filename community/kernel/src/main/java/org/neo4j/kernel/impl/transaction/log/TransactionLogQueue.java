@@ -19,21 +19,30 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.locks.LockSupport.parkNanos;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.group_commit_max_batch_bytes;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.group_commit_max_delay;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.log_writer_pipeline_depth;
 import static org.neo4j.internal.helpers.Exceptions.throwIfUnchecked;
 
+import java.io.Flushable;
 import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
 import java.util.Arrays;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.locks.LockSupport;
 import org.jctools.queues.MessagePassingQueue;
 import org.jctools.queues.MpscUnboundedXaddArrayQueue;
+import org.jctools.queues.SpscArrayQueue;
+import org.neo4j.configuration.Config;
 import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.kernel.impl.transaction.log.files.LogFile;
 import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.rotation.LogRotation;
 import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.transaction.tracing.LogForceEvent;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.logging.InternalLogProvider;
@@ -58,9 +67,14 @@ public class TransactionLogQueue extends LifecycleAdapter {
     private final TransactionMetadataCache metadataCache;
     private final MpscUnboundedXaddArrayQueue<TxQueueElement> txAppendQueue;
     private final JobScheduler jobScheduler;
+    private final long groupCommitMaxDelayNanos;
+    private final long groupCommitMaxBatchBytes;
+    private final int pipelineDepth;
     private final InternalLog log;
     private TransactionWriter transactionWriter;
     private Thread logAppender;
+    private LogForcer logForcer;
+    private Thread logForcerThread;
     private volatile boolean stopped;
 
     public TransactionLogQueue(
@@ -69,6 +83,7 @@ public class TransactionLogQueue extends LifecycleAdapter {
             Panic databasePanic,
             AppendIndexProvider appendIndexProvider,
             TransactionMetadataCache metadataCache,
+            Config config,
             JobScheduler jobScheduler,
             InternalLogProvider logProvider) {
         this.logFiles = logFiles;
@@ -79,6 +94,9 @@ public class TransactionLogQueue extends LifecycleAdapter {
         this.metadataCache = metadataCache;
         this.txAppendQueue = new MpscUnboundedXaddArrayQueue<>(INITIAL_CAPACITY);
         this.jobScheduler = jobScheduler;
+        this.groupCommitMaxDelayNanos = config.get(group_commit_max_delay).toNanos();
+        this.groupCommitMaxBatchBytes = config.get(group_commit_max_batch_bytes);
+        this.pipelineDepth = config.get(log_writer_pipeline_depth);
         this.stopped = true;
         this.log = logProvider.getLog(getClass());
     }
@@ -99,6 +117,12 @@ public class TransactionLogQueue extends LifecycleAdapter {
 
     @Override
     public synchronized void start() {
+        if (pipelineDepth > 0) {
+            logForcer = new LogForcer(pipelineDepth, groupCommitMaxDelayNanos, databasePanic, log);
+            logForcerThread = jobScheduler.threadFactory(Group.LOG_WRITER).newThread(logForcer);
+            logForcer.thread = logForcerThread;
+            logForcerThread.start();
+        }
         transactionWriter = new TransactionWriter(
                 txAppendQueue,
                 logFiles.getLogFile(),
@@ -107,7 +131,10 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 logRotation,
                 log,
                 appendIndexProvider,
-                metadataCache);
+                metadataCache,
+                groupCommitMaxDelayNanos,
+                groupCommitMaxBatchBytes,
+                logForcer);
         logAppender = jobScheduler.threadFactory(Group.LOG_WRITER).newThread(transactionWriter);
         logAppender.start();
         stopped = false;
@@ -125,6 +152,13 @@ public class TransactionLogQueue extends LifecycleAdapter {
         if (appender != null) {
             appender.join();
         }
+
+        // Only stop forcing once the writer is done, so every batch it handed over is completed
+        LogForcer forcer = this.logForcer;
+        if (forcer != null) {
+            forcer.stop();
+            logForcerThread.join();
+        }
     }
 
     static class TxQueueElement {
@@ -173,6 +207,9 @@ public class TransactionLogQueue extends LifecycleAdapter {
     }
 
     private static class TransactionWriter implements Runnable {
+        private static final long GROUP_COMMIT_PARK_NANOS = MICROSECONDS.toNanos(10);
+        private static final int ESTIMATE_SHIFT = 3;
+
         private final MpscUnboundedXaddArrayQueue<TxQueueElement> txQueue;
         private final TransactionLogWriter transactionLogWriter;
         private final LogFile logFile;
@@ -184,6 +221,13 @@ public class TransactionLogQueue extends LifecycleAdapter {
         private final TransactionMetadataCache metadataCache;
         private volatile boolean stopped;
         private final MessagePassingQueue.WaitStrategy waitStrategy;
+        private final long groupCommitMaxDelayNanos;
+        private final long groupCommitMaxBatchBytes;
+        private final LogForcer logForcer;
+        // Moving averages of the time between transaction arrivals, and of the time a log force takes.
+        private long arrivalIntervalNanos = Long.MAX_VALUE;
+        private long forceNanos;
+        private long lastBatchStartNanos;
 
         TransactionWriter(
                 MpscUnboundedXaddArrayQueue<TxQueueElement> txQueue,
@@ -193,7 +237,10 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 LogRotation logRotation,
                 InternalLog log,
                 AppendIndexProvider appendIndexProvider,
-                TransactionMetadataCache metadataCache) {
+                TransactionMetadataCache metadataCache,
+                long groupCommitMaxDelayNanos,
+                long groupCommitMaxBatchBytes,
+                LogForcer logForcer) {
             this.txQueue = txQueue;
             this.transactionLogWriter = logFile.getTransactionLogWriter();
             this.logFile = logFile;
@@ -204,6 +251,11 @@ public class TransactionLogQueue extends LifecycleAdapter {
             this.metadataCache = metadataCache;
             this.log = log;
             this.waitStrategy = new SpinParkCombineWaitingStrategy();
+            this.groupCommitMaxDelayNanos = groupCommitMaxDelayNanos;
+            this.groupCommitMaxBatchBytes = groupCommitMaxBatchBytes;
+            this.logForcer = logForcer;
+            this.forceNanos = groupCommitMaxDelayNanos;
+            this.lastBatchStartNanos = System.nanoTime();
         }
 
         @Override
@@ -217,15 +269,26 @@ public class TransactionLogQueue extends LifecycleAdapter {
                     int drainedElements = txQueue.drain(txConsumer, CONSUMER_MAX_BATCH);
                     if (drainedElements > 0) {
                         idleCounter = 0;
+                        long batchStartNanos = System.nanoTime();
                         txConsumer.processBatch();
+                        long waitNanos = awaitGroupCommit(txConsumer, batchStartNanos);
 
-                        LogAppendEvent logAppendEvent = txConsumer.txElements[drainedElements - 1].logAppendEvent;
+                        LogAppendEvent logAppendEvent = txConsumer.lastElement().logAppendEvent;
+                        logAppendEvent.groupCommit(txConsumer.index, txConsumer.batchBytes, waitNanos);
                         boolean logRotated = logRotation.locklessRotateLogIfNeeded(logAppendEvent);
                         logAppendEvent.setLogRotated(logRotated);
-                        if (!logRotated) {
-                            logFile.locklessForce(logAppendEvent);
+                        if (logForcer != null) {
+                            // Rotation already forced everything that was appended to the previous log file
+                            Flushable flushable = logRotated ? null : logFile.locklessPrepareForFlush();
+                            logForcer.submit(new ForceRequest(txConsumer.takeBatch(), flushable, logAppendEvent));
+                        } else {
+                            if (!logRotated) {
+                                long forceStartNanos = System.nanoTime();
+                                logFile.locklessForce(logAppendEvent);
+                                forceNanos = movingAverage(forceNanos, System.nanoTime() - forceStartNanos);
+                            }
+                            txConsumer.takeBatch().complete();
                         }
-                        txConsumer.complete();
                     } else {
                         idleCounter = waitStrategy.idle(idleCounter);
                     }
@@ -243,6 +306,48 @@ public class TransactionLogQueue extends LifecycleAdapter {
             }
         }
 
+        /**
+         * Hold back the force of the current batch for a while, appending transactions that arrive in the meantime to
+         * the same batch. We only wait when transactions arrive often enough that at least one more can be expected to
+         * join, and never longer than a force takes, since by then a separate force could have completed instead.
+         *
+         * @return time spent waiting for more transactions.
+         */
+        private long awaitGroupCommit(TxConsumer txConsumer, long batchStartNanos) throws IOException {
+            long sinceLastBatch = batchStartNanos - lastBatchStartNanos;
+            lastBatchStartNanos = batchStartNanos;
+            if (groupCommitMaxDelayNanos == 0) {
+                return 0;
+            }
+            long interval = sinceLastBatch / txConsumer.index;
+            arrivalIntervalNanos =
+                    arrivalIntervalNanos == Long.MAX_VALUE ? interval : movingAverage(arrivalIntervalNanos, interval);
+            long window = Math.min(groupCommitMaxDelayNanos, logForcer != null ? logForcer.forceNanos : forceNanos);
+            if (arrivalIntervalNanos >= window) {
+                return 0;
+            }
+
+            long startNanos = System.nanoTime();
+            long deadline = startNanos + window;
+            long now = startNanos;
+            while (now < deadline
+                    && !stopped
+                    && txConsumer.index < CONSUMER_MAX_BATCH
+                    && txConsumer.batchBytes < groupCommitMaxBatchBytes) {
+                if (txQueue.drain(txConsumer, CONSUMER_MAX_BATCH - txConsumer.index) > 0) {
+                    txConsumer.processBatch();
+                } else {
+                    parkNanos(Math.min(deadline - now, GROUP_COMMIT_PARK_NANOS));
+                }
+                now = System.nanoTime();
+            }
+            return now - startNanos;
+        }
+
+        private static long movingAverage(long average, long sample) {
+            return average + ((sample - average) >> ESTIMATE_SHIFT);
+        }
+
         private static class TxConsumer implements MessagePassingQueue.Consumer<TxQueueElement> {
             private final Panic databasePanic;
             private final TransactionLogWriter transactionLogWriter;
@@ -251,9 +356,10 @@ public class TransactionLogQueue extends LifecycleAdapter {
             private final AppendIndexProvider appendIndexProvider;
             private final TransactionMetadataCache metadataCache;
             private final TxQueueElement[] txElements = new TransactionLogQueue.TxQueueElement[CONSUMER_MAX_BATCH];
+            private final long[] batchTxIds = new long[CONSUMER_MAX_BATCH];
             private int index;
-            private TxQueueElement[] elements;
-            private long[] txIds;
+            private int appended;
+            private long batchBytes;
 
             TxConsumer(
                     Panic databasePanic,
@@ -273,14 +379,14 @@ public class TransactionLogQueue extends LifecycleAdapter {
                 txElements[index++] = txQueueElement;
             }
 
+            /**
+             * Append the elements that were drained since the last call to the transaction log.
+             */
             private void processBatch() throws IOException {
                 databasePanic.assertNoPanic(IOException.class);
                 int drainedElements = index;
-                elements = new TxQueueElement[drainedElements];
-                txIds = new long[drainedElements];
-                for (int i = 0; i < drainedElements; i++) {
+                for (int i = appended; i < drainedElements; i++) {
                     TxQueueElement txQueueElement = txElements[i];
-                    elements[i] = txQueueElement;
                     LogAppendEvent logAppendEvent = txQueueElement.logAppendEvent;
                     long lastTransactionId = TransactionIdStore.BASE_TX_ID;
                     try (var appendEvent = logAppendEvent.beginAppendTransaction(drainedElements)) {
@@ -291,12 +397,17 @@ public class TransactionLogQueue extends LifecycleAdapter {
                             commands = commands.next();
                             lastTransactionId = transactionId;
                         }
-                        txIds[i] = lastTransactionId;
+                        batchTxIds[i] = lastTransactionId;
                     } catch (Exception e) {
                         throwIfUnchecked(e);
                         throw new RuntimeException(e);
                     }
                 }
+                appended = drainedElements;
+            }
+
+            private TxQueueElement lastElement() {
+                return txElements[index - 1];
             }
 
             private void appendToLog(
@@ -314,27 +425,34 @@ public class TransactionLogQueue extends LifecycleAdapter {
                         checksum,
                         commandBatchToApply.previousBatchLogPosition());
                 var logPositionAfterCommit = transactionLogWriter.getCurrentPosition();
-                logAppendEvent.appendedBytes(transactionLogWriter.getAppendedBytes());
+                long appendedBytes = transactionLogWriter.getAppendedBytes();
+                batchBytes += appendedBytes;
+                logAppendEvent.appendedBytes(appendedBytes);
                 commandBatchToApply.batchAppended(
                         appendIndex, logPositionBeforeCommit, logPositionAfterCommit, checksum);
             }
 
-            public void complete() {
-                TxQueueElement first = txElements[0];
-                first.elementsToNotify = elements;
-                first.txIds = txIds;
-                LockSupport.unpark(first.executor);
-
-                Arrays.fill(txElements, 0, index, null);
-                index = 0;
+            /**
+             * Hand over the appended elements, to be completed once they are forced, and start on a new batch.
+             */
+            public AppendedBatch takeBatch() {
+                var batch = new AppendedBatch(Arrays.copyOf(txElements, index), Arrays.copyOf(batchTxIds, index));
+                reset();
+                return batch;
             }
 
             public void cancelBatch(Throwable t) {
                 for (int i = 0; i < index; i++) {
                     txElements[i].fail(t);
                 }
+                reset();
+            }
+
+            private void reset() {
                 Arrays.fill(txElements, 0, index, null);
                 index = 0;
+                appended = 0;
+                batchBytes = 0;
             }
         }
 
@@ -343,6 +461,131 @@ public class TransactionLogQueue extends LifecycleAdapter {
         }
     }
 
+    /**
+     * Transactions that were appended to the transaction log together, with the ids they were committed as.
+     */
+    private record AppendedBatch(TxQueueElement[] elements, long[] txIds) {
+        void complete() {
+            TxQueueElement first = elements[0];
+            first.elementsToNotify = elements;
+            first.txIds = txIds;
+            LockSupport.unpark(first.executor);
+        }
+
+        void fail(Throwable t) {
+            for (TxQueueElement element : elements) {
+                element.fail(t);
+            }
+        }
+    }
+
+    /**
+     * A batch that has been written to the log file, and is waiting to be forced.
+     *
+     * @param flushable forces the log file the batch was written to, or {@code null} if the log was rotated right
+     * after the batch, which already forced it.
+     */
+    private record ForceRequest(AppendedBatch batch, Flushable flushable, LogAppendEvent logAppendEvent) {}
+
+    /**
+     * Forces the transaction log on behalf of the {@link TransactionWriter}, so that it can serialize and write the
+     * next batches while the previous ones are being forced. Batches are completed in the order they were written.
+     * <p>
+     * Every request was written before it was handed over, so a single force covers all requests that are waiting
+     * when it starts. Requests on a log file that was rotated away from were forced by the rotation, which is why
+     * forcing the file of the last request is enough.
+     */
+    private static class LogForcer implements Runnable {
+        private final SpscArrayQueue<ForceRequest> requests;
+        private final ForceRequest[] forceBatch;
+        private final Panic databasePanic;
+        private final InternalLog log;
+        private final MessagePassingQueue.WaitStrategy waitStrategy = new SpinParkCombineWaitingStrategy();
+        private volatile Thread thread;
+        private volatile boolean stopped;
+        // Moving average of the time a log force takes, for the group commit of the writer
+        private volatile long forceNanos;
+
+        LogForcer(int pipelineDepth, long initialForceNanos, Panic databasePanic, InternalLog log) {
+            this.requests = new SpscArrayQueue<>(pipelineDepth);
+            this.forceBatch = new ForceRequest[requests.capacity()];
+            this.forceNanos = initialForceNanos;
+            this.databasePanic = databasePanic;
+            this.log = log;
+        }
+
+        /**
+         * Hand over a written batch, waiting for a free slot in the pipeline if there is none.
+         */
+        void submit(ForceRequest request) {
+            while (!requests.offer(request)) {
+                LockSupport.unpark(thread);
+                parkNanos(TransactionWriter.GROUP_COMMIT_PARK_NANOS);
+            }
+            LockSupport.unpark(thread);
+        }
+
+        @Override
+        public void run() {
+            int idleCounter = 0;
+            while (true) {
+                boolean stopping = stopped;
+                int count = 0;
+                ForceRequest request;
+                while (count < forceBatch.length && (request = requests.poll()) != null) {
+                    forceBatch[count++] = request;
+                }
+                if (count == 0) {
+                    if (stopping) {
+                        return;
+                    }
+                    idleCounter = waitStrategy.idle(idleCounter);
+                    continue;
+                }
+                idleCounter = 0;
+                forceAndComplete(count);
+            }
+        }
+
+        private void forceAndComplete(int count) {
+            try {
+                // Batches that were written after a failed force must not be completed either
+                databasePanic.assertNoPanic(IOException.class);
+                ForceRequest last = forceBatch[count - 1];
+                if (last.flushable() != null) {
+                    force(last);
+                }
+                for (int i = 0; i < count; i++) {
+                    forceBatch[i].batch().complete();
+                }
+            } catch (Throwable t) {
+                log.error("Transaction log force failure.", t);
+                databasePanic.panic(t);
+                for (int i = 0; i < count; i++) {
+                    forceBatch[i].batch().fail(t);
+                }
+            } finally {
+                Arrays.fill(forceBatch, 0, count, null);
+            }
+        }
+
+        private void force(ForceRequest request) throws IOException {
+            long startNanos = System.nanoTime();
+            try (LogForceEvent ignored = request.logAppendEvent().beginLogForce()) {
+                request.flushable().flush();
+            } catch (ClosedChannelException ignored) {
+                // The writer rotated the log after handing over this request, and rotation forces the log file before
+                // closing it.
+            }
+            forceNanos = TransactionWriter.movingAverage(forceNanos, System.nanoTime() - startNanos);
+        }
+
+        void stop() {
+            stopped = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
     /**
      * Message wait strategy that will try to wait at first for number of times for new work by using Thread.onSpinWait, and fallback to parkNanos
      * if new work did not arrive.
@@ -35,12 +35,22 @@ public class TransactionLogWriter {
     private final FlushableLogPositionAwareChannel channel;
     private final LogEntryWriter<FlushableLogPositionAwareChannel> writer;
     private final KernelVersionProvider versionProvider;
+    private final TransactionPositionListener positionListener;
+    private final LogPositionMarker positionMarker = new LogPositionMarker();
 
     public TransactionLogWriter(
             FlushableLogPositionAwareChannel channel,
             KernelVersionProvider versionProvider,
             BinarySupportedKernelVersions binarySupportedKernelVersions) {
-        this(channel, new LogEntryWriter<>(channel, binarySupportedKernelVersions), versionProvider);
+        this(channel, versionProvider, binarySupportedKernelVersions, TransactionPositionListener.NO_LISTENER);
+    }
+
+    public TransactionLogWriter(
+            FlushableLogPositionAwareChannel channel,
+            KernelVersionProvider versionProvider,
+            BinarySupportedKernelVersions binarySupportedKernelVersions,
+            TransactionPositionListener positionListener) {
+        this(channel, new LogEntryWriter<>(channel, binarySupportedKernelVersions), versionProvider, positionListener);
     }
 
     @VisibleForTesting
@@ -48,9 +58,18 @@ public class TransactionLogWriter {
             FlushableLogPositionAwareChannel channel,
             LogEntryWriter<FlushableLogPositionAwareChannel> writer,
             KernelVersionProvider versionProvider) {
+        this(channel, writer, versionProvider, TransactionPositionListener.NO_LISTENER);
+    }
+
+    private TransactionLogWriter(
+            FlushableLogPositionAwareChannel channel,
+            LogEntryWriter<FlushableLogPositionAwareChannel> writer,
+            KernelVersionProvider versionProvider,
+            TransactionPositionListener positionListener) {
         this.channel = channel;
         this.writer = writer;
         this.versionProvider = versionProvider;
+        this.positionListener = positionListener;
     }
 
     /*
@@ -83,6 +102,9 @@ public class TransactionLogWriter {
         }
 
         if (batch.isFirst()) {
+            if (batch.isLast()) {
+                reportTransactionStart(transactionId, appendIndex);
+            }
             writer.writeStartEntry(
                     kernelVersion,
                     batch.getTimeStarted(),
@@ -106,9 +128,21 @@ public class TransactionLogWriter {
     }
 
     public int append(CommittedCommandBatch commandBatch) throws IOException {
+        CommandBatch batch = commandBatch.commandBatch();
+        if (!commandBatch.isRollback() && batch.isFirst() && batch.isLast()) {
+            reportTransactionStart(commandBatch.txId(), commandBatch.appendIndex());
+        }
         return commandBatch.serialize(writer);
     }
 
+    private void reportTransactionStart(long transactionId, long appendIndex) throws IOException {
+        if (positionListener != TransactionPositionListener.NO_LISTENER) {
+            channel.getCurrentLogPosition(positionMarker);
+            positionListener.transactionStart(
+                    transactionId, appendIndex, positionMarker.getLogVersion(), positionMarker.getByteOffset());
+        }
+    }
+
     public LogPosition getCurrentPosition() throws IOException {
         return channel.getCurrentLogPosition();
     }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log;
 
+import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.CHUNK_START;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_COMMIT;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogEntryTypeCodes.TX_START;
 
@@ -33,6 +34,7 @@ public class TransactionOrEndPositionLocator implements LogFile.LogFileVisitor {
     private final long startTransactionId;
     private final LogEntryReader logEntryReader;
     private LogPosition position;
+    private boolean chunkedTransaction;
 
     public TransactionOrEndPositionLocator(long startTransactionId, LogEntryReader logEntryReader) {
         this.startTransactionId = startTransactionId;
@@ -43,12 +45,24 @@ public class TransactionOrEndPositionLocator implements LogFile.LogFileVisitor {
     public boolean visit(ReadableLogPositionAwareChannel channel) throws IOException {
         LogEntry logEntry;
         LogEntryStart startEntry = null;
+        boolean inChunk = false;
         while ((logEntry = logEntryReader.readLogEntry(channel)) != null) {
             switch (logEntry.getType()) {
-                case TX_START -> startEntry = (LogEntryStart) logEntry;
+                case TX_START -> {
+                    startEntry = (LogEntryStart) logEntry;
+                    inChunk = false;
+                }
+                case CHUNK_START -> inChunk = true;
                 case TX_COMMIT -> {
                     LogEntryCommit commit = (LogEntryCommit) logEntry;
                     if (commit.getTxId() == startTransactionId) {
+                        chunkedTransaction = inChunk;
+                        if (chunkedTransaction) {
+                            // The start entry of the transaction is in its first chunk, which may precede where
+                            // the search started, so the position is left to whoever can search from further back.
+                            position = startEntry == null ? null : startEntry.getStartPosition();
+                            return false;
+                        }
                         if (startEntry == null) {
                             throw new IllegalStateException("Commit log entry wasn't proceeded by a start log entry.");
                         }
@@ -64,6 +78,14 @@ public class TransactionOrEndPositionLocator implements LogFile.LogFileVisitor {
         return true;
     }
 
+    /**
+     * @return {@code true} if the transaction was found, and was appended in chunks. Its start entry is in its first
+     * chunk, which is only found if the search started before that chunk.
+     */
+    public boolean isChunkedTransaction() {
+        return chunkedTransaction;
+    }
+
     public LogPosition getLogPosition() throws NoSuchTransactionException {
         if (position == null) {
             throw new NoSuchTransactionException(startTransactionId);
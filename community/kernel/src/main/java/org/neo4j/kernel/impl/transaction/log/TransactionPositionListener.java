@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+/**
+ * Told where every complete transaction appended through a {@link TransactionLogWriter} starts in the log. Chunked
+ * transactions and rollbacks are not reported.
+ */
+@FunctionalInterface
+public interface TransactionPositionListener {
+    TransactionPositionListener NO_LISTENER = (transactionId, appendIndex, logVersion, byteOffset) -> {};
+
+    /**
+     * Called right before the transaction is written, on the appending thread.
+     *
+     * @param transactionId id of the transaction.
+     * @param appendIndex append index of the transaction.
+     * @param logVersion version of the log file where the start entry of the transaction is written.
+     * @param byteOffset offset in that file where the start entry of the transaction is written.
+     */
+    void transactionStart(long transactionId, long appendIndex, long logVersion, long byteOffset);
+}
@@ -29,6 +29,7 @@ import java.util.stream.Stream;
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.time.SystemNanoClock;
 
@@ -79,7 +80,11 @@ public interface CheckPointThreshold {
      * Create and configure a {@link CheckPointThreshold} based on the given configurations.
      */
     static CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider) {
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DatabaseTracer databaseTracer) {
         String policyName = config.get(check_point_policy).name().toLowerCase(Locale.ROOT);
         CheckPointThresholdPolicy policy;
         try {
@@ -93,7 +98,7 @@ public interface CheckPointThreshold {
                             e);
             policy = new PeriodicThresholdPolicy();
         }
-        return policy.createThreshold(config, clock, logPruning, logProvider);
+        return policy.createThreshold(config, clock, logPruning, logProvider, databaseTracer);
     }
 
     /**
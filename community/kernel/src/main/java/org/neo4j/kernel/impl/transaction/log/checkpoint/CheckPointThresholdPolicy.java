@@ -24,6 +24,7 @@ import org.neo4j.annotations.service.Service;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.service.NamedService;
 import org.neo4j.service.Services;
@@ -35,7 +36,8 @@ import org.neo4j.time.SystemNanoClock;
  *
  * The is determined by the {@link GraphDatabaseSettings#check_point_policy} setting, and
  * based on this, the concrete policies are loaded and used to
- * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, InternalLogProvider) create} the final and fully
+ * {@link CheckPointThreshold#createThreshold(Config, SystemNanoClock, LogPruning, InternalLogProvider, DatabaseTracer)
+ * create} the final and fully
  * configured check point thresholds.
  */
 @Service
@@ -53,5 +55,9 @@ public interface CheckPointThresholdPolicy extends NamedService {
      * Create a {@link CheckPointThreshold} instance based on this policy and the given configurations.
      */
     CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider);
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DatabaseTracer databaseTracer);
 }
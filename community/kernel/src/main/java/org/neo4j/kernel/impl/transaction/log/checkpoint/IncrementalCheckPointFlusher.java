@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_incremental_flush_enabled;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_incremental_flush_interval;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.checkpoint_incremental_flush_target;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+import java.io.IOException;
+import org.neo4j.configuration.Config;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.FileIsNotMappedException;
+import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
+import org.neo4j.io.pagecache.tracing.FileFlushEvent;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * Writes the dirty pages of a database back to its store files at a steady rate in the background, so that a
+ * checkpoint only has a small residual of dirty pages left to flush, instead of everything that was dirtied since the
+ * previous checkpoint.
+ * <p>
+ * Every pass visits the mapped files of the database once, and writes back up to a budget of dirty pages with
+ * {@link PagedFile#flushDirtyPages(long, FileFlushEvent)}. The budget follows from two measurements of the previous
+ * passes: the rate at which pages are dirtied, which the flusher keeps up with, and the backlog of dirty pages that
+ * were left over, which the flusher works off within the configured target time. The pages are written through the
+ * files of the database, so the writes are limited by the IO controller of the database, just like checkpoints.
+ * <p>
+ * Writing a dirty page back early is no different from evicting it. Only checkpoints force the store files and move
+ * the point that recovery starts from.
+ */
+public class IncrementalCheckPointFlusher extends LifecycleAdapter {
+    /**
+     * Weight of the most recent pass in the smoothed dirty page rate.
+     */
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final PageCache pageCache;
+    private final JobScheduler scheduler;
+    private final PageCacheTracer pageCacheTracer;
+    private final SystemNanoClock clock;
+    private final Config config;
+    private final String databaseName;
+    private final InternalLog log;
+
+    private volatile boolean stopped;
+    private JobHandle<?> flushJob;
+    private long lastPassNanos;
+    private long remainingDirtyPages;
+    private double dirtyPagesPerSecond;
+
+    public IncrementalCheckPointFlusher(
+            PageCache pageCache,
+            JobScheduler scheduler,
+            PageCacheTracer pageCacheTracer,
+            SystemNanoClock clock,
+            Config config,
+            String databaseName,
+            InternalLog log) {
+        this.pageCache = pageCache;
+        this.scheduler = scheduler;
+        this.pageCacheTracer = pageCacheTracer;
+        this.clock = clock;
+        this.config = config;
+        this.databaseName = databaseName;
+        this.log = log;
+    }
+
+    @Override
+    public void start() {
+        if (!config.get(checkpoint_incremental_flush_enabled)) {
+            return;
+        }
+        stopped = false;
+        synchronized (this) {
+            lastPassNanos = clock.nanos();
+        }
+        long intervalNanos = config.get(checkpoint_incremental_flush_interval).toNanos();
+        flushJob = scheduler.scheduleRecurring(
+                Group.CHECKPOINT,
+                systemJob(databaseName, "Incremental checkpoint flush"),
+                this::flush,
+                intervalNanos,
+                intervalNanos,
+                NANOSECONDS);
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        if (flushJob != null) {
+            flushJob.cancel();
+            flushJob = null;
+        }
+        // Wait for any ongoing pass to notice that we have stopped.
+        synchronized (this) {
+            remainingDirtyPages = 0;
+            dirtyPagesPerSecond = 0;
+        }
+    }
+
+    /**
+     * Write back one budget of dirty pages, and update the dirty page rate and backlog from what this pass found.
+     */
+    synchronized void flush() {
+        if (stopped) {
+            return;
+        }
+        long now = clock.nanos();
+        double elapsedSeconds = Math.max(1, now - lastPassNanos) / 1_000_000_000d;
+        lastPassNanos = now;
+
+        long budget = pageBudget(elapsedSeconds);
+        long remainingBudget = budget;
+        long dirtyPages = 0;
+        long leftDirtyPages = 0;
+        try (DatabaseFlushEvent flushEvent = pageCacheTracer.beginDatabaseFlush()) {
+            for (PagedFile pagedFile : pageCache.listExistingMappings()) {
+                if (stopped) {
+                    return;
+                }
+                try (FileFlushEvent fileFlushEvent = flushEvent.beginFileFlush()) {
+                    dirtyPages += pagedFile.dirtyPages();
+                    remainingBudget -= pagedFile.flushDirtyPages(remainingBudget, fileFlushEvent);
+                    leftDirtyPages += pagedFile.dirtyPages();
+                } catch (FileIsNotMappedException e) {
+                    // The file was unmapped while we were flushing it, and unmapping flushed it completely.
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Incremental checkpoint flush failed, dirty pages are left to the next checkpoint.", e);
+            return;
+        }
+
+        // Every dirty page beyond what the previous pass left was dirtied in between. Pages written back by
+        // checkpoints and eviction in the meantime are still counted until we visit them, which the rate smooths out.
+        long dirtied = Math.max(0, dirtyPages - remainingDirtyPages);
+        dirtyPagesPerSecond += RATE_SMOOTHING * (dirtied / elapsedSeconds - dirtyPagesPerSecond);
+        remainingDirtyPages = leftDirtyPages;
+    }
+
+    /**
+     * @return the number of pages to write back in a pass that covers the given time: the pages we expect to be
+     * dirtied in that time, plus the share of the backlog that keeps us on track to work it off within the target.
+     */
+    long pageBudget(double elapsedSeconds) {
+        double targetSeconds = config.get(checkpoint_incremental_flush_target).toMillis() / 1000d;
+        double pagesPerSecond = dirtyPagesPerSecond + remainingDirtyPages / targetSeconds;
+        return Math.max(1, (long) Math.ceil(pagesPerSecond * elapsedSeconds));
+    }
+
+    double dirtyPagesPerSecond() {
+        return dirtyPagesPerSecond;
+    }
+
+    long remainingDirtyPages() {
+        return remainingDirtyPages;
+    }
+}
@@ -25,6 +25,7 @@ import org.neo4j.annotations.service.ServiceProvider;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.time.SystemNanoClock;
 
@@ -41,7 +42,11 @@ public class PeriodicThresholdPolicy implements CheckPointThresholdPolicy {
 
     @Override
     public CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider) {
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DatabaseTracer databaseTracer) {
         int txThreshold = config.get(GraphDatabaseSettings.check_point_interval_tx);
         final CountCommittedTransactionThreshold countCommittedTransactionThreshold =
                 new CountCommittedTransactionThreshold(txThreshold);
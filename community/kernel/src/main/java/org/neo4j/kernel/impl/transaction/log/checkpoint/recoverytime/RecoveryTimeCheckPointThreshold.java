@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import static org.neo4j.internal.helpers.Format.duration;
+
+import java.util.concurrent.TimeUnit;
+import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.AbstractCheckPointThreshold;
+import org.neo4j.kernel.impl.transaction.stats.TransactionLogCounters;
+import org.neo4j.kernel.impl.transaction.tracing.CheckPointTracer;
+
+/**
+ * Triggers a checkpoint when recovery from the last checkpoint is estimated to take longer than a target duration.
+ * <p>
+ * Recovery replays the transaction logs from the last checkpoint, and applying the transactions to the store is what
+ * takes time. The estimate is therefore the volume of transaction logs written since the last checkpoint, divided by
+ * the rate at which transaction logs are applied to the store. That rate is observed while the database is running, as
+ * the bytes appended to the transaction logs per nanosecond spent applying transactions, and smoothed over time. Until
+ * the first transactions have been applied, a configured default rate is used.
+ * <p>
+ * Every estimate is reported to the {@link CheckPointTracer}, which exposes it as a metric.
+ */
+public class RecoveryTimeCheckPointThreshold extends AbstractCheckPointThreshold {
+    /**
+     * Weight of the most recent observation in the smoothed apply rate.
+     */
+    private static final double RATE_SMOOTHING = 0.2;
+
+    private final long targetMillis;
+    private final long fileSizeBytes;
+    private final long defaultBytesPerSecond;
+    private final TransactionLogCounters logCounters;
+    private final CheckPointTracer checkPointTracer;
+    private volatile LogPosition checkpointLogPosition;
+    private volatile long estimatedRecoveryMillis = -1;
+
+    private long observedAppendedBytes;
+    private long observedApplyNanos;
+    private double bytesPerSecond = -1;
+
+    public RecoveryTimeCheckPointThreshold(
+            long targetMillis,
+            long fileSizeBytes,
+            long defaultBytesPerSecond,
+            TransactionLogCounters logCounters,
+            CheckPointTracer checkPointTracer) {
+        super("recovery time estimated above " + duration(targetMillis) + ".");
+        this.targetMillis = targetMillis;
+        this.fileSizeBytes = fileSizeBytes;
+        this.defaultBytesPerSecond = defaultBytesPerSecond;
+        this.logCounters = logCounters;
+        this.checkPointTracer = checkPointTracer;
+    }
+
+    @Override
+    protected boolean thresholdReached(long lastCommittedTransactionId, LogPosition logPosition) {
+        long bytes = bytesSince(checkpointLogPosition, logPosition);
+        long estimate = (long) (bytes * 1000d / applyBytesPerSecond());
+        estimatedRecoveryMillis = estimate;
+        checkPointTracer.recoveryTimeEstimated(estimate);
+        return bytes > 0 && estimate >= targetMillis;
+    }
+
+    @Override
+    protected String createCheckpointThresholdDescription(String description) {
+        return description + " Estimated recovery time: " + duration(estimatedRecoveryMillis) + ".";
+    }
+
+    @Override
+    public void initialize(long transactionId, LogPosition logPosition) {
+        checkpointLogPosition = logPosition;
+        synchronized (this) {
+            observedAppendedBytes = logCounters.appendedBytes();
+            observedApplyNanos = logCounters.storeApplyTimeNanos();
+        }
+    }
+
+    @Override
+    public void checkPointHappened(long transactionId, LogPosition logPosition) {
+        checkpointLogPosition = logPosition;
+    }
+
+    @Override
+    public long checkFrequencyMillis() {
+        return TimeUnit.SECONDS.toMillis(1);
+    }
+
+    long estimatedRecoveryMillis() {
+        return estimatedRecoveryMillis;
+    }
+
+    /**
+     * @return the smoothed rate, in bytes of transaction log per second, at which transactions were applied to the
+     * store since the previous call.
+     */
+    synchronized double applyBytesPerSecond() {
+        long appendedBytes = logCounters.appendedBytes();
+        long applyNanos = logCounters.storeApplyTimeNanos();
+        long bytesDelta = appendedBytes - observedAppendedBytes;
+        long nanosDelta = applyNanos - observedApplyNanos;
+        if (bytesDelta > 0 && nanosDelta > 0) {
+            double observed = bytesDelta * 1_000_000_000d / nanosDelta;
+            bytesPerSecond =
+                    bytesPerSecond < 0 ? observed : bytesPerSecond + RATE_SMOOTHING * (observed - bytesPerSecond);
+            observedAppendedBytes = appendedBytes;
+            observedApplyNanos = applyNanos;
+        }
+        return bytesPerSecond < 0 ? defaultBytesPerSecond : bytesPerSecond;
+    }
+
+    private long bytesSince(LogPosition checkpointPosition, LogPosition logPosition) {
+        long files = logPosition.getLogVersion() - checkpointPosition.getLogVersion();
+        long offset = logPosition.getByteOffset() - checkpointPosition.getByteOffset();
+        return Math.max(0, files * fileSizeBytes + offset);
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.checkpoint.recoverytime;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
+import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThresholdPolicy;
+import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
+import org.neo4j.logging.InternalLogProvider;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * The {@code recovery_time} check point threshold policy checkpoints when recovery from the last checkpoint is
+ * estimated to take longer than {@link GraphDatabaseSettings#check_point_interval_recovery_time}.
+ */
+@ServiceProvider
+public class RecoveryTimeThresholdPolicy implements CheckPointThresholdPolicy {
+    @Override
+    public String getName() {
+        return "recovery_time";
+    }
+
+    @Override
+    public CheckPointThreshold createThreshold(
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DatabaseTracer databaseTracer) {
+        long targetMillis = config.get(GraphDatabaseSettings.check_point_interval_recovery_time)
+                .toMillis();
+        long logFileSize = config.get(GraphDatabaseSettings.logical_log_rotation_threshold);
+        long defaultReplayRate = config.get(GraphDatabaseInternalSettings.checkpoint_recovery_time_default_replay_rate);
+        return new RecoveryTimeCheckPointThreshold(
+                targetMillis, logFileSize, defaultReplayRate, databaseTracer, databaseTracer);
+    }
+}
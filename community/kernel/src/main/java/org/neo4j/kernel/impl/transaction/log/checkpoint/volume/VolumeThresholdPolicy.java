@@ -25,6 +25,7 @@ import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThreshold;
 import org.neo4j.kernel.impl.transaction.log.checkpoint.CheckPointThresholdPolicy;
 import org.neo4j.kernel.impl.transaction.log.pruning.LogPruning;
+import org.neo4j.kernel.impl.transaction.tracing.DatabaseTracer;
 import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.time.SystemNanoClock;
 
@@ -37,7 +38,11 @@ public class VolumeThresholdPolicy implements CheckPointThresholdPolicy {
 
     @Override
     public CheckPointThreshold createThreshold(
-            Config config, SystemNanoClock clock, LogPruning logPruning, InternalLogProvider logProvider) {
+            Config config,
+            SystemNanoClock clock,
+            LogPruning logPruning,
+            InternalLogProvider logProvider,
+            DatabaseTracer databaseTracer) {
         long checkpointIntervalVolume = config.get(GraphDatabaseSettings.check_point_interval_volume);
         long logFileSize = config.get(GraphDatabaseSettings.logical_log_rotation_threshold);
         return new VolumeCheckPointThreshold(checkpointIntervalVolume, logFileSize);
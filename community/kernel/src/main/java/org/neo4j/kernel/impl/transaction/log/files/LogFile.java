@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import java.io.Flushable;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
@@ -67,6 +68,17 @@ public interface LogFile extends RotatableFile {
      */
     ReadableLogChannel getReader(LogPosition position) throws IOException;
 
+    /**
+     * Find where to start looking for a transaction in the log file of the version of {@code logStartPosition},
+     * using the transaction position index written for log files that have been rotated away from.
+     *
+     * @param transactionId id of the transaction to look for.
+     * @param logStartPosition position of the first entry in the log file that contains the transaction.
+     * @return the start position of the closest indexed transaction before or at the given one in the same log file, or
+     * {@code logStartPosition} if there is none.
+     */
+    LogPosition closestIndexedPosition(long transactionId, LogPosition logStartPosition);
+
     /**
      * Opens a {@link ReadableLogChannel reader} at the desired {@link LogPosition}, capable of reading log entries
      * from that position and onwards, through physical log versions.
@@ -138,6 +150,14 @@ public interface LogFile extends RotatableFile {
 
     void locklessForce(LogForceEvents logAppendEvents) throws IOException;
 
+    /**
+     * Write everything that was appended so far to the log file, without forcing it. Like
+     * {@link #locklessForce(LogForceEvents)}, this is meant for a single dedicated appender.
+     *
+     * @return the flushable that forces the written data when flushed, which can be done from another thread.
+     */
+    Flushable locklessPrepareForFlush() throws IOException;
+
     void flush() throws IOException;
 
     void truncate() throws IOException;
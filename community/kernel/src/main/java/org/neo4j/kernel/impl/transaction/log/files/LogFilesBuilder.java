@@ -56,6 +56,7 @@ import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.HealthEventGenerator;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.AppendIndexProvider;
 import org.neo4j.storageengine.ReadOnlyLogVersionRepository;
 import org.neo4j.storageengine.api.CommandReaderFactory;
@@ -104,6 +105,7 @@ public class LogFilesBuilder {
     private Monitors monitors;
     private StoreId storeId;
     private NativeAccess nativeAccess;
+    private JobScheduler jobScheduler;
     private KernelVersionProvider kernelVersionProvider;
     private LogTailMetadata externalLogTail;
     private int envelopeSegmentBlockSizeBytes = LogSegments.DEFAULT_LOG_SEGMENT_SIZE;
@@ -264,6 +266,11 @@ public class LogFilesBuilder {
         return this;
     }
 
+    public LogFilesBuilder withJobScheduler(JobScheduler jobScheduler) {
+        this.jobScheduler = jobScheduler;
+        return this;
+    }
+
     public LogFilesBuilder withStoreId(StoreId storeId) {
         this.storeId = storeId;
         return this;
@@ -378,7 +385,8 @@ public class LogFilesBuilder {
                 new BinarySupportedKernelVersions(config),
                 readOnlyLogs,
                 envelopeSegmentBlockSizeBytes,
-                getBufferSizeBytes());
+                getBufferSizeBytes(),
+                getJobScheduler());
     }
 
     private LastAppendIndexProvider lastAppendIndexProvider() {
@@ -447,6 +455,16 @@ public class LogFilesBuilder {
         return NativeAccessProvider.getNativeAccess();
     }
 
+    private JobScheduler getJobScheduler() {
+        if (jobScheduler != null) {
+            return jobScheduler;
+        }
+        if (dependencies != null && dependencies.containsDependency(JobScheduler.class)) {
+            return dependencies.resolveDependency(JobScheduler.class);
+        }
+        return null;
+    }
+
     private int getBufferSizeBytes() {
         if (bufferSizeBytes == 0) {
             return (int) roundUpToEnvelopeSegment(config.get(transaction_log_buffer_size));
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.files;
 
 import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 
@@ -44,18 +45,29 @@ public class TransactionLogChannelAllocator {
     private final LogHeaderCache logHeaderCache;
     private final ChannelNativeAccessor nativeChannelAccessor;
     private final DatabaseTracer databaseTracer;
+    private final TransactionLogFilePreparer filePreparer;
 
     public TransactionLogChannelAllocator(
             TransactionLogFilesContext logFilesContext,
             TransactionLogFilesHelper fileHelper,
             LogHeaderCache logHeaderCache,
             ChannelNativeAccessor nativeChannelAccessor) {
+        this(logFilesContext, fileHelper, logHeaderCache, nativeChannelAccessor, null);
+    }
+
+    TransactionLogChannelAllocator(
+            TransactionLogFilesContext logFilesContext,
+            TransactionLogFilesHelper fileHelper,
+            LogHeaderCache logHeaderCache,
+            ChannelNativeAccessor nativeChannelAccessor,
+            TransactionLogFilePreparer filePreparer) {
         this.logFilesContext = logFilesContext;
         this.fileSystem = logFilesContext.getFileSystem();
         this.databaseTracer = logFilesContext.getDatabaseTracers().getDatabaseTracer();
         this.fileHelper = fileHelper;
         this.logHeaderCache = logHeaderCache;
         this.nativeChannelAccessor = nativeChannelAccessor;
+        this.filePreparer = filePreparer;
     }
 
     public PhysicalLogVersionedStoreChannel createLogChannel(
@@ -176,6 +188,14 @@ public class TransactionLogChannelAllocator {
     private AllocatedFile allocateFile(long version) throws IOException {
         Path file = fileHelper.getLogFileForVersion(version);
         boolean fileExist = fileSystem.fileExists(file);
+        if (!fileExist && filePreparer != null) {
+            Path spareFile = filePreparer.takeSpareFile();
+            if (spareFile != null) {
+                // Spare files are already allocated and zeroed, they only need a header
+                fileSystem.renameFile(spareFile, file, ATOMIC_MOVE);
+                fileExist = true;
+            }
+        }
         StoreChannel storeChannel = fileSystem.write(file);
         if (fileExist) {
             nativeChannelAccessor.adviseSequentialAccessAndKeepInCache(storeChannel, version);
@@ -19,9 +19,17 @@
  */
 package org.neo4j.kernel.impl.transaction.log.files;
 
+import static org.apache.commons.lang3.SystemUtils.IS_OS_WINDOWS;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_compression;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_compression_min_entry_size;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_mmap_rotated_files;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_position_index;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_position_index_interval;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.tx_log_spare_files;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogFormat.writeLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.entry.LogHeaderReader.readLogHeader;
 import static org.neo4j.kernel.impl.transaction.log.rotation.FileLogRotation.transactionLogRotation;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
 import static org.neo4j.storageengine.api.TransactionIdStore.BASE_TX_CHECKSUM;
 import static org.neo4j.util.Preconditions.checkArgument;
 
@@ -38,6 +46,7 @@ import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -47,6 +56,8 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.LongSupplier;
 import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
 import org.eclipse.collections.api.map.primitive.LongObjectMap;
+import org.neo4j.configuration.GraphDatabaseInternalSettings.TransactionLogCompression;
+import org.neo4j.internal.helpers.collection.LfuCache;
 import org.neo4j.io.IOUtils;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
@@ -54,16 +65,19 @@ import org.neo4j.io.memory.HeapScopedBuffer;
 import org.neo4j.io.memory.NativeScopedBuffer;
 import org.neo4j.kernel.KernelVersionProvider;
 import org.neo4j.kernel.impl.transaction.UnclosableChannel;
+import org.neo4j.kernel.impl.transaction.log.EnvelopeCompressor;
 import org.neo4j.kernel.impl.transaction.log.LogHeaderCache;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalFlushableLogPositionAwareChannel;
 import org.neo4j.kernel.impl.transaction.log.PhysicalLogVersionedStoreChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadUtils;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReaderLogVersionBridge;
 import org.neo4j.kernel.impl.transaction.log.TransactionLogWriter;
+import org.neo4j.kernel.impl.transaction.log.TransactionPositionListener;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntry;
 import org.neo4j.kernel.impl.transaction.log.entry.LogHeader;
 import org.neo4j.kernel.impl.transaction.log.entry.VersionAwareLogEntryReader;
@@ -76,6 +90,9 @@ import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.logging.InternalLog;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.LogVersionRepository;
 import org.neo4j.util.VisibleForTesting;
 
@@ -96,13 +113,21 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
     private final LogFiles logFiles;
     private final String baseName;
     private final LogRotation logRotation;
+    private final LogRotationMonitor rotationMonitor;
     private final LogHeaderCache logHeaderCache;
     private final FileSystemAbstraction fileSystem;
     private final ConcurrentMap<Long, List<StoreChannel>> externalFileReaders = new ConcurrentHashMap<>();
     private final LogFileVersionTracker versionTracker;
     private final InternalLog logger;
+    private final TransactionLogMappings mappings;
+    private final TransactionLogPositionIndexer positionIndexer;
+    private final LfuCache<Long, TransactionLogPositionIndex> positionIndexes =
+            new LfuCache<>("Transaction log position index cache", 100);
+    private volatile JobHandle<?> positionIndexWrite;
+    private final TransactionLogFilePreparer filePreparer;
     private volatile PhysicalLogVersionedStoreChannel channel;
     private PhysicalFlushableLogPositionAwareChannel writer;
+    private EnvelopeCompressor compressor;
     private LogVersionRepository logVersionRepository;
     private TransactionLogWriter transactionLogWriter;
 
@@ -117,13 +142,31 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         this.fileHelper = new TransactionLogFilesHelper(fileSystem, logFiles.logFilesDirectory(), baseName);
         this.logHeaderCache = new LogHeaderCache(1000);
         this.logFileInformation = new TransactionLogFileInformation(logFiles, logHeaderCache, context);
+        var nativeChannelAccessor = new LogFileChannelNativeAccessor(fileSystem, context);
+        int spareFiles = context.getConfig().get(tx_log_spare_files);
+        this.filePreparer = spareFiles > 0 && !context.isReadOnly() && context.getJobScheduler() != null
+                ? new TransactionLogFilePreparer(
+                        context,
+                        logFiles.logFilesDirectory(),
+                        baseName,
+                        nativeChannelAccessor,
+                        this::getCurrentLogVersion,
+                        spareFiles)
+                : null;
         this.channelAllocator = new TransactionLogChannelAllocator(
-                context, fileHelper, logHeaderCache, new LogFileChannelNativeAccessor(fileSystem, context));
+                context, fileHelper, logHeaderCache, nativeChannelAccessor, filePreparer);
         this.readerLogVersionBridge = ReaderLogVersionBridge.forFile(this);
-        this.logRotation = transactionLogRotation(
-                this, context.getClock(), databaseHealth, context.getMonitors().newMonitor(LogRotationMonitor.class));
+        this.rotationMonitor = context.getMonitors().newMonitor(LogRotationMonitor.class);
+        this.logRotation = transactionLogRotation(this, context.getClock(), databaseHealth, rotationMonitor);
         this.memoryTracker = context.getMemoryTracker();
         this.logger = context.getLogProvider().getLog(TransactionLogFile.class);
+        // Windows refuses to delete files that are mapped, which pruning relies on
+        this.mappings = context.getConfig().get(tx_log_mmap_rotated_files) && !IS_OS_WINDOWS
+                ? new TransactionLogMappings(() -> channel == null ? Long.MIN_VALUE : channel.getLogVersion())
+                : null;
+        this.positionIndexer = context.getConfig().get(tx_log_position_index)
+                ? new TransactionLogPositionIndexer(context.getConfig().get(tx_log_position_index_interval))
+                : null;
     }
 
     @Override
@@ -141,30 +184,60 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
                 context.getKernelVersionProvider(),
                 BASE_TX_CHECKSUM);
 
-        context.getMonitors().newMonitor(LogRotationMonitor.class).started(channel.getPath(), currentLogVersion);
+        rotationMonitor.started(channel.getPath(), currentLogVersion);
 
         // try to set position
         seekChannelPosition(currentLogVersion);
 
+        compressor = createCompressor();
         final var channelProvider =
                 new PhysicalFlushableLogPositionAwareChannel.VersionedPhysicalFlushableLogChannelProvider(
                         logRotation,
                         context.getDatabaseTracers().getDatabaseTracer(),
-                        new NativeScopedBuffer(context.getBufferSizeBytes(), ByteOrder.LITTLE_ENDIAN, memoryTracker));
+                        new NativeScopedBuffer(context.getBufferSizeBytes(), ByteOrder.LITTLE_ENDIAN, memoryTracker),
+                        compressor);
 
         writer = new PhysicalFlushableLogPositionAwareChannel(
                 channel, channelAllocator.readLogHeaderForVersion(currentLogVersion), channelProvider);
         if (!context.isReadOnly()) {
+            // The current file may have been sealed and indexed before, but is written to again
+            deletePositionIndex(currentLogVersion);
             transactionLogWriter = new TransactionLogWriter(
-                    writer, context.getKernelVersionProvider(), context.getBinarySupportedKernelVersions());
+                    writer,
+                    context.getKernelVersionProvider(),
+                    context.getBinarySupportedKernelVersions(),
+                    positionIndexer != null ? positionIndexer : TransactionPositionListener.NO_LISTENER);
+        }
+        if (filePreparer != null) {
+            filePreparer.start();
         }
     }
 
+    private EnvelopeCompressor createCompressor() {
+        var config = context.getConfig();
+        if (config.get(tx_log_compression) == TransactionLogCompression.NONE) {
+            return null;
+        }
+        if (!EnvelopeCompressor.isAvailable()) {
+            logger.warn("Transaction log compression is not available on this platform, the native zstd library could "
+                    + "not be loaded. Transaction logs will be written uncompressed.");
+            return null;
+        }
+        return new EnvelopeCompressor(Math.toIntExact(config.get(tx_log_compression_min_entry_size)));
+    }
+
     // In order to be able to write into a logfile after life.stop during shutdown sequence
     // we will close channel and writer only during shutdown phase when all pending changes (like last
     // checkpoint) are already in
     @Override
     public void shutdown() throws IOException {
+        if (filePreparer != null) {
+            filePreparer.stop();
+        }
+        awaitPositionIndexWrite();
+        if (mappings != null) {
+            mappings.close();
+        }
         IOUtils.closeAll(writer);
     }
 
@@ -252,6 +325,10 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         }
 
         writer.prepareForFlush().flush();
+        if (positionIndexer != null) {
+            positionIndexer.truncate(targetVersion, targetPosition.getByteOffset());
+        }
+        deletePositionIndex(targetVersion);
         if (currentVersion != targetVersion) {
             var oldChannel = channel;
             // TODO: BASE_TX_CHECKSUM is only used when creating a new file, which should never happen during a
@@ -346,6 +423,18 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
             throws IOException {
         PhysicalLogVersionedStoreChannel logChannel = openForVersion(position.getLogVersion(), raw);
         logChannel.position(position.getByteOffset());
+        if (mappings != null) {
+            ByteBuffer mapped;
+            try {
+                mapped = mappings.acquire(logChannel);
+            } catch (IOException e) {
+                IOUtils.closeAllSilently(logChannel);
+                throw e;
+            }
+            if (mapped != null) {
+                return new MappedLogChannel(logChannel, mapped, mappings, logVersionBridge, memoryTracker, raw);
+            }
+        }
         final var logHeader = extractHeader(logChannel.getLogVersion());
         return ReadAheadUtils.newChannel(logChannel, logVersionBridge, logHeader, memoryTracker, raw);
     }
@@ -382,6 +471,34 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         return fileSystem.fileExists(getLogFileForVersion(version));
     }
 
+    @Override
+    public LogPosition closestIndexedPosition(long transactionId, LogPosition logStartPosition) {
+        long version = logStartPosition.getLogVersion();
+        Path logFile = getLogFileForVersion(version);
+        try {
+            long logFileSize = fileSystem.getFileSize(logFile);
+            var index = positionIndexes.get(version);
+            if (index == null || index.logFileSize() != logFileSize) {
+                index = TransactionLogPositionIndex.read(fileSystem, positionIndexFile(version), logFileSize);
+                if (index != null) {
+                    positionIndexes.put(version, index);
+                }
+            }
+            if (index != null) {
+                long offset = index.floorOffsetByTransactionId(transactionId);
+                if (offset > logStartPosition.getByteOffset()) {
+                    return new LogPosition(version, offset);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn(
+                    "Unable to use the transaction position index of " + logFile + ", the log file will be "
+                            + "scanned from the start instead.",
+                    e);
+        }
+        return logStartPosition;
+    }
+
     @Override
     public LogHeader extractHeader(long version) throws IOException {
         return extractHeader(version, true);
@@ -543,9 +660,20 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         }
     }
 
+    @Override
+    public Flushable locklessPrepareForFlush() throws IOException {
+        try {
+            return writer.prepareForFlush();
+        } catch (final Throwable panic) {
+            databaseHealth.panic(panic);
+            throw panic;
+        }
+    }
+
     @Override
     public void delete(Long version) throws IOException {
         fileSystem.deleteFile(getLogFileForVersion(version));
+        deletePositionIndex(version);
         try {
             versionTracker.logDeleted(version);
         } catch (Throwable throwable) {
@@ -587,6 +715,65 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         return externalFileReaders;
     }
 
+    private Path positionIndexFile(long version) {
+        return TransactionLogPositionIndex.indexFileFor(getLogFileForVersion(version), version);
+    }
+
+    /**
+     * Make the index of the log file that was just rotated away from available to lookups right away, and write it
+     * to disk in the background, off the commit path.
+     */
+    private void writePositionIndex(long version, long logFileSize) {
+        if (positionIndexer == null) {
+            return;
+        }
+        var index = positionIndexer.seal(version, logFileSize);
+        if (index == null) {
+            return;
+        }
+        positionIndexes.put(version, index);
+        JobScheduler scheduler = context.getJobScheduler();
+        if (scheduler == null) {
+            persistPositionIndex(version, index);
+            return;
+        }
+        // Indexes are small and logs are rotated far apart, so this only waits if the disk is struggling
+        awaitPositionIndexWrite();
+        positionIndexWrite = scheduler.schedule(
+                Group.FILE_IO_HELPER,
+                systemJob(context.getDatabaseName(), "Write transaction log position index"),
+                () -> persistPositionIndex(version, index));
+    }
+
+    private void persistPositionIndex(long version, TransactionLogPositionIndex index) {
+        try {
+            index.write(fileSystem, positionIndexFile(version));
+        } catch (IOException e) {
+            // The index is only an optimization, lookups will scan the log file instead
+            logger.warn("Unable to write the transaction position index of log version " + version + ".", e);
+        }
+    }
+
+    private void awaitPositionIndexWrite() {
+        JobHandle<?> write = positionIndexWrite;
+        if (write != null) {
+            try {
+                write.waitTermination();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Unable to write the transaction position index.", e.getCause());
+            }
+        }
+    }
+
+    private void deletePositionIndex(long version) throws IOException {
+        positionIndexes.remove(version);
+        // A write still in flight would otherwise bring the index back after it was deleted
+        awaitPositionIndexWrite();
+        fileSystem.deleteFile(positionIndexFile(version));
+    }
+
     private synchronized Path rotate(LongSupplier committedTransactIdSupplier) throws IOException {
         channel = rotate(channel, committedTransactIdSupplier);
         writer.setChannel(channel, channelAllocator.readLogHeaderForVersion(channel.getLogVersion()));
@@ -655,6 +842,10 @@ public class TransactionLogFile extends LifecycleAdapter implements LogFile {
         final var logVersion = currentLog.getLogVersion();
         final var endSize = currentLog.position();
         currentLog.truncate(endSize);
+        writePositionIndex(logVersion, endSize);
+        if (compressor != null) {
+            rotationMonitor.compressedLogFileRotated(logVersion, compressor.takeStatistics());
+        }
 
         /*
          * The log version is now in the store, flushed and persistent. If we crash
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static org.neo4j.scheduler.JobMonitoringParams.systemJob;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.logging.InternalLog;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobHandle;
+import org.neo4j.scheduler.JobScheduler;
+
+/**
+ * Keeps a small pool of spare transaction log files ready, so that log rotation only has to rename one of them
+ * into place and write the log header, instead of creating a new file and having the first appends to it pay for
+ * block allocation and file system metadata updates.
+ * <p>
+ * Spare files are prepared in the background. They are preallocated to the rotation threshold through
+ * {@link ChannelNativeAccessor#preallocateSpace(StoreChannel, long)}, falling back to writing zeros where
+ * preallocation is not available, so a spare file reads as an empty preallocated log file, which is what both log
+ * readers and recovery already expect after a rotation. Without preallocation, every spare file therefore costs a
+ * full rotation threshold of background writes.
+ * <p>
+ * A spare file is first written under a temporary name and only renamed to its final name once it is complete and
+ * forced, so after a crash any temporary file is simply deleted on the next start.
+ */
+class TransactionLogFilePreparer {
+    static final String SPARE_FILE_PREFIX = "spare.";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int ZERO_BUFFER_SIZE = 1024 * 1024;
+
+    private final FileSystemAbstraction fileSystem;
+    private final Path logDirectory;
+    private final String spareBaseName;
+    private final AtomicLong rotationThreshold;
+    private final AtomicBoolean tryPreallocate;
+    private final ChannelNativeAccessor nativeChannelAccessor;
+    private final JobScheduler jobScheduler;
+    private final LongSupplier currentLogVersion;
+    private final String databaseName;
+    private final InternalLog log;
+    private final int spareFiles;
+    private final Queue<Path> readyFiles = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean preparing = new AtomicBoolean();
+    private final AtomicLong nextSpareId = new AtomicLong();
+    private volatile boolean started;
+    private volatile boolean stopped;
+    private volatile JobHandle<?> handle;
+
+    TransactionLogFilePreparer(
+            TransactionLogFilesContext context,
+            Path logDirectory,
+            String baseName,
+            ChannelNativeAccessor nativeChannelAccessor,
+            LongSupplier currentLogVersion,
+            int spareFiles) {
+        this.fileSystem = context.getFileSystem();
+        this.logDirectory = logDirectory;
+        this.spareBaseName = SPARE_FILE_PREFIX + baseName + ".";
+        this.rotationThreshold = context.getRotationThreshold();
+        this.tryPreallocate = context.getTryPreallocateTransactionLogs();
+        this.nativeChannelAccessor = nativeChannelAccessor;
+        this.jobScheduler = context.getJobScheduler();
+        this.currentLogVersion = currentLogVersion;
+        this.databaseName = context.getDatabaseName();
+        this.log = context.getLogProvider().getLog(getClass());
+        this.spareFiles = spareFiles;
+    }
+
+    /**
+     * Pick up spare files left behind by a previous run and start preparing missing ones in the background.
+     */
+    void start() throws IOException {
+        long highestSpareId = -1;
+        Path[] files = fileSystem.listFiles(logDirectory, this::isSpareFile);
+        Arrays.sort(files, Comparator.comparingLong(this::spareId));
+        for (Path file : files) {
+            long spareId = spareId(file);
+            if (spareId == -1) {
+                continue;
+            }
+            highestSpareId = Math.max(highestSpareId, spareId);
+            if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                // Never completed, so never a log file either
+                fileSystem.deleteFile(file);
+            } else {
+                readyFiles.add(file);
+            }
+        }
+        nextSpareId.set(highestSpareId + 1);
+        started = true;
+        schedulePreparation();
+    }
+
+    void stop() throws IOException {
+        stopped = true;
+        JobHandle<?> jobHandle = handle;
+        if (jobHandle != null) {
+            try {
+                jobHandle.waitTermination();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Take a spare file that is ready to be renamed into place as the next log file.
+     *
+     * @return a completely prepared spare file, or {@code null} if there is none and the log file has to be created
+     * the usual way.
+     */
+    Path takeSpareFile() {
+        Path spare = readyFiles.poll();
+        schedulePreparation();
+        return spare;
+    }
+
+    int readySpareFiles() {
+        return readyFiles.size();
+    }
+
+    private boolean isSpareFile(Path file) {
+        return file.getFileName().toString().startsWith(spareBaseName);
+    }
+
+    /**
+     * @return the id in the name of the given spare file, or {@code -1} if it does not have one.
+     */
+    private long spareId(Path file) {
+        String name = file.getFileName().toString();
+        int end = name.endsWith(TEMP_SUFFIX) ? name.length() - TEMP_SUFFIX.length() : name.length();
+        try {
+            return Long.parseLong(name.substring(spareBaseName.length(), end));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void schedulePreparation() {
+        if (started && !stopped && needsPreparation() && preparing.compareAndSet(false, true)) {
+            handle = jobScheduler.schedule(
+                    Group.FILE_IO_HELPER, systemJob(databaseName, "Prepare spare transaction log files"), this::run);
+        }
+    }
+
+    private boolean needsPreparation() {
+        return readyFiles.size() < spareFiles;
+    }
+
+    private void run() {
+        try {
+            while (!stopped && needsPreparation()) {
+                long spareId = nextSpareId.getAndIncrement();
+                Path pending = temporaryFile(spareId);
+                // Spares are taken in the order they are prepared, so this is the version this one will be used for
+                long version = currentLogVersion.getAsLong() + 1 + readyFiles.size();
+                if (prepare(pending, version)) {
+                    fileSystem.renameFile(pending, readyFile(spareId), ATOMIC_MOVE);
+                    readyFiles.add(readyFile(spareId));
+                } else {
+                    fileSystem.deleteFile(pending);
+                }
+            }
+        } catch (IOException e) {
+            // Rotation simply falls back to creating log files itself until the next attempt succeeds
+            log.warn("Unable to prepare spare transaction log file.", e);
+        } finally {
+            preparing.set(false);
+        }
+    }
+
+    /**
+     * @return {@code true} if the file was completely prepared, {@code false} if preparation was interrupted by
+     * {@link #stop()}.
+     */
+    private boolean prepare(Path file, long version) throws IOException {
+        long size = rotationThreshold.get();
+        try (StoreChannel channel = fileSystem.write(file)) {
+            if (tryPreallocate.get()) {
+                nativeChannelAccessor.preallocateSpace(channel, version);
+            }
+            // Preallocated space reads as zeros, only write what preallocation did not cover
+            long zeroFrom = channel.size();
+            ByteBuffer zeros = ByteBuffer.allocate(ZERO_BUFFER_SIZE);
+            for (long position = zeroFrom; position < size; position += zeros.capacity()) {
+                if (stopped) {
+                    return false;
+                }
+                zeros.clear().limit((int) Math.min(zeros.capacity(), size - position));
+                channel.writeAll(zeros, position);
+            }
+            channel.force(true);
+        }
+        return true;
+    }
+
+    private Path temporaryFile(long spareId) {
+        return logDirectory.resolve(spareBaseName + spareId + TEMP_SUFFIX);
+    }
+
+    private Path readyFile(long spareId) {
+        return logDirectory.resolve(spareBaseName + spareId);
+    }
+}
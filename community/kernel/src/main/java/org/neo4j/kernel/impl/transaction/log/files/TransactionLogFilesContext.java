@@ -35,6 +35,7 @@ import org.neo4j.logging.InternalLogProvider;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.monitoring.DatabaseHealth;
 import org.neo4j.monitoring.Monitors;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.StoreId;
 
@@ -67,6 +68,7 @@ public class TransactionLogFilesContext {
     private final boolean readOnly;
     private final int envelopeSegmentBlockSizeBytes;
     private final int bufferSizeBytes;
+    private final JobScheduler jobScheduler;
 
     public TransactionLogFilesContext(
             AtomicLong rotationThreshold,
@@ -96,7 +98,8 @@ public class TransactionLogFilesContext {
             BinarySupportedKernelVersions binarySupportedKernelVersions,
             boolean readOnly,
             int envelopeSegmentBlockSizeBytes,
-            int bufferSizeBytes) {
+            int bufferSizeBytes,
+            JobScheduler jobScheduler) {
         this.rotationThreshold = rotationThreshold;
         this.checkpointRotationThreshold = checkpointRotationThreshold;
         this.tryPreallocateTransactionLogs = tryPreallocateTransactionLogs;
@@ -125,6 +128,7 @@ public class TransactionLogFilesContext {
         this.readOnly = readOnly;
         this.envelopeSegmentBlockSizeBytes = envelopeSegmentBlockSizeBytes;
         this.bufferSizeBytes = bufferSizeBytes;
+        this.jobScheduler = jobScheduler;
     }
 
     AtomicLong getRotationThreshold() {
@@ -238,4 +242,12 @@ public class TransactionLogFilesContext {
     public int getBufferSizeBytes() {
         return bufferSizeBytes;
     }
+
+    /**
+     * @return scheduler that can be used to spread log file scans over several threads, or {@code null} if none is
+     * available and everything should be done on the calling thread.
+     */
+    public JobScheduler getJobScheduler() {
+        return jobScheduler;
+    }
 }
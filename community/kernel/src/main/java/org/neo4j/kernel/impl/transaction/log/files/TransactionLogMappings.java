@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.function.LongSupplier;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+import org.neo4j.kernel.impl.transaction.log.LogFileMappings;
+import org.neo4j.kernel.impl.transaction.log.LogVersionedStoreChannel;
+
+/**
+ * Reference counted read-only mappings of the log files of a {@link TransactionLogFile}. Only files with a version
+ * lower than the one currently written to are mapped, since those will not change anymore. Concurrent readers of the
+ * same file share its mapping, which is unmapped when the last of them releases it.
+ */
+class TransactionLogMappings implements LogFileMappings {
+    private final LongSupplier currentVersion;
+    private final MutableLongObjectMap<Mapping> mappings = new LongObjectHashMap<>();
+    private boolean closed;
+
+    TransactionLogMappings(LongSupplier currentVersion) {
+        this.currentVersion = currentVersion;
+    }
+
+    @Override
+    public synchronized ByteBuffer acquire(LogVersionedStoreChannel channel) throws IOException {
+        long version = channel.getLogVersion();
+        if (closed
+                || version >= currentVersion.getAsLong()
+                || channel.getLogFormatVersion().usesSegments()) {
+            return null;
+        }
+        long position = channel.position();
+        Mapping mapping = mappings.get(version);
+        if (mapping == null) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+            if (buffer == null) {
+                // Not backed by a file that can be mapped, read it through the channel instead
+                return null;
+            }
+            mapping = new Mapping(buffer);
+            mappings.put(version, mapping);
+        }
+        if (position > mapping.buffer.limit()) {
+            throw new IOException("Position %d of log file version %d is beyond the %d bytes of the file."
+                    .formatted(position, version, mapping.buffer.limit()));
+        }
+        mapping.references++;
+        return mapping.buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).position((int) position);
+    }
+
+    @Override
+    public synchronized void release(long version) {
+        Mapping mapping = mappings.get(version);
+        if (mapping != null && --mapping.references == 0) {
+            // Unmap right away rather than caching idle mappings, so that pruned files do not linger on disk
+            mappings.remove(version);
+            UnsafeUtil.invokeCleaner(mapping.buffer);
+        }
+    }
+
+    /**
+     * Stop handing out new mappings. Mappings still in use are unmapped as soon as they are released.
+     */
+    synchronized void close() {
+        closed = true;
+    }
+
+    private static final class Mapping {
+        private final MappedByteBuffer buffer;
+        private int references;
+
+        Mapping(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+}
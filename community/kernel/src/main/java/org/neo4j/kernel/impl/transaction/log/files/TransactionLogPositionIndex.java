@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static org.neo4j.io.fs.ChecksumWriter.CHECKSUM_FACTORY;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import org.neo4j.io.fs.FileSystemAbstraction;
+
+/**
+ * Sparse index of transaction start positions in a single sealed transaction log file, i.e. one that has been rotated
+ * away from. It records the transaction id, append index and byte offset of a subset of the transactions in the file,
+ * in log order, so that looking up any transaction in the file is a binary search followed by a short scan.
+ * <p>
+ * The index is written next to its log file, in the background, after the log is rotated. It also records the size of the log file it was
+ * written for, and is ignored if the log file has since been truncated or otherwise changed size.
+ */
+public final class TransactionLogPositionIndex {
+    static final String INDEX_FILE_INFIX = "_position_index.";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long MAGIC = 0x4E54_5849_4458_0001L; // "NTXIDX" + format version 1
+
+    private final long logFileSize;
+    private final long[] transactionIds;
+    private final long[] appendIndexes;
+    private final long[] offsets;
+
+    TransactionLogPositionIndex(long logFileSize, long[] transactionIds, long[] appendIndexes, long[] offsets) {
+        this.logFileSize = logFileSize;
+        this.transactionIds = transactionIds;
+        this.appendIndexes = appendIndexes;
+        this.offsets = offsets;
+    }
+
+    /**
+     * @return the location of the index of the given log file.
+     */
+    static Path indexFileFor(Path logFile, long version) {
+        String logFileName = logFile.getFileName().toString();
+        String baseName = logFileName.substring(0, logFileName.lastIndexOf('.'));
+        return logFile.resolveSibling(baseName + INDEX_FILE_INFIX + version);
+    }
+
+    /**
+     * Read the index at the given location.
+     *
+     * @param logFileSize current size of the indexed log file.
+     * @return the index, or {@code null} if there is none, or if it does not match the indexed log file anymore.
+     * @throws IOException if the index could not be read, or is corrupt.
+     */
+    static TransactionLogPositionIndex read(FileSystemAbstraction fs, Path indexFile, long logFileSize)
+            throws IOException {
+        if (!fs.fileExists(indexFile)) {
+            return null;
+        }
+        try (InputStream in = fs.openAsInputStream(indexFile);
+                CheckedInputStream checked =
+                        new CheckedInputStream(new BufferedInputStream(in), CHECKSUM_FACTORY.get());
+                DataInputStream data = new DataInputStream(checked)) {
+            long magic = data.readLong();
+            if (magic != MAGIC) {
+                throw new IOException("Unrecognized transaction log position index " + indexFile + ", magic: "
+                        + Long.toHexString(magic) + ".");
+            }
+            long indexedSize = data.readLong();
+            int count = data.readInt();
+            if (count < 0) {
+                throw new IOException("Corrupted transaction log position index " + indexFile + ", count: " + count);
+            }
+            if (indexedSize != logFileSize) {
+                return null;
+            }
+            long[] transactionIds = new long[count];
+            long[] appendIndexes = new long[count];
+            long[] offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                transactionIds[i] = data.readLong();
+                appendIndexes[i] = data.readLong();
+                offsets[i] = data.readLong();
+            }
+            int calculatedChecksum = (int) checked.getChecksum().getValue();
+            int storedChecksum = data.readInt();
+            if (calculatedChecksum != storedChecksum) {
+                throw new IOException("Corrupted transaction log position index " + indexFile + ", checksum mismatch.");
+            }
+            return new TransactionLogPositionIndex(indexedSize, transactionIds, appendIndexes, offsets);
+        }
+    }
+
+    /**
+     * Atomically replace the index at the given location with this one.
+     */
+    void write(FileSystemAbstraction fs, Path indexFile) throws IOException {
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + TEMP_SUFFIX);
+        try (OutputStream out = fs.openAsOutputStream(tempFile, false);
+                CheckedOutputStream checked =
+                        new CheckedOutputStream(new BufferedOutputStream(out), CHECKSUM_FACTORY.get());
+                DataOutputStream data = new DataOutputStream(checked)) {
+            data.writeLong(MAGIC);
+            data.writeLong(logFileSize);
+            data.writeInt(offsets.length);
+            for (int i = 0; i < offsets.length; i++) {
+                data.writeLong(transactionIds[i]);
+                data.writeLong(appendIndexes[i]);
+                data.writeLong(offsets[i]);
+            }
+            data.writeInt((int) checked.getChecksum().getValue());
+        }
+        fs.renameFile(tempFile, indexFile, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    /**
+     * @return the offset of the last indexed transaction with an id lower than or equal to the given one, or
+     * {@code -1} if there is none.
+     */
+    public long floorOffsetByTransactionId(long transactionId) {
+        return floorOffset(transactionIds, transactionId);
+    }
+
+    /**
+     * @return the size of the log file this index was written for.
+     */
+    long logFileSize() {
+        return logFileSize;
+    }
+
+    int size() {
+        return offsets.length;
+    }
+
+    private long floorOffset(long[] keys, long key) {
+        int index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return index < 0 ? -1 : offsets[index];
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log.files;
+
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.neo4j.kernel.impl.transaction.log.TransactionPositionListener;
+
+/**
+ * Collects the {@link TransactionLogPositionIndex} of the log file currently being written to, recording a transaction
+ * whenever at least {@code interval} bytes have been written since the previously recorded one.
+ */
+class TransactionLogPositionIndexer implements TransactionPositionListener {
+    private static final long NO_VERSION = -1;
+
+    private final long interval;
+    private final MutableLongList transactionIds = new LongArrayList();
+    private final MutableLongList appendIndexes = new LongArrayList();
+    private final MutableLongList offsets = new LongArrayList();
+    private long logVersion = NO_VERSION;
+    private long lastIndexedOffset;
+
+    TransactionLogPositionIndexer(long interval) {
+        this.interval = interval;
+    }
+
+    @Override
+    public synchronized void transactionStart(long transactionId, long appendIndex, long logVersion, long byteOffset) {
+        if (logVersion != this.logVersion) {
+            reset(logVersion);
+        } else if (!offsets.isEmpty()
+                && (byteOffset - lastIndexedOffset < interval || transactionId <= transactionIds.getLast())) {
+            return;
+        }
+        transactionIds.add(transactionId);
+        appendIndexes.add(appendIndex);
+        offsets.add(byteOffset);
+        lastIndexedOffset = byteOffset;
+    }
+
+    /**
+     * Take the index of the log file of the given version, which has been written to completion.
+     *
+     * @param logFileSize final size of the log file.
+     * @return the index, or {@code null} if nothing was recorded for the log file.
+     */
+    synchronized TransactionLogPositionIndex seal(long version, long logFileSize) {
+        if (version != logVersion || offsets.isEmpty()) {
+            return null;
+        }
+        var index = new TransactionLogPositionIndex(
+                logFileSize, transactionIds.toArray(), appendIndexes.toArray(), offsets.toArray());
+        reset(NO_VERSION);
+        return index;
+    }
+
+    /**
+     * Forget all transactions recorded at or after the given position of the log file of the given version.
+     */
+    synchronized void truncate(long version, long byteOffset) {
+        if (version != logVersion) {
+            reset(NO_VERSION);
+            return;
+        }
+        while (!offsets.isEmpty() && offsets.getLast() >= byteOffset) {
+            int last = offsets.size() - 1;
+            transactionIds.removeAtIndex(last);
+            appendIndexes.removeAtIndex(last);
+            offsets.removeAtIndex(last);
+        }
+        lastIndexedOffset = offsets.isEmpty() ? 0 : offsets.getLast();
+    }
+
+    private void reset(long version) {
+        logVersion = version;
+        transactionIds.clear();
+        appendIndexes.clear();
+        offsets.clear();
+        lastIndexedOffset = 0;
+    }
+}
@@ -22,11 +22,15 @@ package org.neo4j.kernel.impl.transaction.log.files.checkpoint;
 import static java.lang.Math.min;
 import static java.lang.Math.subtractExact;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.neo4j.internal.helpers.Numbers.safeCastLongToInt;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.fs.FileUtils.getCanonicalFile;
 import static org.neo4j.kernel.impl.transaction.log.LogVersionBridge.NO_MORE_CHANNELS;
 import static org.neo4j.kernel.impl.transaction.log.files.RangeLogVersionVisitor.UNKNOWN;
+import static org.neo4j.kernel.recovery.LogTailScannerMonitor.Phase.CHECKPOINT_LOOKUP;
+import static org.neo4j.kernel.recovery.LogTailScannerMonitor.Phase.CONSENSUS_INDEX_LOOKUP;
+import static org.neo4j.kernel.recovery.LogTailScannerMonitor.Phase.TRANSACTION_LOG_SCAN;
 import static org.neo4j.storageengine.api.TransactionIdStore.UNKNOWN_CONSENSUS_INDEX;
 
 import java.io.IOException;
@@ -34,9 +38,16 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.memory.HeapScopedBuffer;
@@ -63,6 +74,9 @@ import org.neo4j.kernel.impl.transaction.log.files.LogTailInformation;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesContext;
 import org.neo4j.kernel.recovery.LogTailScannerMonitor;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
 import org.neo4j.storageengine.api.CommandReaderFactory;
 import org.neo4j.storageengine.api.StoreId;
 import org.neo4j.storageengine.api.TransactionId;
@@ -81,6 +95,8 @@ public class DetachedLogTailScanner {
     private final FileSystemAbstraction fileSystem;
     private final KernelVersionProvider fallbackKernelVersionProvider;
     private final BinarySupportedKernelVersions binarySupportedKernelVersions;
+    private final JobScheduler jobScheduler;
+    private final int parallelism;
 
     private LogTailMetadata logTail;
 
@@ -99,6 +115,8 @@ public class DetachedLogTailScanner {
         this.logTail = context.getExternalTailInfo();
         this.monitor = monitor;
         this.binarySupportedKernelVersions = context.getBinarySupportedKernelVersions();
+        this.jobScheduler = context.getJobScheduler();
+        this.parallelism = context.getConfig().get(GraphDatabaseInternalSettings.tx_log_tail_scan_parallelism);
     }
 
     public LogTailInformation findLogTail() {
@@ -106,33 +124,11 @@ public class DetachedLogTailScanner {
         long highestLogVersion = logFile.getHighestLogVersion();
         long lowestLogVersion = logFile.getLowestLogVersion();
         try {
-            var lastAccessibleCheckpoint = checkpointFile.findLatestCheckpoint();
-            if (lastAccessibleCheckpoint.isEmpty()) {
-                return noCheckpointLogTail(logFile, highestLogVersion, lowestLogVersion);
-            }
-            var checkpoint = lastAccessibleCheckpoint.get();
-            verifyKernelVersion(checkpoint.kernelVersionByte());
-            verifyCheckpointPosition(checkpoint.channelPositionAfterCheckpoint());
-            // found checkpoint pointing to existing position in existing log file
-            if (isValidCheckpoint(logFile, checkpoint)) {
-                return validCheckpointLogTail(logFile, highestLogVersion, lowestLogVersion, checkpoint);
-            }
-            if (failOnCorruptedLogFiles) {
-                var exceptionMessage = format(
-                        "Last available %s checkpoint does not point to a valid location in transaction logs.",
-                        checkpoint);
-                throwUnableToCleanRecover(new RuntimeException(exceptionMessage));
-            }
-            // our last checkpoint is not valid (we have a pointer to non existent place) lets try to find last one that
-            // looks correct
-            List<CheckpointInfo> checkpointInfos = checkpointFile.reachableCheckpoints();
-            // we know that last one is not valid so no reason to double check that again
-            ListIterator<CheckpointInfo> reverseCheckpoints = checkpointInfos.listIterator(checkpointInfos.size() - 1);
-            while (reverseCheckpoints.hasPrevious()) {
-                CheckpointInfo previousCheckpoint = reverseCheckpoints.previous();
-                if (isValidCheckpoint(logFile, previousCheckpoint)) {
-                    return validCheckpointLogTail(logFile, highestLogVersion, lowestLogVersion, previousCheckpoint);
-                }
+            long startNanos = System.nanoTime();
+            Optional<CheckpointInfo> checkpoint = findValidCheckpoint(logFile);
+            phaseCompleted(CHECKPOINT_LOOKUP, startNanos);
+            if (checkpoint.isPresent()) {
+                return validCheckpointLogTail(logFile, highestLogVersion, lowestLogVersion, checkpoint.get());
             }
             // we did not found any valid, we need to restore from the start if possible
             return noCheckpointLogTail(logFile, highestLogVersion, lowestLogVersion);
@@ -141,6 +137,37 @@ public class DetachedLogTailScanner {
         }
     }
 
+    private Optional<CheckpointInfo> findValidCheckpoint(LogFile logFile) throws IOException {
+        var lastAccessibleCheckpoint = checkpointFile.findLatestCheckpoint();
+        if (lastAccessibleCheckpoint.isEmpty()) {
+            return Optional.empty();
+        }
+        var checkpoint = lastAccessibleCheckpoint.get();
+        verifyKernelVersion(checkpoint.kernelVersionByte());
+        verifyCheckpointPosition(checkpoint.channelPositionAfterCheckpoint());
+        // found checkpoint pointing to existing position in existing log file
+        if (isValidCheckpoint(logFile, checkpoint)) {
+            return lastAccessibleCheckpoint;
+        }
+        if (failOnCorruptedLogFiles) {
+            var exceptionMessage = format(
+                    "Last available %s checkpoint does not point to a valid location in transaction logs.", checkpoint);
+            throwUnableToCleanRecover(new RuntimeException(exceptionMessage));
+        }
+        // our last checkpoint is not valid (we have a pointer to non existent place) lets try to find last one that
+        // looks correct
+        List<CheckpointInfo> checkpointInfos = checkpointFile.reachableCheckpoints();
+        // we know that last one is not valid so no reason to double check that again
+        ListIterator<CheckpointInfo> reverseCheckpoints = checkpointInfos.listIterator(checkpointInfos.size() - 1);
+        while (reverseCheckpoints.hasPrevious()) {
+            CheckpointInfo previousCheckpoint = reverseCheckpoints.previous();
+            if (isValidCheckpoint(logFile, previousCheckpoint)) {
+                return Optional.of(previousCheckpoint);
+            }
+        }
+        return Optional.empty();
+    }
+
     private void verifyKernelVersion(byte kernelVersionByte) {
         KernelVersion kernelVersion;
         try {
@@ -157,7 +184,9 @@ public class DetachedLogTailScanner {
     private LogTailInformation validCheckpointLogTail(
             LogFile logFile, long highestLogVersion, long lowestLogVersion, CheckpointInfo checkpoint)
             throws IOException {
+        long startNanos = System.nanoTime();
         var entries = getFirstTransactionIdAfterCheckpoint(logFile, checkpoint.transactionLogPosition());
+        phaseCompleted(TRANSACTION_LOG_SCAN, startNanos);
         return new LogTailInformation(
                 loadConsensusIndexIfNeeded(logFile, checkpoint),
                 entries.isPresent(),
@@ -171,7 +200,9 @@ public class DetachedLogTailScanner {
 
     private LogTailInformation noCheckpointLogTail(LogFile logFile, long highestLogVersion, long lowestLogVersion)
             throws IOException {
+        long startNanos = System.nanoTime();
         var entries = getFirstTransactionId(logFile, lowestLogVersion);
+        phaseCompleted(TRANSACTION_LOG_SCAN, startNanos);
         return new LogTailInformation(
                 entries.isPresent(),
                 entries.getTransactionId(),
@@ -283,8 +314,10 @@ public class DetachedLogTailScanner {
         // we can have 5.0 checkpoint without consensus index and need to parse it from transaction itself, if it is
         // available
         long requiredTransactionId = checkpoint.transactionId().id();
+        long startNanos = System.nanoTime();
         long consensusIndex =
                 findConsensusIndexForTransactionId(logFile, requiredTransactionId, checkpoint.transactionLogPosition());
+        phaseCompleted(CONSENSUS_INDEX_LOOKUP, startNanos);
         if (consensusIndex == UNKNOWN_CONSENSUS_INDEX) {
             // can't find consensus index from transaction logs
             return checkpoint;
@@ -311,33 +344,23 @@ public class DetachedLogTailScanner {
 
     private long findConsensusIndexForTransactionId(
             LogFile logFile, long requiredTransactionId, LogPosition checkpointTransactionPosition) throws IOException {
-        long logVersion = checkpointTransactionPosition.getLogVersion();
-        var logEntryReader = new VersionAwareLogEntryReader(commandReaderFactory, binarySupportedKernelVersions);
+        long highestVersion = checkpointTransactionPosition.getLogVersion();
         try {
-            while (logFile.versionExists(logVersion)) {
-                var logHeader = logFile.extractHeader(logVersion);
-                if (logHeader != null) {
-                    var logHeaderStart = logHeader.getStartPosition();
-                    if (logHeaderStart.compareTo(checkpointTransactionPosition) < 0) {
-                        try (var reader = logFile.getReader(logHeaderStart, NO_MORE_CHANNELS);
-                                var cursor = new LogEntryCursor(logEntryReader, reader)) {
-                            LogEntryStart start = null;
-
-                            while (cursor.next()) {
-                                LogEntry entry = cursor.get();
-                                if (entry instanceof LogEntryStart e) {
-                                    start = e;
-                                } else if (entry instanceof LogEntryCommit commit) {
-                                    if (start != null && commit.getTxId() == requiredTransactionId) {
-                                        return LogIndexEncoding.decodeLogIndex(start.getAdditionalHeader());
-                                    }
-                                    start = null;
-                                }
-                            }
-                        }
-                    }
+            long lowestVersion = highestVersion;
+            while (logFile.versionExists(lowestVersion)) {
+                lowestVersion--;
+            }
+            lowestVersion++;
+            if (jobScheduler != null && parallelism > 1 && highestVersion > lowestVersion) {
+                return findConsensusIndexInParallel(
+                        logFile, requiredTransactionId, checkpointTransactionPosition, highestVersion, lowestVersion);
+            }
+            for (long logVersion = highestVersion; logVersion >= lowestVersion; logVersion--) {
+                OptionalLong consensusIndex = findConsensusIndexInVersion(
+                        logFile, logVersion, requiredTransactionId, checkpointTransactionPosition, () -> false);
+                if (consensusIndex.isPresent()) {
+                    return consensusIndex.getAsLong();
                 }
-                logVersion--;
             }
         } catch (Error | ClosedByInterruptException e) {
             // These should not be parsing errors
@@ -348,6 +371,116 @@ public class DetachedLogTailScanner {
         return UNKNOWN_CONSENSUS_INDEX;
     }
 
+    /**
+     * Scans a window of at most {@link #parallelism} log versions at a time, newest first. Results are consumed in the
+     * same order as the sequential scan visits the versions, so the first version with a match, or with a parsing
+     * error, decides the outcome exactly like it would have without any parallelism.
+     */
+    private long findConsensusIndexInParallel(
+            LogFile logFile,
+            long requiredTransactionId,
+            LogPosition checkpointTransactionPosition,
+            long highestVersion,
+            long lowestVersion)
+            throws IOException {
+        CallableExecutor executor = jobScheduler.executor(Group.FILE_IO_HELPER);
+        AtomicBoolean stopped = new AtomicBoolean();
+        ArrayDeque<Future<OptionalLong>> window = new ArrayDeque<>(parallelism);
+        long nextVersion = highestVersion;
+        try {
+            while (window.size() < parallelism && nextVersion >= lowestVersion) {
+                window.add(submitConsensusIndexLookup(
+                        executor,
+                        logFile,
+                        nextVersion--,
+                        requiredTransactionId,
+                        checkpointTransactionPosition,
+                        stopped));
+            }
+            while (!window.isEmpty()) {
+                OptionalLong consensusIndex = window.poll().get();
+                if (consensusIndex.isPresent()) {
+                    return consensusIndex.getAsLong();
+                }
+                if (nextVersion >= lowestVersion) {
+                    window.add(submitConsensusIndexLookup(
+                            executor,
+                            logFile,
+                            nextVersion--,
+                            requiredTransactionId,
+                            checkpointTransactionPosition,
+                            stopped));
+                }
+            }
+            return UNKNOWN_CONSENSUS_INDEX;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            if (cause instanceof ClosedByInterruptException interrupted) {
+                throw interrupted;
+            }
+            // same as for the sequential scan, parsing errors are ignored
+            return UNKNOWN_CONSENSUS_INDEX;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClosedByInterruptException();
+        } finally {
+            stopped.set(true);
+            window.forEach(lookup -> lookup.cancel(false));
+        }
+    }
+
+    private Future<OptionalLong> submitConsensusIndexLookup(
+            CallableExecutor executor,
+            LogFile logFile,
+            long logVersion,
+            long requiredTransactionId,
+            LogPosition checkpointTransactionPosition,
+            AtomicBoolean stopped) {
+        return executor.submit(() -> findConsensusIndexInVersion(
+                logFile, logVersion, requiredTransactionId, checkpointTransactionPosition, stopped::get));
+    }
+
+    private OptionalLong findConsensusIndexInVersion(
+            LogFile logFile,
+            long logVersion,
+            long requiredTransactionId,
+            LogPosition checkpointTransactionPosition,
+            BooleanSupplier stopped)
+            throws IOException {
+        var logHeader = logFile.extractHeader(logVersion);
+        if (logHeader == null) {
+            return OptionalLong.empty();
+        }
+        var logHeaderStart = logHeader.getStartPosition();
+        if (logHeaderStart.compareTo(checkpointTransactionPosition) >= 0) {
+            return OptionalLong.empty();
+        }
+        var logEntryReader = new VersionAwareLogEntryReader(commandReaderFactory, binarySupportedKernelVersions);
+        try (var reader = logFile.getReader(logHeaderStart, NO_MORE_CHANNELS);
+                var cursor = new LogEntryCursor(logEntryReader, reader)) {
+            LogEntryStart start = null;
+            while (!stopped.getAsBoolean() && cursor.next()) {
+                LogEntry entry = cursor.get();
+                if (entry instanceof LogEntryStart e) {
+                    start = e;
+                } else if (entry instanceof LogEntryCommit commit) {
+                    if (start != null && commit.getTxId() == requiredTransactionId) {
+                        return OptionalLong.of(LogIndexEncoding.decodeLogIndex(start.getAdditionalHeader()));
+                    }
+                    start = null;
+                }
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    private void phaseCompleted(LogTailScannerMonitor.Phase phase, long startNanos) {
+        monitor.phaseCompleted(phase, NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
     private void verifyReaderPosition(long version, LogPosition logPosition) throws IOException {
         LogFile logFile = logFiles.getLogFile();
         long highestLogVersion = logFile.getHighestLogVersion();
@@ -27,6 +27,7 @@ import java.util.Optional;
 import org.neo4j.kernel.impl.transaction.log.CommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.CommittedCommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
@@ -83,9 +84,8 @@ public class DefaultCommandBatchCursors implements CommandBatchCursors {
     }
 
     private CommandBatchCursor createCursor(ReadableLogChannel channel) throws IOException {
-        if (channel instanceof ReadAheadLogChannel) {
-            return new ReversedSingleFileCommandBatchCursor(
-                    (ReadAheadLogChannel) channel, reader, failOnCorruptedLogFiles, monitor);
+        if (channel instanceof ReadAheadLogChannel || channel instanceof MappedLogChannel) {
+            return new ReversedSingleFileCommandBatchCursor(channel, reader, failOnCorruptedLogFiles, monitor);
         }
         return eagerlyReverse(new CommittedCommandBatchCursor(channel, reader));
     }
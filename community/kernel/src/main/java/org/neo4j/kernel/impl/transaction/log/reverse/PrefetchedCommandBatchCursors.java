@@ -31,6 +31,7 @@ import java.util.concurrent.LinkedBlockingDeque;
 import org.neo4j.kernel.impl.transaction.log.CommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.CommittedCommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
@@ -83,9 +84,9 @@ public class PrefetchedCommandBatchCursors implements CommandBatchCursors {
                         ? logFile.extractHeader(currentVersion).getStartPosition()
                         : beginning;
                 ReadableLogChannel channel = logFile.getReader(position, NO_MORE_CHANNELS);
-                if (channel instanceof ReadAheadLogChannel) {
+                if (channel instanceof ReadAheadLogChannel || channel instanceof MappedLogChannel) {
                     cursors.put(new ReversedSingleFileCommandBatchCursor(
-                            (ReadAheadLogChannel) channel, reader, failOnCorruptedLogFiles, monitor));
+                            channel, reader, failOnCorruptedLogFiles, monitor));
                 } else {
                     cursors.put(eagerlyReverse(new CommittedCommandBatchCursor(channel, reader)));
                 }
@@ -29,7 +29,9 @@ import org.neo4j.kernel.impl.transaction.log.CommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.CommittedCommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.LogPosition;
 import org.neo4j.kernel.impl.transaction.log.LogVersionBridge;
+import org.neo4j.kernel.impl.transaction.log.MappedLogChannel;
 import org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel;
+import org.neo4j.kernel.impl.transaction.log.ReadableLogChannel;
 import org.neo4j.kernel.impl.transaction.log.SketchingCommandBatchCursor;
 import org.neo4j.kernel.impl.transaction.log.entry.LogEntryReader;
 import org.neo4j.kernel.impl.transaction.log.entry.UnsupportedLogVersionException;
@@ -37,12 +39,12 @@ import org.neo4j.kernel.impl.transaction.log.entry.UnsupportedLogVersionExceptio
 /**
  * Returns command batches in reverse order in a log file. It tries to keep peak memory consumption to a minimum
  * by first sketching out the offsets of all transactions in the log. Then it starts from the end and moves backwards,
- * taking advantage of read-ahead feature of the {@link ReadAheadLogChannel} by moving in chunks backwards in roughly
- * the size of the read-ahead window. Coming across large batches means moving further back to at least read one batch
+ * taking advantage of read-ahead feature of the {@link ReadAheadLogChannel}, or of the mapping of a
+ * {@link MappedLogChannel}, by moving in chunks backwards in roughly the size of the read-ahead window. Coming across large batches means moving further back to at least read one batch
  * per chunk "move". This is all internal, so from the outside it simply reverses a transaction log.
  * The memory overhead compared to reading a log in the natural order is almost negligible.
  *
- * This cursor currently only works for a single log file, such that the given {@link ReadAheadLogChannel} should not be
+ * This cursor currently only works for a single log file, such that the given channel should not be
  * instantiated with a {@link LogVersionBridge} moving it over to other versions when exhausted. For reversing a whole
  * log stream consisting of multiple log files have a look at {@link ReversedMultiFileCommandBatchCursor}.
  *
@@ -64,7 +66,7 @@ public class ReversedSingleFileCommandBatchCursor implements CommandBatchCursor
     // Should this be passed in or extracted from the read-ahead channel instead?
     private static final int CHUNK_SIZE = ReadAheadChannel.DEFAULT_READ_AHEAD_SIZE;
 
-    private final ReadAheadLogChannel channel;
+    private final ReadableLogChannel channel;
     private final boolean failOnCorruptedLogFiles;
     private final ReversedTransactionCursorMonitor monitor;
     private final CommandBatchCursor commandBatchCursor;
@@ -80,7 +82,7 @@ public class ReversedSingleFileCommandBatchCursor implements CommandBatchCursor
     private long totalSize;
 
     ReversedSingleFileCommandBatchCursor(
-            ReadAheadLogChannel channel,
+            ReadableLogChannel channel,
             LogEntryReader logEntryReader,
             boolean failOnCorruptedLogFiles,
             ReversedTransactionCursorMonitor monitor)
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.rotation.monitor;
 
 import java.nio.file.Path;
+import org.neo4j.kernel.impl.transaction.log.EnvelopeCompressor;
 
 public interface LogRotationMonitor {
     /**
@@ -34,4 +35,11 @@ public interface LogRotationMonitor {
 
     void finishLogRotation(
             Path logFile, long logVersion, long lastTransactionId, long rotationMillis, long millisSinceLastRotation);
+
+    /**
+     * Called when rotating away from a log file that was written with envelope compression enabled.
+     * @param logVersion the version of the file that was rotated away from.
+     * @param statistics how the envelopes written to the file, since it was opened, were compressed.
+     */
+    void compressedLogFileRotated(long logVersion, EnvelopeCompressor.Statistics statistics);
 }
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.log.rotation.monitor;
 
 import java.nio.file.Path;
+import org.neo4j.kernel.impl.transaction.log.EnvelopeCompressor;
 
 public class LogRotationMonitorAdapter implements LogRotationMonitor {
     public static final LogRotationMonitor EMPTY = new LogRotationMonitorAdapter();
@@ -39,4 +40,9 @@ public class LogRotationMonitorAdapter implements LogRotationMonitor {
             Path logFile, long logVersion, long lastTransactionId, long rotationMillis, long millisSinceLastRotation) {
         // empty
     }
+
+    @Override
+    public void compressedLogFileRotated(long logVersion, EnvelopeCompressor.Statistics statistics) {
+        // empty
+    }
 }
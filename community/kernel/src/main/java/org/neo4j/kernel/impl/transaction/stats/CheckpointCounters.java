@@ -72,4 +72,11 @@ public interface CheckpointCounters {
      * @return total number of flushed bytes
      */
     long flushedBytes();
+
+    /**
+     * Latest estimate of how long recovery from the last checkpoint would take, if the database would crash now.
+     * Only estimated by the {@code RECOVERY_TIME} checkpoint policy.
+     * @return estimated recovery time in milliseconds, or {@code -1} if not estimated
+     */
+    long estimatedRecoveryTimeMillis();
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.stats;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of non-negative values, with one bucket per power of two.
+ * <p>
+ * Bucket {@code 0} counts zeros, and bucket {@code n} counts values in the range {@code [2^(n-1), 2^n)}. That makes
+ * every recorded value accurate to within a factor of two, which is plenty for latency and batch size distributions,
+ * while recording stays a couple of atomic increments.
+ */
+public final class PowerOfTwoHistogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value, negative values are recorded as zero.
+     */
+    public void record(long value) {
+        long recorded = Math.max(value, 0);
+        buckets.incrementAndGet(bucketOf(recorded));
+        total.addAndGet(recorded);
+        if (recorded > max.get()) {
+            max.accumulateAndGet(recorded, Math::max);
+        }
+    }
+
+    /**
+     * @return number of recorded values.
+     */
+    public long count() {
+        long count = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            count += buckets.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * @return sum of all recorded values.
+     */
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * @return largest recorded value, or {@code 0} if nothing was recorded.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return mean of the recorded values, or {@code 0} if nothing was recorded.
+     */
+    public double mean() {
+        long count = count();
+        return count == 0 ? 0 : (double) total() / count;
+    }
+
+    /**
+     * @param percentile in the range {@code [0, 100]}.
+     * @return upper bound of the bucket that contains the given percentile, capped by the largest recorded value,
+     * or {@code 0} if nothing was recorded.
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in the range [0, 100], but was " + percentile);
+        }
+        long[] counts = bucketCounts();
+        long count = 0;
+        for (long bucketCount : counts) {
+            count += bucketCount;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank && counts[bucket] > 0) {
+                return Math.min(bucketUpperBound(bucket), max());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return a snapshot of the number of values recorded per bucket.
+     */
+    public long[] bucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            counts[bucket] = buckets.get(bucket);
+        }
+        return counts;
+    }
+
+    /**
+     * @return the largest value that is counted in the given bucket.
+     */
+    public static long bucketUpperBound(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+
+    static int bucketOf(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+}
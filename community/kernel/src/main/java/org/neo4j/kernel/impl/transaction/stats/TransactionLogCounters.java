@@ -70,4 +70,35 @@ public interface TransactionLogCounters {
      * Total number of rolled back batched transactions
      */
     long rolledbackBatchedTransactions();
+
+    /**
+     * Distribution of the number of transactions that were forced to the transaction log together, by one group commit
+     * @return group commit transaction count histogram
+     */
+    PowerOfTwoHistogram groupCommitTransactions();
+
+    /**
+     * Distribution of the number of bytes that were forced to the transaction log together, by one group commit
+     * @return group commit size histogram
+     */
+    PowerOfTwoHistogram groupCommitBytes();
+
+    /**
+     * Distribution of the time in nanoseconds that group commits waited for more transactions to join them
+     * @return group commit wait time histogram
+     */
+    PowerOfTwoHistogram groupCommitWaitNanos();
+
+    /**
+     * Distribution of the time in nanoseconds that transaction log forces took
+     * @return log force time histogram
+     */
+    PowerOfTwoHistogram logForceNanos();
+
+    /**
+     * Accumulated time in nanoseconds spent applying appended transactions to the store. Together with
+     * {@link #appendedBytes()} this gives the rate at which transaction log can be applied.
+     * @return accumulated store apply time in nanoseconds
+     */
+    long storeApplyTimeNanos();
 }
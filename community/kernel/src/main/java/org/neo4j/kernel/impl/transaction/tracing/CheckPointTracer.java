@@ -72,10 +72,23 @@ public interface CheckPointTracer extends CheckpointCounters {
         public long flushedBytes() {
             return 0;
         }
+
+        @Override
+        public long estimatedRecoveryTimeMillis() {
+            return -1;
+        }
+
+        @Override
+        public void recoveryTimeEstimated(long estimatedRecoveryTimeMillis) {}
     };
 
     /**
      * Begin a check point write to the log
      */
     LogCheckPointEvent beginCheckPoint();
+
+    /**
+     * Report a new estimate of how long recovery from the last checkpoint would take.
+     */
+    void recoveryTimeEstimated(long estimatedRecoveryTimeMillis);
 }
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.transaction.tracing;
 
 import java.nio.file.Path;
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.transaction.stats.PowerOfTwoHistogram;
 
 public interface DatabaseTracer extends TransactionTracer, CheckPointTracer {
     DatabaseTracer NULL = new DatabaseTracer() {
@@ -69,6 +70,14 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer {
             return 0;
         }
 
+        @Override
+        public long estimatedRecoveryTimeMillis() {
+            return -1;
+        }
+
+        @Override
+        public void recoveryTimeEstimated(long estimatedRecoveryTimeMillis) {}
+
         @Override
         public LogFileCreateEvent createLogFile() {
             return LogFileCreateEvent.NULL;
@@ -149,6 +158,31 @@ public interface DatabaseTracer extends TransactionTracer, CheckPointTracer {
         public long rolledbackBatchedTransactions() {
             return 0;
         }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitTransactions() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitBytes() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitWaitNanos() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram logForceNanos() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public long storeApplyTimeNanos() {
+            return 0;
+        }
     };
 
     LogFileCreateEvent createLogFile();
@@ -49,6 +49,15 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
      */
     AppendTransactionEvent beginAppendTransaction(int appendItems);
 
+    /**
+     * Notify that a group of transactions was appended to the transaction log, and is about to be forced by a single
+     * group commit.
+     * @param transactions number of transactions in the group.
+     * @param bytes number of bytes appended by the group.
+     * @param waitNanos time spent waiting for more transactions to join the group.
+     */
+    void groupCommit(int transactions, long bytes, long waitNanos);
+
     class Empty implements LogAppendEvent {
         @Override
         public void appendedBytes(long bytes) {}
@@ -69,6 +78,9 @@ public interface LogAppendEvent extends LogForceEvents, LogRotateEvents, AutoClo
             return AppendTransactionEvent.NULL;
         }
 
+        @Override
+        public void groupCommit(int transactions, long bytes, long waitNanos) {}
+
         @Override
         public LogForceWaitEvent beginLogForceWait() {
             return LogForceWaitEvent.NULL;
@@ -20,6 +20,7 @@
 package org.neo4j.kernel.impl.transaction.tracing;
 
 import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.transaction.stats.PowerOfTwoHistogram;
 import org.neo4j.kernel.impl.transaction.stats.TransactionLogCounters;
 
 /**
@@ -89,6 +90,31 @@ public interface TransactionTracer extends TransactionLogCounters {
         public long rolledbackBatchedTransactions() {
             return 0;
         }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitTransactions() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitBytes() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram groupCommitWaitNanos() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public PowerOfTwoHistogram logForceNanos() {
+            return new PowerOfTwoHistogram();
+        }
+
+        @Override
+        public long storeApplyTimeNanos() {
+            return 0;
+        }
     };
 
     /**
@@ -21,23 +21,32 @@ package org.neo4j.kernel.recovery;
 
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.neo4j.internal.helpers.Numbers.safeCastLongToInt;
 import static org.neo4j.io.ByteUnit.MebiByte;
 import static org.neo4j.io.ByteUnit.kibiBytes;
 import static org.neo4j.io.IOUtils.uncheckedLongConsumer;
+import static org.neo4j.kernel.recovery.LogTailScannerMonitor.Phase.CORRUPTION_CHECK;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
+import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.memory.HeapScopedBuffer;
@@ -50,6 +59,9 @@ import org.neo4j.kernel.impl.transaction.log.files.LogFiles;
 import org.neo4j.kernel.impl.transaction.log.files.TransactionLogFilesHelper;
 import org.neo4j.kernel.impl.transaction.log.files.checkpoint.CheckpointFile;
 import org.neo4j.memory.MemoryTracker;
+import org.neo4j.scheduler.CallableExecutor;
+import org.neo4j.scheduler.Group;
+import org.neo4j.scheduler.JobScheduler;
 
 /**
  * Transaction log truncator used during recovery to truncate all the logs after some specified position, that
@@ -62,18 +74,41 @@ import org.neo4j.memory.MemoryTracker;
 public class CorruptedLogsTruncator {
     public static final String CORRUPTED_TX_LOGS_BASE_NAME = "corrupted-" + TransactionLogFilesHelper.DEFAULT_NAME;
     private static final String LOG_FILE_ARCHIVE_PATTERN = CORRUPTED_TX_LOGS_BASE_NAME + "-%d-%d-%d.zip";
+    private static final long MIN_CORRUPTION_CHECK_REGION_SIZE = MebiByte.toBytes(16);
 
     private final Path storeDir;
     private final LogFiles logFiles;
     private final FileSystemAbstraction fs;
     private final MemoryTracker memoryTracker;
+    private final JobScheduler jobScheduler;
+    private final int parallelism;
+    private final LogTailScannerMonitor monitor;
 
     public CorruptedLogsTruncator(
             Path storeDir, LogFiles logFiles, FileSystemAbstraction fs, MemoryTracker memoryTracker) {
+        this(storeDir, logFiles, fs, memoryTracker, null, 1, LogTailScannerMonitor.NO_OP);
+    }
+
+    /**
+     * @param jobScheduler scheduler used to check large regions of the last recovered log file for unrecovered data
+     * in parallel, or {@code null} to do all the work on the calling thread.
+     * @param parallelism maximum number of regions checked concurrently.
+     */
+    public CorruptedLogsTruncator(
+            Path storeDir,
+            LogFiles logFiles,
+            FileSystemAbstraction fs,
+            MemoryTracker memoryTracker,
+            JobScheduler jobScheduler,
+            int parallelism,
+            LogTailScannerMonitor monitor) {
         this.storeDir = storeDir;
         this.logFiles = logFiles;
         this.fs = fs;
         this.memoryTracker = memoryTracker;
+        this.jobScheduler = jobScheduler;
+        this.parallelism = parallelism;
+        this.monitor = monitor;
     }
 
     /**
@@ -239,25 +274,31 @@ public class CorruptedLogsTruncator {
 
     private boolean isRecoveredLogCorrupted(long recoveredTransactionLogVersion, long recoveredTransactionOffset)
             throws IOException {
+        long startNanos = System.nanoTime();
+        try {
+            return hasDataAfter(recoveredTransactionLogVersion, recoveredTransactionOffset);
+        } finally {
+            monitor.phaseCompleted(CORRUPTION_CHECK, NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    private boolean hasDataAfter(long recoveredTransactionLogVersion, long recoveredTransactionOffset)
+            throws IOException {
         try {
             LogFile logFile = logFiles.getLogFile();
-            if (fs.getFileSize(logFile.getLogFileForVersion(recoveredTransactionLogVersion))
-                    > recoveredTransactionOffset) {
-                try (PhysicalLogVersionedStoreChannel channel = logFile.openForVersion(recoveredTransactionLogVersion);
-                        var scopedBuffer = new NativeScopedBuffer(
-                                safeCastLongToInt(kibiBytes(64)), ByteOrder.LITTLE_ENDIAN, memoryTracker)) {
-                    channel.position(recoveredTransactionOffset);
-                    ByteBuffer byteBuffer = scopedBuffer.getBuffer();
-                    while (channel.read(byteBuffer) >= 0) {
-                        byteBuffer.flip();
-                        while (byteBuffer.hasRemaining()) {
-                            if (byteBuffer.get() != 0) {
-                                return true;
-                            }
-                        }
-                        byteBuffer.clear();
-                    }
+            long fileSize = fs.getFileSize(logFile.getLogFileForVersion(recoveredTransactionLogVersion));
+            if (fileSize > recoveredTransactionOffset) {
+                int regions = corruptionCheckRegions(fileSize - recoveredTransactionOffset);
+                if (regions > 1) {
+                    return hasDataInParallel(
+                            logFile, recoveredTransactionLogVersion, recoveredTransactionOffset, fileSize, regions);
                 }
+                return hasDataInRegion(
+                        logFile,
+                        recoveredTransactionLogVersion,
+                        recoveredTransactionOffset,
+                        Long.MAX_VALUE,
+                        () -> false);
             }
             return false;
         } catch (NoSuchFileException ignored) {
@@ -265,6 +306,84 @@ public class CorruptedLogsTruncator {
         }
     }
 
+    private int corruptionCheckRegions(long bytesToCheck) {
+        if (jobScheduler == null || parallelism <= 1) {
+            return 1;
+        }
+        return (int) Math.max(1, Math.min(parallelism, bytesToCheck / MIN_CORRUPTION_CHECK_REGION_SIZE));
+    }
+
+    /**
+     * Splits the remainder of the file into regions that are checked concurrently, each through its own channel.
+     * The last region is checked up to wherever the channel ends, like the sequential check does.
+     */
+    private boolean hasDataInParallel(LogFile logFile, long logVersion, long offset, long fileSize, int regions)
+            throws IOException {
+        CallableExecutor executor = jobScheduler.executor(Group.FILE_IO_HELPER);
+        AtomicBoolean found = new AtomicBoolean();
+        long regionSize = (fileSize - offset + regions - 1) / regions;
+        List<Future<Boolean>> checks = new ArrayList<>(regions);
+        try {
+            for (int region = 0; region < regions; region++) {
+                long from = offset + region * regionSize;
+                long to = region == regions - 1 ? Long.MAX_VALUE : from + regionSize;
+                checks.add(executor.submit(() -> {
+                    boolean hasData = hasDataInRegion(logFile, logVersion, from, to, found::get);
+                    if (hasData) {
+                        found.set(true);
+                    }
+                    return hasData;
+                }));
+            }
+            for (Future<Boolean> check : checks) {
+                if (check.get()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            Exceptions.throwIfUnchecked(cause);
+            throw new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClosedByInterruptException();
+        } finally {
+            found.set(true);
+            checks.forEach(check -> check.cancel(false));
+        }
+    }
+
+    private boolean hasDataInRegion(LogFile logFile, long logVersion, long from, long to, BooleanSupplier stopped)
+            throws IOException {
+        try (PhysicalLogVersionedStoreChannel channel = logFile.openForVersion(logVersion);
+                var scopedBuffer = new NativeScopedBuffer(
+                        safeCastLongToInt(kibiBytes(64)), ByteOrder.LITTLE_ENDIAN, memoryTracker)) {
+            channel.position(from);
+            ByteBuffer byteBuffer = scopedBuffer.getBuffer();
+            long position = from;
+            while (position < to && !stopped.getAsBoolean()) {
+                byteBuffer.limit((int) Math.min(byteBuffer.capacity(), to - position));
+                int read = channel.read(byteBuffer);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+                byteBuffer.flip();
+                while (byteBuffer.hasRemaining()) {
+                    if (byteBuffer.get() != 0) {
+                        return true;
+                    }
+                }
+                byteBuffer.clear();
+            }
+        }
+        return false;
+    }
+
     private Optional<CheckpointInfo> findFirstCorruptDetachedCheckpoint(
             long recoveredTransactionLogVersion, long recoveredTransactionOffset) throws IOException {
         List<CheckpointInfo> detachedCheckpoints = logFiles.getCheckpointFile().getReachableDetachedCheckpoints();
@@ -69,6 +69,7 @@ public class DefaultRecoveryService implements RecoveryService {
     private final BinarySupportedKernelVersions binarySupportedKernelVersions;
     private final CursorContextFactory contextFactory;
     private final MetadataProvider metadataProvider;
+    private final RecoveryMonitor recoveryMonitor;
 
     DefaultRecoveryService(
             StorageEngine storageEngine,
@@ -78,6 +79,7 @@ public class DefaultRecoveryService implements RecoveryService {
             LogFiles logFiles,
             KernelVersionProvider versionProvider,
             RecoveryStartInformationProvider.Monitor monitor,
+            RecoveryMonitor recoveryMonitor,
             InternalLog log,
             Clock clock,
             boolean doParallelRecovery,
@@ -96,6 +98,7 @@ public class DefaultRecoveryService implements RecoveryService {
         this.binarySupportedKernelVersions = binarySupportedKernelVersions;
         this.contextFactory = contextFactory;
         this.metadataProvider = metadataProvider;
+        this.recoveryMonitor = recoveryMonitor;
         this.recoveryStartInformationProvider = new RecoveryStartInformationProvider(logFiles, monitor);
     }
 
@@ -108,7 +111,7 @@ public class DefaultRecoveryService implements RecoveryService {
     public RecoveryApplier getRecoveryApplier(
             TransactionApplicationMode mode, CursorContextFactory contextFactory, String tracerTag) {
         if (doParallelRecovery) {
-            return new ParallelRecoveryVisitor(storageEngine, mode, contextFactory, tracerTag);
+            return new ParallelRecoveryVisitor(storageEngine, mode, contextFactory, tracerTag, recoveryMonitor);
         }
         return new RecoveryVisitor(storageEngine, mode, contextFactory, tracerTag);
     }
@@ -20,7 +20,34 @@
 package org.neo4j.kernel.recovery;
 
 public interface LogTailScannerMonitor {
+    LogTailScannerMonitor NO_OP = new LogTailScannerMonitor() {
+        @Override
+        public void corruptedLogFile(long version, Throwable t) {}
+
+        @Override
+        public void corruptedCheckpointFile(long version, Throwable t) {}
+    };
+
     void corruptedLogFile(long version, Throwable t);
 
     void corruptedCheckpointFile(long version, Throwable t);
+
+    /**
+     * Called every time a phase of the log tail scan, or of the check for corrupted logs after recovery, completed.
+     *
+     * @param phase the phase that completed.
+     * @param elapsedMillis time spent in the phase.
+     */
+    default void phaseCompleted(Phase phase, long elapsedMillis) {}
+
+    enum Phase {
+        /** Locating the last valid checkpoint. */
+        CHECKPOINT_LOOKUP,
+        /** Reading the transaction logs after the checkpoint to find the first transaction that needs recovery. */
+        TRANSACTION_LOG_SCAN,
+        /** Reading older transaction logs to find the consensus index of the checkpointed transaction. */
+        CONSENSUS_INDEX_LOOKUP,
+        /** Checking the remainder of the last recovered transaction log file for unrecovered data. */
+        CORRUPTION_CHECK
+    }
 }
@@ -37,4 +37,9 @@ public class LoggingLogTailScannerMonitor implements LogTailScannerMonitor {
     public void corruptedCheckpointFile(long version, Throwable t) {
         log.warn(String.format("Fail to read checkpoint log version %d.", version), t);
     }
+
+    @Override
+    public void phaseCompleted(Phase phase, long elapsedMillis) {
+        log.debug(String.format("Log tail scan phase %s completed in %d ms.", phase, elapsedMillis));
+    }
 }
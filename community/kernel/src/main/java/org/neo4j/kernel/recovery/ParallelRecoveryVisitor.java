@@ -20,46 +20,83 @@
 package org.neo4j.kernel.recovery;
 
 import static java.lang.Integer.max;
-import static org.neo4j.util.Preconditions.checkState;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import org.eclipse.collections.api.list.primitive.MutableLongList;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableLongObjectMap;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
+import org.eclipse.collections.impl.map.mutable.primitive.LongObjectHashMap;
 import org.neo4j.internal.helpers.Exceptions;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
 import org.neo4j.kernel.impl.api.TransactionToApply;
 import org.neo4j.kernel.impl.transaction.CommittedCommandBatch;
+import org.neo4j.lock.Lock;
 import org.neo4j.lock.LockGroup;
 import org.neo4j.lock.LockService;
-import org.neo4j.lock.ReentrantLockService;
+import org.neo4j.lock.LockType;
 import org.neo4j.storageengine.api.StorageEngine;
 import org.neo4j.storageengine.api.TransactionApplicationMode;
 
+/**
+ * Applies recovered command batches on a pool of appliers.
+ * <p>
+ * Every visited batch is inspected, in recovery order, for the records it touches, using the same
+ * {@link StorageEngine#lockRecoveryCommands(org.neo4j.storageengine.api.CommandStream, LockService, LockGroup,
+ * TransactionApplicationMode) recovery locks} that guard parallel application. This builds a conflict graph where each
+ * batch depends on the not yet applied batches before it that touch any of the same records. Batches are handed to the
+ * appliers as soon as all their dependencies have been applied, so conflicting batches are still applied in recovery
+ * order, while batches that don't conflict with anything pending are applied right away, also out of order.
+ */
 final class ParallelRecoveryVisitor implements RecoveryApplier {
-    private final AtomicLong prevLockedTxId = new AtomicLong(-1);
+    private static final int MAX_PENDING_BATCHES_PER_APPLIER = 16;
+    private static final int NODE_RESOURCE = -1;
+    private static final int RELATIONSHIP_RESOURCE = -2;
+
     private final StorageEngine storageEngine;
-    private final LockService lockService = new ReentrantLockService();
     private final TransactionApplicationMode mode;
     private final CursorContextFactory contextFactory;
     private final String tracerTag;
+    private final RecoveryMonitor monitor;
+    private final int numAppliers;
     private final ExecutorService appliers;
+    private final int maxPendingBatches;
+    private final Semaphore pendingBatches;
     private final AtomicReference<Throwable> failure = new AtomicReference<>();
-    private final int stride;
+    private final AtomicLong applyNanos = new AtomicLong();
+
+    // Conflict graph, guarded by itself
+    private final ConflictCollector conflicts = new ConflictCollector();
+
+    // Only accessed by the visiting thread
+    private long startNanos = -1;
+    private long visitedBatches;
+    private long conflictingBatches;
 
     ParallelRecoveryVisitor(
             StorageEngine storageEngine,
             TransactionApplicationMode mode,
             CursorContextFactory contextFactory,
-            String tracerTag) {
+            String tracerTag,
+            RecoveryMonitor monitor) {
         this(
                 storageEngine,
                 mode,
                 contextFactory,
                 tracerTag,
+                monitor,
                 max(1, Runtime.getRuntime().availableProcessors() - 1));
     }
 
@@ -68,51 +105,76 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
             TransactionApplicationMode mode,
             CursorContextFactory contextFactory,
             String tracerTag,
+            RecoveryMonitor monitor,
             int numAppliers) {
         this.storageEngine = storageEngine;
         this.mode = mode;
         this.contextFactory = contextFactory;
         this.tracerTag = tracerTag;
-        this.appliers = new ThreadPoolExecutor(
-                numAppliers,
-                numAppliers,
-                1,
-                TimeUnit.HOURS,
-                new LinkedBlockingQueue<>(numAppliers),
-                new ThreadPoolExecutor.CallerRunsPolicy());
-        this.stride = mode.isReverseStep() ? -1 : 1;
+        this.monitor = monitor;
+        this.numAppliers = numAppliers;
+        this.appliers =
+                new ThreadPoolExecutor(numAppliers, numAppliers, 1, TimeUnit.HOURS, new LinkedBlockingQueue<>());
+        // Bounds the number of batches that are kept in memory while waiting to be applied
+        this.maxPendingBatches = numAppliers * MAX_PENDING_BATCHES_PER_APPLIER;
+        this.pendingBatches = new Semaphore(maxPendingBatches);
     }
 
     @Override
     public boolean visit(CommittedCommandBatch commandBatch) throws Exception {
         checkFailure();
+        if (startNanos == -1) {
+            startNanos = System.nanoTime();
+        }
 
-        // We need to know the starting point for the "is it my turn yet?" check below that each thread needs to do
-        // before acquiring the locks
-        prevLockedTxId.compareAndSet(-1, commandBatch.txId() - stride);
-
-        // TODO Also consider the memory usage of all active commandBatch instances and apply back-pressure if
-        // surpassing it
-        appliers.submit(() -> {
-            long txId = commandBatch.txId();
-            while (prevLockedTxId.get() != txId - stride) {
-                Thread.onSpinWait();
-                checkFailure();
+        pendingBatches.acquire();
+        PendingBatch batch = new PendingBatch(commandBatch);
+        boolean ready;
+        synchronized (conflicts) {
+            try {
+                conflicts.collect(batch);
+            } catch (Throwable e) {
+                // The batch may already be part of the graph, let it pass through the appliers without being applied
+                failure.compareAndSet(null, e);
             }
-            try (LockGroup locks = new LockGroup()) {
-                storageEngine.lockRecoveryCommands(commandBatch.commandBatch(), lockService, locks, mode);
-                boolean myTurn = prevLockedTxId.compareAndSet(txId - stride, txId);
-                checkState(
-                        myTurn,
-                        "Something wrong with the algorithm, I thought it was my turn, but apparently it wasn't %d",
-                        txId);
-                apply(commandBatch);
+            ready = batch.unappliedDependencies == 0;
+        }
+        visitedBatches++;
+        if (!ready) {
+            conflictingBatches++;
+        } else {
+            schedule(batch);
+        }
+        return false;
+    }
+
+    private void schedule(PendingBatch batch) {
+        appliers.execute(() -> {
+            long applyStart = System.nanoTime();
+            try {
+                if (failure.get() == null) {
+                    apply(batch.commandBatch);
+                }
             } catch (Throwable e) {
                 failure.compareAndSet(null, e);
+            } finally {
+                applyNanos.addAndGet(System.nanoTime() - applyStart);
+                List<PendingBatch> unblocked;
+                synchronized (conflicts) {
+                    unblocked = conflicts.applied(batch);
+                }
+                try {
+                    unblocked.forEach(this::schedule);
+                } catch (RejectedExecutionException e) {
+                    // An interrupted close shuts the appliers down without waiting for them, abandoning the batches
+                    // that are still pending
+                    if (!appliers.isShutdown()) {
+                        throw e;
+                    }
+                }
+                pendingBatches.release();
             }
-            return null;
         });
-        return false;
     }
 
     private void checkFailure() throws Exception {
@@ -133,14 +195,116 @@ final class ParallelRecoveryVisitor implements RecoveryApplier {
 
     @Override
     public void close() throws Exception {
-        appliers.shutdown();
         try {
+            // Every batch holds a permit until it has been applied, and the batches it unblocks hold their own
+            if (!pendingBatches.tryAcquire(maxPendingBatches, 1, TimeUnit.HOURS)) {
+                throw new IllegalStateException("Recovery couldn't gracefully await remaining appliers");
+            }
+            appliers.shutdown();
             if (!appliers.awaitTermination(1, TimeUnit.HOURS)) {
                 throw new IllegalStateException("Recovery couldn't gracefully await remaining appliers");
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+        } finally {
+            appliers.shutdown();
+        }
+        if (visitedBatches > 0) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long idleNanos = Math.max(0, numAppliers * elapsedNanos - applyNanos.get());
+            monitor.parallelRecoveryCompleted(
+                    visitedBatches,
+                    conflictingBatches,
+                    NANOSECONDS.toMillis(elapsedNanos),
+                    NANOSECONDS.toMillis(idleNanos));
         }
         checkFailure();
     }
+
+    private static final class PendingBatch {
+        private final CommittedCommandBatch commandBatch;
+        // Resource type and id pairs of the records this batch touches
+        private final MutableLongList resources = new LongArrayList();
+        private final List<PendingBatch> dependents = new ArrayList<>();
+        private int unappliedDependencies;
+
+        PendingBatch(CommittedCommandBatch commandBatch) {
+            this.commandBatch = commandBatch;
+        }
+
+        boolean hasLastDependent(PendingBatch batch) {
+            return !dependents.isEmpty() && dependents.get(dependents.size() - 1) == batch;
+        }
+    }
+
+    /**
+     * Records, instead of acquiring, the recovery locks of a batch, and links the batch to the last pending batch that
+     * touched each of the same records.
+     */
+    private final class ConflictCollector implements LockService {
+        private final MutableIntObjectMap<MutableLongObjectMap<PendingBatch>> lastPendingByResource =
+                new IntObjectHashMap<>();
+        private PendingBatch collecting;
+
+        void collect(PendingBatch batch) throws Exception {
+            collecting = batch;
+            try (LockGroup ignored = new LockGroup()) {
+                storageEngine.lockRecoveryCommands(batch.commandBatch.commandBatch(), this, ignored, mode);
+            } finally {
+                collecting = null;
+            }
+        }
+
+        /**
+         * @return the batches that no longer wait for any other batch to be applied.
+         */
+        List<PendingBatch> applied(PendingBatch batch) {
+            for (int i = 0; i < batch.resources.size(); i += 2) {
+                var lastPending = lastPendingByResource.get((int) batch.resources.get(i));
+                long id = batch.resources.get(i + 1);
+                if (lastPending.get(id) == batch) {
+                    lastPending.remove(id);
+                }
+            }
+            List<PendingBatch> unblocked = new ArrayList<>();
+            for (PendingBatch dependent : batch.dependents) {
+                if (--dependent.unappliedDependencies == 0) {
+                    unblocked.add(dependent);
+                }
+            }
+            return unblocked;
+        }
+
+        private Lock touch(int resourceType, long id) {
+            PendingBatch batch = collecting;
+            PendingBatch previous = lastPendingByResource
+                    .getIfAbsentPut(resourceType, LongObjectHashMap::new)
+                    .put(id, batch);
+            if (previous != batch) {
+                batch.resources.add(resourceType);
+                batch.resources.add(id);
+                // batches are collected one at a time, so if this one already depends on previous it was added last
+                if (previous != null && !previous.hasLastDependent(batch)) {
+                    previous.dependents.add(batch);
+                    batch.unappliedDependencies++;
+                }
+            }
+            return NO_LOCK;
+        }
+
+        @Override
+        public Lock acquireNodeLock(long nodeId, LockType type) {
+            return touch(NODE_RESOURCE, nodeId);
+        }
+
+        @Override
+        public Lock acquireRelationshipLock(long relationshipId, LockType type) {
+            return touch(RELATIONSHIP_RESOURCE, relationshipId);
+        }
+
+        @Override
+        public Lock acquireCustomLock(int resourceType, long id, LockType type) {
+            return touch(resourceType, id);
+        }
+    }
 }
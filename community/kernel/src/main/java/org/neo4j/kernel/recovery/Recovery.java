@@ -666,6 +666,7 @@ public final class Recovery {
                 .withDatabaseTracers(tracers)
                 .withExternalLogTailMetadata(logTailMetadata)
                 .withDependencies(dependencies)
+                .withJobScheduler(scheduler)
                 .withMemoryTracker(memoryTracker)
                 .build();
 
@@ -708,7 +709,10 @@ public final class Recovery {
                 cursorContextFactory,
                 mode,
                 new BinarySupportedKernelVersions(config),
-                metadataProvider);
+                metadataProvider,
+                scheduler,
+                config.get(GraphDatabaseInternalSettings.tx_log_tail_scan_parallelism),
+                monitors.newMonitor(LogTailScannerMonitor.class));
 
         CheckPointerImpl.ForceOperation forceOperation =
                 new DefaultForceOperation(indexingService, storageEngine, databasePageCache);
@@ -844,7 +848,10 @@ public final class Recovery {
             CursorContextFactory contextFactory,
             RecoveryMode mode,
             BinarySupportedKernelVersions binarySupportedKernelVersions,
-            MetadataProvider metadataProvider) {
+            MetadataProvider metadataProvider,
+            JobScheduler jobScheduler,
+            int tailScanParallelism,
+            LogTailScannerMonitor logTailScannerMonitor) {
         RecoveryService recoveryService = new DefaultRecoveryService(
                 storageEngine,
                 transactionIdStore,
@@ -853,6 +860,7 @@ public final class Recovery {
                 logFiles,
                 versionProvider,
                 positionMonitor,
+                recoveryMonitor,
                 log,
                 clock,
                 doParallelRecovery,
@@ -860,7 +868,13 @@ public final class Recovery {
                 contextFactory,
                 metadataProvider);
         CorruptedLogsTruncator logsTruncator = new CorruptedLogsTruncator(
-                databaseLayout.databaseDirectory(), logFiles, fileSystemAbstraction, memoryTracker);
+                databaseLayout.databaseDirectory(),
+                logFiles,
+                fileSystemAbstraction,
+                memoryTracker,
+                jobScheduler,
+                tailScanParallelism,
+                logTailScannerMonitor);
         var loggerPrintWriterAdaptor = new LoggerPrintWriterAdaptor(log, Level.INFO);
         return new TransactionLogsRecovery(
                 recoveryService,
@@ -54,4 +54,20 @@ public interface RecoveryMonitor {
     }
 
     default void batchApplySkipped(CommittedCommandBatch committedBatch) {}
+
+    /**
+     * Called when parallel recovery has applied all the batches it was given.
+     *
+     * @param recoveredBatches number of command batches that were applied.
+     * @param conflictingBatches number of those batches that had to wait for an earlier batch touching the same records.
+     * @param recoveryTimeInMilliseconds time from the first batch being visited until all batches were applied.
+     * @param applierIdleTimeInMilliseconds accumulated time the appliers were not applying any batch.
+     */
+    default void parallelRecoveryCompleted(
+            long recoveredBatches,
+            long conflictingBatches,
+            long recoveryTimeInMilliseconds,
+            long applierIdleTimeInMilliseconds) {
+        // noop
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.memory.EmptyMemoryTracker;
+import org.neo4j.time.Clocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Acquiring and releasing single node locks through {@link ForsetiClient}, the way write transactions do. Exclusive
+ * locks are taken on resources spread over a large id space, so that they rarely contend. Shared locks are taken on a
+ * small set of resources, so that most acquisitions join a lock that other threads already hold.
+ * <p/>
+ * Run with {@code -prof gc} to see the allocation rate per acquisition.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ForsetiLockManagerBenchmark {
+    @Param({"1048576"})
+    public int exclusiveResources;
+
+    @Param({"16"})
+    public int sharedResources;
+
+    @Param({"false", "true"})
+    public boolean stripedLockTables;
+
+    private ForsetiLockManager lockManager;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config config =
+                Config.defaults(GraphDatabaseInternalSettings.lock_manager_striped_lock_tables, stripedLockTables);
+        lockManager = new ForsetiLockManager(config, Clocks.nanoClock(), ResourceType.values());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lockManager.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ClientState {
+        private SplittableRandom random;
+        private LockManager.Client client;
+
+        @Setup(Level.Trial)
+        public void setUp(ForsetiLockManagerBenchmark benchmark) {
+            int threadId = benchmark.threadIds.getAndIncrement();
+            random = new SplittableRandom(threadId);
+            client = benchmark.lockManager.newClient();
+            client.initialize(
+                    LeaseService.NoLeaseClient.INSTANCE, threadId, EmptyMemoryTracker.INSTANCE, Config.defaults());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public void acquireAndReleaseExclusive(ClientState state) {
+        long resourceId = state.random.nextInt(exclusiveResources);
+        state.client.acquireExclusive(LockTracer.NONE, ResourceType.NODE, resourceId);
+        state.client.releaseExclusive(ResourceType.NODE, resourceId);
+    }
+
+    @Benchmark
+    public void acquireAndReleaseShared(ClientState state) {
+        long resourceId = state.random.nextInt(sharedResources);
+        state.client.acquireShared(LockTracer.NONE, ResourceType.NODE, resourceId);
+        state.client.releaseShared(ResourceType.NODE, resourceId);
+    }
+}
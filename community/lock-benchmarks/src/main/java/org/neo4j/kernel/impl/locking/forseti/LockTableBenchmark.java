@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.neo4j.configuration.Config;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.time.Clocks;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The global lock map operations behind every lock acquisition and release, on the primitive keyed
+ * {@link StripedLockTable} and on the boxed {@link ConcurrentMapLockTable}, by several threads at once. {@code insertAndRemove} is what acquiring and releasing an
+ * uncontended lock does to the map, {@code lookup} is what acquiring a lock that is already held starts with.
+ * <p/>
+ * Run with {@code -prof gc} to compare allocation rates as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(
+        value = 1,
+        jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class LockTableBenchmark {
+    @Param({"striped", "concurrent_map"})
+    public String implementation;
+
+    /**
+     * Number of distinct resources the threads pick from. Few resources means threads keep colliding on the same
+     * stripes and bins, many resources means the map is large and mostly cache cold.
+     */
+    @Param({"1024", "1048576"})
+    public int resources;
+
+    private ForsetiLockManager lockManager;
+    private LockTable map;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        lockManager = new ForsetiLockManager(Config.defaults(), Clocks.nanoClock(), ResourceType.values());
+        map = switch (implementation) {
+            case "striped" -> new StripedLockTable();
+            case "concurrent_map" -> new ConcurrentMapLockTable();
+            default -> throw new IllegalArgumentException("Unknown implementation " + implementation);};
+        // Half of the resources are locked up front, so that lookups see both hits and misses
+        ForsetiLockManager.Lock lock = new ExclusiveLock((ForsetiClient) lockManager.newClient());
+        for (long resourceId = 0; resourceId < resources; resourceId += 2) {
+            map.putIfAbsent(resourceId, lock);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        lockManager.close();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private SplittableRandom random;
+        private ForsetiLockManager.Lock lock;
+
+        @Setup(Level.Trial)
+        public void setUp(LockTableBenchmark benchmark) {
+            random = new SplittableRandom(benchmark.threadIds.getAndIncrement());
+            lock = new ExclusiveLock((ForsetiClient) benchmark.lockManager.newClient());
+        }
+    }
+
+    @Benchmark
+    public ForsetiLockManager.Lock insertAndRemove(ThreadState state) {
+        // Odd resources are not locked up front, but may be locked by another thread at the moment
+        long resourceId = state.random.nextInt(resources) | 1;
+        ForsetiLockManager.Lock existing = map.putIfAbsent(resourceId, state.lock);
+        if (existing == null) {
+            map.remove(resourceId);
+        }
+        return existing;
+    }
+
+    @Benchmark
+    public ForsetiLockManager.Lock lookup(ThreadState state) {
+        return map.get(state.random.nextInt(resources));
+    }
+}
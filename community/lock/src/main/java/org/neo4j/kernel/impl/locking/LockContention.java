@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import org.neo4j.lock.ResourceType;
+
+/**
+ * A resource that lock clients had to wait for, as estimated by a {@link LockContentionProfiler}.
+ *
+ * @param resourceType the type of the resource.
+ * @param resourceId the id of the resource.
+ * @param waits the estimated number of waits for the resource. Resources that started being tracked late may have this
+ * overestimated.
+ * @param totalWaitNanos the estimated total time spent waiting for the resource since it started being tracked.
+ * @param maxWaitNanos the longest sampled wait for the resource.
+ * @param maxOwners the largest number of lock owners a sampled wait found on the resource.
+ * @param maxWaiters the largest number of sampled waits for the resource that were in progress at the same time.
+ */
+public record LockContention(
+        ResourceType resourceType,
+        long resourceId,
+        long waits,
+        long totalWaitNanos,
+        long maxWaitNanos,
+        int maxOwners,
+        int maxWaiters) {}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.LockWaitEvent;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * An always-on profiler of lock contention. It samples lock waits, and keeps track of a fixed number of the most
+ * waited for resources using the Space-Saving algorithm: a resource that is not tracked yet replaces the tracked
+ * resource with the fewest waits, and inherits its wait count. Frequently waited for resources are thus never missed,
+ * at the price of overestimating the waits of the resources that replaced others.
+ * <p>
+ * The tracked resources are split into stripes by resource, each a Space-Saving summary with its own monitor. Waits
+ * for different resources thus rarely contend on the profiler, and a sampled wait only scans the resources of its own
+ * stripe. A resource always maps to the same stripe.
+ * <p>
+ * Acquiring a lock without waiting never reaches the profiler. Lock managers report waits through
+ * {@link #waitStarted(ResourceType, long, int)} and {@link #waitEnded(long, long)}, which do not allocate. Anyone
+ * else can report waits by using the profiler as a {@link LockTracer}, possibly combined with other tracers.
+ */
+public final class LockContentionProfiler implements LockTracer {
+    /** Returned by {@link #waitStarted(ResourceType, long, int)} for waits that are not sampled. */
+    public static final long NOT_SAMPLED = -1;
+
+    // Stripes are not made smaller than this, such that small profilers keep a single Space-Saving summary.
+    private static final int MIN_STRIPE_CAPACITY = 8;
+    private static final int MAX_STRIPES = 16;
+    // Handles hold the generation of the entry in the upper half, and its stripe and slot in the lower half.
+    private static final int STRIPE_SHIFT = 24;
+    private static final int SLOT_MASK = (1 << STRIPE_SHIFT) - 1;
+
+    private final SystemNanoClock clock;
+    private final int sampleInterval;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int stripeCapacity;
+
+    /**
+     * @param clock clock used to time waits reported through the {@link LockTracer} interface.
+     * @param capacity the number of resources to keep track of.
+     * @param sampleInterval sample one in this many waits, or none if zero.
+     */
+    public LockContentionProfiler(SystemNanoClock clock, int capacity, int sampleInterval) {
+        this.clock = clock;
+        this.sampleInterval = sampleInterval;
+        int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(MAX_STRIPES, capacity / MIN_STRIPE_CAPACITY)));
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        this.stripeCapacity = capacity / stripeCount;
+        for (int i = 0; i < stripeCount; i++) {
+            // The first stripes take the remainder, so that all stripes together track the given number of resources
+            stripes[i] = new Stripe(stripeCapacity + (i < capacity % stripeCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Report that a lock client started waiting for a resource.
+     *
+     * @param owners the number of clients owning the lock on the resource.
+     * @return a handle to give to {@link #waitEnded(long, long)} when the wait is over, or {@link #NOT_SAMPLED}.
+     */
+    public long waitStarted(ResourceType resourceType, long resourceId, int owners) {
+        if (sampleInterval == 0
+                || stripeCapacity == 0
+                || (sampleInterval > 1 && ThreadLocalRandom.current().nextInt(sampleInterval) != 0)) {
+            return NOT_SAMPLED;
+        }
+        int stripeIndex = stripeOf(resourceType, resourceId);
+        Stripe stripe = stripes[stripeIndex];
+        synchronized (stripe) {
+            int slot = stripe.slotOf(resourceType, resourceId);
+            Entry entry = stripe.entries[slot];
+            entry.waits++;
+            entry.waiters++;
+            entry.maxWaiters = Math.max(entry.maxWaiters, entry.waiters);
+            entry.maxOwners = Math.max(entry.maxOwners, owners);
+            return ((long) entry.generation << 32) | ((long) stripeIndex << STRIPE_SHIFT) | slot;
+        }
+    }
+
+    /**
+     * Report that a sampled wait is over.
+     *
+     * @param handle the handle returned by {@link #waitStarted(ResourceType, long, int)} for the wait.
+     * @param waitNanos how long the wait was.
+     */
+    public void waitEnded(long handle, long waitNanos) {
+        if (handle == NOT_SAMPLED) {
+            return;
+        }
+        Stripe stripe = stripes[(int) handle >>> STRIPE_SHIFT];
+        synchronized (stripe) {
+            Entry entry = stripe.entries[(int) handle & SLOT_MASK];
+            // The resource may have been replaced by another while we waited
+            if (entry.generation == (int) (handle >>> 32)) {
+                entry.waiters--;
+                entry.totalWaitNanos += waitNanos;
+                entry.maxWaitNanos = Math.max(entry.maxWaitNanos, waitNanos);
+            }
+        }
+    }
+
+    @Override
+    public LockWaitEvent waitForLock(
+            LockType lockType, ResourceType resourceType, long transactionId, long... resourceIds) {
+        if (resourceIds.length == 0) {
+            return LockWaitEvent.NONE;
+        }
+        long handle = waitStarted(resourceType, resourceIds[0], 0);
+        if (handle == NOT_SAMPLED) {
+            return LockWaitEvent.NONE;
+        }
+        long startNanos = clock.nanos();
+        return () -> waitEnded(handle, clock.nanos() - startNanos);
+    }
+
+    /**
+     * @return the tracked resources, most waited for first.
+     */
+    public List<LockContention> contendedResources() {
+        List<LockContention> resources = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int i = 0; i < stripe.size; i++) {
+                    Entry entry = stripe.entries[i];
+                    resources.add(new LockContention(
+                            entry.resourceType,
+                            entry.resourceId,
+                            entry.waits * sampleInterval,
+                            entry.totalWaitNanos * sampleInterval,
+                            entry.maxWaitNanos,
+                            entry.maxOwners,
+                            entry.maxWaiters));
+                }
+            }
+        }
+        resources.sort(Comparator.comparingLong(LockContention::waits).reversed());
+        return resources;
+    }
+
+    private int stripeOf(ResourceType resourceType, long resourceId) {
+        long hash = (resourceId + resourceType.typeId()) * 0x9E37_79B9_7F4A_7C15L;
+        return (int) (hash >>> 32) & stripeMask;
+    }
+
+    /** A Space-Saving summary of the waits for the resources that map to it. Guarded by its own monitor. */
+    private static final class Stripe {
+        private final Entry[] entries;
+        private int size;
+
+        Stripe(int capacity) {
+            this.entries = new Entry[capacity];
+            for (int i = 0; i < capacity; i++) {
+                entries[i] = new Entry();
+            }
+        }
+
+        int slotOf(ResourceType resourceType, long resourceId) {
+            int min = 0;
+            for (int i = 0; i < size; i++) {
+                Entry entry = entries[i];
+                if (entry.resourceId == resourceId && entry.resourceType == resourceType) {
+                    return i;
+                }
+                if (entry.waits < entries[min].waits) {
+                    min = i;
+                }
+            }
+            if (size < entries.length) {
+                entries[size].track(resourceType, resourceId, 0);
+                return size++;
+            }
+            entries[min].track(resourceType, resourceId, entries[min].waits);
+            return min;
+        }
+    }
+
+    private static final class Entry {
+        private ResourceType resourceType;
+        private long resourceId;
+        private int generation;
+        private long waits;
+        private int waiters;
+        private int maxWaiters;
+        private int maxOwners;
+        private long totalWaitNanos;
+        private long maxWaitNanos;
+
+        void track(ResourceType resourceType, long resourceId, long inheritedWaits) {
+            this.resourceType = resourceType;
+            this.resourceId = resourceId;
+            this.generation = (generation + 1) & Integer.MAX_VALUE;
+            this.waits = inheritedWaits;
+            this.waiters = 0;
+            this.maxWaiters = 0;
+            this.maxOwners = 0;
+            this.totalWaitNanos = 0;
+            this.maxWaitNanos = 0;
+        }
+    }
+}
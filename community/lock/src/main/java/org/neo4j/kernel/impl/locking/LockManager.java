@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.locking;
 
 import static org.neo4j.kernel.impl.locking.NoLocksClient.NO_LOCKS_CLIENT;
 
+import java.util.List;
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.api.LeaseClient;
 import org.neo4j.lock.LockType;
@@ -126,6 +127,14 @@ public interface LockManager {
     /** Visit all held locks. */
     void accept(Visitor visitor);
 
+    /**
+     * The resources clients have had to wait the most for, as far as this lock manager keeps track of them.
+     * @return the contended resources, most waited for first.
+     */
+    default List<LockContention> contendedResources() {
+        return List.of();
+    }
+
     void close();
 
     /** An implementation that doesn't do any locking **/
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+
+/**
+ * A {@link LockTable} backed by a {@link ConcurrentHashMap}, which boxes resource ids and allocates a map node for
+ * every lock that is inserted.
+ */
+final class ConcurrentMapLockTable implements LockTable {
+    private final ConcurrentMap<Long, ForsetiLockManager.Lock> map = new ConcurrentHashMap<>(16, 0.6f, 512);
+
+    @Override
+    public ForsetiLockManager.Lock get(long resourceId) {
+        return map.get(resourceId);
+    }
+
+    @Override
+    public ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock) {
+        return map.putIfAbsent(resourceId, lock);
+    }
+
+    @Override
+    public void put(long resourceId, ForsetiLockManager.Lock lock) {
+        map.put(resourceId, lock);
+    }
+
+    @Override
+    public void remove(long resourceId) {
+        map.remove(resourceId);
+    }
+
+    @Override
+    public void forEach(LongObjectProcedure<ForsetiLockManager.Lock> visitor) {
+        map.forEach(visitor::value);
+    }
+}
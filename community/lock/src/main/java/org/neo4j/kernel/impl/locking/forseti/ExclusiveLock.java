@@ -26,7 +26,7 @@ import org.eclipse.collections.api.set.primitive.LongSet;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.neo4j.lock.LockType;
 
-class ExclusiveLock implements ForsetiLockManager.Lock {
+class ExclusiveLock extends HandOffLock {
     private final ForsetiClient owner;
     private volatile boolean closed;
 
@@ -81,5 +81,6 @@ class ExclusiveLock implements ForsetiLockManager.Lock {
 
     void close() {
         closed = true;
+        wakeWaiters();
     }
 }
@@ -33,7 +33,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.collections.api.block.procedure.primitive.LongProcedure;
 import org.neo4j.collection.trackable.HeapTrackingCollections;
@@ -48,6 +47,7 @@ import org.neo4j.kernel.impl.api.LeaseClient;
 import org.neo4j.kernel.impl.locking.LockAcquisitionTimeoutException;
 import org.neo4j.kernel.impl.locking.LockClientStateHolder;
 import org.neo4j.kernel.impl.locking.LockClientStoppedException;
+import org.neo4j.kernel.impl.locking.LockContentionProfiler;
 import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.lock.ActiveLock;
 import org.neo4j.lock.LockTracer;
@@ -58,7 +58,6 @@ import org.neo4j.memory.DefaultScopedMemoryTracker;
 import org.neo4j.memory.HeapEstimator;
 import org.neo4j.memory.MemoryTracker;
 import org.neo4j.time.SystemNanoClock;
-import org.neo4j.util.VisibleForTesting;
 
 // Please note. Except separate test cases for particular classes related to community locking
 // see also LockingCompatibilityTestSuite test suite
@@ -79,7 +78,7 @@ public class ForsetiClient implements LockManager.Client {
     private static final int NO_DEADLOCK_DEPTH = -1;
 
     /** resourceType -> lock map. These are the global lock maps, shared across all clients. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    private final LockTable[] lockMaps;
 
     /**
      * The client uses this to track which locks it holds. It is solely an optimization to ensure we don't need to
@@ -93,6 +92,30 @@ public class ForsetiClient implements LockManager.Client {
     /** @see #sharedLockCounts */
     private final HeapTrackingLongIntHashMap[] exclusiveLockCounts;
 
+    /**
+     * resourceType -> range lock map, for the resource types whose locks can be escalated, otherwise null. These are
+     * global as well. Holding any lock in an id range requires holding the range lock too, see {@link ForsetiLockManager}.
+     */
+    private final LockTable[] rangeLockMaps;
+
+    /**
+     * The number of resources this client holds locks on in each id range it holds the range lock of:
+     * Array[ resourceType -> Map( range -> num resources ) ]
+     */
+    private final HeapTrackingLongIntHashMap[] rangeLockCounts;
+
+    /**
+     * The id ranges this client has escalated, and thus holds the range lock of as an update lock, with the number of
+     * exclusive locks it holds in each: Array[ resourceType -> Map( range -> num exclusive locks ) ]
+     */
+    private final HeapTrackingLongIntHashMap[] escalatedRanges;
+
+    /** The number of locks to hold in an id range before escalating it. */
+    private final int escalationThreshold;
+
+    /** Resource ids are mapped to their id range by shifting them this many bits. */
+    private final int rangeShift;
+
     private final AtomicLong activeLockCount = new AtomicLong();
 
     /**
@@ -129,6 +152,7 @@ public class ForsetiClient implements LockManager.Client {
             new ReleaseExclusiveLocksAndClearSharedVisitor();
     private final ReleaseSharedDontCheckExclusiveVisitor releaseSharedDontCheckExclusiveVisitor =
             new ReleaseSharedDontCheckExclusiveVisitor();
+    private final ReleaseRangeLocksVisitor releaseRangeLocksVisitor = new ReleaseRangeLocksVisitor();
 
     /**
      * When we *wait* for a specific lock to be released to us, we assign it to this field. This helps us during the
@@ -140,20 +164,46 @@ public class ForsetiClient implements LockManager.Client {
     private volatile long waitingForResourceId;
     private volatile LockType waitingForLockType;
 
+    private final LockContentionProfiler contentionProfiler;
+    private final LockWaitStrategy waitStrategy;
+
+    /** When we started waiting for the resource we are waiting for. */
+    private long waitStartedNanos;
+
+    /** Handle of the sampled wait for the resource we are waiting for, if any. */
+    private long contentionSample = LockContentionProfiler.NOT_SAMPLED;
+
+    /** Our registration as a waiter on the lock we are waiting for, once we have started parking on it. */
+    private HandOffLock.Waiter waiter;
+
+    private boolean deadlockSuspected;
+
     private volatile long transactionId;
     private final long clientId;
     private volatile DeferredScopedMemoryTracker memoryTracker;
     private static final long CONCURRENT_NODE_SIZE = HeapEstimator.LONG_SIZE + HeapEstimator.HASH_MAP_NODE_SHALLOW_SIZE;
     private volatile long prepareThreadId;
 
-    public ForsetiClient(
-            ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps,
+    ForsetiClient(
+            LockTable[] lockMaps,
+            LockTable[] rangeLockMaps,
+            int escalationThreshold,
+            int rangeShift,
+            LockContentionProfiler contentionProfiler,
+            LockWaitStrategy waitStrategy,
             SystemNanoClock clock,
             boolean verboseDeadlocks,
             long clientId) {
         this.lockMaps = lockMaps;
         this.sharedLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
         this.exclusiveLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
+        this.rangeLockMaps = rangeLockMaps;
+        this.rangeLockCounts = new HeapTrackingLongIntHashMap[lockMaps.length];
+        this.escalatedRanges = new HeapTrackingLongIntHashMap[lockMaps.length];
+        this.escalationThreshold = escalationThreshold;
+        this.rangeShift = rangeShift;
+        this.contentionProfiler = contentionProfiler;
+        this.waitStrategy = waitStrategy;
         this.clock = clock;
         this.verboseDeadlocks = verboseDeadlocks;
         this.clientId = clientId;
@@ -179,7 +229,8 @@ public class ForsetiClient implements LockManager.Client {
 
         try {
             // Grab the global lock map we will be using
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
+            LockTable rangeLockMap = rangeLockMaps[resourceType.typeId()];
 
             // And grab our local lock maps
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
@@ -203,6 +254,14 @@ public class ForsetiClient implements LockManager.Client {
                     continue;
                 }
 
+                if (rangeLockMap != null) {
+                    if (coveredByEscalation(resourceType, resourceId, false, SHARED)) {
+                        heldShareLocks.put(resourceId, 1);
+                        continue;
+                    }
+                    lockRange(tracer, resourceType, rangeLockMap, resourceId, SHARED);
+                }
+
                 memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
 
                 // We don't hold the lock, so we need to grab it via the global lock map
@@ -255,6 +314,9 @@ public class ForsetiClient implements LockManager.Client {
                 // Make a local note about the fact that we now hold this lock
                 activeLockCount.incrementAndGet();
                 heldShareLocks.put(resourceId, 1);
+                if (rangeLockMap != null) {
+                    lockedInRange(tracer, resourceType, resourceId, SHARED);
+                }
             }
         } finally {
             if (waitEvent != null) {
@@ -267,6 +329,13 @@ public class ForsetiClient implements LockManager.Client {
 
     private void noteWaitingForLock(
             ForsetiLockManager.Lock lock, ResourceType resourceType, long resourceId, LockType lockType) {
+        if (waitingForResourceType != resourceType || waitingForResourceId != resourceId) {
+            // We start waiting for a new resource, possibly after having acquired another one in the same call
+            endWait();
+            waitStartedNanos = clock.nanos();
+            int owners = lock instanceof SharedLock sharedLock ? sharedLock.numberOfHolders() : 1;
+            contentionSample = contentionProfiler.waitStarted(resourceType, resourceId, owners);
+        }
         waitingForResourceType = resourceType;
         waitingForResourceId = resourceId;
         waitingForLockType = lockType;
@@ -274,6 +343,9 @@ public class ForsetiClient implements LockManager.Client {
     }
 
     private void clearWaitState() {
+        endWait();
+        waiter = null;
+        deadlockSuspected = false;
         clearWaitList();
         waitingForLock = null;
         waitingForResourceId = -1;
@@ -281,6 +353,18 @@ public class ForsetiClient implements LockManager.Client {
         waitingForLockType = null;
     }
 
+    /** Report the wait for the resource we have been waiting for, if any, as over. */
+    private void endWait() {
+        if (waitingForResourceType != null) {
+            long waitedNanos = clock.nanos() - waitStartedNanos;
+            waitStrategy.waitEnded(waitingForResourceType, waitedNanos);
+            if (contentionSample != LockContentionProfiler.NOT_SAMPLED) {
+                contentionProfiler.waitEnded(contentionSample, waitedNanos);
+                contentionSample = LockContentionProfiler.NOT_SAMPLED;
+            }
+        }
+    }
+
     private HeapTrackingLongIntHashMap getSharedLockCount(ResourceType resourceType) {
         HeapTrackingLongIntHashMap sharedLockCount = sharedLockCounts[resourceType.typeId()];
         if (sharedLockCount == null) {
@@ -299,6 +383,24 @@ public class ForsetiClient implements LockManager.Client {
         return exclusiveLockCount;
     }
 
+    private HeapTrackingLongIntHashMap getRangeLockCount(ResourceType resourceType) {
+        HeapTrackingLongIntHashMap rangeLockCount = rangeLockCounts[resourceType.typeId()];
+        if (rangeLockCount == null) {
+            rangeLockCount = HeapTrackingCollections.newLongIntMap(memoryTracker);
+            rangeLockCounts[resourceType.typeId()] = rangeLockCount;
+        }
+        return rangeLockCount;
+    }
+
+    private HeapTrackingLongIntHashMap getEscalatedRanges(ResourceType resourceType) {
+        HeapTrackingLongIntHashMap ranges = escalatedRanges[resourceType.typeId()];
+        if (ranges == null) {
+            ranges = HeapTrackingCollections.newLongIntMap(memoryTracker);
+            escalatedRanges[resourceType.typeId()] = ranges;
+        }
+        return ranges;
+    }
+
     @Override
     public void acquireExclusive(LockTracer tracer, ResourceType resourceType, long... resourceIds) {
         hasLocks = true;
@@ -306,7 +408,8 @@ public class ForsetiClient implements LockManager.Client {
         LockWaitEvent waitEvent = null;
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
+            LockTable rangeLockMap = rangeLockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             for (long resourceId : resourceIds) {
@@ -317,6 +420,18 @@ public class ForsetiClient implements LockManager.Client {
                     continue;
                 }
 
+                boolean holdsShared =
+                        rangeLockMap != null && getSharedLockCount(resourceType).containsKey(resourceId);
+                if (rangeLockMap != null) {
+                    if (coveredByEscalation(resourceType, resourceId, holdsShared, EXCLUSIVE)) {
+                        heldLocks.put(resourceId, 1);
+                        continue;
+                    }
+                    if (!holdsShared) {
+                        lockRange(tracer, resourceType, rangeLockMap, resourceId, EXCLUSIVE);
+                    }
+                }
+
                 memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
                 // Grab the global lock
                 ForsetiLockManager.Lock existingLock;
@@ -348,6 +463,9 @@ public class ForsetiClient implements LockManager.Client {
                     activeLockCount.incrementAndGet();
                 }
                 heldLocks.put(resourceId, 1);
+                if (rangeLockMap != null && !holdsShared) {
+                    lockedInRange(tracer, resourceType, resourceId, EXCLUSIVE);
+                }
             }
         } finally {
             if (waitEvent != null) {
@@ -364,7 +482,8 @@ public class ForsetiClient implements LockManager.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
+            LockTable rangeLockMap = rangeLockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldLocks = getExclusiveLockCount(resourceType);
 
             int heldCount = heldLocks.getIfAbsent(resourceId, NO_CLIENT_ID);
@@ -374,6 +493,18 @@ public class ForsetiClient implements LockManager.Client {
                 return true;
             }
 
+            boolean holdsShared =
+                    rangeLockMap != null && getSharedLockCount(resourceType).containsKey(resourceId);
+            if (rangeLockMap != null) {
+                if (coveredByEscalation(resourceType, resourceId, holdsShared, EXCLUSIVE)) {
+                    heldLocks.put(resourceId, 1);
+                    return true;
+                }
+                if (!holdsShared && !tryLockRange(resourceType, rangeLockMap, resourceId)) {
+                    return false;
+                }
+            }
+
             memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
             // Grab the global lock
             ForsetiLockManager.Lock lock;
@@ -392,11 +523,15 @@ public class ForsetiClient implements LockManager.Client {
                     }
                 }
                 memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                releaseUnusedRange(resourceType, resourceId);
                 return false;
             }
 
             activeLockCount.incrementAndGet();
             heldLocks.put(resourceId, 1);
+            if (rangeLockMap != null && !holdsShared) {
+                lockedInRange(LockTracer.NONE, resourceType, resourceId, EXCLUSIVE);
+            }
             return true;
         } finally {
             stateHolder.decrementActiveClients();
@@ -409,7 +544,8 @@ public class ForsetiClient implements LockManager.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resourceType.typeId()];
+            LockTable lockMap = lockMaps[resourceType.typeId()];
+            LockTable rangeLockMap = rangeLockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap heldShareLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap heldExclusiveLocks = getExclusiveLockCount(resourceType);
 
@@ -427,6 +563,16 @@ public class ForsetiClient implements LockManager.Client {
                 return true;
             }
 
+            if (rangeLockMap != null) {
+                if (coveredByEscalation(resourceType, resourceId, false, SHARED)) {
+                    heldShareLocks.put(resourceId, 1);
+                    return true;
+                }
+                if (!tryLockRange(resourceType, rangeLockMap, resourceId)) {
+                    return false;
+                }
+            }
+
             memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
             long waitStartNano = clock.nanos();
             while (true) {
@@ -448,10 +594,12 @@ public class ForsetiClient implements LockManager.Client {
                         break;
                     } else if (sharedLock.isUpdateLock()) {
                         memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                        releaseUnusedRange(resourceType, resourceId);
                         return false;
                     }
                 } else if (existingLock instanceof ExclusiveLock) {
                     memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+                    releaseUnusedRange(resourceType, resourceId);
                     return false;
                 } else {
                     throw new UnsupportedOperationException("Unknown lock type: " + existingLock);
@@ -459,6 +607,9 @@ public class ForsetiClient implements LockManager.Client {
             }
             activeLockCount.incrementAndGet();
             heldShareLocks.put(resourceId, 1);
+            if (rangeLockMap != null) {
+                lockedInRange(LockTracer.NONE, resourceType, resourceId, SHARED);
+            }
             return true;
         } finally {
             stateHolder.decrementActiveClients();
@@ -472,14 +623,14 @@ public class ForsetiClient implements LockManager.Client {
         try {
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockMaps[resourceType.typeId()];
             for (long resourceId : resourceIds) {
                 if (releaseLocalLock(resourceType, resourceId, sharedLocks)) {
                     continue;
                 }
                 // Only release if we were not holding an exclusive lock as well
                 if (!exclusiveLocks.containsKey(resourceId)) {
-                    releaseGlobalLock(resourceTypeLocks, resourceId);
+                    releaseLock(resourceType, resourceTypeLocks, resourceId);
                 }
             }
         } finally {
@@ -492,7 +643,7 @@ public class ForsetiClient implements LockManager.Client {
         stateHolder.incrementActiveClients(this);
 
         try {
-            ConcurrentMap<Long, ForsetiLockManager.Lock> resourceTypeLocks = lockMaps[resourceType.typeId()];
+            LockTable resourceTypeLocks = lockMaps[resourceType.typeId()];
             HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
             HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
             for (long resourceId : resourceIds) {
@@ -501,6 +652,11 @@ public class ForsetiClient implements LockManager.Client {
                 }
 
                 if (sharedLocks.containsKey(resourceId)) {
+                    if (isEscalated(resourceType, resourceId >>> rangeShift)) {
+                        // The range lock covers the shared lock we are still holding as well
+                        releasedEscalatedExclusive(resourceType, resourceTypeLocks, resourceId);
+                        continue;
+                    }
                     // We are still holding a shared lock, so we will release it to be reused
                     ForsetiLockManager.Lock lock = resourceTypeLocks.get(resourceId);
                     if (lock instanceof SharedLock sharedLock) {
@@ -514,10 +670,12 @@ public class ForsetiClient implements LockManager.Client {
                         // in case if current lock is exclusive we swap it to new shared lock
                         SharedLock sharedLock = new SharedLock(this);
                         resourceTypeLocks.put(resourceId, sharedLock);
+                        myExclusiveLock.wakeWaiters();
                     }
                 } else {
                     // we do not hold shared lock so we just releasing it
-                    releaseGlobalLock(resourceTypeLocks, resourceId);
+                    releaseLock(resourceType, resourceTypeLocks, resourceId);
+                    releasedEscalatedExclusive(resourceType, resourceTypeLocks, resourceId);
                 }
             }
         } finally {
@@ -546,6 +704,19 @@ public class ForsetiClient implements LockManager.Client {
                 sharedLockCounts[i] = null;
                 sharedLocks.close();
             }
+
+            // And finally the range locks, which kept everyone else away from the ranges we held locks in
+            HeapTrackingLongIntHashMap rangeLocks = rangeLockCounts[i];
+            HeapTrackingLongIntHashMap escalated = escalatedRanges[i];
+            if (rangeLocks != null) {
+                rangeLocks.forEachKey(releaseRangeLocksVisitor.initialize(escalated, rangeLockMaps[i]));
+                rangeLockCounts[i] = null;
+                rangeLocks.close();
+            }
+            if (escalated != null) {
+                escalatedRanges[i] = null;
+                escalated.close();
+            }
         }
         activeLockCount.set(0);
     }
@@ -618,10 +789,12 @@ public class ForsetiClient implements LockManager.Client {
         var locks = new ArrayList<ActiveLock>();
         for (int typeId = 0; typeId < lockMaps.length; typeId++) {
             ResourceType resourceType = ResourceType.fromId(typeId);
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[typeId];
+            LockTable lockMap = lockMaps[typeId];
             if (lockMap != null) {
+                // Ranges are only listed once escalated, the intention locks on them are implied by the other locks
+                boolean escalatedOnly = ForsetiLockManager.isRangeType(resourceType);
                 lockMap.forEach((resourceId, lock) -> {
-                    if (lock.isOwnedBy(this)) {
+                    if (lock.isOwnedBy(this) && (!escalatedOnly || lock.type() == EXCLUSIVE)) {
                         locks.add(new ActiveLock(resourceType, lock.type(), transactionId, resourceId));
                     }
                 });
@@ -632,10 +805,15 @@ public class ForsetiClient implements LockManager.Client {
 
     @Override
     public boolean holdsLock(long id, ResourceType resource, LockType lockType) {
-        ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap = lockMaps[resource.typeId()];
+        LockTable lockMap = lockMaps[resource.typeId()];
         ForsetiLockManager.Lock lock = lockMap.get(id);
         if (lock == null) {
-            return false;
+            // Resources in ranges we have escalated are only covered by the exclusive range lock
+            LockTable rangeLockMap = rangeLockMaps[resource.typeId()];
+            return rangeLockMap != null
+                    && rangeLockMap.get(id >>> rangeShift) instanceof SharedLock rangeLock
+                    && rangeLock.isOwnedBy(this)
+                    && rangeLock.type() == EXCLUSIVE;
         }
         // If we are looking for shared a lock and have the exclusive its fine because exclusive is more strict
         LockType type = lock.type(); // Check type atomically
@@ -692,19 +870,48 @@ public class ForsetiClient implements LockManager.Client {
     }
 
     /** Release a lock from the global pool. */
-    private void releaseGlobalLock(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap, long resourceId) {
+    private void releaseGlobalLock(LockTable lockMap, long resourceId) {
         ForsetiLockManager.Lock lock = lockMap.get(resourceId);
-        if (lock instanceof ExclusiveLock) {
+        if (lock instanceof ExclusiveLock exclusiveLock) {
             lockMap.remove(resourceId);
+            exclusiveLock.wakeWaiters();
             memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
         } else if (lock instanceof SharedLock sharedLock && sharedLock.release(this)) {
             // We were the last to hold this lock
             lockMap.remove(resourceId);
+            sharedLock.wakeWaiters();
             memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
         }
         activeLockCount.decrementAndGet();
     }
 
+    /** Release the lock on a resource we no longer hold any references to, along with its range lock if unused. */
+    private void releaseLock(ResourceType resourceType, LockTable lockMap, long resourceId) {
+        LockTable rangeLockMap = rangeLockMaps[resourceType.typeId()];
+        if (rangeLockMap == null) {
+            releaseGlobalLock(lockMap, resourceId);
+            return;
+        }
+
+        long range = resourceId >>> rangeShift;
+        boolean escalated = isEscalated(resourceType, range);
+        if (escalated) {
+            // Resources in escalated ranges are not in the global lock map
+            activeLockCount.decrementAndGet();
+        } else {
+            releaseGlobalLock(lockMap, resourceId);
+        }
+
+        HeapTrackingLongIntHashMap rangeLocks = getRangeLockCount(resourceType);
+        if (rangeLocks.addToValue(range, -1) <= 0) {
+            rangeLocks.remove(range);
+            if (escalated) {
+                getEscalatedRanges(resourceType).remove(range);
+            }
+            releaseRangeLock(rangeLockMap, range, escalated);
+        }
+    }
+
     /** Release a lock locally, and return true if we still hold more references to that lock. */
     private boolean releaseLocalLock(ResourceType type, long resourceId, HeapTrackingLongIntHashMap localLocks) {
         int lockCount = localLocks.removeKeyIfAbsent(resourceId, NO_CLIENT_ID);
@@ -720,6 +927,245 @@ public class ForsetiClient implements LockManager.Client {
         return false;
     }
 
+    private boolean isEscalated(ResourceType resourceType, long range) {
+        HeapTrackingLongIntHashMap ranges = escalatedRanges[resourceType.typeId()];
+        return ranges != null && ranges.containsKey(range);
+    }
+
+    /**
+     * Check if a resource is in a range we have escalated, and count it as locked in the range if we did not already
+     * hold a lock on it.
+     *
+     * @return {@code true} if the range lock covers the resource, such that it needs no lock of its own.
+     */
+    private boolean coveredByEscalation(
+            ResourceType resourceType, long resourceId, boolean holdsResource, LockType lockType) {
+        long range = resourceId >>> rangeShift;
+        if (!isEscalated(resourceType, range)) {
+            return false;
+        }
+        if (!holdsResource) {
+            activeLockCount.incrementAndGet();
+            getRangeLockCount(resourceType).addToValue(range, 1);
+        }
+        if (lockType == EXCLUSIVE) {
+            getEscalatedRanges(resourceType).addToValue(range, 1);
+        }
+        return true;
+    }
+
+    /**
+     * Note the release of an exclusive lock in a range we may have escalated. Once we hold no exclusive locks in an
+     * escalated range the escalation is given up, such that the shared locks we still hold in it stop keeping everyone
+     * else out of the range. Those shared locks go back into the global lock map before the range is opened up.
+     */
+    private void releasedEscalatedExclusive(ResourceType resourceType, LockTable lockMap, long resourceId) {
+        HeapTrackingLongIntHashMap ranges = escalatedRanges[resourceType.typeId()];
+        long range = resourceId >>> rangeShift;
+        if (ranges == null || !ranges.containsKey(range) || ranges.addToValue(range, -1) > 0) {
+            return;
+        }
+        ranges.remove(range);
+        getSharedLockCount(resourceType).forEachKey(sharedResourceId -> {
+            if (sharedResourceId >>> rangeShift == range) {
+                memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+                lockMap.put(sharedResourceId, new SharedLock(this));
+            }
+        });
+        if (rangeLockMaps[resourceType.typeId()].get(range) instanceof SharedLock rangeLock) {
+            rangeLock.releaseUpdateLock();
+        }
+    }
+
+    /**
+     * Grab the range lock of a resource we are about to lock, unless we already hold it. Waits for the range lock if
+     * another client has escalated the range. Should locking the resource itself fail, the range lock is kept until
+     * all locks are released.
+     */
+    private void lockRange(
+            LockTracer tracer, ResourceType resourceType, LockTable rangeLockMap, long resourceId, LockType lockType) {
+        HeapTrackingLongIntHashMap rangeLocks = getRangeLockCount(resourceType);
+        long range = resourceId >>> rangeShift;
+        if (rangeLocks.containsKey(range)) {
+            return;
+        }
+
+        memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+        LockWaitEvent waitEvent = null;
+        SharedLock myRangeLock = null;
+        int tries = 0;
+        long waitStartNano = clock.nanos();
+        try {
+            while (true) {
+                assertValid(waitStartNano, resourceType, resourceId);
+
+                ForsetiLockManager.Lock existingLock = rangeLockMap.get(range);
+                if (existingLock == null) {
+                    if (myRangeLock == null) {
+                        myRangeLock = new SharedLock(this);
+                    }
+                    if (rangeLockMap.putIfAbsent(range, myRangeLock) == null) {
+                        break;
+                    }
+                    continue;
+                }
+                if (((SharedLock) existingLock).acquire(this)) {
+                    break;
+                }
+
+                // The range is escalated by someone else, or the lock is being released
+                if (waitEvent == null) {
+                    waitEvent = tracer.waitForLock(lockType, resourceType, transactionId, resourceId);
+                }
+                waitFor(existingLock, resourceType, resourceId, lockType, tries++);
+            }
+        } catch (Throwable e) {
+            memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+            throw e;
+        } finally {
+            if (waitEvent != null) {
+                waitEvent.close();
+                clearWaitState();
+            }
+        }
+        rangeLocks.put(range, 0);
+    }
+
+    /**
+     * Grab the range lock of a resource we are about to try to lock, unless we already hold it.
+     *
+     * @return {@code false} if the range is escalated by another client.
+     */
+    private boolean tryLockRange(ResourceType resourceType, LockTable rangeLockMap, long resourceId) {
+        HeapTrackingLongIntHashMap rangeLocks = getRangeLockCount(resourceType);
+        long range = resourceId >>> rangeShift;
+        if (rangeLocks.containsKey(range)) {
+            return true;
+        }
+
+        int tries = 0;
+        long waitStartNano = clock.nanos();
+        while (true) {
+            assertValid(waitStartNano, resourceType, resourceId);
+
+            ForsetiLockManager.Lock existingLock = rangeLockMap.get(range);
+            if (existingLock == null) {
+                if (rangeLockMap.putIfAbsent(range, new SharedLock(this)) == null) {
+                    break;
+                }
+            } else if (((SharedLock) existingLock).acquire(this)) {
+                break;
+            } else if (((SharedLock) existingLock).isUpdateLock()) {
+                return false;
+            } else {
+                // The range lock is being released, back off until it is gone from the range lock map
+                incrementalBackoffWait(tries++);
+            }
+        }
+        memoryTracker.allocateHeap(CONCURRENT_NODE_SIZE);
+        rangeLocks.put(range, 0);
+        return true;
+    }
+
+    /** Release the range lock of a resource we failed to lock, if we hold no other locks in the range. */
+    private void releaseUnusedRange(ResourceType resourceType, long resourceId) {
+        HeapTrackingLongIntHashMap rangeLocks = rangeLockCounts[resourceType.typeId()];
+        long range = resourceId >>> rangeShift;
+        if (rangeLocks != null && rangeLocks.getIfAbsent(range, NO_CLIENT_ID) == 0) {
+            rangeLocks.remove(range);
+            releaseRangeLock(rangeLockMaps[resourceType.typeId()], range, false);
+        }
+    }
+
+    private void releaseRangeLock(LockTable rangeLockMap, long range, boolean escalated) {
+        if (rangeLockMap.get(range) instanceof SharedLock rangeLock) {
+            if (escalated) {
+                rangeLock.releaseUpdateLock();
+            }
+            if (rangeLock.release(this)) {
+                rangeLockMap.remove(range);
+                rangeLock.wakeWaiters();
+            }
+        }
+        memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+    }
+
+    /** Count a resource we have locked in its range, and escalate the range if we hold enough exclusive locks in it. */
+    private void lockedInRange(LockTracer tracer, ResourceType resourceType, long resourceId, LockType lockType) {
+        long range = resourceId >>> rangeShift;
+        int lockCount = getRangeLockCount(resourceType).addToValue(range, 1);
+        if (lockType == EXCLUSIVE && lockCount % escalationThreshold == 0) {
+            tryEscalate(tracer, resourceType, range);
+        }
+    }
+
+    /**
+     * Escalate an id range by upgrading our shared lock on it to an update lock, which is only possible if no one else
+     * holds any lock in the range. Our own locks on resources in the range are then dropped from the global lock map,
+     * the range lock covers them from here on.
+     */
+    private void tryEscalate(LockTracer tracer, ResourceType resourceType, long range) {
+        int typeId = resourceType.typeId();
+        if (!(rangeLockMaps[typeId].get(range) instanceof SharedLock rangeLock) || !rangeLock.tryAcquireUpdateLock()) {
+            return;
+        }
+        if (rangeLock.numberOfHolders() > 1) {
+            rangeLock.releaseUpdateLock();
+            return;
+        }
+
+        LockTable lockMap = lockMaps[typeId];
+        HeapTrackingLongIntHashMap exclusiveLocks = getExclusiveLockCount(resourceType);
+        HeapTrackingLongIntHashMap sharedLocks = getSharedLockCount(resourceType);
+        long rangeSize = 1L << rangeShift;
+        long firstResourceId = range << rangeShift;
+        int exclusiveCount = 0;
+        if (rangeSize <= exclusiveLocks.size() + sharedLocks.size()) {
+            for (long i = 0; i < rangeSize; i++) {
+                long resourceId = firstResourceId + i;
+                boolean exclusive = exclusiveLocks.containsKey(resourceId);
+                if (exclusive || sharedLocks.containsKey(resourceId)) {
+                    dropGlobalLock(lockMap, resourceId);
+                }
+                if (exclusive) {
+                    exclusiveCount++;
+                }
+            }
+        } else {
+            exclusiveLocks.forEachKey(resourceId -> {
+                if (resourceId >>> rangeShift == range) {
+                    dropGlobalLock(lockMap, resourceId);
+                }
+            });
+            exclusiveCount = exclusiveLocks.keysView().count(resourceId -> resourceId >>> rangeShift == range);
+            sharedLocks.forEachKey(resourceId -> {
+                if (resourceId >>> rangeShift == range && !exclusiveLocks.containsKey(resourceId)) {
+                    dropGlobalLock(lockMap, resourceId);
+                }
+            });
+        }
+        getEscalatedRanges(resourceType).put(range, exclusiveCount);
+        tracer.lockEscalated(EXCLUSIVE, resourceType, transactionId, firstResourceId, firstResourceId + rangeSize - 1);
+    }
+
+    /** Remove a lock that only we hold from the global lock map, as part of escalating its range. */
+    private void dropGlobalLock(LockTable lockMap, long resourceId) {
+        ForsetiLockManager.Lock lock = lockMap.get(resourceId);
+        if (lock instanceof SharedLock sharedLock) {
+            if (sharedLock.isUpdateLock()) {
+                sharedLock.releaseUpdateLock();
+            }
+            if (!sharedLock.release(this)) {
+                return;
+            }
+        } else if (lock != myExclusiveLock) {
+            return;
+        }
+        lockMap.remove(resourceId);
+        ((HandOffLock) lock).wakeWaiters();
+        memoryTracker.releaseHeap(CONCURRENT_NODE_SIZE);
+    }
+
     /**
      * Attempt to upgrade a share lock to an exclusive lock, grabbing the share lock if we don't hold it.
      **/
@@ -727,7 +1173,7 @@ public class ForsetiClient implements LockManager.Client {
             LockTracer tracer,
             LockWaitEvent waitEvent,
             ResourceType resourceType,
-            ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap,
+            LockTable lockMap,
             long resourceId,
             SharedLock sharedLock,
             long waitStartNano) {
@@ -809,10 +1255,11 @@ public class ForsetiClient implements LockManager.Client {
             ForsetiLockManager.Lock lock, ResourceType type, long resourceId, LockType lockType, int tries) {
         clearAndCopyWaitList(lock);
         noteWaitingForLock(lock, type, resourceId, lockType);
-        incrementalBackoffWait(tries);
+        awaitRelease(lock, type, tries);
 
         ForsetiClient clientId = lock.detectDeadlock(this);
-        if (clientId != null && shouldAbort(clientId)) {
+        deadlockSuspected = clientId != null && shouldAbort(clientId);
+        if (deadlockSuspected) {
             // If the deadlock is real, then an owner of this lock must be (transitively) waiting on a lock that
             // we own. So to verify the deadlock, we traverse the lock owners and their `waitingForLock` fields,
             // to find a lock that has us among the owners.
@@ -851,8 +1298,34 @@ public class ForsetiClient implements LockManager.Client {
         }
     }
 
-    @VisibleForTesting
-    public static void incrementalBackoffWait(long iteration) {
+    /**
+     * Wait a little for a lock to be released, by spinning or by parking until the lock is handed off to us, depending
+     * on how long we expect to wait for it, see {@link LockWaitStrategy}.
+     */
+    private void awaitRelease(ForsetiLockManager.Lock lock, ResourceType type, int tries) {
+        if (!waitStrategy.isAdaptive()) {
+            incrementalBackoffWait(tries);
+            return;
+        }
+        if (waitStrategy.shouldSpin(type, tries, clock.nanos() - waitStartedNanos)) {
+            Thread.onSpinWait();
+            return;
+        }
+
+        HandOffLock handOffLock = (HandOffLock) lock;
+        if (waiter == null || !waiter.isWaitingFor(handOffLock)) {
+            // The lock is checked again before we park, so that we can not miss it being released in between
+            waiter = handOffLock.addWaiter();
+            return;
+        }
+        // While a deadlock is suspected, we check back often until it is either verified or gone
+        parkNanos(handOffLock, deadlockSuspected ? LockWaitStrategy.MIN_PARK_NANOS : waitStrategy.parkNanos(type));
+        if (Thread.interrupted()) {
+            throw new LockAcquisitionTimeoutException(Interrupted, "Interrupted while waiting.");
+        }
+    }
+
+    private static void incrementalBackoffWait(long iteration) {
         if (iteration < MAX_SPINS) {
             Thread.onSpinWait();
             return;
@@ -1078,9 +1551,9 @@ public class ForsetiClient implements LockManager.Client {
      * is no need to check for those. It is used when releasing all locks.
      */
     private class ReleaseSharedDontCheckExclusiveVisitor implements LongProcedure {
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize(ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(LockTable lockMap) {
             this.lockMap = lockMap;
             return this;
         }
@@ -1097,10 +1570,9 @@ public class ForsetiClient implements LockManager.Client {
      */
     private class ReleaseExclusiveLocksAndClearSharedVisitor implements LongProcedure {
         private HeapTrackingLongIntHashMap sharedLockCounts;
-        private ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap;
+        private LockTable lockMap;
 
-        private LongProcedure initialize(
-                HeapTrackingLongIntHashMap sharedLockCounts, ConcurrentMap<Long, ForsetiLockManager.Lock> lockMap) {
+        private LongProcedure initialize(HeapTrackingLongIntHashMap sharedLockCounts, LockTable lockMap) {
             this.sharedLockCounts = sharedLockCounts;
             this.lockMap = lockMap;
             return this;
@@ -1118,6 +1590,26 @@ public class ForsetiClient implements LockManager.Client {
         }
     }
 
+    /**
+     * Release the range locks, which are update locks for the ranges we escalated.
+     * This is used when releasing all locks, after the locks on the resources in the ranges are released.
+     */
+    private class ReleaseRangeLocksVisitor implements LongProcedure {
+        private HeapTrackingLongIntHashMap escalatedRanges;
+        private LockTable rangeLockMap;
+
+        private LongProcedure initialize(HeapTrackingLongIntHashMap escalatedRanges, LockTable rangeLockMap) {
+            this.escalatedRanges = escalatedRanges;
+            this.rangeLockMap = rangeLockMap;
+            return this;
+        }
+
+        @Override
+        public void value(long range) {
+            releaseRangeLock(rangeLockMap, range, escalatedRanges != null && escalatedRanges.containsKey(range));
+        }
+    }
+
     /**
      * A memory tracker with possibly deferred release. It will delegate all operations until stopped, where releases will be deferred until closed.
      * Releasing memory after stopped will be done by closing the tracker.
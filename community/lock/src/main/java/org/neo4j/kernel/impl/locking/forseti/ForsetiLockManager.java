@@ -19,16 +19,22 @@
  */
 package org.neo4j.kernel.impl.locking.forseti;
 
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_adaptive_waits;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_contention_sample_interval;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_contention_tracked_resources;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_escalation_range_bits;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_escalation_threshold;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_striped_lock_tables;
 import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_verbose_deadlocks;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.collections.api.set.primitive.LongSet;
 import org.neo4j.configuration.Config;
 import org.neo4j.configuration.SettingChangeListener;
+import org.neo4j.kernel.impl.locking.LockContention;
+import org.neo4j.kernel.impl.locking.LockContentionProfiler;
 import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.lock.LockType;
 import org.neo4j.lock.ResourceType;
@@ -102,6 +108,28 @@ import org.neo4j.time.SystemNanoClock;
  * traversing the graph like this until we either find ourselves amongst the owners - a deadlock - or we run out of
  * locks that are being waited upon - no deadlock.
  * <p/>
+ * <h2>Lock escalation</h2>
+ * <p/>
+ * Node and relationship locks can optionally be escalated, see
+ * {@link org.neo4j.configuration.GraphDatabaseInternalSettings#lock_manager_escalation_threshold}. The ids of those
+ * resource types are then divided into ranges, each with a lock of its own in a separate range lock map. A client
+ * holding any lock in a range also holds a shared intention lock on the range. Once a client holds enough locks in a
+ * range, and no other client holds the intention lock, the intention lock is upgraded to an update lock. The client
+ * then drops its own locks in the range from the lock map and locks further resources in the range locally, while
+ * everyone else waits for the range lock before they can lock anything in it. Since range locks are ordinary
+ * Forseti locks, waiting for them takes part in deadlock detection like waiting for any other lock.
+ * <p/>
+ * <h2>Contention profiling</h2>
+ * <p/>
+ * Clients report a sample of the resources they start and stop waiting for to a {@link LockContentionProfiler}, which
+ * keeps track of the most contended ones, see {@link #contendedResources()}. Only waiting clients report, so acquiring
+ * an uncontended lock costs nothing extra.
+ * <p/>
+ * <h2>Waiting</h2>
+ * <p/>
+ * Clients waiting for a lock spin if they expect the wait to be short, and otherwise park until whoever releases the
+ * lock unparks them. How long a wait is expected to take is learned per resource type, see {@link LockWaitStrategy}.
+ * <p/>
  */
 public class ForsetiLockManager implements LockManager {
     /** This is Forsetis internal lock API, which it uses to do deadlock detection. */
@@ -155,8 +183,17 @@ public class ForsetiLockManager implements LockManager {
     private final Config config;
     private final SettingChangeListener<Boolean> verboseDeadlocksSettingListener;
 
-    /** Pointers to lock maps, one array per resource type. */
-    private final ConcurrentMap<Long, ForsetiLockManager.Lock>[] lockMaps;
+    /** Pointers to lock maps, one table per resource type. */
+    private final LockTable[] lockMaps;
+
+    /**
+     * Pointers to range lock maps, one table per resource type whose locks can be escalated, otherwise null. These are
+     * the lock maps of the corresponding range resource types, see {@link #rangeType(ResourceType)}.
+     */
+    private final LockTable[] rangeLockMaps;
+
+    private final int escalationThreshold;
+    private final int escalationRangeBits;
 
     /** Reverse lookup resource types by id, used for introspection */
     private final ResourceType[] resourceTypes;
@@ -164,22 +201,40 @@ public class ForsetiLockManager implements LockManager {
     /** Counter to keep internal client ids unique, important to be thread safe! */
     private final AtomicLong clientIds = new AtomicLong();
 
+    private final LockContentionProfiler contentionProfiler;
+    private final LockWaitStrategy waitStrategy;
     private final SystemNanoClock clock;
     private volatile boolean verboseDeadlocks;
     private volatile boolean closed;
 
-    @SuppressWarnings("unchecked")
     public ForsetiLockManager(Config config, SystemNanoClock clock, ResourceType... resourceTypes) {
         this.config = config;
         int maxResourceId = findMaxResourceId(resourceTypes);
-        this.lockMaps = new ConcurrentMap[maxResourceId];
+        this.lockMaps = new LockTable[maxResourceId];
+        this.rangeLockMaps = new LockTable[maxResourceId];
         this.resourceTypes = new ResourceType[maxResourceId];
+        this.escalationThreshold = config.get(lock_manager_escalation_threshold);
+        this.escalationRangeBits = config.get(lock_manager_escalation_range_bits);
 
+        boolean stripedLockTables = config.get(lock_manager_striped_lock_tables);
         for (ResourceType type : resourceTypes) {
-            this.lockMaps[type.typeId()] = new ConcurrentHashMap<>(16, 0.6f, 512);
+            this.lockMaps[type.typeId()] = stripedLockTables ? new StripedLockTable() : new ConcurrentMapLockTable();
             this.resourceTypes[type.typeId()] = type;
         }
+        if (escalationThreshold > 0) {
+            for (ResourceType type : resourceTypes) {
+                ResourceType rangeType = rangeType(type);
+                if (rangeType != null && rangeType.typeId() < maxResourceId) {
+                    this.rangeLockMaps[type.typeId()] = lockMaps[rangeType.typeId()];
+                }
+            }
+        }
         this.clock = clock;
+        this.contentionProfiler = new LockContentionProfiler(
+                clock,
+                config.get(lock_manager_contention_tracked_resources),
+                config.get(lock_manager_contention_sample_interval));
+        this.waitStrategy = new LockWaitStrategy(maxResourceId, config.get(lock_manager_adaptive_waits));
         this.verboseDeadlocks = config.get(lock_manager_verbose_deadlocks);
         this.verboseDeadlocksSettingListener = (oldValue, newValue) -> verboseDeadlocks = newValue;
         config.addListener(lock_manager_verbose_deadlocks, verboseDeadlocksSettingListener);
@@ -194,7 +249,16 @@ public class ForsetiLockManager implements LockManager {
             throw new IllegalStateException(this + " already closed");
         }
 
-        return new ForsetiClient(lockMaps, clock, verboseDeadlocks, clientIds.incrementAndGet());
+        return new ForsetiClient(
+                lockMaps,
+                rangeLockMaps,
+                escalationThreshold,
+                escalationRangeBits,
+                contentionProfiler,
+                waitStrategy,
+                clock,
+                verboseDeadlocks,
+                clientIds.incrementAndGet());
     }
 
     @Override
@@ -202,18 +266,43 @@ public class ForsetiLockManager implements LockManager {
         for (int i = 0; i < lockMaps.length; i++) {
             if (lockMaps[i] != null) {
                 var resourceType = resourceTypes[i];
-                for (Map.Entry<Long, Lock> entry : lockMaps[i].entrySet()) {
-                    var lock = entry.getValue();
+                boolean rangeType = isRangeType(resourceType);
+                lockMaps[i].forEach((resourceId, lock) -> {
+                    if (rangeType && lock.type() != LockType.EXCLUSIVE) {
+                        // Intention locks on ranges are implied by the locks held within them
+                        return;
+                    }
                     var description = lock.describeWaitList();
                     var transactionIds = lock.transactionIds();
                     int lockIdentityHashCode = System.identityHashCode(lock);
                     transactionIds.forEach(txId -> out.visit(
-                            lock.type(), resourceType, txId, entry.getKey(), description, 0, lockIdentityHashCode));
-                }
+                            lock.type(), resourceType, txId, resourceId, description, 0, lockIdentityHashCode));
+                });
             }
         }
     }
 
+    @Override
+    public List<LockContention> contendedResources() {
+        return contentionProfiler.contendedResources();
+    }
+
+    /**
+     * @return the resource type of the id ranges that locks of the given type are escalated to, or {@code null} if
+     * they are never escalated.
+     */
+    static ResourceType rangeType(ResourceType type) {
+        return switch (type) {
+            case NODE -> ResourceType.NODE_RANGE;
+            case RELATIONSHIP -> ResourceType.RELATIONSHIP_RANGE;
+            default -> null;
+        };
+    }
+
+    static boolean isRangeType(ResourceType type) {
+        return type == ResourceType.NODE_RANGE || type == ResourceType.RELATIONSHIP_RANGE;
+    }
+
     private static int findMaxResourceId(ResourceType[] resourceTypes) {
         int max = 0;
         for (ResourceType resourceType : resourceTypes) {
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A Forseti lock that waiting clients can park on. Waiters register themselves before parking, and whoever releases
+ * the lock hands it off by unparking them directly, so that they do not have to find out about the release by polling.
+ * Releasing a lock nobody is parked on costs a single volatile read.
+ */
+abstract class HandOffLock implements ForsetiLockManager.Lock {
+    private static final VarHandle WAITERS;
+
+    static {
+        try {
+            WAITERS = MethodHandles.lookup().findVarHandle(HandOffLock.class, "waiters", Waiter.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unused") // Accessed through WAITERS
+    private volatile Waiter waiters;
+
+    /**
+     * Register the current thread to be unparked the next time this lock is released. The caller must check the lock
+     * again after registering and before parking, or it could miss a release that happened in between.
+     */
+    Waiter addWaiter() {
+        Waiter waiter = new Waiter(Thread.currentThread(), this);
+        Waiter head;
+        do {
+            head = waiters;
+            waiter.next = head;
+        } while (!WAITERS.weakCompareAndSet(this, head, waiter));
+        return waiter;
+    }
+
+    /** Unpark all threads registered as waiting for this lock. */
+    void wakeWaiters() {
+        if (waiters != null) {
+            Waiter waiter = (Waiter) WAITERS.getAndSet(this, null);
+            while (waiter != null) {
+                waiter.woken = true;
+                LockSupport.unpark(waiter.thread);
+                waiter = waiter.next;
+            }
+        }
+    }
+
+    static final class Waiter {
+        private final Thread thread;
+        private final HandOffLock lock;
+        private Waiter next;
+        private volatile boolean woken;
+
+        private Waiter(Thread thread, HandOffLock lock) {
+            this.thread = thread;
+            this.lock = lock;
+        }
+
+        /** @return whether this waiter is still registered as waiting for the given lock. */
+        boolean isWaitingFor(HandOffLock lock) {
+            return this.lock == lock && !woken;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+
+/**
+ * The global lock map of a single {@link org.neo4j.lock.ResourceType}, mapping resource ids to the
+ * {@link ForsetiLockManager.Lock} currently held on them. Every lock acquisition and release goes through one of these.
+ */
+interface LockTable {
+    /**
+     * @return the lock held on the given resource, or {@code null} if there is none.
+     */
+    ForsetiLockManager.Lock get(long resourceId);
+
+    /**
+     * Map the given resource to the given lock, unless it already has a lock.
+     *
+     * @return the lock already held on the resource, or {@code null} if the given lock was inserted.
+     */
+    ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock);
+
+    /**
+     * Map the given resource to the given lock, replacing any lock it already has.
+     */
+    void put(long resourceId, ForsetiLockManager.Lock lock);
+
+    /**
+     * Remove the lock of the given resource, if it has one.
+     */
+    void remove(long resourceId);
+
+    /**
+     * Visit all locks in the table. This is meant for introspection, and is weakly consistent: locks may come and go
+     * while the table is visited.
+     */
+    void forEach(LongObjectProcedure<ForsetiLockManager.Lock> visitor);
+}
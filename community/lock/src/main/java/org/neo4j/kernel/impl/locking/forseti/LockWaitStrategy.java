@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.neo4j.lock.ResourceType;
+
+/**
+ * Decides how a {@link ForsetiClient} waits for a contended lock, based on how long waits for locks of the same
+ * {@link ResourceType} have recently taken.
+ * <p/>
+ * A client expecting a short wait spins with {@link Thread#onSpinWait()}, since the lock is likely to be released
+ * before parking and being unparked again would pay off. Longer waits, or short ones that turn out to take longer
+ * than expected, park on the lock until it is handed off to them, see {@link HandOffLock}. Parking is timed, so that
+ * waiters still get to run deadlock detection and notice being stopped. Only {@link java.util.concurrent.locks.LockSupport}
+ * is used for blocking, which plays well with virtual threads, and spinning is bounded and never done on a single CPU.
+ * <p/>
+ * The expected wait per resource type is a moving average, updated without synchronization. Losing an update in a
+ * race only makes the estimate slightly less accurate.
+ */
+final class LockWaitStrategy {
+    private static final boolean SPINNING_ALLOWED = Runtime.getRuntime().availableProcessors() > 1;
+    static final int MAX_SPINS = 1000;
+    static final long MAX_SPIN_NANOS = MICROSECONDS.toNanos(50);
+    static final long INITIAL_WAIT_NANOS = MICROSECONDS.toNanos(20);
+    static final long MIN_PARK_NANOS = MICROSECONDS.toNanos(10);
+    static final long MAX_PARK_NANOS = MILLISECONDS.toNanos(1);
+
+    /** Weight of the latest wait in the moving average, as a shift: 1/8. */
+    private static final int WEIGHT_SHIFT = 3;
+
+    private final boolean adaptive;
+    private final AtomicLongArray expectedWaitNanos;
+
+    LockWaitStrategy(int resourceTypes, boolean adaptive) {
+        this.adaptive = adaptive;
+        this.expectedWaitNanos = new AtomicLongArray(resourceTypes);
+        for (int i = 0; i < resourceTypes; i++) {
+            expectedWaitNanos.set(i, INITIAL_WAIT_NANOS);
+        }
+    }
+
+    /**
+     * @return {@code true} if waits should adapt to the expected wait, otherwise clients use a fixed backoff.
+     */
+    boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @param tries how many times the client has tried to acquire the lock.
+     * @param waitedNanos how long the client has waited for the lock so far.
+     * @return {@code true} if the client should spin rather than park while waiting for the lock to be released.
+     */
+    boolean shouldSpin(ResourceType resourceType, int tries, long waitedNanos) {
+        return SPINNING_ALLOWED
+                && tries < MAX_SPINS
+                && waitedNanos < Math.min(expectedWaitNanos(resourceType), MAX_SPIN_NANOS);
+    }
+
+    /**
+     * @return for how long a client that does not spin should park, unless the lock is handed off to it before that.
+     */
+    long parkNanos(ResourceType resourceType) {
+        return Math.min(Math.max(expectedWaitNanos(resourceType), MIN_PARK_NANOS), MAX_PARK_NANOS);
+    }
+
+    /** Learn from a finished wait for a lock on a resource of the given type. */
+    void waitEnded(ResourceType resourceType, long waitedNanos) {
+        int typeId = resourceType.typeId();
+        long expected = expectedWaitNanos.get(typeId);
+        expectedWaitNanos.set(typeId, expected + ((waitedNanos - expected) >> WEIGHT_SHIFT));
+    }
+
+    long expectedWaitNanos(ResourceType resourceType) {
+        return expectedWaitNanos.get(resourceType.typeId());
+    }
+}
@@ -33,7 +33,7 @@ import org.neo4j.lock.LockType;
  * A Forseti share lock. Can be upgraded to an update lock, which will block new attempts at acquiring shared lock,
  * but will allow existing holders to complete.
  */
-class SharedLock implements ForsetiLockManager.Lock {
+class SharedLock extends HandOffLock {
     /**
      * The update lock flag is inlined into the ref count integer, in order to allow common CAS operations across
      * both the update flag and the refCount simultaneously. This avoids a nasty series of race conditions, but
@@ -77,9 +77,19 @@ class SharedLock implements ForsetiLockManager.Lock {
         }
     }
 
+    /**
+     * Release the hold of a client on this lock. The last holder to release the lock closes it, and must then remove
+     * it from its lock table before calling {@link #wakeWaiters()}, such that no woken waiter finds the closed lock.
+     *
+     * @return {@code true} if this was the last holder of the lock.
+     */
     public boolean release(ForsetiClient client) {
         removeClientHoldingLock(client);
-        return releaseReference();
+        boolean lastHolder = releaseReference();
+        if (!lastHolder) {
+            wakeWaiters();
+        }
+        return lastHolder;
     }
 
     @Override
@@ -111,6 +121,7 @@ class SharedLock implements ForsetiLockManager.Lock {
 
     void releaseUpdateLock() {
         REF_COUNT.getAndBitwiseAnd(this, ~UPDATE_LOCK_FLAG);
+        wakeWaiters();
     }
 
     int numberOfHolders() {
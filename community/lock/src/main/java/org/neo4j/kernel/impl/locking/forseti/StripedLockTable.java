@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import java.util.concurrent.locks.StampedLock;
+import org.eclipse.collections.api.block.procedure.primitive.LongObjectProcedure;
+
+/**
+ * A {@link LockTable} that does not allocate when locks are acquired and released: resource ids are stored as
+ * primitive longs in open addressing tables with linear probing, rather than as boxed keys in map nodes. The table is
+ * split into independently locked stripes to spread contention. Lookups are optimistic and lock free, and only fall
+ * back to a read lock if the stripe was modified while they were probing. Modifications take the write lock of their
+ * stripe, and removals shift following entries back instead of leaving tombstones, so a table never has to be cleaned
+ * up.
+ * <p/>
+ * Inserting and removing locks of resources that are not in the CPU cache is slower than with
+ * {@link ConcurrentMapLockTable}, since the stripe write lock is held across the cache misses.
+ */
+final class StripedLockTable implements LockTable {
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int MIN_SHRINK_CAPACITY = 256;
+    /** Marks free slots. Resource id 0 is common, but having it next to the table is cheaper than filling tables. */
+    private static final long FREE = 0;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    StripedLockTable() {
+        this(DEFAULT_STRIPES);
+    }
+
+    StripedLockTable(int stripes) {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Number of stripes must be a power of two, but was " + stripes);
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripes - 1;
+    }
+
+    @Override
+    public ForsetiLockManager.Lock get(long resourceId) {
+        long hash = hash(resourceId);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        long stamp = stripe.tryOptimisticRead();
+        if (stamp != 0) {
+            ForsetiLockManager.Lock lock = stripe.find(resourceId, slotHash(hash));
+            if (stripe.validate(stamp)) {
+                return lock;
+            }
+        }
+        stamp = stripe.readLock();
+        try {
+            return stripe.find(resourceId, slotHash(hash));
+        } finally {
+            stripe.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public ForsetiLockManager.Lock putIfAbsent(long resourceId, ForsetiLockManager.Lock lock) {
+        long hash = hash(resourceId);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        // Locks that are already held can be joined without excluding the other users of the stripe
+        long stamp = stripe.tryOptimisticRead();
+        if (stamp != 0) {
+            ForsetiLockManager.Lock existing = stripe.find(resourceId, slotHash(hash));
+            if (existing != null && stripe.validate(stamp)) {
+                return existing;
+            }
+        }
+        stamp = stripe.writeLock();
+        try {
+            return stripe.put(resourceId, slotHash(hash), lock, true);
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void put(long resourceId, ForsetiLockManager.Lock lock) {
+        long hash = hash(resourceId);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        long stamp = stripe.writeLock();
+        try {
+            stripe.put(resourceId, slotHash(hash), lock, false);
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void remove(long resourceId) {
+        long hash = hash(resourceId);
+        Stripe stripe = stripes[(int) hash & stripeMask];
+        long stamp = stripe.writeLock();
+        try {
+            stripe.remove(resourceId, slotHash(hash));
+        } finally {
+            stripe.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void forEach(LongObjectProcedure<ForsetiLockManager.Lock> visitor) {
+        for (Stripe stripe : stripes) {
+            long[] resourceIds;
+            ForsetiLockManager.Lock[] locks;
+            long stamp = stripe.readLock();
+            try {
+                int count = stripe.count();
+                if (count == 0) {
+                    continue;
+                }
+                resourceIds = new long[count];
+                locks = new ForsetiLockManager.Lock[count];
+                stripe.copyInto(resourceIds, locks);
+            } finally {
+                stripe.unlockRead(stamp);
+            }
+            for (int i = 0; i < locks.length; i++) {
+                visitor.value(resourceIds[i], locks[i]);
+            }
+        }
+    }
+
+    private static long hash(long resourceId) {
+        // Resource ids are often dense and sequential, spread them over all stripes and slots
+        long hash = resourceId;
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int slotHash(long hash) {
+        // The low bits select the stripe, so slots are selected by the high bits
+        return (int) (hash >>> 32);
+    }
+
+    private static final class Stripe extends StampedLock {
+        /**
+         * Replaced as a whole on resize, so an optimistic reader always sees keys and values of the same table.
+         * Visibility is provided by the stamped lock, which is validated after every optimistic read.
+         */
+        private Table table = new Table(INITIAL_CAPACITY);
+
+        /** The lock of resource {@link #FREE}, which can not be told apart from a free slot in the table. */
+        private ForsetiLockManager.Lock freeKeyLock;
+
+        /** Number of resources in {@link #table}. */
+        private int size;
+
+        ForsetiLockManager.Lock find(long resourceId, int slotHash) {
+            return resourceId == FREE ? freeKeyLock : table.find(resourceId, slotHash);
+        }
+
+        ForsetiLockManager.Lock put(long resourceId, int slotHash, ForsetiLockManager.Lock lock, boolean onlyIfAbsent) {
+            if (resourceId == FREE) {
+                ForsetiLockManager.Lock existing = freeKeyLock;
+                if (existing == null || !onlyIfAbsent) {
+                    freeKeyLock = lock;
+                }
+                return existing;
+            }
+            Table current = table;
+            int mask = current.mask;
+            for (int slot = slotHash & mask; ; slot = (slot + 1) & mask) {
+                long key = current.keys[slot];
+                if (key == FREE) {
+                    current.keys[slot] = resourceId;
+                    current.values[slot] = lock;
+                    if (++size > current.keys.length >>> 1) {
+                        table = current.resize(current.keys.length << 1);
+                    }
+                    return null;
+                }
+                if (key == resourceId) {
+                    ForsetiLockManager.Lock existing = current.values[slot];
+                    if (!onlyIfAbsent) {
+                        current.values[slot] = lock;
+                    }
+                    return existing;
+                }
+            }
+        }
+
+        void remove(long resourceId, int slotHash) {
+            if (resourceId == FREE) {
+                freeKeyLock = null;
+                return;
+            }
+            Table current = table;
+            long[] keys = current.keys;
+            int mask = current.mask;
+            int slot = slotHash & mask;
+            while (keys[slot] != resourceId) {
+                if (keys[slot] == FREE) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            // Shift back every following entry of the probe sequence that would no longer be reachable past the hole
+            int hole = slot;
+            for (int next = (hole + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+                int home = slotHash(hash(keys[next])) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = keys[next];
+                    current.values[hole] = current.values[next];
+                    hole = next;
+                }
+            }
+            keys[hole] = FREE;
+            current.values[hole] = null;
+
+            size--;
+            int capacity = keys.length;
+            if (capacity >= MIN_SHRINK_CAPACITY && size < capacity >>> 3) {
+                table = current.resize(capacity >>> 1);
+            }
+        }
+
+        int count() {
+            return size + (freeKeyLock != null ? 1 : 0);
+        }
+
+        void copyInto(long[] resourceIds, ForsetiLockManager.Lock[] locks) {
+            int index = table.copyInto(resourceIds, locks);
+            if (freeKeyLock != null) {
+                resourceIds[index] = FREE;
+                locks[index] = freeKeyLock;
+            }
+        }
+    }
+
+    /**
+     * Keys and values in separate arrays, with free slots marked in the keys, so that probing only ever touches the
+     * keys array, and only a hit reads the value.
+     */
+    private static final class Table {
+        private final long[] keys;
+        private final ForsetiLockManager.Lock[] values;
+        private final int mask;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new ForsetiLockManager.Lock[capacity];
+            this.mask = capacity - 1;
+        }
+
+        ForsetiLockManager.Lock find(long resourceId, int slotHash) {
+            // The probe is bounded so that an optimistic reader racing with a writer always terminates
+            int slot = slotHash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                long key = keys[slot];
+                if (key == resourceId) {
+                    return values[slot];
+                }
+                if (key == FREE) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        Table resize(int capacity) {
+            Table resized = new Table(capacity);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != FREE) {
+                    int slot = slotHash(hash(keys[i])) & resized.mask;
+                    while (resized.keys[slot] != FREE) {
+                        slot = (slot + 1) & resized.mask;
+                    }
+                    resized.keys[slot] = keys[i];
+                    resized.values[slot] = values[i];
+                }
+            }
+            return resized;
+        }
+
+        int copyInto(long[] resourceIds, ForsetiLockManager.Lock[] locks) {
+            int index = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != FREE) {
+                    resourceIds[index] = keys[i];
+                    locks[index++] = values[i];
+                }
+            }
+            return index;
+        }
+    }
+}
@@ -22,8 +22,10 @@ package org.neo4j.kernel.impl.locking.multiversion;
 import static org.neo4j.lock.ResourceType.PAGE;
 
 import java.util.Collection;
+import java.util.List;
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.api.LeaseClient;
+import org.neo4j.kernel.impl.locking.LockContention;
 import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.lock.ActiveLock;
 import org.neo4j.lock.LockTracer;
@@ -48,6 +50,11 @@ public class MultiVersionLockManager implements LockManager {
         storageLockManager.accept(visitor);
     }
 
+    @Override
+    public List<LockContention> contendedResources() {
+        return storageLockManager.contendedResources();
+    }
+
     @Override
     public void close() {
         storageLockManager.close();
@@ -26,7 +26,8 @@ import java.util.Arrays;
  * the {@linkplain LockTracer#waitForLock(LockType, ResourceType, long, long...)} wait events} received.
  * <p>
  * This is used for when there is a stack of queries in a transaction, or when a system-configured tracer combines with
- * the query specific tracers.
+ * the query specific tracers. {@linkplain LockTracer#lockEscalated(LockType, ResourceType, long, long, long) Lock
+ * escalations} are forwarded to each of them as well.
  */
 final class CombinedTracer implements LockTracer {
     private final LockTracer[] tracers;
@@ -45,6 +46,18 @@ final class CombinedTracer implements LockTracer {
         return new CombinedEvent(events);
     }
 
+    @Override
+    public void lockEscalated(
+            LockType lockType,
+            ResourceType resourceType,
+            long transactionId,
+            long firstResourceId,
+            long lastResourceId) {
+        for (LockTracer tracer : tracers) {
+            tracer.lockEscalated(lockType, resourceType, transactionId, firstResourceId, lastResourceId);
+        }
+    }
+
     @Override
     public LockTracer combine(LockTracer tracer) {
         if (tracer == NONE) {
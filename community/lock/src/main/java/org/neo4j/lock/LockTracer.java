@@ -23,6 +23,22 @@ package org.neo4j.lock;
 public interface LockTracer {
     LockWaitEvent waitForLock(LockType lockType, ResourceType resourceType, long transactionId, long... resourceIds);
 
+    /**
+     * Invoked when the locks a transaction holds on a range of resources are escalated to a single lock on the range.
+     *
+     * @param lockType the type of the lock taken on the range.
+     * @param resourceType the type of the resources in the range.
+     * @param transactionId the transaction holding the locks.
+     * @param firstResourceId the first resource id of the range.
+     * @param lastResourceId the last resource id of the range, inclusive.
+     */
+    default void lockEscalated(
+            LockType lockType,
+            ResourceType resourceType,
+            long transactionId,
+            long firstResourceId,
+            long lastResourceId) {}
+
     default LockTracer combine(LockTracer tracer) {
         if (tracer == NONE) {
             return this;
@@ -69,6 +69,13 @@ import org.eclipse.collections.impl.map.mutable.primitive.IntObjectHashMap;
  *
  *     <dt>{@link #NODE_LOCAL_IDS} - Node id</dt>
  *     <dd>Lock the node-local relationship ids of a node to prevent concurrent updates. Block-format only</dd>
+ *
+ *     <dt>{@link #NODE_RANGE} or {@link #RELATIONSHIP_RANGE} - Node or relationship id shifted right by
+ *     {@code internal.dbms.lock_manager.escalation_range_bits}</dt>
+ *     <dd>
+ *         Lock on a range of node or relationship ids, taken by the lock manager itself when lock escalation is
+ *         enabled. Held exclusively by a transaction that has escalated its locks in the range, in place of them.
+ *     </dd>
  * </dl>
  */
 public enum ResourceType {
@@ -84,7 +91,9 @@ public enum ResourceType {
     RELATIONSHIP_GROUP(9),
     PAGE(10),
     NODE_RELATIONSHIPS(11),
-    NODE_LOCAL_IDS(12);
+    NODE_LOCAL_IDS(12),
+    NODE_RANGE(13),
+    RELATIONSHIP_RANGE(14);
 
     private static final ImmutableIntObjectMap<ResourceType> idToType;
 
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.neo4j.kernel.impl.locking.LockContentionProfiler.NOT_SAMPLED;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.LockWaitEvent;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.test.Race;
+import org.neo4j.time.FakeClock;
+
+class LockContentionProfilerTest {
+    private final FakeClock clock = new FakeClock();
+
+    @Test
+    void shouldNotSampleWhenDisabled() {
+        var profiler = new LockContentionProfiler(clock, 4, 0);
+
+        assertThat(profiler.waitStarted(ResourceType.NODE, 1, 1)).isEqualTo(NOT_SAMPLED);
+        assertThat(profiler.waitForLock(LockType.EXCLUSIVE, ResourceType.NODE, 1, 1))
+                .isSameAs(LockWaitEvent.NONE);
+        assertThat(profiler.contendedResources()).isEmpty();
+    }
+
+    @Test
+    void shouldRecordWaitsPerResource() {
+        var profiler = new LockContentionProfiler(clock, 4, 1);
+
+        long first = profiler.waitStarted(ResourceType.NODE, 1, 2);
+        long second = profiler.waitStarted(ResourceType.NODE, 1, 3);
+        long other = profiler.waitStarted(ResourceType.RELATIONSHIP, 1, 1);
+        profiler.waitEnded(first, 100);
+        profiler.waitEnded(second, 300);
+        profiler.waitEnded(other, 50);
+
+        assertThat(profiler.contendedResources())
+                .containsExactly(
+                        new LockContention(ResourceType.NODE, 1, 2, 400, 300, 3, 2),
+                        new LockContention(ResourceType.RELATIONSHIP, 1, 1, 50, 50, 1, 1));
+    }
+
+    @Test
+    void shouldKeepMostContendedResources() {
+        var profiler = new LockContentionProfiler(clock, 2, 1);
+
+        for (int i = 0; i < 10; i++) {
+            profiler.waitEnded(profiler.waitStarted(ResourceType.NODE, 1, 1), 10);
+        }
+        for (long id = 100; id < 110; id++) {
+            profiler.waitEnded(profiler.waitStarted(ResourceType.NODE, id, 1), 10);
+        }
+
+        var resources = profiler.contendedResources();
+        assertThat(resources).hasSize(2);
+        assertThat(resources.get(0).resourceId()).isEqualTo(1);
+        assertThat(resources.get(0).waits()).isEqualTo(10);
+        // The last resource inherited the waits of the ones it replaced
+        assertThat(resources.get(1).resourceId()).isEqualTo(109);
+        assertThat(resources.get(1).waits()).isEqualTo(10);
+        assertThat(resources.get(1).totalWaitNanos()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldIgnoreWaitsForReplacedResources() {
+        var profiler = new LockContentionProfiler(clock, 1, 1);
+
+        long replaced = profiler.waitStarted(ResourceType.NODE, 1, 1);
+        long current = profiler.waitStarted(ResourceType.NODE, 2, 1);
+        profiler.waitEnded(replaced, 1000);
+        profiler.waitEnded(current, 10);
+
+        assertThat(profiler.contendedResources())
+                .containsExactly(new LockContention(ResourceType.NODE, 2, 2, 10, 10, 1, 1));
+    }
+
+    @Test
+    void shouldTimeWaitsReportedAsTracer() {
+        var profiler = new LockContentionProfiler(clock, 4, 1);
+
+        try (LockWaitEvent ignored = profiler.waitForLock(LockType.SHARED, ResourceType.LABEL, 1, 7)) {
+            clock.forward(500, NANOSECONDS);
+        }
+
+        assertThat(profiler.contendedResources())
+                .containsExactly(new LockContention(ResourceType.LABEL, 7, 1, 500, 500, 0, 1));
+    }
+
+    @Test
+    void shouldKeepMostContendedResourceAmongManyOthers() {
+        var profiler = new LockContentionProfiler(clock, 64, 1);
+
+        for (long id = 1_000; id < 11_000; id++) {
+            profiler.waitEnded(profiler.waitStarted(ResourceType.NODE, id, 1), 10);
+            if (id % 10 == 0) {
+                profiler.waitEnded(profiler.waitStarted(ResourceType.NODE, 1, 1), 10);
+            }
+        }
+
+        var resources = profiler.contendedResources();
+        assertThat(resources).hasSize(64);
+        assertThat(resources.get(0).resourceId()).isEqualTo(1);
+        assertThat(resources.get(0).totalWaitNanos()).isEqualTo(10_000);
+    }
+
+    @Test
+    void shouldCountConcurrentWaits() throws Throwable {
+        var profiler = new LockContentionProfiler(clock, 64, 1);
+        Race race = new Race();
+        race.addContestants(4, () -> {
+            for (int i = 0; i < 32 * 32; i++) {
+                profiler.waitEnded(profiler.waitStarted(ResourceType.NODE, i % 32, 1), 1);
+            }
+        });
+        race.go();
+
+        var resources = profiler.contendedResources();
+        assertThat(resources).hasSize(32);
+        assertThat(resources).allSatisfy(resource -> {
+            assertThat(resource.waits()).isEqualTo(4 * 32);
+            assertThat(resource.totalWaitNanos()).isEqualTo(4 * 32);
+            assertThat(resource.maxWaiters()).isBetween(1, 4);
+        });
+    }
+}
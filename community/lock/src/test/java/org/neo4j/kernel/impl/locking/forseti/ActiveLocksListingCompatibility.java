@@ -19,7 +19,7 @@
  */
 package org.neo4j.kernel.impl.locking.forseti;
 
-import static java.util.Arrays.asList;
+import static java.util.Comparator.comparing;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -27,6 +27,8 @@ import static org.neo4j.lock.ResourceType.LABEL;
 import static org.neo4j.lock.ResourceType.NODE;
 import static org.neo4j.lock.ResourceType.RELATIONSHIP;
 
+import java.util.List;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.eclipse.collections.impl.factory.primitive.LongSets;
 import org.junit.jupiter.api.Test;
@@ -58,6 +60,8 @@ abstract class ActiveLocksListingCompatibility extends LockCompatibilityTestSupp
         clientA.initialize(
                 LeaseService.NO_LEASES.newClient(), userTransactionId, EmptyMemoryTracker.INSTANCE, Config.defaults());
         clientA.acquireExclusive(LockTracer.NONE, NODE, 1);
+        var listedType = suite.listedLock(new ActiveLock(NODE, LockType.EXCLUSIVE, userTransactionId, 1))
+                .resourceType();
 
         MutableInt observedLocks = new MutableInt();
         locks.accept(
@@ -69,7 +73,7 @@ abstract class ActiveLocksListingCompatibility extends LockCompatibilityTestSupp
                         estimatedWaitTime,
                         lockIdentityHashCode) -> {
                     assertEquals(userTransactionId, transactionId);
-                    assertSame(NODE, resourceType);
+                    assertSame(listedType, resourceType);
                     observedLocks.increment();
                 });
         assertEquals(1, observedLocks.intValue());
@@ -144,7 +148,7 @@ abstract class ActiveLocksListingCompatibility extends LockCompatibilityTestSupp
 
         // then
         assertEquals(
-                asList(
+                listed(
                         new ActiveLock(NODE, LockType.EXCLUSIVE, 1, 1),
                         new ActiveLock(NODE, LockType.EXCLUSIVE, 1, 2),
                         new ActiveLock(NODE, LockType.EXCLUSIVE, 1, 3),
@@ -167,4 +171,12 @@ abstract class ActiveLocksListingCompatibility extends LockCompatibilityTestSupp
         // then
         assertEquals(3, count);
     }
+
+    private List<ActiveLock> listed(ActiveLock... locks) {
+        return Stream.of(locks)
+                .map(suite::listedLock)
+                .sorted(comparing((ActiveLock lock) -> lock.resourceType().typeId())
+                        .thenComparingLong(ActiveLock::resourceId))
+                .toList();
+    }
 }
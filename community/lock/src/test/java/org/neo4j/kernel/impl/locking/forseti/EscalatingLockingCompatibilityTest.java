@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_escalation_range_bits;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_escalation_threshold;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.ActiveLock;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.time.SystemNanoClock;
+
+/**
+ * Runs the compatibility suite with lock escalation enabled, such that every lock is taken under an intention lock
+ * on its range and every exclusive node or relationship lock escalates its range. The ranges hold a single id each,
+ * so escalation never makes clients contend on locks they would not contend on otherwise.
+ */
+class EscalatingLockingCompatibilityTest extends LockingCompatibilityTest {
+    @Override
+    protected LockManager createLockManager(Config config, SystemNanoClock clock) {
+        config.set(lock_manager_escalation_threshold, 1);
+        config.set(lock_manager_escalation_range_bits, 0);
+        return new ForsetiLockManager(config, clock, ResourceType.values());
+    }
+
+    @Override
+    protected ActiveLock listedLock(ActiveLock lock) {
+        ResourceType rangeType = ForsetiLockManager.rangeType(lock.resourceType());
+        if (rangeType != null && lock.lockType() == LockType.EXCLUSIVE) {
+            return new ActiveLock(rangeType, LockType.EXCLUSIVE, lock.transactionId(), lock.resourceId());
+        }
+        return lock;
+    }
+}
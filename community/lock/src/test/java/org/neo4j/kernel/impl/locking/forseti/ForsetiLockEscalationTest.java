@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_escalation_range_bits;
+import static org.neo4j.configuration.GraphDatabaseInternalSettings.lock_manager_escalation_threshold;
+import static org.neo4j.lock.LockType.EXCLUSIVE;
+import static org.neo4j.lock.LockType.SHARED;
+import static org.neo4j.lock.ResourceType.LABEL;
+import static org.neo4j.lock.ResourceType.NODE;
+import static org.neo4j.lock.ResourceType.NODE_RANGE;
+import static org.neo4j.test.Race.throwing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.eclipse.collections.api.set.primitive.MutableLongSet;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.api.LeaseService;
+import org.neo4j.kernel.impl.locking.LockCountVisitor;
+import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.ActiveLock;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.LockType;
+import org.neo4j.lock.LockWaitEvent;
+import org.neo4j.lock.ResourceType;
+import org.neo4j.memory.LocalMemoryTracker;
+import org.neo4j.memory.MemoryTracker;
+import org.neo4j.test.OtherThreadExecutor;
+import org.neo4j.test.Race;
+import org.neo4j.time.Clocks;
+
+class ForsetiLockEscalationTest {
+    private static final int THRESHOLD = 4;
+    private static final int RANGE_BITS = 4;
+    private static final int RANGE_SIZE = 1 << RANGE_BITS;
+
+    private final EscalationTracer tracer = new EscalationTracer();
+    private final List<MemoryTracker> memoryTrackers = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextTransactionId = new AtomicLong(1);
+    private ForsetiLockManager lockManager;
+    private OtherThreadExecutor otherThread;
+    private OtherThreadExecutor clientThread;
+
+    @BeforeEach
+    void setUp() {
+        Config config = Config.newBuilder()
+                .set(lock_manager_escalation_threshold, THRESHOLD)
+                .set(lock_manager_escalation_range_bits, RANGE_BITS)
+                .build();
+        lockManager = new ForsetiLockManager(config, Clocks.nanoClock(), ResourceType.values());
+        otherThread = new OtherThreadExecutor("other");
+        clientThread = new OtherThreadExecutor("client");
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherThread.close();
+        clientThread.close();
+        assertThat(lockCount()).isZero();
+        for (MemoryTracker memoryTracker : memoryTrackers) {
+            assertThat(memoryTracker.estimatedHeapMemory()).isZero();
+        }
+    }
+
+    @Test
+    void shouldEscalateRangeWhenHoldingThresholdExclusiveLocksInIt() {
+        try (LockManager.Client client = newClient()) {
+            for (int i = 0; i < THRESHOLD - 1; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+            assertThat(tracer.escalations).isEmpty();
+            assertThat(lockCount()).isEqualTo(THRESHOLD - 1);
+
+            client.acquireExclusive(tracer, NODE, THRESHOLD - 1);
+            assertThat(tracer.escalations).containsExactly(new Escalation(EXCLUSIVE, NODE, 0, RANGE_SIZE - 1));
+            // Only the range lock is left in the lock map
+            assertThat(lockCount()).isOne();
+
+            client.acquireExclusive(tracer, NODE, RANGE_SIZE - 1);
+            client.acquireShared(tracer, NODE, RANGE_SIZE - 2);
+            assertThat(lockCount()).isOne();
+            assertThat(client.activeLockCount()).isEqualTo(THRESHOLD + 2);
+            assertThat(client.holdsLock(RANGE_SIZE - 2, NODE, EXCLUSIVE)).isTrue();
+            assertThat(client.holdsLock(RANGE_SIZE, NODE, EXCLUSIVE)).isFalse();
+        }
+    }
+
+    @Test
+    void shouldListEscalatedRanges() {
+        try (LockManager.Client client = newClient();
+                LockManager.Client other = newClient()) {
+            other.acquireShared(tracer, NODE, 2 * RANGE_SIZE);
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+            client.acquireExclusive(tracer, NODE, RANGE_SIZE);
+            assertThat(tracer.escalations).hasSize(1);
+
+            // Ranges are listed once escalated, not while they only keep escalations by others out
+            long txId = client.getTransactionId();
+            assertThat(client.activeLocks())
+                    .containsExactly(
+                            new ActiveLock(NODE, EXCLUSIVE, txId, RANGE_SIZE),
+                            new ActiveLock(NODE_RANGE, EXCLUSIVE, txId, 0));
+            assertThat(other.activeLocks())
+                    .containsExactly(new ActiveLock(NODE, SHARED, other.getTransactionId(), 2 * RANGE_SIZE));
+
+            List<ActiveLock> listed = new CopyOnWriteArrayList<>();
+            lockManager.accept((lockType, resourceType, transactionId, resourceId, description, waitTime, hash) ->
+                    listed.add(new ActiveLock(resourceType, lockType, transactionId, resourceId)));
+            assertThat(listed)
+                    .containsExactlyInAnyOrder(
+                            new ActiveLock(NODE, EXCLUSIVE, txId, RANGE_SIZE),
+                            new ActiveLock(NODE, SHARED, other.getTransactionId(), 2 * RANGE_SIZE),
+                            new ActiveLock(NODE_RANGE, EXCLUSIVE, txId, 0));
+        }
+    }
+
+    @Test
+    void shouldOnlyEscalateNodeAndRelationshipLocks() {
+        try (LockManager.Client client = newClient()) {
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.acquireExclusive(tracer, LABEL, i);
+            }
+            assertThat(tracer.escalations).isEmpty();
+            assertThat(lockCount()).isEqualTo(THRESHOLD);
+        }
+    }
+
+    @Test
+    void shouldNotEscalateRangeWhileOthersHoldLocksInIt() throws Exception {
+        try (LockManager.Client client = newClient();
+                LockManager.Client other = newClient()) {
+            other.acquireShared(tracer, NODE, RANGE_SIZE - 1);
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+            assertThat(tracer.escalations).isEmpty();
+            assertThat(lockCount()).isEqualTo(THRESHOLD + 1);
+
+            // Once the other client is gone the range is escalated on the next threshold
+            other.releaseShared(NODE, RANGE_SIZE - 1);
+            for (int i = THRESHOLD; i < 2 * THRESHOLD; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+            assertThat(tracer.escalations).hasSize(1);
+            assertThat(lockCount()).isOne();
+        }
+    }
+
+    @Test
+    void shouldReleaseEscalatedRangeWhenReleasingLocksInIt() throws Exception {
+        try (LockManager.Client client = newClient();
+                LockManager.Client other = newClient()) {
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+            client.acquireShared(tracer, NODE, 0);
+            assertThat(tracer.escalations).hasSize(1);
+            assertThat(other.trySharedLock(NODE, RANGE_SIZE - 1)).isFalse();
+
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.releaseExclusive(NODE, i);
+            }
+            // Without exclusive locks in it the range is no longer escalated, the shared lock in it is kept
+            assertThat(lockCount()).isOne();
+            assertThat(other.tryExclusiveLock(NODE, 0)).isFalse();
+            assertThat(other.tryExclusiveLock(NODE, RANGE_SIZE - 1)).isTrue();
+            client.releaseShared(NODE, 0);
+            assertThat(client.activeLockCount()).isZero();
+
+            assertThat(other.tryExclusiveLock(NODE, 0)).isTrue();
+            assertThat(lockCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void shouldWaitForEscalatedRange() throws Exception {
+        LockManager.Client client = newClient();
+        try (LockManager.Client other = newClient()) {
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+
+            Future<Object> lock = otherThread.executeDontWait(() -> {
+                other.acquireShared(tracer, NODE, RANGE_SIZE - 1);
+                return null;
+            });
+            otherThread.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "waitFor"));
+            assertThat(tracer.waits).isOne();
+
+            client.close();
+            lock.get();
+            assertThat(other.holdsLock(RANGE_SIZE - 1, NODE, SHARED)).isTrue();
+        }
+    }
+
+    @Test
+    void shouldDetectDeadlocksInvolvingEscalatedRanges() throws Exception {
+        LockManager.Client other = newClient();
+        try (LockManager.Client client = newClient()) {
+            other.acquireExclusive(tracer, NODE, RANGE_SIZE);
+            for (int i = 0; i < THRESHOLD; i++) {
+                client.acquireExclusive(tracer, NODE, i);
+            }
+            assertThat(tracer.escalations).hasSize(1);
+
+            // The other client holds fewer locks, and is the one to give up
+            Future<Object> lock = otherThread.executeDontWait(() -> {
+                other.acquireExclusive(tracer, NODE, 0);
+                return null;
+            });
+            otherThread.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "waitFor"));
+            Future<Object> deadlock = clientThread.executeDontWait(() -> {
+                client.acquireExclusive(tracer, NODE, RANGE_SIZE);
+                return null;
+            });
+
+            assertThatThrownBy(lock::get).hasRootCauseInstanceOf(DeadlockDetectedException.class);
+            other.close();
+            deadlock.get();
+        }
+    }
+
+    @Test
+    void shouldKeepLocksExclusiveWhileEscalating() throws Throwable {
+        int resources = 2 * RANGE_SIZE;
+        AtomicLongArray exclusiveOwners = new AtomicLongArray(resources);
+        AtomicIntegerArray sharedHolders = new AtomicIntegerArray(resources);
+        Race race = new Race();
+        race.addContestants(
+                4,
+                throwing(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    MutableLongSet exclusive = new LongHashSet();
+                    MutableLongSet shared = new LongHashSet();
+                    try (LockManager.Client client = newClient()) {
+                        long txId = client.getTransactionId();
+                        // Locking in resource id order avoids deadlocks, also between ranges
+                        long[] resourceIds = random.longs(4 * THRESHOLD, 0, resources)
+                                .sorted()
+                                .toArray();
+                        for (long resourceId : resourceIds) {
+                            if (exclusive.contains(resourceId) || shared.contains(resourceId)) {
+                                continue;
+                            }
+                            int id = (int) resourceId;
+                            if (random.nextBoolean()) {
+                                client.acquireExclusive(tracer, NODE, resourceId);
+                                exclusive.add(resourceId);
+                                assertThat(exclusiveOwners.getAndSet(id, txId)).isZero();
+                                assertThat(sharedHolders.get(id)).isZero();
+                            } else {
+                                client.acquireShared(tracer, NODE, resourceId);
+                                shared.add(resourceId);
+                                sharedHolders.incrementAndGet(id);
+                                assertThat(exclusiveOwners.get(id)).isZero();
+                            }
+                        }
+                        exclusive.forEach(resourceId -> exclusiveOwners.set((int) resourceId, 0));
+                        shared.forEach(resourceId -> sharedHolders.decrementAndGet((int) resourceId));
+                    }
+                }),
+                200);
+        race.go();
+        assertThat(tracer.escalations).isNotEmpty();
+    }
+
+    private LockManager.Client newClient() {
+        MemoryTracker memoryTracker = new LocalMemoryTracker();
+        memoryTrackers.add(memoryTracker);
+        LockManager.Client client = lockManager.newClient();
+        client.initialize(
+                LeaseService.NoLeaseClient.INSTANCE,
+                nextTransactionId.getAndIncrement(),
+                memoryTracker,
+                Config.defaults());
+        return client;
+    }
+
+    private int lockCount() {
+        LockCountVisitor visitor = new LockCountVisitor();
+        lockManager.accept(visitor);
+        return visitor.getLockCount();
+    }
+
+    private record Escalation(LockType lockType, ResourceType resourceType, long first, long last) {}
+
+    private static class EscalationTracer implements LockTracer {
+        private final List<Escalation> escalations = new CopyOnWriteArrayList<>();
+        private volatile int waits;
+
+        @Override
+        public LockWaitEvent waitForLock(
+                LockType lockType, ResourceType resourceType, long transactionId, long... resourceIds) {
+            waits++;
+            return LockWaitEvent.NONE;
+        }
+
+        @Override
+        public void lockEscalated(
+                LockType lockType,
+                ResourceType resourceType,
+                long transactionId,
+                long firstResourceId,
+                long lastResourceId) {
+            escalations.add(new Escalation(lockType, resourceType, firstResourceId, lastResourceId));
+        }
+    }
+}
@@ -312,4 +312,41 @@ class ForsetiLockManagerTest {
                             .containsKey(lock.resourceId()));
         }
     }
+
+    @Test
+    void shouldReportWaitsForContendedResources() throws Exception {
+        var profilingConfig = Config.defaults(GraphDatabaseInternalSettings.lock_manager_contention_sample_interval, 1);
+        var profilingManager = new ForsetiLockManager(profilingConfig, Clocks.nanoClock(), ResourceType.values());
+        try (OtherThreadExecutor executor = new OtherThreadExecutor("waiter");
+                LockManager.Client owner = profilingManager.newClient();
+                LockManager.Client waiter = profilingManager.newClient()) {
+            owner.initialize(LeaseService.NoLeaseClient.INSTANCE, 1, EmptyMemoryTracker.INSTANCE, profilingConfig);
+            waiter.initialize(LeaseService.NoLeaseClient.INSTANCE, 2, EmptyMemoryTracker.INSTANCE, profilingConfig);
+
+            // Uncontended locks are never reported
+            owner.acquireShared(LockTracer.NONE, ResourceType.NODE, 1);
+            owner.acquireExclusive(LockTracer.NONE, ResourceType.NODE, 2);
+            assertThat(profilingManager.contendedResources()).isEmpty();
+
+            var acquired = executor.executeDontWait(() -> {
+                waiter.acquireExclusive(LockTracer.NONE, ResourceType.NODE, 2);
+                return null;
+            });
+            executor.waitUntilWaiting(details -> details.isAt(ForsetiClient.class, "acquireExclusive"));
+            Thread.sleep(10);
+            owner.releaseExclusive(ResourceType.NODE, 2);
+            acquired.get();
+
+            assertThat(profilingManager.contendedResources()).singleElement().satisfies(contention -> {
+                assertThat(contention.resourceType()).isEqualTo(ResourceType.NODE);
+                assertThat(contention.resourceId()).isEqualTo(2);
+                assertThat(contention.waits()).isEqualTo(1);
+                assertThat(contention.maxWaitNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+                assertThat(contention.maxOwners()).isEqualTo(1);
+                assertThat(contention.maxWaiters()).isEqualTo(1);
+            });
+        } finally {
+            profilingManager.close();
+        }
+    }
 }
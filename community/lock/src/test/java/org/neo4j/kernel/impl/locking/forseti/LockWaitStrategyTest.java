@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.neo4j.kernel.impl.locking.forseti.LockWaitStrategy.INITIAL_WAIT_NANOS;
+import static org.neo4j.kernel.impl.locking.forseti.LockWaitStrategy.MAX_PARK_NANOS;
+import static org.neo4j.kernel.impl.locking.forseti.LockWaitStrategy.MAX_SPINS;
+import static org.neo4j.kernel.impl.locking.forseti.LockWaitStrategy.MIN_PARK_NANOS;
+
+import org.junit.jupiter.api.Test;
+import org.neo4j.lock.ResourceType;
+
+class LockWaitStrategyTest {
+    private final LockWaitStrategy strategy = new LockWaitStrategy(ResourceType.values().length, true);
+
+    @Test
+    void shouldLearnExpectedWaitPerResourceType() {
+        for (int i = 0; i < 100; i++) {
+            strategy.waitEnded(ResourceType.NODE, MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(strategy.expectedWaitNanos(ResourceType.NODE))
+                .isCloseTo(MILLISECONDS.toNanos(10), within(MICROSECONDS.toNanos(100)));
+        assertThat(strategy.expectedWaitNanos(ResourceType.RELATIONSHIP)).isEqualTo(INITIAL_WAIT_NANOS);
+
+        for (int i = 0; i < 100; i++) {
+            strategy.waitEnded(ResourceType.NODE, 0);
+        }
+
+        assertThat(strategy.expectedWaitNanos(ResourceType.NODE)).isLessThan(INITIAL_WAIT_NANOS);
+    }
+
+    @Test
+    void shouldNotSpinForLongWaits() {
+        for (int i = 0; i < 100; i++) {
+            strategy.waitEnded(ResourceType.NODE, MILLISECONDS.toNanos(10));
+        }
+
+        assertThat(strategy.shouldSpin(ResourceType.NODE, 0, 0)).isFalse();
+        assertThat(strategy.parkNanos(ResourceType.NODE)).isEqualTo(MAX_PARK_NANOS);
+    }
+
+    @Test
+    void shouldStopSpinningWhenWaitTakesLongerThanExpected() {
+        long expected = strategy.expectedWaitNanos(ResourceType.NODE);
+
+        assertThat(strategy.shouldSpin(ResourceType.NODE, MAX_SPINS, 0)).isFalse();
+        assertThat(strategy.shouldSpin(ResourceType.NODE, 0, expected)).isFalse();
+    }
+
+    @Test
+    void shouldParkAtLeastMinimumTime() {
+        for (int i = 0; i < 100; i++) {
+            strategy.waitEnded(ResourceType.NODE, 0);
+        }
+
+        assertThat(strategy.parkNanos(ResourceType.NODE)).isEqualTo(MIN_PARK_NANOS);
+    }
+}
@@ -35,6 +35,10 @@ public class LockWorker extends OtherThreadExecutor {
         state = new LockWorkerState(locks);
     }
 
+    long transactionId() {
+        return state.client.getTransactionId();
+    }
+
     private Future<Void> perform(Callable<Void> acquireLockCommand, boolean wait) throws Exception {
         Future<Void> future = executeDontWait(acquireLockCommand);
         if (wait) {
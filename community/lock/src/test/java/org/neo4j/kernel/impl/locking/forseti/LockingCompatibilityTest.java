@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.locking.forseti;
 import org.junit.jupiter.api.Nested;
 import org.neo4j.configuration.Config;
 import org.neo4j.kernel.impl.locking.LockManager;
+import org.neo4j.lock.ActiveLock;
 import org.neo4j.lock.LockType;
 import org.neo4j.lock.ResourceType;
 import org.neo4j.test.extension.actors.Actor;
@@ -33,6 +34,14 @@ public class LockingCompatibilityTest {
         return new ForsetiLockManager(config, clock, ResourceType.values());
     }
 
+    /**
+     * @return how the lock manager lists the given lock. Lock managers that escalate locks list the id ranges they
+     * have escalated in place of the locks they cover.
+     */
+    protected ActiveLock listedLock(ActiveLock lock) {
+        return lock;
+    }
+
     /**
      * Implementing this requires intricate knowledge of implementation of the particular locks client.
      * This is the most efficient way of telling whether or not a thread awaits a lock acquisition or not
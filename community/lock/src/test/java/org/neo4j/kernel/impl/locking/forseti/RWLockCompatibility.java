@@ -19,6 +19,7 @@
  */
 package org.neo4j.kernel.impl.locking.forseti;
 
+import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -183,8 +184,9 @@ abstract class RWLockCompatibility extends LockCompatibilityTestSupport {
                             t2.releaseReadLock(resource);
                         }
                     })
-                    .hasMessageContaining(
-                            "NODE(10)-[SHARED_OWNER]->(tx:0)-[WAITING_FOR_EXCLUSIVE]->(NODE(10))-[SHARED_OWNER]->(tx:1)-[WAITING_FOR_EXCLUSIVE]->(NODE(10)");
+                    .hasMessageContaining(format(
+                            "NODE(10)-[SHARED_OWNER]->(tx:%d)-[WAITING_FOR_EXCLUSIVE]->(NODE(10))-[SHARED_OWNER]->(tx:%d)-[WAITING_FOR_EXCLUSIVE]->(NODE(10)",
+                            t1.transactionId(), t2.transactionId()));
             t1ExclusiveAcquire.get();
         }
     }
@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.locking.forseti;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -71,4 +72,44 @@ class SharedLockTest {
 
         assertEquals(LockType.EXCLUSIVE, lock.type());
     }
+
+    @Test
+    void shouldHandOffToWaitersOnRelease() {
+        var clientA = mock(ForsetiClient.class);
+        var clientB = mock(ForsetiClient.class);
+        SharedLock lock = new SharedLock(clientA);
+        lock.acquire(clientB);
+
+        var waiter = lock.addWaiter();
+        assertTrue(waiter.isWaitingFor(lock));
+
+        lock.release(clientB);
+
+        assertFalse(waiter.isWaitingFor(lock));
+    }
+
+    @Test
+    void shouldLeaveWakingWaitersToLastHolderAfterRemovingTheLock() {
+        var client = mock(ForsetiClient.class);
+        SharedLock lock = new SharedLock(client);
+
+        var waiter = lock.addWaiter();
+        assertTrue(lock.release(client));
+        assertTrue(waiter.isWaitingFor(lock));
+
+        lock.wakeWaiters();
+        assertFalse(waiter.isWaitingFor(lock));
+    }
+
+    @Test
+    void shouldHandOffToWaitersWhenUpdateLockIsReleased() {
+        var client = mock(ForsetiClient.class);
+        SharedLock lock = new SharedLock(client);
+        assertTrue(lock.tryAcquireUpdateLock());
+
+        var waiter = lock.addWaiter();
+        lock.releaseUpdateLock();
+
+        assertFalse(waiter.isWaitingFor(lock));
+    }
 }
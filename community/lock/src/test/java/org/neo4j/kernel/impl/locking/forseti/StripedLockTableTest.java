@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.locking.forseti;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class StripedLockTableTest {
+    private final ForsetiClient client = mock(ForsetiClient.class);
+
+    @Test
+    void shouldPutGetAndRemoveLocks() {
+        LockTable table = new StripedLockTable();
+        ForsetiLockManager.Lock lock = new ExclusiveLock(client);
+        ForsetiLockManager.Lock other = new SharedLock(client);
+
+        assertThat(table.get(42)).isNull();
+        assertThat(table.putIfAbsent(42, lock)).isNull();
+        assertThat(table.putIfAbsent(42, other)).isSameAs(lock);
+        assertThat(table.get(42)).isSameAs(lock);
+
+        table.put(42, other);
+        assertThat(table.get(42)).isSameAs(other);
+
+        table.remove(42);
+        assertThat(table.get(42)).isNull();
+        table.remove(42);
+        assertThat(table.get(42)).isNull();
+    }
+
+    @Test
+    void shouldHandleNegativeAndExtremeResourceIds() {
+        LockTable table = new StripedLockTable();
+        long[] resourceIds = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE};
+        for (long resourceId : resourceIds) {
+            assertThat(table.putIfAbsent(resourceId, new ExclusiveLock(client))).isNull();
+        }
+        for (long resourceId : resourceIds) {
+            assertThat(table.get(resourceId)).isNotNull();
+        }
+    }
+
+    @Test
+    void shouldKeepAllLocksReachableWhileGrowingAndShrinking() {
+        // A single stripe makes every entry share the same probe sequences
+        LockTable table = new StripedLockTable(1);
+        Map<Long, ForsetiLockManager.Lock> expected = new HashMap<>();
+        for (long resourceId = 0; resourceId < 10_000; resourceId++) {
+            ForsetiLockManager.Lock lock = new ExclusiveLock(client);
+            table.putIfAbsent(resourceId, lock);
+            expected.put(resourceId, lock);
+        }
+        for (long resourceId = 0; resourceId < 10_000; resourceId += 3) {
+            table.remove(resourceId);
+            expected.remove(resourceId);
+        }
+        for (long resourceId = 0; resourceId < 10_000; resourceId++) {
+            assertThat(table.get(resourceId)).isSameAs(expected.get(resourceId));
+        }
+
+        for (long resourceId = 0; resourceId < 10_000; resourceId++) {
+            table.remove(resourceId);
+        }
+        assertThat(collect(table)).isEmpty();
+    }
+
+    @Test
+    void shouldVisitAllLocks() {
+        LockTable table = new StripedLockTable();
+        Map<Long, ForsetiLockManager.Lock> expected = new HashMap<>();
+        for (long resourceId = 0; resourceId < 1_000; resourceId++) {
+            ForsetiLockManager.Lock lock = new ExclusiveLock(client);
+            table.put(resourceId * 31, lock);
+            expected.put(resourceId * 31, lock);
+        }
+
+        assertThat(collect(table)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldKeepLocksOfConcurrentWritersApart() throws Exception {
+        LockTable table = new StripedLockTable(4);
+        int threads = 4;
+        int locksPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < threads; thread++) {
+                long offset = thread;
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 3; round++) {
+                        for (long i = 0; i < locksPerThread; i++) {
+                            long resourceId = i * threads + offset;
+                            ForsetiLockManager.Lock lock = new ExclusiveLock(client);
+                            assertThat(table.putIfAbsent(resourceId, lock)).isNull();
+                            assertThat(table.get(resourceId)).isSameAs(lock);
+                        }
+                        for (long i = 0; i < locksPerThread; i++) {
+                            long resourceId = i * threads + offset;
+                            assertThat(table.get(resourceId)).isNotNull();
+                            table.remove(resourceId);
+                            assertThat(table.get(resourceId)).isNull();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(collect(table)).isEmpty();
+    }
+
+    private static Map<Long, ForsetiLockManager.Lock> collect(LockTable table) {
+        Map<Long, ForsetiLockManager.Lock> locks = new HashMap<>();
+        table.forEach(locks::put);
+        return locks;
+    }
+}
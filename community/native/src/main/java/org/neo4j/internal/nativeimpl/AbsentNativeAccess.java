@@ -30,6 +30,11 @@ public class AbsentNativeAccess implements NativeAccess {
         return NativeCallResult.SUCCESS;
     }
 
+    @Override
+    public NativeCallResult tryEvictFromCache(int fd, long offset, long length) {
+        return NativeCallResult.SUCCESS;
+    }
+
     @Override
     public NativeCallResult tryAdviseSequentialAccess(int fd) {
         return NativeCallResult.SUCCESS;
@@ -45,6 +50,21 @@ public class AbsentNativeAccess implements NativeAccess {
         return NativeCallResult.SUCCESS;
     }
 
+    @Override
+    public int getNumaNodeCount() {
+        return 1;
+    }
+
+    @Override
+    public int getCurrentNumaNode() {
+        return 0;
+    }
+
+    @Override
+    public NativeCallResult tryBindMemoryToNumaNode(long address, long length, int node) {
+        return NativeCallResult.SUCCESS;
+    }
+
     @Override
     public ErrorTranslator errorTranslator() {
         return MissingErrorTranslator.INSTANCE;
@@ -24,6 +24,8 @@ public class LinuxErrorTranslator implements ErrorTranslator {
 
     private LinuxErrorTranslator() {}
 
+    // Operation not permitted
+    static final int EPERM = 1;
     //  No space left on device
     static final int ENOSPC = 28;
     // Invalid argument
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getStackTrace;
+
+import com.sun.jna.LastErrorException;
+import com.sun.jna.Native;
+import com.sun.jna.Platform;
+import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bindings to the Linux io_uring asynchronous I/O interface, see io_uring(7).
+ * <p>
+ * There is no dependency on liburing: rings are created with the raw {@code io_uring_setup} and {@code io_uring_enter}
+ * system calls and mapped into the process with mmap. The mapped rings are handed out as direct buffers; laying out
+ * submission entries and reaping completions is left to the caller.
+ */
+public final class LinuxIoUring {
+    /**
+     * Size of struct io_uring_params, as passed to io_uring_setup.
+     */
+    public static final int PARAMS_SIZE = 120;
+
+    /**
+     * Wait for at least min_complete completions in io_uring_enter.
+     */
+    public static final int IORING_ENTER_GETEVENTS = 1;
+
+    /**
+     * Submission and completion rings can be mapped with a single mmap call.
+     */
+    public static final int IORING_FEAT_SINGLE_MMAP = 1;
+
+    /**
+     * mmap offsets of the submission ring, the completion ring and the submission queue entries array.
+     */
+    public static final long IORING_OFF_SQ_RING = 0L;
+
+    public static final long IORING_OFF_CQ_RING = 0x8000000L;
+    public static final long IORING_OFF_SQES = 0x10000000L;
+
+    // System call numbers are shared by all architectures that use the generic syscall table, x86_64 included.
+    private static final long SYS_IO_URING_SETUP = 425;
+    private static final long SYS_IO_URING_ENTER = 426;
+
+    private static final int PROT_READ = 0x1;
+    private static final int PROT_WRITE = 0x2;
+    private static final int MAP_SHARED = 0x01;
+    private static final int MAP_POPULATE = 0x08000;
+    private static final long MAP_FAILED = -1;
+    private static final int EINTR = 4;
+
+    private static final boolean IO_URING_AVAILABLE;
+    private static final Throwable INITIALIZATION_FAILURE;
+
+    static {
+        Throwable initFailure = null;
+        boolean available = false;
+        try {
+            if (Platform.isLinux() && Platform.is64Bit()) {
+                Native.register(Platform.C_LIBRARY_NAME);
+                available = probe();
+            }
+        } catch (Throwable t) {
+            initFailure = t;
+        }
+        IO_URING_AVAILABLE = available;
+        INITIALIZATION_FAILURE = initFailure;
+    }
+
+    private LinuxIoUring() {}
+
+    /**
+     * Indirect system call. Declared with a fixed number of arguments, which is call compatible with the variadic
+     * libc function for integer and pointer arguments.
+     */
+    private static native long syscall(long number, long arg1, long arg2, long arg3, long arg4, long arg5, long arg6)
+            throws LastErrorException;
+
+    private static native long mmap(long address, long length, int prot, int flags, int fd, long offset)
+            throws LastErrorException;
+
+    private static native int munmap(long address, long length) throws LastErrorException;
+
+    private static native int close(int fd) throws LastErrorException;
+
+    /**
+     * @return {@code true} if io_uring rings can be created on this system. Kernels older than 5.1, seccomp profiles
+     * that filter io_uring system calls and {@code kernel.io_uring_disabled} all make io_uring unavailable.
+     */
+    public static boolean isAvailable() {
+        return IO_URING_AVAILABLE;
+    }
+
+    public static String describe() {
+        if (IO_URING_AVAILABLE) {
+            return "Linux io_uring is available.";
+        }
+        StringBuilder descriptionBuilder = new StringBuilder("Linux io_uring is not available.");
+        if (INITIALIZATION_FAILURE != null) {
+            descriptionBuilder.append(" Details: ").append(getStackTrace(INITIALIZATION_FAILURE));
+        }
+        return descriptionBuilder.toString();
+    }
+
+    /**
+     * Create a new ring.
+     *
+     * @param entries requested number of submission queue entries, rounded up to a power of two by the kernel.
+     * @param params zeroed direct buffer holding a struct io_uring_params of {@link #PARAMS_SIZE} bytes, filled in by
+     * the kernel with the actual ring sizes and the offsets of the ring fields.
+     * @return the file descriptor of the ring.
+     */
+    public static int setup(int entries, ByteBuffer params) throws IOException {
+        try {
+            return (int) syscall(SYS_IO_URING_SETUP, entries, addressOf(params), 0, 0, 0, 0);
+        } catch (LastErrorException e) {
+            throw new IOException("Unable to create io_uring with " + entries + " entries.", e);
+        }
+    }
+
+    /**
+     * Submit queued submission entries and, optionally, wait for completions. Interrupted calls are retried.
+     *
+     * @return the number of consumed submission entries.
+     */
+    public static int enter(int ringFd, int toSubmit, int minComplete, int flags) throws IOException {
+        while (true) {
+            try {
+                return (int) syscall(SYS_IO_URING_ENTER, ringFd, toSubmit, minComplete, flags, 0, 0);
+            } catch (LastErrorException e) {
+                if (e.getErrorCode() != EINTR) {
+                    throw new IOException("io_uring_enter failed.", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Map a region of a ring into memory.
+     *
+     * @param offset one of {@link #IORING_OFF_SQ_RING}, {@link #IORING_OFF_CQ_RING} or {@link #IORING_OFF_SQES}.
+     * @return direct buffer over the mapped region, in native byte order.
+     */
+    public static ByteBuffer map(int ringFd, int length, long offset) throws IOException {
+        try {
+            long address = mmap(0, length, PROT_READ | PROT_WRITE, MAP_SHARED | MAP_POPULATE, ringFd, offset);
+            if (address == MAP_FAILED) {
+                throw new IOException("Unable to map io_uring region at offset " + offset + ".");
+            }
+            return new Pointer(address).getByteBuffer(0, length).order(ByteOrder.nativeOrder());
+        } catch (LastErrorException e) {
+            throw new IOException("Unable to map io_uring region at offset " + offset + ".", e);
+        }
+    }
+
+    public static void unmap(ByteBuffer region) throws IOException {
+        try {
+            munmap(addressOf(region), region.capacity());
+        } catch (LastErrorException e) {
+            throw new IOException("Unable to unmap io_uring region.", e);
+        }
+    }
+
+    public static void closeRing(int ringFd) throws IOException {
+        try {
+            close(ringFd);
+        } catch (LastErrorException e) {
+            throw new IOException("Unable to close io_uring.", e);
+        }
+    }
+
+    /**
+     * @return the native address of the given direct buffer, e.g. to reference it from a submission entry.
+     */
+    public static long addressOf(ByteBuffer directBuffer) {
+        return Pointer.nativeValue(Native.getDirectBufferPointer(directBuffer));
+    }
+
+    private static boolean probe() throws IOException {
+        closeRing(setup(1, ByteBuffer.allocateDirect(PARAMS_SIZE)));
+        return true;
+    }
+}
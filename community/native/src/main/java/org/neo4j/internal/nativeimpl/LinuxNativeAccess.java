@@ -27,6 +27,13 @@ import com.sun.jna.LastErrorException;
 import com.sun.jna.Native;
 import com.sun.jna.Platform;
 import com.sun.jna.Pointer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 public class LinuxNativeAccess implements NativeAccess {
 
@@ -48,6 +55,22 @@ public class LinuxNativeAccess implements NativeAccess {
      */
     private static final int POSIX_FADV_DONTNEED = 4;
 
+    /**
+     * Memory policy mode defined in mempolicy.h that prefers allocating memory on the given node, and falls back to other nodes when that node
+     * is out of memory. For more info check man page for mbind.
+     */
+    private static final int MPOL_PREFERRED = 1;
+
+    /**
+     * Flag defined in mempolicy.h that moves memory that is already allocated, so that it follows the policy. For more info check man page for mbind.
+     */
+    private static final int MPOL_MF_MOVE = 1 << 1;
+
+    private static final int MAX_NUMA_NODES = Long.SIZE;
+    private static final long SYS_MBIND = mbindSyscallNumber();
+    private static final Path NUMA_NODES = Path.of("/sys/devices/system/node");
+    private static final Path CPUS = Path.of("/sys/devices/system/cpu");
+
     private static final boolean NATIVE_ACCESS_AVAILABLE;
     private static final Throwable INITIALIZATION_FAILURE;
 
@@ -91,6 +114,20 @@ public class LinuxNativeAccess implements NativeAccess {
      */
     private static native int posix_fallocate(int fd, long offset, long len) throws LastErrorException;
 
+    /**
+     * Determine the CPU the calling thread is running on.
+     * @return the number of the CPU, or -1 on error
+     */
+    private static native int sched_getcpu() throws LastErrorException;
+
+    /**
+     * Invoke the system call with the given number and arguments. Used for system calls that have no library wrapper in the C library,
+     * like mbind.
+     * @return the return value of the system call, -1 on error
+     */
+    private static native long syscall(long number, long a1, long a2, long a3, long a4, long a5, long a6)
+            throws LastErrorException;
+
     /**
      * Return pointer to a string describing error number, possibly using the LC_MESSAGES part of the current locale to select the appropriate language.
      * @param errnum error number to describe
@@ -112,6 +149,18 @@ public class LinuxNativeAccess implements NativeAccess {
         return wrapResult(() -> posix_fadvise(fd, 0, 0, POSIX_FADV_DONTNEED));
     }
 
+    @Override
+    public NativeCallResult tryEvictFromCache(int fd, long offset, long length) {
+        if (fd <= 0) {
+            return new NativeCallResult(ERROR, "Incorrect file descriptor.");
+        }
+        if (offset < 0 || length <= 0) {
+            return new NativeCallResult(
+                    ERROR, "Region to evict should be non empty. Requested offset: " + offset + ", length: " + length);
+        }
+        return wrapResult(() -> posix_fadvise(fd, offset, length, POSIX_FADV_DONTNEED));
+    }
+
     @Override
     public NativeCallResult tryAdviseSequentialAccess(int fd) {
         if (fd <= 0) {
@@ -140,6 +189,52 @@ public class LinuxNativeAccess implements NativeAccess {
         return wrapResult(() -> posix_fallocate(fd, 0, bytes));
     }
 
+    @Override
+    public int getNumaNodeCount() {
+        return NumaTopology.NODE_COUNT;
+    }
+
+    @Override
+    public int getCurrentNumaNode() {
+        int[] cpuNodes = NumaTopology.CPU_NODES;
+        if (cpuNodes.length == 0) {
+            return 0;
+        }
+        try {
+            int cpu = sched_getcpu();
+            return cpu >= 0 && cpu < cpuNodes.length ? cpuNodes[cpu] : 0;
+        } catch (LastErrorException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public NativeCallResult tryBindMemoryToNumaNode(long address, long length, int node) {
+        if (SYS_MBIND < 0) {
+            return new NativeCallResult(
+                    ERROR, "Binding memory to NUMA nodes is not supported on " + Platform.ARCH + ".");
+        }
+        if (address == 0 || length <= 0) {
+            return new NativeCallResult(
+                    ERROR, "Memory region should be non empty. Requested address: " + address + ", length: " + length);
+        }
+        if (node < 0 || node >= MAX_NUMA_NODES) {
+            return new NativeCallResult(ERROR, "Unsupported NUMA node: " + node);
+        }
+        long nodeMask = Native.malloc(Long.BYTES);
+        if (nodeMask == 0) {
+            return new NativeCallResult(ERROR, "Unable to allocate NUMA node mask.");
+        }
+        try {
+            new Pointer(nodeMask).setLong(0, 1L << node);
+            // The kernel expects the number of bits in the mask plus one.
+            return wrapResult(() -> (int)
+                    syscall(SYS_MBIND, address, length, MPOL_PREFERRED, nodeMask, MAX_NUMA_NODES + 1, MPOL_MF_MOVE));
+        } finally {
+            Native.free(nodeMask);
+        }
+    }
+
     @Override
     public ErrorTranslator errorTranslator() {
         return LinuxErrorTranslator.INSTANCE;
@@ -220,6 +315,64 @@ public class LinuxNativeAccess implements NativeAccess {
         return "Error occurred calling native function. Please check error code.";
     }
 
+    private static long mbindSyscallNumber() {
+        if (Platform.is64Bit()) {
+            if (Platform.isIntel()) {
+                return 237;
+            }
+            if (Platform.isARM()) {
+                return 235;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * NUMA layout of the machine, as described by sysfs. Loaded on first use.
+     */
+    private static final class NumaTopology {
+        private static final Pattern NODE_DIRECTORY = Pattern.compile("node(\\d+)");
+        private static final Pattern CPU_DIRECTORY = Pattern.compile("cpu(\\d+)");
+        static final int NODE_COUNT;
+        static final int[] CPU_NODES;
+
+        static {
+            int nodeCount = 1;
+            int[] cpuNodes = new int[0];
+            try {
+                nodeCount = Math.max(1, highestIndex(NUMA_NODES, NODE_DIRECTORY) + 1);
+                if (nodeCount > 1) {
+                    cpuNodes = new int[highestIndex(CPUS, CPU_DIRECTORY) + 1];
+                    for (int cpu = 0; cpu < cpuNodes.length; cpu++) {
+                        cpuNodes[cpu] = Math.max(0, highestIndex(CPUS.resolve("cpu" + cpu), NODE_DIRECTORY));
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // Unknown topology. Treat the machine as a single node.
+                nodeCount = 1;
+                cpuNodes = new int[0];
+            }
+            NODE_COUNT = nodeCount;
+            CPU_NODES = cpuNodes;
+        }
+
+        private static int highestIndex(Path directory, Pattern pattern) throws IOException {
+            if (!Files.isDirectory(directory)) {
+                return -1;
+            }
+            int highest = -1;
+            try (Stream<Path> entries = Files.list(directory)) {
+                for (Path entry : (Iterable<Path>) entries::iterator) {
+                    Matcher matcher = pattern.matcher(entry.getFileName().toString());
+                    if (matcher.matches()) {
+                        highest = Math.max(highest, Integer.parseInt(matcher.group(1)));
+                    }
+                }
+            }
+            return highest;
+        }
+    }
+
     @FunctionalInterface
     private interface NativeCall {
         int call() throws LastErrorException;
@@ -44,6 +44,17 @@ public interface NativeAccess {
      */
     NativeCallResult tryEvictFromCache(int fd);
 
+    /**
+     * Try to evict cached pages of a region of the file referenced by provided file descriptor.
+     * Only clean pages are evicted, dirty pages stay cached until they have been written back.
+     * Useful for files that we cache ourselves and do not want to have cached twice. For example: store files.
+     * @param fd file descriptor
+     * @param offset offset of the region in the file
+     * @param length length of the region in bytes
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryEvictFromCache(int fd, long offset, long length);
+
     /**
      * Try to advice that file referenced by provided file descriptor will be accessed in a sequential fashion.
      * Useful for files that we will read from start to the end sequentially. For example: WAL files.
@@ -68,6 +79,30 @@ public interface NativeAccess {
      */
     NativeCallResult tryPreallocateSpace(int fd, long bytes);
 
+    /**
+     * Number of NUMA nodes of the machine. Nodes are numbered from zero up to, but not including, the returned count.
+     * @return number of NUMA nodes, or 1 if it can not be determined
+     */
+    int getNumaNodeCount();
+
+    /**
+     * NUMA node of the CPU the calling thread is running on. The thread can be moved to another node at any time, so
+     * the result should only be used as a hint.
+     * @return NUMA node of the calling thread, or 0 if it can not be determined
+     */
+    int getCurrentNumaNode();
+
+    /**
+     * Try to place the physical memory of the given region on the provided NUMA node. Memory of the region that is
+     * already backed by another node is moved where possible. When the node runs out of memory, memory from other
+     * nodes is used instead.
+     * @param address start of the region, aligned to the operating system page size
+     * @param length length of the region in bytes
+     * @param node NUMA node to place the memory on
+     * @return returns zero on success, or an error number on failure
+     */
+    NativeCallResult tryBindMemoryToNumaNode(long address, long length, int node);
+
     /**
      * High level error translator to be able to map high level exceptions checks with low level error codes on particular system
      */
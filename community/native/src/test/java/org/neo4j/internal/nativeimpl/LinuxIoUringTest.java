@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.nativeimpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+class LinuxIoUringTest {
+    @Test
+    @DisabledOnOs(OS.LINUX)
+    void notAvailableOnNonLinux() {
+        assertFalse(LinuxIoUring.isAvailable());
+        assertThat(LinuxIoUring.describe()).contains("not available");
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void setupAndMapRing() throws IOException {
+        assumeTrue(LinuxIoUring.isAvailable(), LinuxIoUring::describe);
+
+        ByteBuffer params = ByteBuffer.allocateDirect(LinuxIoUring.PARAMS_SIZE).order(ByteOrder.nativeOrder());
+        int ringFd = LinuxIoUring.setup(3, params);
+        try {
+            int sqEntries = params.getInt(0);
+            assertThat(sqEntries).isEqualTo(4); // rounded up to a power of two
+            ByteBuffer sqes = LinuxIoUring.map(ringFd, sqEntries * 64, LinuxIoUring.IORING_OFF_SQES);
+            assertThat(sqes.capacity()).isEqualTo(sqEntries * 64);
+            assertThat(LinuxIoUring.addressOf(sqes)).isNotZero();
+            LinuxIoUring.unmap(sqes);
+
+            // nothing queued, nothing to wait for
+            assertThat(LinuxIoUring.enter(ringFd, 0, 0, 0)).isZero();
+        } finally {
+            LinuxIoUring.closeRing(ringFd);
+        }
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void failToSetupRingWithoutEntries() {
+        assumeTrue(LinuxIoUring.isAvailable(), LinuxIoUring::describe);
+
+        ByteBuffer params = ByteBuffer.allocateDirect(LinuxIoUring.PARAMS_SIZE);
+        assertThrows(IOException.class, () -> LinuxIoUring.setup(0, params));
+    }
+}
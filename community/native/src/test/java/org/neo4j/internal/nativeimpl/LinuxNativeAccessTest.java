@@ -28,8 +28,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.neo4j.internal.nativeimpl.LinuxErrorTranslator.EPERM;
 import static org.neo4j.internal.nativeimpl.NativeAccess.ERROR;
 
+import com.sun.jna.Native;
 import java.io.FileDescriptor;
 import java.io.IOException;
 import java.nio.channels.Channel;
@@ -64,6 +66,31 @@ class LinuxNativeAccessTest {
             assertTrue(nativeAccess.isAvailable());
         }
 
+        @Test
+        void numaTopologyOnLinux() {
+            int nodes = nativeAccess.getNumaNodeCount();
+            assertThat(nodes).isPositive();
+            assertThat(nativeAccess.getCurrentNumaNode()).isBetween(0, nodes - 1);
+        }
+
+        @Test
+        void bindMemoryToNumaNodeOnLinux() {
+            assertEquals(ERROR, nativeAccess.tryBindMemoryToNumaNode(0, 4096, 0).getErrorCode());
+            assertEquals(
+                    ERROR, nativeAccess.tryBindMemoryToNumaNode(4096, 4096, -1).getErrorCode());
+
+            long regionSize = 1 << 16; // A multiple of any operating system page size.
+            long memory = Native.malloc(regionSize * 2);
+            try {
+                long region = (memory + regionSize - 1) & -regionSize;
+                NativeCallResult result = nativeAccess.tryBindMemoryToNumaNode(region, regionSize, 0);
+                // Containers commonly deny changing memory policies, which is not an error on our side.
+                assertFalse(result.isError() && result.getErrorCode() != EPERM, result.toString());
+            } finally {
+                Native.free(memory);
+            }
+        }
+
         @Test
         void accessErrorMessageOnError() throws IOException, IllegalAccessException, ClassNotFoundException {
             Path file = tempFile.resolve("file");
@@ -162,6 +189,22 @@ class LinuxNativeAccessTest {
                 assertFalse(nativeAccess.tryEvictFromCache(descriptor).isError());
             }
         }
+
+        @Test
+        void skipCacheRegionOnLinux() throws IOException, IllegalAccessException, ClassNotFoundException {
+            assertEquals(ERROR, nativeAccess.tryEvictFromCache(0, 0, 4096).getErrorCode());
+            Path file = tempFile.resolve("file");
+            try (Channel channel = FileChannel.open(file, READ, WRITE, CREATE)) {
+                int descriptor = getDescriptor(channel);
+                assertEquals(
+                        ERROR,
+                        nativeAccess.tryEvictFromCache(descriptor, -1, 4096).getErrorCode());
+                assertEquals(
+                        ERROR, nativeAccess.tryEvictFromCache(descriptor, 0, 0).getErrorCode());
+                assertFalse(
+                        nativeAccess.tryEvictFromCache(descriptor, 4096, 8192).isError());
+            }
+        }
     }
 
     private void preallocate(Path file, long bytes) throws IOException, IllegalAccessException, ClassNotFoundException {
@@ -65,11 +65,13 @@ import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.kernel.api.exceptions.ProcedureException;
 import org.neo4j.internal.kernel.api.procs.ProcedureCallContext;
 import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.io.pagecache.monitoring.ResidentPageCounters;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.net.NetworkConnectionTracker;
 import org.neo4j.kernel.api.net.TrackedNetworkConnection;
 import org.neo4j.kernel.api.procedure.SystemProcedure;
 import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.query.QueryExecutionEngine;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
@@ -378,6 +380,38 @@ public class BuiltInDbmsProcedures {
                 .map(c -> new CapabilityResult(c, service.get(c.name())));
     }
 
+    @Admin
+    @Internal
+    @SystemProcedure
+    @Description("List how many pages of each database, and of each file with a page reservation, are in the page "
+            + "cache, next to their page reservations.")
+    @Procedure(name = "dbms.listPageCacheResidency", mode = DBMS)
+    public Stream<ResidentPagesResult> listPageCacheResidency() {
+        if (!resolver.containsDependency(ResidentPageCounters.class)) {
+            return Stream.empty();
+        }
+        var counters = resolver.resolveDependency(ResidentPageCounters.class);
+        return counters.residentPages().stream().map(ResidentPagesResult::new);
+    }
+
+    @Admin
+    @Internal
+    @SystemProcedure
+    @Description("List the most contended lock resources of each database, with estimates of how many times and for "
+            + "how long transactions waited for them, based on a sample of lock waits.")
+    @Procedure(name = "dbms.listLockContention", mode = DBMS)
+    public Stream<LockContentionResult> listLockContention() {
+        return getDatabaseManager().registeredDatabases().values().stream()
+                .filter(context -> context.database().isStarted())
+                .filter(context -> context.dependencies().containsDependency(LockManager.class))
+                .flatMap(context -> {
+                    var database = context.database().getNamedDatabaseId().name();
+                    var lockManager = context.dependencies().resolveDependency(LockManager.class);
+                    return lockManager.contendedResources().stream()
+                            .map(contention -> new LockContentionResult(database, contention));
+                });
+    }
+
     private NetworkConnectionTracker getConnectionTracker() {
         return resolver.resolveDependency(NetworkConnectionTracker.class);
     }
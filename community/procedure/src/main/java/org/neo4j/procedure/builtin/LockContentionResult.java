@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.neo4j.kernel.impl.locking.LockContention;
+
+public class LockContentionResult {
+    public final String database;
+    public final String resourceType;
+    public final long resourceId;
+    public final long waits;
+    public final long totalWaitTimeMillis;
+    public final long maxWaitTimeMillis;
+    public final long maxOwners;
+    public final long maxWaiters;
+
+    public LockContentionResult(String database, LockContention contention) {
+        this.database = database;
+        this.resourceType = contention.resourceType().name();
+        this.resourceId = contention.resourceId();
+        this.waits = contention.waits();
+        this.totalWaitTimeMillis = NANOSECONDS.toMillis(contention.totalWaitNanos());
+        this.maxWaitTimeMillis = NANOSECONDS.toMillis(contention.maxWaitNanos());
+        this.maxOwners = contention.maxOwners();
+        this.maxWaiters = contention.maxWaiters();
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.procedure.builtin;
+
+import org.neo4j.io.pagecache.monitoring.ResidentPageCounters.ResidentPages;
+
+public class ResidentPagesResult {
+    public final String database;
+    public final String file;
+    public final long residentPages;
+    public final long softReservedPages;
+    public final long hardReservedPages;
+    public final long protectedPages;
+
+    public ResidentPagesResult(ResidentPages residentPages) {
+        this.database = residentPages.databaseName();
+        this.file = residentPages.fileName();
+        this.residentPages = residentPages.residentPages();
+        this.softReservedPages = residentPages.softReservedPages();
+        this.hardReservedPages = residentPages.hardReservedPages();
+        this.protectedPages = residentPages.protectedPages();
+    }
+}
@@ -412,7 +412,7 @@ public class RecordNodeCursor extends NodeRecord implements StorageNodeCursor {
     private void selectScanCursor() {
         // For node scans we used a local cursor to skip the overhead of positioning it on every node
         if (scanCursor == null) {
-            scanCursor = read.openPageCursorForReading(0, cursorContext);
+            scanCursor = read.openPageCursorForReadingWithPrefetching(0, cursorContext);
         }
         currentCursor = scanCursor;
     }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.id;
+
+import static org.neo4j.kernel.impl.store.StoreType.STORE_TYPES;
+
+import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.internal.id.IdSequence;
+import org.neo4j.internal.id.range.ConsecutiveIdRange;
+import org.neo4j.io.pagecache.context.CursorContext;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.StoreType;
+
+/**
+ * Id sequence provider that hands transactions creating many nodes or relationships ranges of consecutive ids, rather
+ * than allocating their ids one by one. The first id of a transaction is allocated on its own, after which each range
+ * is as large as the number of ids the transaction has allocated so far, up to a maximum, so that small transactions
+ * are not handed more ids than they need. Ranges reuse runs of consecutive free ids where possible, see
+ * {@link IdGenerator#nextIdRange(int, CursorContext)}. On release any ids left in the ranges are released back to
+ * the id generators.
+ */
+public class RangedTransactionIdSequenceProvider implements IdSequenceProvider {
+    private final NeoStores neoStores;
+    private final int maxRangeSize;
+    private final RangedIdSequence[] transactionSequences = new RangedIdSequence[STORE_TYPES.length];
+
+    public RangedTransactionIdSequenceProvider(NeoStores neoStores, int maxRangeSize) {
+        this.neoStores = neoStores;
+        this.maxRangeSize = maxRangeSize;
+    }
+
+    @Override
+    public IdSequence getIdSequence(StoreType storeType) {
+        if (storeType != StoreType.NODE && storeType != StoreType.RELATIONSHIP) {
+            return neoStores.getRecordStore(storeType).getIdGenerator();
+        }
+        int typeIndex = storeType.ordinal();
+        var sequence = transactionSequences[typeIndex];
+        if (sequence == null) {
+            sequence = new RangedIdSequence(neoStores.getRecordStore(storeType).getIdGenerator());
+            transactionSequences[typeIndex] = sequence;
+        }
+        return sequence;
+    }
+
+    @Override
+    public void release(CursorContext cursorContext) {
+        for (RangedIdSequence sequence : transactionSequences) {
+            if (sequence != null) {
+                sequence.close(cursorContext);
+            }
+        }
+    }
+
+    @Override
+    public boolean reset() {
+        return false;
+    }
+
+    private class RangedIdSequence implements IdSequence {
+        private final IdGenerator idGenerator;
+        private ConsecutiveIdRange range;
+        private long allocatedIds;
+
+        RangedIdSequence(IdGenerator idGenerator) {
+            this.idGenerator = idGenerator;
+        }
+
+        @Override
+        public long nextId(CursorContext cursorContext) {
+            long id;
+            if (range != null && range.hasNext()) {
+                id = range.nextId();
+            } else if (allocatedIds == 0) {
+                id = idGenerator.nextId(cursorContext);
+            } else {
+                range = idGenerator.nextIdRange((int) Math.min(allocatedIds, maxRangeSize), cursorContext);
+                id = range.nextId();
+            }
+            allocatedIds++;
+            return id;
+        }
+
+        void close(CursorContext cursorContext) {
+            if (range != null && range.hasNext()) {
+                try (var marker = idGenerator.transactionalMarker(cursorContext)) {
+                    range.unallocate(marker);
+                }
+            }
+            range = null;
+            allocatedIds = 0;
+        }
+
+        @Override
+        public String toString() {
+            return "RangedIdSequence{maxRangeSize=" + maxRangeSize + ", range=" + range + ", allocatedIds="
+                    + allocatedIds + '}';
+        }
+    }
+}
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.store;
 import static org.apache.commons.lang3.ArrayUtils.contains;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.util.function.Consumer;
@@ -40,8 +41,10 @@ import org.neo4j.internal.recordstorage.RecordStorageEngineFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCacheOpenOptions;
 import org.neo4j.io.pagecache.context.CursorContext;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
+import org.neo4j.io.pagecache.impl.CompressedPageSwapper;
 import org.neo4j.io.pagecache.tracing.DatabaseFlushEvent;
 import org.neo4j.io.pagecache.tracing.PageCacheTracer;
 import org.neo4j.kernel.impl.store.format.RecordFormats;
@@ -573,7 +576,7 @@ public class NeoStores implements AutoCloseable {
                         recordFormats.dynamic(),
                         readOnly,
                         layout.getDatabaseName(),
-                        openOptions),
+                        dynamicStoreOpenOptions(storeFile)),
                 contextFactory);
     }
 
@@ -601,10 +604,32 @@ public class NeoStores implements AutoCloseable {
                         recordFormats,
                         readOnly,
                         layout.getDatabaseName(),
-                        openOptions),
+                        dynamicStoreOpenOptions(storeFile)),
                 contextFactory);
     }
 
+    /**
+     * Dynamic stores hold the bulk of the string and array data, which is often cold and compresses well. The ones
+     * listed in {@link GraphDatabaseInternalSettings#compressed_store_files} are kept compressed by the page cache.
+     * Files that were created compressed stay compressed, also after they are no longer listed.
+     */
+    private ImmutableSet<OpenOption> dynamicStoreOpenOptions(Path storeFile) {
+        if (config.get(GraphDatabaseInternalSettings.compressed_store_files)
+                        .contains(storeFile.getFileName().toString())
+                || isCompressedFile(storeFile)) {
+            return openOptions.newWith(PageCacheOpenOptions.COMPRESSED);
+        }
+        return openOptions;
+    }
+
+    private boolean isCompressedFile(Path storeFile) {
+        try {
+            return fileSystem.fileExists(storeFile) && CompressedPageSwapper.isCompressedFile(fileSystem, storeFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public <RECORD extends AbstractBaseRecord> RecordStore<RECORD> getRecordStore(StoreType type) {
         return getStore(type);
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [https://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package org.neo4j.internal.recordstorage.id;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.neo4j.io.pagecache.context.CursorContext.NULL_CONTEXT;
+import static org.neo4j.kernel.impl.store.StoreType.NODE;
+import static org.neo4j.kernel.impl.store.StoreType.PROPERTY;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.internal.id.IdGenerator;
+import org.neo4j.internal.id.range.ConsecutiveIdRange;
+import org.neo4j.kernel.impl.store.NeoStores;
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.AbstractBaseRecord;
+
+class RangedTransactionIdSequenceProviderTest {
+    private NeoStores neoStores;
+    private IdGenerator nodeIdGenerator;
+    private IdGenerator propertyIdGenerator;
+    private IdGenerator.TransactionalMarker marker;
+
+    @BeforeEach
+    void setUp() {
+        neoStores = mock(NeoStores.class);
+        RecordStore<AbstractBaseRecord> nodeStore = mock(RecordStore.class);
+        RecordStore<AbstractBaseRecord> propertyStore = mock(RecordStore.class);
+        nodeIdGenerator = mock(IdGenerator.class);
+        propertyIdGenerator = mock(IdGenerator.class);
+        marker = mock(IdGenerator.TransactionalMarker.class);
+
+        when(neoStores.getRecordStore(NODE)).thenReturn(nodeStore);
+        when(neoStores.getRecordStore(PROPERTY)).thenReturn(propertyStore);
+        when(nodeStore.getIdGenerator()).thenReturn(nodeIdGenerator);
+        when(propertyStore.getIdGenerator()).thenReturn(propertyIdGenerator);
+        when(nodeIdGenerator.transactionalMarker(any())).thenReturn(marker);
+        when(nodeIdGenerator.nextId(any())).thenReturn(10L);
+        when(nodeIdGenerator.nextIdRange(anyInt(), any()))
+                .thenAnswer(invocation -> new ConsecutiveIdRange(
+                        100L * invocation.getArgument(0, Integer.class), invocation.getArgument(0)));
+    }
+
+    @Test
+    void shouldUseIdGeneratorDirectlyForOtherStores() {
+        var sequenceProvider = new RangedTransactionIdSequenceProvider(neoStores, 8);
+
+        assertThat(sequenceProvider.getIdSequence(PROPERTY)).isSameAs(propertyIdGenerator);
+    }
+
+    @Test
+    void shouldGrowRangesWithAllocatedIds() {
+        var sequenceProvider = new RangedTransactionIdSequenceProvider(neoStores, 4);
+        var sequence = sequenceProvider.getIdSequence(NODE);
+
+        long[] ids = new long[12];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sequence.nextId(NULL_CONTEXT);
+        }
+
+        // A first single id, then ranges of 1, 2, 4 and 4 ids
+        assertThat(ids).containsExactly(10, 100, 200, 201, 400, 401, 402, 403, 400, 401, 402, 403);
+    }
+
+    @Test
+    void shouldReleaseUnusedIdsOnRelease() {
+        var sequenceProvider = new RangedTransactionIdSequenceProvider(neoStores, 4);
+        var sequence = sequenceProvider.getIdSequence(NODE);
+        for (int i = 0; i < 5; i++) {
+            sequence.nextId(NULL_CONTEXT);
+        }
+
+        sequenceProvider.release(NULL_CONTEXT);
+
+        verify(marker).markUnallocated(401, 3);
+        assertThat(sequenceProvider.getIdSequence(NODE).nextId(NULL_CONTEXT)).isEqualTo(10);
+    }
+
+    @Test
+    void shouldNotTouchIdGeneratorOnReleaseWhenNoIdsAreLeft() {
+        var sequenceProvider = new RangedTransactionIdSequenceProvider(neoStores, 4);
+        var sequence = sequenceProvider.getIdSequence(NODE);
+        sequence.nextId(NULL_CONTEXT);
+        sequence.nextId(NULL_CONTEXT);
+
+        sequenceProvider.release(NULL_CONTEXT);
+
+        verify(nodeIdGenerator, never()).transactionalMarker(any());
+    }
+}
@@ -32,16 +32,21 @@ import static org.neo4j.io.pagecache.context.FixedVersionContextSupplier.EMPTY_C
 import static org.neo4j.kernel.impl.store.format.RecordFormatSelector.selectForStoreOrConfigForNewDbs;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.util.List;
 import org.eclipse.collections.api.set.ImmutableSet;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
 import org.neo4j.internal.id.DefaultIdGeneratorFactory;
 import org.neo4j.internal.id.IdGeneratorFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.io.layout.recordstorage.RecordDatabaseLayout;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.context.CursorContextFactory;
@@ -152,6 +157,45 @@ class StoreFactoryTest {
         assertEquals(0, fileSystem.listFiles(databaseLayout.databaseDirectory()).length);
     }
 
+    @Test
+    void shouldKeepConfiguredDynamicStoresCompressed() throws IOException {
+        Path stringStore = databaseLayout.propertyStringStore();
+        Config config = Config.defaults(
+                GraphDatabaseInternalSettings.compressed_store_files,
+                List.of(stringStore.getFileName().toString()));
+        storeFactory(config).openAllNeoStores().close();
+        neoStores = storeFactory(config).openAllNeoStores();
+
+        assertThat(fileHeader(stringStore)).isEqualTo("NCPAGEZ");
+        assertThat(fileHeader(databaseLayout.propertyArrayStore())).isNotEqualTo("NCPAGEZ");
+    }
+
+    @Test
+    void shouldOpenCompressedDynamicStoresWhenNoLongerConfigured() throws IOException {
+        Path stringStore = databaseLayout.propertyStringStore();
+        Config config = Config.defaults(
+                GraphDatabaseInternalSettings.compressed_store_files,
+                List.of(stringStore.getFileName().toString()));
+        int recordDataSize;
+        try (NeoStores stores = storeFactory(config).openAllNeoStores()) {
+            recordDataSize = stores.getPropertyStore().getStringStore().getRecordDataSize();
+        }
+        neoStores = storeFactory(defaults()).openAllNeoStores();
+
+        // The block size is read from the first record, which would be garbage if the file was read raw
+        assertThat(fileHeader(stringStore)).isEqualTo("NCPAGEZ");
+        assertThat(neoStores.getPropertyStore().getStringStore().getRecordDataSize())
+                .isEqualTo(recordDataSize);
+    }
+
+    private String fileHeader(Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(7);
+        try (StoreChannel channel = fileSystem.read(file)) {
+            channel.readAll(header);
+        }
+        return new String(header.array(), StandardCharsets.US_ASCII);
+    }
+
     @Test
     void shouldHandleStoreConsistingOfOneEmptyFile() throws Exception {
         StoreFactory storeFactory = storeFactory(defaults());
@@ -69,6 +69,12 @@ public class AdversarialPagedFile extends DelegatingPagedFile {
         delegate.flushAndForce(flushEvent);
     }
 
+    @Override
+    public long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) throws IOException {
+        adversary.injectFailure(NoSuchFileException.class, IOException.class, SecurityException.class);
+        return delegate.flushDirtyPages(maxPages, flushEvent);
+    }
+
     @Override
     public long getLastPageId() throws IOException {
         adversary.injectFailure(IllegalStateException.class);
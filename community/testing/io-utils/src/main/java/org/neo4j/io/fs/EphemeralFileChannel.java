@@ -172,7 +172,8 @@ class EphemeralFileChannel extends FileChannel implements EphemeralPositionable
     @Override
     public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
         checkIfClosedOrInterrupted();
-        throw new IOException("Not supported");
+        // In memory files can not be mapped, see StoreChannel.map
+        return null;
     }
 
     @Override
@@ -43,6 +43,16 @@ public class DelegatingPagedFile implements PagedFile {
         delegate.flushAndForce(flushEvent);
     }
 
+    @Override
+    public long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) throws IOException {
+        return delegate.flushDirtyPages(maxPages, flushEvent);
+    }
+
+    @Override
+    public long dirtyPages() {
+        return delegate.dirtyPages();
+    }
+
     @Override
     public long getLastPageId() throws IOException {
         return delegate.getLastPageId();
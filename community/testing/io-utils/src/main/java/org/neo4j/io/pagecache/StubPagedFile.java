@@ -84,6 +84,16 @@ public class StubPagedFile implements PagedFile {
     @Override
     public void flushAndForce(FileFlushEvent flushEvent) {}
 
+    @Override
+    public long flushDirtyPages(long maxPages, FileFlushEvent flushEvent) {
+        return 0;
+    }
+
+    @Override
+    public long dirtyPages() {
+        return 0;
+    }
+
     @Override
     public long getLastPageId() {
         return lastPageId;
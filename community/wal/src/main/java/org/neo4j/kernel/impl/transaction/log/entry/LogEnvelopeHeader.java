@@ -65,6 +65,13 @@ public record LogEnvelopeHeader(
 
     public static final byte IGNORE_KERNEL_VERSION = -1;
 
+    /**
+     * Size of the header in front of the compressed data in the payload of a {@link EnvelopeType#FULL_COMPRESSED}
+     * envelope.
+     */
+    public static final int COMPRESSED_PAYLOAD_HEADER_SIZE = Byte.BYTES // codec
+            + Integer.BYTES; // uncompressed payload length
+
     /**
      * Describes the type of envelope data written within the log file
      */
@@ -105,7 +112,22 @@ public record LogEnvelopeHeader(
          * <strong>PLEASE NOTE</strong> envelopes of this type MUST only ever appear as the first envelope of
          * the first segment in a log file. Anywhere else this appears must be considered a malformed log file.
          */
-        START_OFFSET((byte) 5);
+        START_OFFSET((byte) 5),
+        /**
+         * An envelope of this type describes a transaction that fully fits within a segment block of a log file, just
+         * like {@link #FULL}, but with a compressed payload. The payload is made up of:
+         * <pre>
+         * compressed_payload {
+         *     byte codec;
+         *     int uncompressedLength;
+         *     byte data[payloadLength - COMPRESSED_PAYLOAD_HEADER_SIZE];
+         * }
+         * </pre>
+         * The envelope checksum covers the compressed payload, as it is stored.
+         *
+         * @see EnvelopeCodec
+         */
+        FULL_COMPRESSED((byte) 6);
 
         private static final EnvelopeType[] VALUES = EnvelopeType.values();
         public final byte typeValue;
@@ -115,15 +137,37 @@ public record LogEnvelopeHeader(
         }
 
         public boolean isStarting() {
-            return this == FULL || this == BEGIN;
+            return this == FULL || this == FULL_COMPRESSED || this == BEGIN;
         }
 
         public boolean isTerminating() {
-            return this == FULL || this == END;
+            return this == FULL || this == FULL_COMPRESSED || this == END;
         }
 
         public static EnvelopeType of(byte type) {
             return VALUES[type];
         }
     }
+
+    /**
+     * Describes how the payload of a {@link EnvelopeType#FULL_COMPRESSED} envelope was compressed.
+     */
+    public enum EnvelopeCodec {
+        ZSTD((byte) 1);
+
+        public final byte codecValue;
+
+        EnvelopeCodec(byte codecValue) {
+            this.codecValue = codecValue;
+        }
+
+        public static EnvelopeCodec of(byte codec) throws InvalidLogEnvelopeReadException {
+            for (EnvelopeCodec value : values()) {
+                if (value.codecValue == codec) {
+                    return value;
+                }
+            }
+            throw new InvalidLogEnvelopeReadException("unknown envelope codec " + codec);
+        }
+    }
 }